@@ -0,0 +1,18 @@
+package com.mowitnow.job;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Supplier of the virtual thread factory, only built by the Java 21 profile. It is loaded by
+ * name from {@link JobThreads}, so the default build does not depend on Java 21 APIs.
+ *
+ * @author Mazlum TOSUN
+ */
+public class VirtualJobThreads implements Supplier<ThreadFactory> {
+
+    @Override
+    public ThreadFactory get() {
+        return Thread.ofVirtual().name("mower-job-", 0).factory();
+    }
+}
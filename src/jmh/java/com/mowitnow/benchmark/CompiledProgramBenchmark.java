@@ -0,0 +1,80 @@
+package com.mowitnow.benchmark;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.domain.type.Orientation;
+import com.mowitnow.engine.CompiledProgram;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.engine.FleetBuilder;
+import com.mowitnow.engine.FleetEngine;
+import com.mowitnow.engine.MowerState;
+import com.mowitnow.engine.ProgramCompiler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of one long program run through its {@link CompiledProgram}, compared to directions
+ * run one by one by {@link FleetEngine}, from the center of a square garden.
+ *
+ * @author Mazlum TOSUN
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CompiledProgramBenchmark {
+
+    @Param({"10000", "10000000"})
+    private int commandNumber;
+
+    @Param({"10", "100000"})
+    private int gardenLimit;
+
+    private Garden garden;
+    private Fleet fleet;
+    private CompiledProgram program;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42L);
+        final byte[] directions = new byte[commandNumber];
+        final FleetBuilder builder = FleetBuilder.builder(1, commandNumber).mower(gardenLimit / 2, gardenLimit / 2, Orientation.N);
+        for (int i = 0; i < commandNumber; i++) {
+            directions[i] = (byte) random.nextInt(3);
+            builder.direction(directions[i]);
+        }
+
+        this.garden = new Garden(0, gardenLimit, 0, gardenLimit);
+        this.fleet = builder.build();
+        this.program = ProgramCompiler.compile(directions, 0, commandNumber);
+    }
+
+    @Benchmark
+    public MowerState runCompiled() {
+        final MowerState state = new MowerState(gardenLimit / 2, gardenLimit / 2, Orientation.N.ordinal());
+        program.run(garden, state);
+        return state;
+    }
+
+    @Benchmark
+    public Fleet runOneByOne() {
+        final Fleet simulatedFleet = fleet.copy();
+        new FleetEngine(garden).simulate(simulatedFleet);
+        return simulatedFleet;
+    }
+}
@@ -0,0 +1,79 @@
+package com.mowitnow.benchmark;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.engine.FleetEngine;
+import com.mowitnow.mapper.FleetMapper;
+import com.mowitnow.mapper.MowerMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the struct of arrays simulation, {@link FleetEngine#simulate(Fleet)}, on synthetic
+ * fleets, sequentially or on a fork/join pool. Each invocation simulates a fresh copy of the fleet
+ * positions.
+ *
+ * @author Mazlum TOSUN
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FleetEngineBenchmark {
+
+    @Param({"1x10", "1x10000", "1x10000000", "1000x10", "1000x10000", "1000000x10"})
+    private String fleet;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private Fleet initialFleet;
+    private Fleet simulatedFleet;
+    private FleetEngine fleetEngine;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final FleetShape shape = FleetShape.of(fleet);
+        this.initialFleet = FleetMapper.mowersToFleet(MowerMapper.paramsToMowers(shape.directions(), shape.positions()));
+        this.fleetEngine = new FleetEngine(new Garden(0, FleetGenerator.GARDEN_LIMIT, 0, FleetGenerator.GARDEN_LIMIT));
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetPositions() {
+        this.simulatedFleet = initialFleet.copy();
+    }
+
+    @Benchmark
+    public Fleet simulate() {
+        if (parallelism == 1) {
+            fleetEngine.simulate(simulatedFleet);
+        } else {
+            fleetEngine.simulate(simulatedFleet, pool);
+        }
+        return simulatedFleet;
+    }
+}
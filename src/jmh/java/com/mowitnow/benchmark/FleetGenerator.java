@@ -0,0 +1,101 @@
+package com.mowitnow.benchmark;
+
+import com.mowitnow.constant.MowitnowConstant;
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+
+import java.util.Random;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Generates synthetic fleets in the application parameters format, in order to run benchmarks
+ * without external data.<br>
+ * Generation is seeded, so a given fleet shape always produces the same fleet.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class FleetGenerator {
+
+    /**
+     * Garden limit used by generated fleets (positions parameters only allow one digit per
+     * coordinate).
+     */
+    public static final int GARDEN_LIMIT = 9;
+
+    private static final long SEED = 42L;
+
+    /**
+     * Generates positions parameters for the given mower number, like "12N,33E".
+     *
+     * @param mowerNumber mower number
+     * @return positions parameters
+     */
+    public static String positions(final int mowerNumber) {
+        final Random random = new Random(SEED);
+        final Orientation[] orientations = Orientation.values();
+        final StringBuilder positions = new StringBuilder(mowerNumber * 4);
+
+        for (int i = 0; i < mowerNumber; i++) {
+            if (i > 0) {
+                positions.append(MowitnowConstant.MOWERS_SEPARATOR);
+            }
+            positions.append(random.nextInt(GARDEN_LIMIT + 1))
+                    .append(random.nextInt(GARDEN_LIMIT + 1))
+                    .append(orientations[random.nextInt(orientations.length)].name());
+        }
+
+        return positions.toString();
+    }
+
+    /**
+     * Generates directions parameters for the given mower number, each mower having the given
+     * command number, like "GAGAGAGAA,AADAADADDA".
+     *
+     * @param mowerNumber   mower number
+     * @param commandNumber command number per mower
+     * @return directions parameters
+     */
+    public static String directions(final int mowerNumber, final int commandNumber) {
+        final Random random = new Random(SEED);
+        final Direction[] directions = Direction.values();
+        final StringBuilder result = new StringBuilder(mowerNumber * (commandNumber + 1));
+
+        for (int i = 0; i < mowerNumber; i++) {
+            if (i > 0) {
+                result.append(MowitnowConstant.MOWERS_SEPARATOR);
+            }
+            for (int c = 0; c < commandNumber; c++) {
+                result.append(directions[random.nextInt(directions.length)].name());
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Generates the content of an input file for the given mower number, each mower having the
+     * given command number, with the same mowers as {@link #positions(int)} and {@link
+     * #directions(int, int)}.
+     *
+     * @param mowerNumber   mower number
+     * @param commandNumber command number per mower
+     * @return input file content
+     */
+    public static String inputFile(final int mowerNumber, final int commandNumber) {
+        final String[] positions = positions(mowerNumber).split(MowitnowConstant.MOWERS_SEPARATOR);
+        final String[] directions = directions(mowerNumber, commandNumber).split(MowitnowConstant.MOWERS_SEPARATOR);
+        final StringBuilder result = new StringBuilder(mowerNumber * (commandNumber + 8) + 4);
+
+        result.append(GARDEN_LIMIT).append(' ').append(GARDEN_LIMIT).append('\n');
+        for (int i = 0; i < mowerNumber; i++) {
+            result.append(positions[i].charAt(0)).append(' ')
+                    .append(positions[i].charAt(1)).append(' ')
+                    .append(positions[i].charAt(2)).append('\n')
+                    .append(directions[i]).append('\n');
+        }
+
+        return result.toString();
+    }
+}
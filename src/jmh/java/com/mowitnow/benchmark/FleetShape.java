@@ -0,0 +1,41 @@
+package com.mowitnow.benchmark;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Fleet shape used as benchmark parameter, in the form "mowerNumber x commandNumber" (for
+ * example "1000x10").<br>
+ * Shapes are listed explicitly rather than crossed, because big fleets with big programs
+ * (1 000 000 mowers of 10 000 000 commands) do not fit in memory.
+ *
+ * @author Mazlum TOSUN
+ */
+@Getter
+@RequiredArgsConstructor
+public final class FleetShape {
+
+    private static final String SEPARATOR = "x";
+
+    private final int mowerNumber;
+    private final int commandNumber;
+
+    /**
+     * Static factory method that allows to parse the given shape parameter.
+     *
+     * @param shape shape parameter, like "1000x10"
+     * @return {@link FleetShape} parsed shape
+     */
+    public static FleetShape of(final String shape) {
+        final String[] values = shape.split(SEPARATOR);
+        return new FleetShape(Integer.parseInt(values[0]), Integer.parseInt(values[1]));
+    }
+
+    public String positions() {
+        return FleetGenerator.positions(mowerNumber);
+    }
+
+    public String directions() {
+        return FleetGenerator.directions(mowerNumber, commandNumber);
+    }
+}
@@ -0,0 +1,104 @@
+package com.mowitnow.benchmark;
+
+import com.mowitnow.Application;
+import com.mowitnow.BatchLauncher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a one-shot batch run, from the JVM start to its exit, with the Spring
+ * {@link Application} and with the lightweight {@link BatchLauncher}. Each invocation starts a new
+ * JVM on the benchmark classpath, with the same command line for both launchers : the Spring
+ * launcher requires mowers and garden parameters, that are ignored when an input file is given.
+ *
+ * @author Mazlum TOSUN
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LauncherBenchmark {
+
+    @Param({"spring", "batch"})
+    private String launcher;
+
+    @Param({"1000x10"})
+    private String fleet;
+
+    private Path inputFile;
+    private Path outputFile;
+    private List<String> command;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final FleetShape shape = FleetShape.of(fleet);
+        this.inputFile = Files.createTempFile("mowers", ".txt");
+        this.outputFile = Files.createTempFile("positions", ".txt");
+        Files.write(inputFile, FleetGenerator.inputFile(shape.getMowerNumber(), shape.getCommandNumber()).getBytes(StandardCharsets.US_ASCII));
+
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        final String mainClass = "spring".equals(launcher) ? Application.class.getName() : BatchLauncher.class.getName();
+        final String gardenLimit = String.valueOf(FleetGenerator.GARDEN_LIMIT);
+
+        this.command = new ArrayList<>();
+        command.add(java);
+        if (!System.getProperty("java.specification.version").startsWith("1.")) {
+            // Spring 4 proxies need reflective access to the JDK since Java 9.
+            command.add("--add-opens=java.base/java.lang=ALL-UNNAMED");
+        }
+        command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), mainClass,
+                "--mower.file=" + inputFile,
+                "--mower.positions=00N",
+                "--mower.directions=A",
+                "--mower.expectedPositions=N01",
+                "--garden.limit.horizontal.min=0",
+                "--garden.limit.horizontal.max=" + gardenLimit,
+                "--garden.limit.vertical.min=0",
+                "--garden.limit.vertical.max=" + gardenLimit));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(inputFile);
+        Files.delete(outputFile);
+    }
+
+    @Benchmark
+    public int launch() throws IOException, InterruptedException {
+        final Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(outputFile.toFile())
+                .start();
+
+        final int status = process.waitFor();
+        if (status != 0) {
+            throw new IllegalStateException(launcher + " launcher exited with status " + status + " : "
+                    + new String(Files.readAllBytes(outputFile), StandardCharsets.UTF_8));
+        }
+        return status;
+    }
+}
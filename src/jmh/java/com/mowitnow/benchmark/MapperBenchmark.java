@@ -0,0 +1,60 @@
+package com.mowitnow.benchmark;
+
+import com.mowitnow.domain.Position;
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.mapper.DirectionMapper;
+import com.mowitnow.mapper.PositionMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the parameters parsing, {@link DirectionMapper#paramsToDirection(String)} and
+ * {@link PositionMapper#paramsToPositions(String)}, on synthetic fleets.
+ *
+ * @author Mazlum TOSUN
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MapperBenchmark {
+
+    @Param({"1x10", "1x10000", "1x10000000", "1000x10", "1000x10000", "1000000x10"})
+    private String fleet;
+
+    private String positions;
+    private String directions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final FleetShape shape = FleetShape.of(fleet);
+        this.positions = shape.positions();
+        this.directions = shape.directions();
+    }
+
+    @Benchmark
+    public List<List<Direction>> paramsToDirection() {
+        return DirectionMapper.paramsToDirection(directions);
+    }
+
+    @Benchmark
+    public List<Position> paramsToPositions() {
+        return PositionMapper.paramsToPositions(positions);
+    }
+}
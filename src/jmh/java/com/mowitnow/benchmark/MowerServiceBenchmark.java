@@ -0,0 +1,103 @@
+package com.mowitnow.benchmark;
+
+import com.mowitnow.dto.PositionFinalDto;
+import com.mowitnow.service.impl.ApplicationParamServiceImpl;
+import com.mowitnow.service.impl.MowerServiceImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the whole simulation, {@link MowerServiceImpl#getFinalPositions()} and its
+ * streaming variant {@link MowerServiceImpl#forEachFinalPosition}, on synthetic fleets.
+ *
+ * @author Mazlum TOSUN
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MowerServiceBenchmark {
+
+    @Param({"1x10", "1x10000", "1x10000000", "1000x10", "1000x10000", "1000000x10"})
+    private String fleet;
+
+    @Param({"1"})
+    private String parallelism;
+
+    @Param({"false", "true"})
+    private String collision;
+
+    @Param({"false"})
+    private boolean trajectory;
+
+    private Path trajectoryFile;
+
+    private MowerServiceImpl mowerService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final FleetShape shape = FleetShape.of(fleet);
+        final String gardenLimit = String.valueOf(FleetGenerator.GARDEN_LIMIT);
+
+        final ApplicationParamServiceImpl applicationParamService = new ApplicationParamServiceImpl();
+        applicationParamService.setPosition(shape.positions());
+        applicationParamService.setDirections(shape.directions());
+        applicationParamService.setExpectedPositions(applicationParamService.getPosition());
+        applicationParamService.setGardenHorizontalLimitMin("0");
+        applicationParamService.setGardenHorizontalLimitMax(gardenLimit);
+        applicationParamService.setGardenVerticalLimitMin("0");
+        applicationParamService.setGardenVerticalLimitMax(gardenLimit);
+        applicationParamService.setParallelism(parallelism);
+        applicationParamService.setCollision(collision);
+        if (trajectory) {
+            this.trajectoryFile = Files.createTempFile("trajectory", ".bin");
+            applicationParamService.setTrajectoryFile(trajectoryFile.toString());
+        }
+        applicationParamService.init();
+
+        this.mowerService = new MowerServiceImpl(applicationParamService);
+        this.mowerService.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.mowerService.destroy();
+        if (trajectoryFile != null) {
+            Files.delete(trajectoryFile);
+        }
+    }
+
+    @Benchmark
+    public List<PositionFinalDto> getFinalPositions() {
+        return mowerService.getFinalPositions();
+    }
+
+    @Benchmark
+    public void forEachFinalPosition(final Blackhole blackhole) {
+        mowerService.forEachFinalPosition(result -> {
+            blackhole.consume(result);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.mowitnow.benchmark;
+
+import com.mowitnow.domain.Position;
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of one mower step, {@link Orientation#moveMower(Direction, int, int)}, for each
+ * orientation and direction.
+ *
+ * @author Mazlum TOSUN
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrientationBenchmark {
+
+    @Param({"N", "E", "W", "S"})
+    private Orientation orientation;
+
+    @Param({"G", "D", "A"})
+    private Direction direction;
+
+    private int coordinateX = 2;
+    private int coordinateY = 3;
+
+    @Benchmark
+    public Position moveMower() {
+        return orientation.moveMower(direction, coordinateX, coordinateY);
+    }
+}
@@ -0,0 +1,256 @@
+package com.mowitnow;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.dto.PipelineReportDto;
+import com.mowitnow.dto.StageReportDto;
+import com.mowitnow.dto.VerificationReportDto;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.engine.FleetEngine;
+import com.mowitnow.engine.OccupancyIndex;
+import com.mowitnow.exception.ApplicationParamException;
+import com.mowitnow.io.BinaryFleetWriter;
+import com.mowitnow.io.FinalPositionVerifier;
+import com.mowitnow.io.FinalPositionWriter;
+import com.mowitnow.io.FleetFile;
+import com.mowitnow.io.FleetFileReader;
+import com.mowitnow.io.ObstacleMapReader;
+import com.mowitnow.pipeline.FleetPipeline;
+
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Lightweight launcher for one-shot batch runs, that does not start the Spring context : the
+ * input file is read, simulated and final positions are printed, one line by mower in mowers
+ * order : {@code "x y orientation"}.<br>
+ * Arguments are given as for {@link Application}, so the same command line works with both
+ * launchers : {@code --mower.file} (required), {@code --mower.collision}, {@code
+ * --mower.parallelism}, {@code --mower.validation.maxErrors} and {@code --garden.obstacles}. Other
+ * arguments are ignored.<br>
+ * With {@code --mower.directory} instead of {@code --mower.file}, all files of the directory are
+ * simulated by a {@link FleetPipeline}, final positions are written to the {@code --mower.output}
+ * directory, and the pipeline report is printed. Thread numbers of stages and queue capacity are
+ * given by {@code --mower.pipeline.readers}, {@code parsers}, {@code simulators}, {@code writers}
+ * and {@code queueCapacity}.<br>
+ * With {@code --mower.convert}, the {@code --mower.file} input file is converted to a binary fleet
+ * file at the given path, and nothing is simulated. Binary fleet files are accepted wherever input
+ * files are, and are decoded without parsing.<br>
+ * With {@code --mower.expected}, final positions are not printed : they are verified against the
+ * given expected results file by a {@link FinalPositionVerifier}, and the report is printed, with
+ * at most {@code --mower.verification.maxMismatches} mismatches.<br>
+ * Exit status is 0 on success, 1 if arguments or files are not valid, 2 if a file can not be
+ * read, and 3 if final positions do not match the expected results.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class BatchLauncher {
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    private BatchLauncher() {
+    }
+
+    public static void main(final String[] args) {
+        final int status = run(args, new FileOutputStream(FileDescriptor.out), System.err);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Runs a batch with the given arguments.
+     *
+     * @param args   arguments, {@code --name=value}
+     * @param output output of final positions, flushed but not closed
+     * @param errors output of error messages
+     * @return exit status
+     */
+    static int run(final String[] args, final OutputStream output, final PrintStream errors) {
+        try {
+            final Map<String, String> params = parse(args);
+            final Boolean collision = BooleanUtils.toBooleanObject(params.getOrDefault("mower.collision", "false"));
+            if (collision == null) {
+                throw new ApplicationParamException("Collision should be a boolean");
+            }
+            if (params.containsKey("mower.directory")) {
+                return runPipeline(params, collision, output, errors);
+            }
+
+            final String inputFile = params.get("mower.file");
+            if (StringUtils.isEmpty(inputFile) || !Files.isReadable(Paths.get(inputFile))) {
+                throw new ApplicationParamException("Input file should be readable");
+            }
+            if (params.containsKey("mower.convert")) {
+                BinaryFleetWriter.convert(Paths.get(inputFile), Paths.get(params.get("mower.convert")));
+                return 0;
+            }
+            final int parallelism = positiveNumber(params, "mower.parallelism", 1, "Parallelism should be a positive number");
+            final int maxErrors = positiveNumber(params, "mower.validation.maxErrors", FleetFileReader.DEFAULT_MAX_ERRORS,
+                    "Validation max errors should be a positive number");
+
+            final String expectedFile = params.get("mower.expected");
+            if (expectedFile != null && (expectedFile.isEmpty() || !Files.isReadable(Paths.get(expectedFile)))) {
+                throw new ApplicationParamException("Expected results file should be readable");
+            }
+            final int maxMismatches = positiveNumber(params, "mower.verification.maxMismatches", FinalPositionVerifier.DEFAULT_MAX_MISMATCHES,
+                    "Verification max mismatches should be a positive number");
+
+            final FleetFile fleetFile = FleetFileReader.read(Paths.get(inputFile), maxErrors);
+            final Garden garden = withObstacles(fleetFile.getGarden(), params.get("garden.obstacles"));
+            final Fleet fleet = fleetFile.getFleet();
+            final ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+            try {
+                simulate(garden, fleet, collision, pool);
+
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.US_ASCII), OUTPUT_BUFFER_SIZE);
+                if (expectedFile != null) {
+                    final VerificationReportDto report = FinalPositionVerifier.verify(fleet, Paths.get(expectedFile), pool, maxMismatches);
+                    FinalPositionVerifier.writeReport(report, writer);
+                    writer.flush();
+                    return report.getMismatchNumber() > 0 ? 3 : 0;
+                }
+                FinalPositionWriter.write(fleet, writer);
+                writer.flush();
+                return 0;
+            } finally {
+                if (pool != null) {
+                    pool.shutdown();
+                }
+            }
+        } catch (ApplicationParamException e) {
+            errors.println(e.getMessage());
+            return 1;
+        } catch (IOException | UncheckedIOException e) {
+            errors.println(e.getMessage());
+            return 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.println("Interrupted");
+            return 2;
+        }
+    }
+
+    /**
+     * Runs the pipeline over the input directory, and prints its report : the number of files,
+     * then the time spent by each stage.
+     */
+    private static int runPipeline(final Map<String, String> params,
+                                   final boolean collision,
+                                   final OutputStream output,
+                                   final PrintStream errors) throws IOException, InterruptedException {
+        final String inputDirectory = params.get("mower.directory");
+        if (StringUtils.isEmpty(inputDirectory) || !Files.isDirectory(Paths.get(inputDirectory))) {
+            throw new ApplicationParamException("Input directory should be readable");
+        }
+        final String outputDirectory = params.get("mower.output");
+        if (StringUtils.isEmpty(outputDirectory)) {
+            throw new ApplicationParamException("Output directory should not be empty");
+        }
+        final FleetPipeline pipeline = FleetPipeline.builder()
+                .readers(positiveNumber(params, "mower.pipeline.readers", 2, "Pipeline readers should be a positive number"))
+                .parsers(positiveNumber(params, "mower.pipeline.parsers", PROCESSORS, "Pipeline parsers should be a positive number"))
+                .simulators(positiveNumber(params, "mower.pipeline.simulators", PROCESSORS, "Pipeline simulators should be a positive number"))
+                .writers(positiveNumber(params, "mower.pipeline.writers", 2, "Pipeline writers should be a positive number"))
+                .queueCapacity(positiveNumber(params, "mower.pipeline.queueCapacity", 64, "Pipeline queue capacity should be a positive number"))
+                .collision(collision)
+                .build();
+
+        final PipelineReportDto report = pipeline.run(Paths.get(inputDirectory), Paths.get(outputDirectory));
+
+        final Writer writer = new OutputStreamWriter(output, StandardCharsets.US_ASCII);
+        writer.write(String.format("Files %d, failed %d, mowers %d, %d ms%n",
+                report.getFileNumber(), report.getFailedFileNumber(), report.getMowerNumber(), report.getElapsedMillis()));
+        writer.write(String.format("%-9s %7s %7s %9s %14s %15s%n", "stage", "threads", "files", "busy ms", "input wait ms", "output wait ms"));
+        for (final StageReportDto stage : report.getStages()) {
+            writer.write(String.format("%-9s %7d %7d %9d %14d %15d%n", stage.getName(), stage.getThreadNumber(), stage.getFileNumber(),
+                    stage.getBusyMillis(), stage.getInputWaitMillis(), stage.getOutputWaitMillis()));
+        }
+        writer.flush();
+
+        if (report.getFailedFileNumber() > 0) {
+            errors.println(report.getFailedFileNumber() + " files failed, see " + FleetPipeline.ERROR_EXTENSION + " files in " + outputDirectory);
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Parses the given arguments, {@code --name=value}, or {@code --name} for {@code true}.
+     */
+    private static Map<String, String> parse(final String[] args) {
+        final Map<String, String> params = new HashMap<>();
+        for (final String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new ApplicationParamException("Invalid argument '" + arg + "', expected --name=value");
+            }
+            final int separator = arg.indexOf('=');
+            if (separator < 0) {
+                params.put(arg.substring(2), "true");
+            } else {
+                params.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Gets the given parameter, that must be a number greater than 0 in the int range, or the given
+     * default value if it is not given.
+     */
+    private static int positiveNumber(final Map<String, String> params, final String name, final int defaultValue, final String message) {
+        final String param = params.get(name);
+        if (param == null) {
+            return defaultValue;
+        }
+        final int value = StringUtils.isNumeric(param) ? NumberUtils.toInt(param) : 0;
+        if (value <= 0) {
+            throw new ApplicationParamException(message);
+        }
+        return value;
+    }
+
+    private static Garden withObstacles(final Garden garden, final String obstacleFile) {
+        if (StringUtils.isEmpty(obstacleFile)) {
+            return garden;
+        }
+        if (!Files.isReadable(Paths.get(obstacleFile))) {
+            throw new ApplicationParamException("Garden obstacles file should be readable");
+        }
+        try {
+            return garden.withObstacles(ObstacleMapReader.read(Paths.get(obstacleFile)));
+        } catch (IllegalArgumentException e) {
+            throw new ApplicationParamException(e.getMessage());
+        }
+    }
+
+    private static void simulate(final Garden garden, final Fleet fleet, final boolean collision, final ForkJoinPool pool) {
+        final FleetEngine engine = new FleetEngine(garden);
+        if (pool != null && collision) {
+            engine.simulate(fleet, OccupancyIndex.of(garden, fleet.size()), pool);
+        } else if (pool != null) {
+            engine.simulate(fleet, pool);
+        } else if (collision) {
+            engine.simulate(fleet, OccupancyIndex.of(garden, fleet.size()));
+        } else {
+            engine.simulate(fleet);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.mowitnow.domain;
+
+import lombok.Value;
+
+/**
+ * Object that contains garden limits, and optionally an {@link ObstacleMap} of the cells where a
+ * mower can not go. Limits are parsed only once, so checking if a mower is in garden is done in
+ * constant time and without allocation.
+ *
+ * @author Mazlum TOSUN
+ */
+@Value
+public class Garden {
+
+    private final int horizontalLimitMin;
+    private final int horizontalLimitMax;
+    private final int verticalLimitMin;
+    private final int verticalLimitMax;
+    private final ObstacleMap obstacles;
+
+    /**
+     * Constructor of a rectangular garden without obstacles.
+     *
+     * @param horizontalLimitMin horizontal limit min
+     * @param horizontalLimitMax horizontal limit max
+     * @param verticalLimitMin   vertical limit min
+     * @param verticalLimitMax   vertical limit max
+     */
+    public Garden(final int horizontalLimitMin,
+                  final int horizontalLimitMax,
+                  final int verticalLimitMin,
+                  final int verticalLimitMax) {
+        this(horizontalLimitMin, horizontalLimitMax, verticalLimitMin, verticalLimitMax, null);
+    }
+
+    /**
+     * Constructor of a garden with obstacles.
+     *
+     * @param horizontalLimitMin horizontal limit min
+     * @param horizontalLimitMax horizontal limit max
+     * @param verticalLimitMin   vertical limit min
+     * @param verticalLimitMax   vertical limit max
+     * @param obstacles          obstacles, with the same size as the garden, or null
+     * @throws IllegalArgumentException if obstacles size is not the garden size
+     */
+    public Garden(final int horizontalLimitMin,
+                  final int horizontalLimitMax,
+                  final int verticalLimitMin,
+                  final int verticalLimitMax,
+                  final ObstacleMap obstacles) {
+        if (obstacles != null && (horizontalLimitMax - (long) horizontalLimitMin + 1 != obstacles.getWidth()
+                || verticalLimitMax - (long) verticalLimitMin + 1 != obstacles.getHeight())) {
+            throw new IllegalArgumentException("Obstacles size " + obstacles.getWidth() + "x" + obstacles.getHeight()
+                    + " is not the garden size");
+        }
+        this.horizontalLimitMin = horizontalLimitMin;
+        this.horizontalLimitMax = horizontalLimitMax;
+        this.verticalLimitMin = verticalLimitMin;
+        this.verticalLimitMax = verticalLimitMax;
+        this.obstacles = obstacles;
+    }
+
+    /**
+     * Gets a copy of this garden with the given obstacles.
+     *
+     * @param obstacles obstacles, with the same size as the garden
+     * @return {@link Garden} garden with obstacles
+     * @throws IllegalArgumentException if obstacles size is not the garden size
+     */
+    public Garden withObstacles(final ObstacleMap obstacles) {
+        return new Garden(horizontalLimitMin, horizontalLimitMax, verticalLimitMin, verticalLimitMax, obstacles);
+    }
+
+    /**
+     * Checks if this garden has obstacles.
+     *
+     * @return boolean for result
+     */
+    public boolean hasObstacles() {
+        return obstacles != null;
+    }
+
+    /**
+     * Checks if the given x/y coordinates are in garden surface, and not on an obstacle.
+     *
+     * @param coordinateX x coordinate
+     * @param coordinateY y coordinate
+     * @return boolean for result
+     */
+    public boolean contains(final int coordinateX, final int coordinateY) {
+        return coordinateX >= horizontalLimitMin && coordinateX <= horizontalLimitMax
+                && coordinateY >= verticalLimitMin && coordinateY <= verticalLimitMax
+                && (obstacles == null || !obstacles.isBlocked(coordinateX - horizontalLimitMin, coordinateY - verticalLimitMin));
+    }
+
+    /**
+     * Checks if the given area is fully in garden surface and free of obstacles. Bounds are
+     * inclusive and given as longs, so that they can go beyond int limits. With obstacles, the
+     * check is conservative : see {@link ObstacleMap#isAreaFree(int, int, int, int)}.
+     *
+     * @param minX area min x coordinate
+     * @param maxX area max x coordinate
+     * @param minY area min y coordinate
+     * @param maxY area max y coordinate
+     * @return boolean for result
+     */
+    public boolean containsArea(final long minX, final long maxX, final long minY, final long maxY) {
+        return minX >= horizontalLimitMin && maxX <= horizontalLimitMax
+                && minY >= verticalLimitMin && maxY <= verticalLimitMax
+                && (obstacles == null || obstacles.isAreaFree((int) (minX - horizontalLimitMin), (int) (maxX - horizontalLimitMin),
+                (int) (minY - verticalLimitMin), (int) (maxY - verticalLimitMin)));
+    }
+}
@@ -1,6 +1,7 @@
 package com.mowitnow.domain;
 
 import com.mowitnow.domain.type.Direction;
+import com.mowitnow.engine.CompiledProgram;
 
 import java.util.List;
 
@@ -19,4 +20,10 @@ public class Mower {
     private final Integer id;
     private final Position position;
     private final List<Direction> directions;
+
+    /**
+     * Compiled first directions, null if directions are not compiled. Directions appended to a
+     * running mower are not compiled.
+     */
+    private final CompiledProgram program;
 }
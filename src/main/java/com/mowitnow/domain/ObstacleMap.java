@@ -0,0 +1,131 @@
+package com.mowitnow.domain;
+
+/**
+ * Bitmap of the garden cells where a mower can not go (flower beds, trees, or cells out of a non
+ * rectangular garden). Cells are given by column and row from the garden lower left corner, and
+ * stored one bit by cell.<br>
+ * Cells are also grouped in tiles of 64x64 cells, with 2D prefix sums of the tiles that contain an
+ * obstacle, so that checking if an area is free of obstacles is done in constant time. This check
+ * is conservative : an area that only crosses a tile containing an obstacle is not free.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class ObstacleMap {
+
+    private static final int TILE_SHIFT = 6;
+
+    private final int width;
+    private final int height;
+    private final long[] words;
+    private final int tileColumns;
+    private final int[] tileSums;
+
+    /**
+     * Constructor.
+     *
+     * @param width  column number
+     * @param height row number
+     * @param words  bits of the obstacle cells, bit {@code row * width + column} for each cell
+     */
+    public ObstacleMap(final int width, final int height, final long[] words) {
+        if (width <= 0 || height <= 0 || words.length < ((long) width * height + 63) >>> 6) {
+            throw new IllegalArgumentException("Invalid obstacle map size : " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.words = words;
+        this.tileColumns = ((width - 1) >> TILE_SHIFT) + 1;
+        this.tileSums = tileSums();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Checks if the given cell contains an obstacle. Cells out of map do not contain obstacles.
+     *
+     * @param column column from the garden left side
+     * @param row    row from the garden bottom side
+     * @return boolean for result
+     */
+    public boolean isBlocked(final int column, final int row) {
+        if (column < 0 || column >= width || row < 0 || row >= height) {
+            return false;
+        }
+        final long cell = (long) row * width + column;
+        return (words[(int) (cell >>> 6)] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Checks if the given area, that must be in map, does not cross any tile containing an
+     * obstacle. Bounds are inclusive.
+     *
+     * @param minColumn area min column
+     * @param maxColumn area max column
+     * @param minRow    area min row
+     * @param maxRow    area max row
+     * @return boolean for result
+     */
+    public boolean isAreaFree(final int minColumn, final int maxColumn, final int minRow, final int maxRow) {
+        final int fromColumn = minColumn >> TILE_SHIFT;
+        final int toColumn = (maxColumn >> TILE_SHIFT) + 1;
+        final int fromRow = minRow >> TILE_SHIFT;
+        final int toRow = (maxRow >> TILE_SHIFT) + 1;
+
+        return tileSum(toColumn, toRow) - tileSum(fromColumn, toRow) - tileSum(toColumn, fromRow) + tileSum(fromColumn, fromRow) == 0;
+    }
+
+    /**
+     * Gets the obstacle cell number.
+     *
+     * @return obstacle cell number
+     */
+    public long obstacleCount() {
+        long count = 0;
+        for (final long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private int tileSum(final int tileColumn, final int tileRow) {
+        return tileSums[tileRow * (tileColumns + 1) + tileColumn];
+    }
+
+    /**
+     * Computes the prefix sums of tiles containing an obstacle : the value at (c, r) is the
+     * number of such tiles with a column lower than c and a row lower than r.
+     */
+    private int[] tileSums() {
+        final int tileRows = ((height - 1) >> TILE_SHIFT) + 1;
+        final boolean[] blockedTiles = new boolean[tileColumns * tileRows];
+
+        final long cells = (long) width * height;
+        for (int i = 0; i < words.length; i++) {
+            for (long bits = words[i]; bits != 0; bits &= bits - 1) {
+                final long cell = ((long) i << 6) + Long.numberOfTrailingZeros(bits);
+                if (cell >= cells) {
+                    break;
+                }
+                final int column = (int) (cell % width);
+                final int row = (int) (cell / width);
+                blockedTiles[(row >> TILE_SHIFT) * tileColumns + (column >> TILE_SHIFT)] = true;
+            }
+        }
+
+        final int[] sums = new int[(tileColumns + 1) * (tileRows + 1)];
+        for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+            for (int tileColumn = 0; tileColumn < tileColumns; tileColumn++) {
+                final int index = (tileRow + 1) * (tileColumns + 1) + tileColumn + 1;
+                sums[index] = (blockedTiles[tileRow * tileColumns + tileColumn] ? 1 : 0)
+                        + sums[index - 1] + sums[index - tileColumns - 1] - sums[index - tileColumns - 2];
+            }
+        }
+        return sums;
+    }
+}
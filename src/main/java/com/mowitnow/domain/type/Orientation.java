@@ -2,7 +2,7 @@ package com.mowitnow.domain.type;
 
 
 import com.mowitnow.domain.Position;
-import com.mowitnow.helper.PositionHelper;
+import com.mowitnow.engine.TransitionTable;
 
 /**
  * Contains all possibles mower orientations (N, E, W, S).
@@ -13,49 +13,116 @@ public enum Orientation {
 
     N {
         @Override
-        public Position moveMower(final Direction direction, final int coordinateX, final int coordinateY) {
-            return PositionHelper.getPosition(direction,
-                    Position.of(coordinateX, coordinateY, Orientation.W),
-                    Position.of(coordinateX, coordinateY, Orientation.E),
-                    Position.of(coordinateX, coordinateY + 1, Orientation.N));
+        public Orientation left() {
+            return W;
+        }
+
+        @Override
+        public Orientation right() {
+            return E;
+        }
+
+        @Override
+        public int deltaY() {
+            return 1;
         }
     },
     E {
         @Override
-        public Position moveMower(final Direction direction, final int coordinateX, final int coordinateY) {
-            return PositionHelper.getPosition(direction,
-                    Position.of(coordinateX, coordinateY, Orientation.N),
-                    Position.of(coordinateX, coordinateY, Orientation.S),
-                    Position.of(coordinateX + 1, coordinateY, Orientation.E));
+        public Orientation left() {
+            return N;
+        }
+
+        @Override
+        public Orientation right() {
+            return S;
+        }
+
+        @Override
+        public int deltaX() {
+            return 1;
         }
     },
     W {
         @Override
-        public Position moveMower(final Direction direction, final int coordinateX, final int coordinateY) {
-            return PositionHelper.getPosition(direction,
-                    Position.of(coordinateX, coordinateY, Orientation.S),
-                    Position.of(coordinateX, coordinateY, Orientation.N),
-                    Position.of(coordinateX - 1, coordinateY, Orientation.W));
+        public Orientation left() {
+            return S;
+        }
+
+        @Override
+        public Orientation right() {
+            return N;
+        }
+
+        @Override
+        public int deltaX() {
+            return -1;
         }
     },
     S {
         @Override
-        public Position moveMower(final Direction direction, final int coordinateX, final int coordinateY) {
-            return PositionHelper.getPosition(direction,
-                    Position.of(coordinateX, coordinateY, Orientation.E),
-                    Position.of(coordinateX, coordinateY, Orientation.W),
-                    Position.of(coordinateX, coordinateY - 1, Orientation.S));
+        public Orientation left() {
+            return E;
+        }
+
+        @Override
+        public Orientation right() {
+            return W;
+        }
+
+        @Override
+        public int deltaY() {
+            return -1;
         }
     };
 
+    /**
+     * Gets the orientation after a left rotation (direction G).
+     *
+     * @return {@link Orientation} orientation at left
+     */
+    public abstract Orientation left();
+
+    /**
+     * Gets the orientation after a right rotation (direction D).
+     *
+     * @return {@link Orientation} orientation at right
+     */
+    public abstract Orientation right();
+
+    /**
+     * Gets the X coordinate move when mower advances (direction A) with this orientation.
+     *
+     * @return X coordinate move
+     */
+    public int deltaX() {
+        return 0;
+    }
+
+    /**
+     * Gets the Y coordinate move when mower advances (direction A) with this orientation.
+     *
+     * @return Y coordinate move
+     */
+    public int deltaY() {
+        return 0;
+    }
+
     /**
      * Allows from the given direction and x/y coordinates, to move mower and returns new result
-     * position. A {@link Position} contains new orientation (N,E,W,S) and new x/y coordinates.
+     * position. A {@link Position} contains new orientation (N,E,W,S) and new x/y coordinates.<br>
+     * The move is read from the precomputed {@link TransitionTable}.
      *
      * @param direction   direction
      * @param coordinateX x coordinate
      * @param coordinateY y coordinate
      * @return {@link Position} result position
      */
-    public abstract Position moveMower(final Direction direction, final int coordinateX, final int coordinateY);
+    public Position moveMower(final Direction direction, final int coordinateX, final int coordinateY) {
+        final int transition = TransitionTable.transition(ordinal(), direction.ordinal());
+
+        return new Position(coordinateX + TransitionTable.deltaX(transition),
+                coordinateY + TransitionTable.deltaY(transition),
+                TransitionTable.toOrientation(TransitionTable.orientation(transition)));
+    }
 }
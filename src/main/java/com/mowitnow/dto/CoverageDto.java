@@ -0,0 +1,27 @@
+package com.mowitnow.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Object that contains the coverage of the garden by mowers : the number of mowed cells among
+ * the cells that can be mowed (cells that are not obstacles), and the regions not mowed.
+ *
+ * @author Mazlum TOSUN
+ */
+@Builder
+@Getter
+public class CoverageDto {
+
+    private final long cellNumber;
+    private final long mowedCellNumber;
+    private final double percentage;
+
+    /**
+     * Total number of unmowed regions, that can be greater than the number of regions given.
+     */
+    private final long unmowedRegionNumber;
+    private final List<UnmowedRegionDto> unmowedRegions;
+}
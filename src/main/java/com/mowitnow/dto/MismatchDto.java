@@ -0,0 +1,27 @@
+package com.mowitnow.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Object that contains a mower whose final position does not match the expected results : the
+ * expected line and the computed position, as written in results files.
+ *
+ * @author Mazlum TOSUN
+ */
+@Builder
+@Getter
+public class MismatchDto {
+
+    private final long mowerId;
+
+    /**
+     * Expected line, null if the expected results have no line for the mower.
+     */
+    private final String expected;
+
+    /**
+     * Computed final position, null if the fleet has no mower for the expected line.
+     */
+    private final String actual;
+}
@@ -0,0 +1,20 @@
+package com.mowitnow.dto;
+
+import com.mowitnow.domain.Position;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Lightweight object that contains mower final position and only the id of the mower, so that
+ * mower directions are not kept by results.
+ *
+ * @author Mazlum TOSUN
+ */
+@Builder
+@Getter
+public class MowerResultDto {
+
+    private final Integer mowerId;
+    private final Position position;
+}
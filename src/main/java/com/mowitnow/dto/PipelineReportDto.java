@@ -0,0 +1,32 @@
+package com.mowitnow.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Object that contains the report of a pipeline run over a directory of fleet files : the number
+ * of files and mowers, and the time spent by each stage.
+ *
+ * @author Mazlum TOSUN
+ */
+@Builder
+@Getter
+public class PipelineReportDto {
+
+    private final long fileNumber;
+
+    /**
+     * Number of files that could not be read, parsed or written. An error file is written for
+     * each of them.
+     */
+    private final long failedFileNumber;
+    private final long mowerNumber;
+    private final long elapsedMillis;
+
+    /**
+     * Stages, in pipeline order.
+     */
+    private final List<StageReportDto> stages;
+}
@@ -0,0 +1,24 @@
+package com.mowitnow.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Object that contains the time spent by a pipeline stage, summed over its threads : time
+ * working on files, time waiting for files from the previous stage, and time waiting for the
+ * next stage to accept files. A stage that waits for input is starved, a stage that waits for
+ * output is slowed down by the next stage (back-pressure).
+ *
+ * @author Mazlum TOSUN
+ */
+@Builder
+@Getter
+public class StageReportDto {
+
+    private final String name;
+    private final int threadNumber;
+    private final long fileNumber;
+    private final long busyMillis;
+    private final long inputWaitMillis;
+    private final long outputWaitMillis;
+}
@@ -0,0 +1,19 @@
+package com.mowitnow.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Object that contains a rectangle of garden cells that are not mowed. Bounds are inclusive.
+ *
+ * @author Mazlum TOSUN
+ */
+@Value
+@Builder
+public class UnmowedRegionDto {
+
+    private final int horizontalMin;
+    private final int horizontalMax;
+    private final int verticalMin;
+    private final int verticalMax;
+}
@@ -0,0 +1,30 @@
+package com.mowitnow.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Object that contains the report of a verification of final positions against an expected
+ * results file : the number of mowers and expected lines, and the first mismatches.
+ *
+ * @author Mazlum TOSUN
+ */
+@Builder
+@Getter
+public class VerificationReportDto {
+
+    private final long mowerNumber;
+    private final long expectedNumber;
+
+    /**
+     * Number of all mismatches, including those that are not listed.
+     */
+    private final long mismatchNumber;
+
+    /**
+     * First mismatches, in mowers order, up to the max mismatch number of the verification.
+     */
+    private final List<MismatchDto> mismatches;
+}
@@ -0,0 +1,63 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.Garden;
+
+/**
+ * {@link OccupancyIndex} that stores one bit by garden cell. Cells out of garden are never
+ * occupied, because no mower can move there.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class BitSetOccupancyIndex implements OccupancyIndex {
+
+    private final int horizontalLimitMin;
+    private final int verticalLimitMin;
+    private final long width;
+    private final long height;
+    private final long[] words;
+
+    /**
+     * Constructor.
+     *
+     * @param garden garden, with at most {@link OccupancyIndex#DENSE_MAX_CELLS} cells
+     */
+    public BitSetOccupancyIndex(final Garden garden) {
+        this.horizontalLimitMin = garden.getHorizontalLimitMin();
+        this.verticalLimitMin = garden.getVerticalLimitMin();
+        this.width = garden.getHorizontalLimitMax() - (long) horizontalLimitMin + 1;
+        this.height = garden.getVerticalLimitMax() - (long) verticalLimitMin + 1;
+
+        final long cells = width * height;
+        if (cells > DENSE_MAX_CELLS) {
+            throw new IllegalArgumentException("Garden is too big for a bitset : " + cells + " cells");
+        }
+        this.words = new long[(int) ((cells + 63) >>> 6)];
+    }
+
+    @Override
+    public boolean isOccupied(final int coordinateX, final int coordinateY) {
+        final long cell = cell(coordinateX, coordinateY);
+        return cell >= 0 && (words[(int) (cell >>> 6)] & (1L << cell)) != 0;
+    }
+
+    @Override
+    public void occupy(final int coordinateX, final int coordinateY) {
+        final long cell = cell(coordinateX, coordinateY);
+        if (cell >= 0) {
+            words[(int) (cell >>> 6)] |= 1L << cell;
+        }
+    }
+
+    /**
+     * Gets the bit index of the given cell, or -1 if it is out of garden.
+     */
+    private long cell(final int coordinateX, final int coordinateY) {
+        final long column = coordinateX - (long) horizontalLimitMin;
+        final long row = coordinateY - (long) verticalLimitMin;
+
+        if (column < 0 || column >= width || row < 0 || row >= height) {
+            return -1;
+        }
+        return row * width + column;
+    }
+}
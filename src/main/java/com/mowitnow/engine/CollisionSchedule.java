@@ -0,0 +1,290 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.domain.type.Direction;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+
+/**
+ * Schedule of the mowers of a fleet simulated with collisions, that runs mowers in parallel and
+ * keeps the results of the sequential simulation, where each mower sees the final positions of
+ * the previous mowers.<br>
+ * A mower can only reach the cells at most its forward move number away from its initial
+ * position : its reachable box, limited to the garden. A mower only checks cells of its box, and a
+ * previous mower can only end in its own box, so a mower depends only on the previous mowers
+ * whose box intersects its box.<br>
+ * The garden is split in at most {@link #MAX_TILES} x {@link #MAX_TILES} tiles, and each mower is
+ * given a wave after the waves of the previous mowers that share a tile with it. Mowers of a wave
+ * share no tile, so they are simulated in parallel once the previous waves are finished and
+ * their final positions are occupied. A mower whose box covers more than a quarter of the tiles
+ * is given a wave after all previous waves, so the schedule is built in a bounded time by mower.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class CollisionSchedule {
+
+    /**
+     * Max tile number on each garden axis.
+     */
+    public static final int MAX_TILES = 256;
+
+    private final int[] mowers;
+    private final int[] waveOffsets;
+    private final long[] cumulativeWeights;
+
+    private CollisionSchedule(final int[] mowers, final int[] waveOffsets, final long[] cumulativeWeights) {
+        this.mowers = mowers;
+        this.waveOffsets = waveOffsets;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    /**
+     * Static factory method that allows to initialize a builder of schedule.
+     *
+     * @param garden        garden
+     * @param mowerCapacity expected mower number
+     * @return {@link Builder} builder
+     */
+    public static Builder builder(final Garden garden, final int mowerCapacity) {
+        return new Builder(garden, Math.max(mowerCapacity, 1));
+    }
+
+    /**
+     * Static factory method that allows to create the schedule of the given fleet, with its
+     * current positions.
+     *
+     * @param garden garden
+     * @param fleet  fleet
+     * @return {@link CollisionSchedule} schedule
+     */
+    public static CollisionSchedule of(final Garden garden, final Fleet fleet) {
+        final byte[] directions = fleet.getDirections();
+        final int[] directionOffsets = fleet.getDirectionOffsets();
+        final Builder builder = builder(garden, fleet.size());
+
+        for (int mower = 0; mower < fleet.size(); mower++) {
+            int forwardMoves = 0;
+            for (int i = directionOffsets[mower]; i < directionOffsets[mower + 1]; i++) {
+                if (directions[i] == Direction.A.ordinal()) {
+                    forwardMoves++;
+                }
+            }
+            builder.mower(fleet.getCoordinatesX()[mower], fleet.getCoordinatesY()[mower], forwardMoves, fleet.directionNumber(mower));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the number of waves.
+     *
+     * @return wave number
+     */
+    public int waveNumber() {
+        return waveOffsets.length - 1;
+    }
+
+    /**
+     * Gets the mower at the given index of the schedule : mowers are ordered by wave, then by
+     * index in fleet.
+     *
+     * @param index index in schedule
+     * @return mower index in fleet
+     */
+    public int mower(final int index) {
+        return mowers[index];
+    }
+
+    /**
+     * Runs the schedule. For each wave, the given simulation is run on ranges of the wave, in
+     * parallel on the given pool if the wave is big enough, then the given finish is called for
+     * each mower of the wave, on the current thread, in schedule order. The simulation must not
+     * change cells seen by other mowers : final positions are occupied by the finish.
+     *
+     * @param pool       fork/join pool
+     * @param simulation simulation of the mowers of a range of schedule indexes
+     * @param finish     finish of a mower, by its index in fleet, returns false to stop
+     * @return false if the finish has stopped the schedule
+     */
+    public boolean run(final ForkJoinPool pool, final WeightedRangeTask.RangeAction simulation, final IntPredicate finish) {
+        return run(pool, Integer.MAX_VALUE, simulation, finish);
+    }
+
+    /**
+     * Runs the schedule as {@link #run(ForkJoinPool, WeightedRangeTask.RangeAction, IntPredicate)},
+     * with waves cut in slices of at most the given mower number : each slice is simulated, then
+     * finished, before the next one. A mower of a wave shares no tile with the other mowers of its
+     * wave, so it never reaches their final positions, and finishing a slice before the next one
+     * gives the same results. Schedule indexes of a slice are consecutive, so results of a slice
+     * can be kept in a buffer of the slice size, at their index modulo the buffer size.
+     *
+     * @param pool         fork/join pool
+     * @param maxSliceSize max mower number simulated before being finished
+     * @param simulation   simulation of the mowers of a range of schedule indexes
+     * @param finish       finish of a mower, by its index in fleet, returns false to stop
+     * @return false if the finish has stopped the schedule
+     */
+    public boolean run(final ForkJoinPool pool,
+                       final int maxSliceSize,
+                       final WeightedRangeTask.RangeAction simulation,
+                       final IntPredicate finish) {
+        for (int wave = 0; wave < waveNumber(); wave++) {
+            final int waveEnd = waveOffsets[wave + 1];
+            for (int from = waveOffsets[wave]; from < waveEnd; ) {
+                final int to = from + Math.min(maxSliceSize, waveEnd - from);
+                if (!runSlice(pool, simulation, finish, from, to)) {
+                    return false;
+                }
+                from = to;
+            }
+        }
+        return true;
+    }
+
+    private boolean runSlice(final ForkJoinPool pool,
+                             final WeightedRangeTask.RangeAction simulation,
+                             final IntPredicate finish,
+                             final int from,
+                             final int to) {
+        if (cumulativeWeights[to] - cumulativeWeights[from] <= WeightedRangeTask.DEFAULT_THRESHOLD) {
+            simulation.run(from, to);
+        } else {
+            pool.invoke(new WeightedRangeTask(i -> cumulativeWeights[i], simulation, WeightedRangeTask.DEFAULT_THRESHOLD, from, to));
+        }
+
+        for (int i = from; i < to; i++) {
+            if (!finish.test(mowers[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builder of a schedule, that gives each mower its wave as it is appended, in fleet order.
+     */
+    public static final class Builder {
+
+        private final int horizontalLimitMin;
+        private final int horizontalLimitMax;
+        private final int verticalLimitMin;
+        private final int verticalLimitMax;
+        private final long tileWidth;
+        private final long tileHeight;
+        private final int horizontalTiles;
+        private final int[] lastWaves;
+        private final long maxBoxTiles;
+
+        private int size;
+        private int[] waves;
+        private int[] weights;
+        private int waveNumber;
+        private int firstWave;
+
+        private Builder(final Garden garden, final int mowerCapacity) {
+            this.horizontalLimitMin = garden.getHorizontalLimitMin();
+            this.horizontalLimitMax = garden.getHorizontalLimitMax();
+            this.verticalLimitMin = garden.getVerticalLimitMin();
+            this.verticalLimitMax = garden.getVerticalLimitMax();
+
+            final long width = horizontalLimitMax - (long) horizontalLimitMin + 1;
+            final long height = verticalLimitMax - (long) verticalLimitMin + 1;
+            this.tileWidth = (width + MAX_TILES - 1) / MAX_TILES;
+            this.tileHeight = (height + MAX_TILES - 1) / MAX_TILES;
+            this.horizontalTiles = (int) ((width + tileWidth - 1) / tileWidth);
+            final int verticalTiles = (int) ((height + tileHeight - 1) / tileHeight);
+            this.lastWaves = new int[horizontalTiles * verticalTiles];
+            Arrays.fill(lastWaves, -1);
+            this.maxBoxTiles = Math.max(1, lastWaves.length / 4);
+
+            this.waves = new int[mowerCapacity];
+            this.weights = new int[mowerCapacity];
+        }
+
+        /**
+         * Appends a mower, and gives it its wave.
+         *
+         * @param coordinateX  initial x coordinate
+         * @param coordinateY  initial y coordinate
+         * @param forwardMoves number of forward moves of its directions
+         * @param weight       simulation cost of the mower, typically its direction number
+         * @return {@link Builder} current builder
+         */
+        public Builder mower(final int coordinateX, final int coordinateY, final int forwardMoves, final int weight) {
+            final long minX = Math.max(horizontalLimitMin, coordinateX - (long) forwardMoves);
+            final long maxX = Math.min(horizontalLimitMax, coordinateX + (long) forwardMoves);
+            final long minY = Math.max(verticalLimitMin, coordinateY - (long) forwardMoves);
+            final long maxY = Math.min(verticalLimitMax, coordinateY + (long) forwardMoves);
+
+            final int wave;
+            if (minX > maxX || minY > maxY) {
+                wave = firstWave;
+            } else {
+                final int minTileX = (int) ((minX - horizontalLimitMin) / tileWidth);
+                final int maxTileX = (int) ((maxX - horizontalLimitMin) / tileWidth);
+                final int minTileY = (int) ((minY - verticalLimitMin) / tileHeight);
+                final int maxTileY = (int) ((maxY - verticalLimitMin) / tileHeight);
+                if ((long) (maxTileX - minTileX + 1) * (maxTileY - minTileY + 1) > maxBoxTiles) {
+                    wave = waveNumber;
+                    firstWave = wave + 1;
+                } else {
+                    wave = tileWave(minTileX, maxTileX, minTileY, maxTileY);
+                }
+            }
+
+            if (size == waves.length) {
+                waves = Arrays.copyOf(waves, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            waves[size] = wave;
+            weights[size] = weight + 1;
+            size++;
+            waveNumber = Math.max(waveNumber, wave + 1);
+            return this;
+        }
+
+        /**
+         * Gets the wave after the last waves of the given tiles, and makes it their last wave.
+         */
+        private int tileWave(final int minTileX, final int maxTileX, final int minTileY, final int maxTileY) {
+            int wave = firstWave;
+            for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+                for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+                    wave = Math.max(wave, lastWaves[tileY * horizontalTiles + tileX] + 1);
+                }
+            }
+            for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+                Arrays.fill(lastWaves, tileY * horizontalTiles + minTileX, tileY * horizontalTiles + maxTileX + 1, wave);
+            }
+            return wave;
+        }
+
+        /**
+         * Builds the schedule : mowers are sorted by wave, keeping fleet order in a wave.
+         *
+         * @return {@link CollisionSchedule} schedule
+         */
+        public CollisionSchedule build() {
+            final int[] waveOffsets = new int[waveNumber + 1];
+            for (int mower = 0; mower < size; mower++) {
+                waveOffsets[waves[mower] + 1]++;
+            }
+            for (int wave = 0; wave < waveNumber; wave++) {
+                waveOffsets[wave + 1] += waveOffsets[wave];
+            }
+
+            final int[] mowers = new int[size];
+            final int[] positions = Arrays.copyOf(waveOffsets, waveNumber);
+            for (int mower = 0; mower < size; mower++) {
+                mowers[positions[waves[mower]]++] = mower;
+            }
+
+            final long[] cumulativeWeights = new long[size + 1];
+            for (int i = 0; i < size; i++) {
+                cumulativeWeights[i + 1] = cumulativeWeights[i] + weights[mowers[i]];
+            }
+            return new CollisionSchedule(mowers, waveOffsets, cumulativeWeights);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.Garden;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Directions of a mower compiled in segments by {@link ProgramCompiler}.<br>
+ * Segments are organized in levels : a level 0 segment covers {@link #BASE_SIZE} directions and
+ * a level k segment covers {@link #FAN_OUT} segments of level k - 1. Each segment records, for a
+ * mower that starts at (0, 0) facing north, its net move, its quarter turns and the bounding box
+ * of its path. Other orientations are handled by rotating these values.<br>
+ * When the rotated bounding box fits in garden from the current position, no move of the segment
+ * can be refused, so the segment is applied in one step. Otherwise the segment is run by its
+ * sub segments, down to directions one by one near walls and obstacles. In a garden without
+ * obstacles, a segment that only advances is clamped against the wall in one step. A program of
+ * n directions thus costs about O(wall contacts x log(n)) instead of O(n).<br>
+ * Directions run one by one are read from the {@link PackedProgram} the program was compiled
+ * from, by their 2 bits codes : the program keeps no copy of its directions.
+ *
+ * @author Mazlum TOSUN
+ */
+@Getter(AccessLevel.PACKAGE)
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class CompiledProgram {
+
+    static final int BASE_SHIFT = 6;
+    static final int FAN_OUT_SHIFT = 3;
+    static final int BASE_SIZE = 1 << BASE_SHIFT;
+    static final int FAN_OUT = 1 << FAN_OUT_SHIFT;
+
+    // Fields of a segment, in segments arrays.
+    static final int MOVE_X = 0;
+    static final int MOVE_Y = 1;
+    static final int TURNS = 2;
+    static final int MIN_X = 3;
+    static final int MAX_X = 4;
+    static final int MIN_Y = 5;
+    static final int MAX_Y = 6;
+    static final int SEGMENT_FIELDS = 7;
+
+    // Result of a segment that can not be applied in one step.
+    private static final int NOT_APPLIED = -1;
+
+    // Orientation ordinal (N, E, W, S) to clockwise quarter turns from north, and back.
+    static final int[] QUARTER_TURNS = {0, 1, 3, 2};
+
+    private final PackedProgram directions;
+    private final int length;
+    private final int[][] levels;
+
+    /**
+     * Gets the direction number of this program.
+     *
+     * @return direction number
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Runs this program from the given state, in the given garden. A move that goes out of garden
+     * is ignored. The given state is updated with the final state.
+     *
+     * @param garden garden
+     * @param state  initial state, updated with the final state
+     * @return number of ignored moves
+     */
+    public int run(final Garden garden, final MowerState state) {
+        return run(garden, state, levels.length - 1, 0, length);
+    }
+
+    private int run(final Garden garden, final MowerState state, final int level, final int from, final int to) {
+        if (level < 0) {
+            return step(garden, state, from, to);
+        }
+
+        final int shift = BASE_SHIFT + FAN_OUT_SHIFT * level;
+        final int[] segments = levels[level];
+
+        int rejectedMoves = 0;
+        for (int start = from; start < to; ) {
+            final int segment = (int) ((long) start >> shift);
+            final int end = (int) Math.min(((long) segment + 1) << shift, to);
+
+            final int segmentRejectedMoves = apply(garden, state, segments, segment * SEGMENT_FIELDS, end - start);
+            rejectedMoves += segmentRejectedMoves == NOT_APPLIED ? run(garden, state, level - 1, start, end) : segmentRejectedMoves;
+            start = end;
+        }
+        return rejectedMoves;
+    }
+
+    /**
+     * Applies the given segment in one step, if none of its moves can be refused or if it only
+     * advances in a garden without obstacles.
+     *
+     * @return number of ignored moves, or {@link #NOT_APPLIED} if the segment must be run by its
+     * sub segments
+     */
+    private static int apply(final Garden garden,
+                                 final MowerState state,
+                                 final int[] segments,
+                                 final int index,
+                                 final int segmentLength) {
+        final long coordinateX = state.getCoordinateX();
+        final long coordinateY = state.getCoordinateY();
+        final int quarterTurns = QUARTER_TURNS[state.getOrientation()];
+
+        final long minX = rotateX(quarterTurns, segments[index + MIN_X], segments[index + MIN_Y]);
+        final long minY = rotateY(quarterTurns, segments[index + MIN_X], segments[index + MIN_Y]);
+        final long maxX = rotateX(quarterTurns, segments[index + MAX_X], segments[index + MAX_Y]);
+        final long maxY = rotateY(quarterTurns, segments[index + MAX_X], segments[index + MAX_Y]);
+
+        if (garden.containsArea(coordinateX + Math.min(minX, maxX), coordinateX + Math.max(minX, maxX),
+                coordinateY + Math.min(minY, maxY), coordinateY + Math.max(minY, maxY))) {
+            final int moveX = segments[index + MOVE_X];
+            final int moveY = segments[index + MOVE_Y];
+            state.setCoordinateX((int) (coordinateX + rotateX(quarterTurns, moveX, moveY)));
+            state.setCoordinateY((int) (coordinateY + rotateY(quarterTurns, moveX, moveY)));
+            state.setOrientation(QUARTER_TURNS[(quarterTurns + segments[index + TURNS]) & 3]);
+            return 0;
+        }
+
+        final boolean onlyAdvances = segments[index + MOVE_Y] == segmentLength;
+        if (onlyAdvances && !garden.hasObstacles() && garden.contains(state.getCoordinateX(), state.getCoordinateY())) {
+            final long steps = Math.min(segmentLength, distanceToWall(garden, quarterTurns, coordinateX, coordinateY));
+            state.setCoordinateX((int) (coordinateX + rotateX(quarterTurns, 0, steps)));
+            state.setCoordinateY((int) (coordinateY + rotateY(quarterTurns, 0, steps)));
+            return (int) (segmentLength - steps);
+        }
+
+        return NOT_APPLIED;
+    }
+
+    /**
+     * Runs directions one by one, from direction {@code from} (inclusive) to direction {@code to}
+     * (exclusive).
+     *
+     * @return number of ignored moves
+     */
+    private int step(final Garden garden, final MowerState state, final int from, final int to) {
+        int coordinateX = state.getCoordinateX();
+        int coordinateY = state.getCoordinateY();
+        int orientation = state.getOrientation();
+        int rejectedMoves = 0;
+
+        for (int i = from; i < to; i++) {
+            final int transition = TransitionTable.transition(orientation, directions.code(i));
+            final int nextCoordinateX = coordinateX + TransitionTable.deltaX(transition);
+            final int nextCoordinateY = coordinateY + TransitionTable.deltaY(transition);
+
+            if (garden.contains(nextCoordinateX, nextCoordinateY)) {
+                coordinateX = nextCoordinateX;
+                coordinateY = nextCoordinateY;
+                orientation = TransitionTable.orientation(transition);
+            } else {
+                rejectedMoves++;
+            }
+        }
+
+        state.setCoordinateX(coordinateX);
+        state.setCoordinateY(coordinateY);
+        state.setOrientation(orientation);
+        return rejectedMoves;
+    }
+
+    private static long distanceToWall(final Garden garden, final int quarterTurns, final long coordinateX, final long coordinateY) {
+        switch (quarterTurns) {
+            case 0:
+                return garden.getVerticalLimitMax() - coordinateY;
+            case 1:
+                return garden.getHorizontalLimitMax() - coordinateX;
+            case 2:
+                return coordinateY - garden.getVerticalLimitMin();
+            default:
+                return coordinateX - garden.getHorizontalLimitMin();
+        }
+    }
+
+    /**
+     * Gets the x coordinate of the given north relative vector, for a mower turned clockwise by
+     * the given quarter turns.
+     */
+    static long rotateX(final int quarterTurns, final long x, final long y) {
+        switch (quarterTurns & 3) {
+            case 0:
+                return x;
+            case 1:
+                return y;
+            case 2:
+                return -x;
+            default:
+                return -y;
+        }
+    }
+
+    /**
+     * Gets the y coordinate of the given north relative vector, for a mower turned clockwise by
+     * the given quarter turns.
+     */
+    static long rotateY(final int quarterTurns, final long x, final long y) {
+        switch (quarterTurns & 3) {
+            case 0:
+                return y;
+            case 1:
+                return -x;
+            case 2:
+                return -y;
+            default:
+                return x;
+        }
+    }
+}
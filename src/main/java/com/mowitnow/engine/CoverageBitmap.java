@@ -0,0 +1,329 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.Garden;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of the garden cells mowed by mowers, in the style of roaring bitmaps : cells
+ * are numbered row by row from the garden lower left corner, and grouped by chunks of 65536
+ * cells. A chunk is not allocated until one of its cells is mowed, then it is stored as a sorted
+ * array of cells while it has at most {@link #ARRAY_MAX_CELLS} cells (2 bytes by cell), and as a
+ * bitmap beyond (8 KB). Chunks are indexed by a direct array sized to the garden, so adding a
+ * cell is done in constant time.<br>
+ * A bitmap is not thread safe : each thread fills its own bitmap, and bitmaps are merged by
+ * {@link #or(CoverageBitmap)}.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class CoverageBitmap {
+
+    static final int CHUNK_SHIFT = 16;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int ARRAY_MAX_CELLS = 4096;
+    private static final int CHUNK_WORDS = CHUNK_SIZE >>> 6;
+
+    private final int horizontalLimitMin;
+    private final int verticalLimitMin;
+    private final long width;
+    private final long height;
+    private final Chunk[] chunks;
+
+    /**
+     * Constructor of an empty bitmap sized to the given garden.
+     *
+     * @param garden garden
+     */
+    public CoverageBitmap(final Garden garden) {
+        this.horizontalLimitMin = garden.getHorizontalLimitMin();
+        this.verticalLimitMin = garden.getVerticalLimitMin();
+        this.width = garden.getHorizontalLimitMax() - (long) horizontalLimitMin + 1;
+        this.height = garden.getVerticalLimitMax() - (long) verticalLimitMin + 1;
+
+        final long chunkNumber = (width * height + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+        if (chunkNumber > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Garden is too big for a coverage bitmap : " + width * height + " cells");
+        }
+        this.chunks = new Chunk[(int) chunkNumber];
+    }
+
+    /**
+     * Gets the cell number of the garden.
+     *
+     * @return cell number
+     */
+    public long cellNumber() {
+        return width * height;
+    }
+
+    /**
+     * Marks the given cell as mowed. Cells out of garden are ignored.
+     *
+     * @param coordinateX x coordinate
+     * @param coordinateY y coordinate
+     */
+    public void add(final int coordinateX, final int coordinateY) {
+        final long cell = cell(coordinateX, coordinateY);
+        if (cell < 0) {
+            return;
+        }
+
+        final int index = (int) (cell >>> CHUNK_SHIFT);
+        Chunk chunk = chunks[index];
+        if (chunk == null) {
+            chunk = new Chunk();
+            chunks[index] = chunk;
+        }
+        chunk.add((int) cell & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Checks if the given cell is mowed.
+     *
+     * @param coordinateX x coordinate
+     * @param coordinateY y coordinate
+     * @return boolean for result
+     */
+    public boolean contains(final int coordinateX, final int coordinateY) {
+        final long cell = cell(coordinateX, coordinateY);
+        return cell >= 0 && contains(cell);
+    }
+
+    /**
+     * Adds all mowed cells of the given bitmap to this bitmap (bitwise OR). Both bitmaps must be
+     * sized to the same garden.
+     *
+     * @param other other bitmap
+     * @return {@link CoverageBitmap} this bitmap
+     */
+    public CoverageBitmap or(final CoverageBitmap other) {
+        if (other.chunks.length != chunks.length || other.width != width) {
+            throw new IllegalArgumentException("Coverage bitmaps are not sized to the same garden");
+        }
+
+        for (int i = 0; i < chunks.length; i++) {
+            final Chunk otherChunk = other.chunks[i];
+            if (otherChunk == null) {
+                continue;
+            }
+            if (chunks[i] == null) {
+                chunks[i] = otherChunk.copy();
+            } else {
+                chunks[i].or(otherChunk);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Gets the mowed cell number.
+     *
+     * @return mowed cell number
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (final Chunk chunk : chunks) {
+            if (chunk != null) {
+                cardinality += chunk.cardinality;
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Gets the first mowed cell from the given cell (inclusive) and before the given cell
+     * (exclusive). Cells are numbered row by row from the garden lower left corner.
+     *
+     * @param from first cell (inclusive)
+     * @param to   last cell (exclusive)
+     * @return first mowed cell, or {@code to} if there is none
+     */
+    public long nextMowed(final long from, final long to) {
+        long cell = from;
+        while (cell < to) {
+            final Chunk chunk = chunks[(int) (cell >>> CHUNK_SHIFT)];
+            final long chunkStart = cell & -CHUNK_SIZE;
+            if (chunk != null) {
+                final int next = chunk.nextSet((int) (cell - chunkStart));
+                if (next < CHUNK_SIZE) {
+                    return Math.min(chunkStart + next, to);
+                }
+            }
+            cell = chunkStart + CHUNK_SIZE;
+        }
+        return to;
+    }
+
+    /**
+     * Gets the first cell not mowed from the given cell (inclusive) and before the given cell
+     * (exclusive). Cells are numbered row by row from the garden lower left corner.
+     *
+     * @param from first cell (inclusive)
+     * @param to   last cell (exclusive)
+     * @return first cell not mowed, or {@code to} if there is none
+     */
+    public long nextUnmowed(final long from, final long to) {
+        long cell = from;
+        while (cell < to) {
+            final Chunk chunk = chunks[(int) (cell >>> CHUNK_SHIFT)];
+            if (chunk == null) {
+                return cell;
+            }
+            final long chunkStart = cell & -CHUNK_SIZE;
+            final int next = chunk.nextClear((int) (cell - chunkStart));
+            if (next < CHUNK_SIZE) {
+                return Math.min(chunkStart + next, to);
+            }
+            cell = chunkStart + CHUNK_SIZE;
+        }
+        return to;
+    }
+
+    private boolean contains(final long cell) {
+        final Chunk chunk = chunks[(int) (cell >>> CHUNK_SHIFT)];
+        return chunk != null && chunk.contains((int) cell & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Gets the number of the given cell, or -1 if it is out of garden.
+     */
+    private long cell(final int coordinateX, final int coordinateY) {
+        final long column = coordinateX - (long) horizontalLimitMin;
+        final long row = coordinateY - (long) verticalLimitMin;
+
+        if (column < 0 || column >= width || row < 0 || row >= height) {
+            return -1;
+        }
+        return row * width + column;
+    }
+
+    /**
+     * Chunk of 65536 cells, stored as a sorted array of cells or as a bitmap.
+     */
+    private static final class Chunk {
+
+        private char[] values = new char[4];
+        private long[] words;
+        private int cardinality;
+
+        private Chunk copy() {
+            final Chunk copy = new Chunk();
+            copy.values = values == null ? null : Arrays.copyOf(values, Math.max(cardinality, 4));
+            copy.words = words == null ? null : words.clone();
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        private void add(final int value) {
+            if (words != null) {
+                final long word = words[value >>> 6];
+                final long updatedWord = word | (1L << value);
+                words[value >>> 6] = updatedWord;
+                if (updatedWord != word) {
+                    cardinality++;
+                }
+                return;
+            }
+
+            final int index = Arrays.binarySearch(values, 0, cardinality, (char) value);
+            if (index >= 0) {
+                return;
+            }
+            if (cardinality == ARRAY_MAX_CELLS) {
+                toBitmap();
+                add(value);
+                return;
+            }
+
+            final int insertion = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(cardinality << 1, ARRAY_MAX_CELLS));
+            }
+            System.arraycopy(values, insertion, values, insertion + 1, cardinality - insertion);
+            values[insertion] = (char) value;
+            cardinality++;
+        }
+
+        private boolean contains(final int value) {
+            return words != null
+                    ? (words[value >>> 6] & (1L << value)) != 0
+                    : Arrays.binarySearch(values, 0, cardinality, (char) value) >= 0;
+        }
+
+        private void or(final Chunk other) {
+            if (other.words == null) {
+                for (int i = 0; i < other.cardinality; i++) {
+                    add(other.values[i]);
+                }
+                return;
+            }
+
+            if (words == null) {
+                toBitmap();
+            }
+            int updatedCardinality = 0;
+            for (int i = 0; i < CHUNK_WORDS; i++) {
+                words[i] |= other.words[i];
+                updatedCardinality += Long.bitCount(words[i]);
+            }
+            cardinality = updatedCardinality;
+        }
+
+        private void toBitmap() {
+            words = new long[CHUNK_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            values = null;
+        }
+
+        /**
+         * Gets the first set value from the given value, or {@link #CHUNK_SIZE} if there is none.
+         */
+        private int nextSet(final int from) {
+            if (words == null) {
+                int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+                index = index >= 0 ? index : -index - 1;
+                return index < cardinality ? values[index] : CHUNK_SIZE;
+            }
+
+            int wordIndex = from >>> 6;
+            long word = words[wordIndex] & (-1L << from);
+            while (word == 0) {
+                if (++wordIndex == CHUNK_WORDS) {
+                    return CHUNK_SIZE;
+                }
+                word = words[wordIndex];
+            }
+            return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        /**
+         * Gets the first clear value from the given value, or {@link #CHUNK_SIZE} if there is none.
+         */
+        private int nextClear(final int from) {
+            if (words == null) {
+                int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+                if (index < 0) {
+                    return from;
+                }
+                int value = from;
+                while (index < cardinality && values[index] == value) {
+                    index++;
+                    value++;
+                }
+                return value;
+            }
+
+            int wordIndex = from >>> 6;
+            long word = ~words[wordIndex] & (-1L << from);
+            while (word == 0) {
+                if (++wordIndex == CHUNK_WORDS) {
+                    return CHUNK_SIZE;
+                }
+                word = ~words[wordIndex];
+            }
+            return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.Mower;
+import com.mowitnow.domain.Position;
+import com.mowitnow.domain.type.Direction;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Fleet of mowers stored as parallel primitive arrays (struct of arrays).<br>
+ * The mower {@code i} is at ({@code coordinatesX[i]}, {@code coordinatesY[i]}) with the
+ * orientation ordinal {@code orientations[i]}. Directions of all mowers are stored end to end in
+ * one array of direction ordinals : directions of mower {@code i} are between {@code
+ * directionOffsets[i]} (inclusive) and {@code directionOffsets[i + 1]} (exclusive).<br>
+ * A fleet costs 9 bytes by mower plus 1 byte by direction, instead of the {@link Mower} and
+ * {@link Position} object graphs.<br>
+ * Positions are updated in place by {@link FleetEngine}.
+ *
+ * @author Mazlum TOSUN
+ */
+@Getter(AccessLevel.PACKAGE)
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class Fleet {
+
+    private final int size;
+    private final int[] coordinatesX;
+    private final int[] coordinatesY;
+    private final byte[] orientations;
+    private final byte[] directions;
+    private final int[] directionOffsets;
+
+    /**
+     * Static factory method that allows to create a fleet from the given arrays, as described in
+     * this class. Arrays are not copied, so a fleet can be decoded straight into its arrays.
+     *
+     * @param coordinatesX     x coordinates of mowers
+     * @param coordinatesY     y coordinates of mowers
+     * @param orientations     orientation ordinals of mowers
+     * @param directions       direction ordinals of all mowers, end to end
+     * @param directionOffsets offset of the first direction of each mower, then the direction
+     *                         number
+     * @return {@link Fleet} fleet
+     * @throws IllegalArgumentException if array lengths do not match
+     */
+    public static Fleet of(final int[] coordinatesX,
+                           final int[] coordinatesY,
+                           final byte[] orientations,
+                           final byte[] directions,
+                           final int[] directionOffsets) {
+        final int size = coordinatesX.length;
+        if (coordinatesY.length != size || orientations.length != size || directionOffsets.length != size + 1
+                || directionOffsets[size] != directions.length) {
+            throw new IllegalArgumentException("Fleet arrays do not have matching lengths");
+        }
+        return new Fleet(size, coordinatesX, coordinatesY, orientations, directions, directionOffsets);
+    }
+
+    /**
+     * Gets the mower number of this fleet.
+     *
+     * @return mower number
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the direction number of the given mower.
+     *
+     * @param mower mower index
+     * @return direction number
+     */
+    public int directionNumber(final int mower) {
+        return directionOffsets[mower + 1] - directionOffsets[mower];
+    }
+
+    /**
+     * Gets the direction number of all mowers of this fleet.
+     *
+     * @return total direction number
+     */
+    public int totalDirectionNumber() {
+        return directionOffsets[size];
+    }
+
+    /**
+     * Gets a direction of the given mower.
+     *
+     * @param mower mower index
+     * @param index direction index, in mower directions
+     * @return {@link Direction} direction
+     */
+    public Direction direction(final int mower, final int index) {
+        return TransitionTable.toDirection(directions[directionOffsets[mower] + index]);
+    }
+
+    /**
+     * Gets the directions of the given mower, packed straight from their ordinals.
+     *
+     * @param mower mower index
+     * @return {@link PackedProgram} unmodifiable directions
+     */
+    public PackedProgram packedDirections(final int mower) {
+        return PackedProgram.of(directions, directionOffsets[mower], directionNumber(mower));
+    }
+
+    /**
+     * Gets the current position of the given mower.
+     *
+     * @param mower mower index
+     * @return {@link Position} current position
+     */
+    public Position position(final int mower) {
+        return new Position(coordinatesX[mower], coordinatesY[mower], TransitionTable.toOrientation(orientations[mower]));
+    }
+
+    /**
+     * Creates a copy of this fleet, that can be simulated without modifying this fleet positions.
+     * Directions are shared, because they are never modified.
+     *
+     * @return {@link Fleet} copy
+     */
+    public Fleet copy() {
+        return new Fleet(size, coordinatesX.clone(), coordinatesY.clone(), orientations.clone(), directions, directionOffsets);
+    }
+}
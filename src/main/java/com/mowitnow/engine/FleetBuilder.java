@@ -0,0 +1,130 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builder that allows to append mowers one by one to a {@link Fleet}. Arrays grow like an {@link
+ * java.util.ArrayList} and are trimmed when the fleet is built.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class FleetBuilder {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int size;
+    private int[] coordinatesX;
+    private int[] coordinatesY;
+    private byte[] orientations;
+    private byte[] directions;
+    private int[] directionOffsets;
+
+    private FleetBuilder(final int mowerCapacity, final int directionCapacity) {
+        this.coordinatesX = new int[mowerCapacity];
+        this.coordinatesY = new int[mowerCapacity];
+        this.orientations = new byte[mowerCapacity];
+        this.directions = new byte[directionCapacity];
+        this.directionOffsets = new int[mowerCapacity + 1];
+    }
+
+    /**
+     * Static factory method that allows to initialize builder.
+     *
+     * @return {@link FleetBuilder} current builder
+     */
+    public static FleetBuilder builder() {
+        return new FleetBuilder(DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Static factory method that allows to initialize builder, with the expected fleet size.
+     *
+     * @param mowerCapacity     expected mower number
+     * @param directionCapacity expected direction number of all mowers
+     * @return {@link FleetBuilder} current builder
+     */
+    public static FleetBuilder builder(final int mowerCapacity, final int directionCapacity) {
+        return new FleetBuilder(Math.max(mowerCapacity, 1), Math.max(directionCapacity, 1));
+    }
+
+    /**
+     * Appends a mower with the given position and directions.
+     *
+     * @param coordinateX x coordinate
+     * @param coordinateY y coordinate
+     * @param orientation orientation
+     * @param directions  directions
+     * @return {@link FleetBuilder} current builder
+     */
+    public FleetBuilder mower(final int coordinateX,
+                              final int coordinateY,
+                              final Orientation orientation,
+                              final List<Direction> directions) {
+        mower(coordinateX, coordinateY, orientation);
+        directions.forEach(direction -> direction(direction.ordinal()));
+        return this;
+    }
+
+    /**
+     * Appends a mower with the given position and no direction. Its directions are then appended
+     * by {@link #direction(int)}, before the next mower is appended.
+     *
+     * @param coordinateX x coordinate
+     * @param coordinateY y coordinate
+     * @param orientation orientation
+     * @return {@link FleetBuilder} current builder
+     */
+    public FleetBuilder mower(final int coordinateX, final int coordinateY, final Orientation orientation) {
+        if (size == orientations.length) {
+            final int capacity = size + (size >> 1) + 1;
+            coordinatesX = Arrays.copyOf(coordinatesX, capacity);
+            coordinatesY = Arrays.copyOf(coordinatesY, capacity);
+            orientations = Arrays.copyOf(orientations, capacity);
+            directionOffsets = Arrays.copyOf(directionOffsets, capacity + 1);
+        }
+
+        coordinatesX[size] = coordinateX;
+        coordinatesY[size] = coordinateY;
+        orientations[size] = (byte) orientation.ordinal();
+        directionOffsets[size + 1] = directionOffsets[size];
+        size++;
+
+        return this;
+    }
+
+    /**
+     * Appends a direction to the last appended mower.
+     *
+     * @param direction direction ordinal
+     * @return {@link FleetBuilder} current builder
+     */
+    public FleetBuilder direction(final int direction) {
+        final int offset = directionOffsets[size];
+        if (offset == directions.length) {
+            directions = Arrays.copyOf(directions, offset + (offset >> 1) + 1);
+        }
+
+        directions[offset] = (byte) direction;
+        directionOffsets[size] = offset + 1;
+
+        return this;
+    }
+
+    /**
+     * Final method that allows to build the {@link Fleet}, with trimmed arrays.
+     *
+     * @return {@link Fleet} fleet
+     */
+    public Fleet build() {
+        return new Fleet(size,
+                Arrays.copyOf(coordinatesX, size),
+                Arrays.copyOf(coordinatesY, size),
+                Arrays.copyOf(orientations, size),
+                Arrays.copyOf(directions, directionOffsets[size]),
+                Arrays.copyOf(directionOffsets, size + 1));
+    }
+}
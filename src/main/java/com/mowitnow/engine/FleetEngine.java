@@ -0,0 +1,203 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.Garden;
+
+import java.util.concurrent.ForkJoinPool;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Engine that simulates a {@link Fleet} in a {@link Garden}. Mowers are stepped in tight loops
+ * over the fleet arrays, through the {@link TransitionTable}, and nothing is allocated.<br>
+ * Results are the same as {@link com.mowitnow.service.MowerService#getFinalPositions()} : a move
+ * that goes out of garden is ignored.
+ *
+ * @author Mazlum TOSUN
+ */
+@RequiredArgsConstructor
+public class FleetEngine {
+
+    @NonNull
+    private final Garden garden;
+
+    /**
+     * Simulates all mowers of the given fleet. Fleet positions are replaced by final positions.
+     *
+     * @param fleet fleet
+     */
+    public void simulate(final Fleet fleet) {
+        simulate(fleet, 0, fleet.size());
+    }
+
+    /**
+     * Simulates all mowers of the given fleet in parallel, on the given pool. Mowers never
+     * interact, so the fleet is split in ranges of similar direction number, simulated
+     * independently. Fleet positions are replaced by final positions.
+     *
+     * @param fleet fleet
+     * @param pool  fork/join pool
+     */
+    public void simulate(final Fleet fleet, final ForkJoinPool pool) {
+        final int[] directionOffsets = fleet.getDirectionOffsets();
+        pool.invoke(new WeightedRangeTask(i -> (long) directionOffsets[i] + i,
+                (from, to) -> simulate(fleet, from, to),
+                WeightedRangeTask.DEFAULT_THRESHOLD,
+                0,
+                fleet.size()));
+    }
+
+    /**
+     * Simulates the mowers of the given fleet, from mower {@code from} (inclusive) to mower {@code
+     * to} (exclusive). Fleet positions are replaced by final positions.
+     *
+     * @param fleet fleet
+     * @param from  first mower index (inclusive)
+     * @param to    last mower index (exclusive)
+     */
+    public void simulate(final Fleet fleet, final int from, final int to) {
+        final int[] coordinatesX = fleet.getCoordinatesX();
+        final int[] coordinatesY = fleet.getCoordinatesY();
+        final byte[] orientations = fleet.getOrientations();
+        final byte[] directions = fleet.getDirections();
+        final int[] directionOffsets = fleet.getDirectionOffsets();
+
+        for (int mower = from; mower < to; mower++) {
+            int coordinateX = coordinatesX[mower];
+            int coordinateY = coordinatesY[mower];
+            int orientation = orientations[mower];
+
+            final int end = directionOffsets[mower + 1];
+            for (int i = directionOffsets[mower]; i < end; i++) {
+                final int transition = TransitionTable.transition(orientation, directions[i]);
+                final int nextCoordinateX = coordinateX + TransitionTable.deltaX(transition);
+                final int nextCoordinateY = coordinateY + TransitionTable.deltaY(transition);
+
+                if (garden.contains(nextCoordinateX, nextCoordinateY)) {
+                    coordinateX = nextCoordinateX;
+                    coordinateY = nextCoordinateY;
+                    orientation = TransitionTable.orientation(transition);
+                }
+            }
+
+            coordinatesX[mower] = coordinateX;
+            coordinatesY[mower] = coordinateY;
+            orientations[mower] = (byte) orientation;
+        }
+    }
+
+    /**
+     * Simulates all mowers of the given fleet sequentially, with collisions : a mower does not
+     * move into a cell occupied by a previous mower, as it does not move out of garden. Each
+     * mower final position is added to the given index when it has finished. Fleet positions are
+     * replaced by final positions.
+     *
+     * @param fleet     fleet
+     * @param occupancy occupied cells, final positions are added to it
+     */
+    public void simulate(final Fleet fleet, final OccupancyIndex occupancy) {
+        for (int mower = 0; mower < fleet.size(); mower++) {
+            simulate(fleet, mower, occupancy);
+            occupancy.occupy(fleet.getCoordinatesX()[mower], fleet.getCoordinatesY()[mower]);
+        }
+    }
+
+    /**
+     * Simulates all mowers of the given fleet with collisions, in parallel on the given pool, with
+     * the same results as {@link #simulate(Fleet, OccupancyIndex)}. Mowers are simulated by waves
+     * of a {@link CollisionSchedule} : mowers of a wave can not meet, so they are simulated in
+     * parallel against the cells occupied by previous waves, then their final positions are added
+     * to the index by the current thread. Fleet positions are replaced by final positions.
+     *
+     * @param fleet     fleet
+     * @param occupancy occupied cells, final positions are added to it
+     * @param pool      fork/join pool
+     */
+    public void simulate(final Fleet fleet, final OccupancyIndex occupancy, final ForkJoinPool pool) {
+        final CollisionSchedule schedule = CollisionSchedule.of(garden, fleet);
+        schedule.run(pool, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                simulate(fleet, schedule.mower(i), occupancy);
+            }
+        }, mower -> {
+            occupancy.occupy(fleet.getCoordinatesX()[mower], fleet.getCoordinatesY()[mower]);
+            return true;
+        });
+    }
+
+    /**
+     * Simulates the given mower with collisions, without adding its final position to the index.
+     */
+    private void simulate(final Fleet fleet, final int mower, final OccupancyIndex occupancy) {
+        final byte[] directions = fleet.getDirections();
+        final int[] directionOffsets = fleet.getDirectionOffsets();
+        int coordinateX = fleet.getCoordinatesX()[mower];
+        int coordinateY = fleet.getCoordinatesY()[mower];
+        int orientation = fleet.getOrientations()[mower];
+
+        final int end = directionOffsets[mower + 1];
+        for (int i = directionOffsets[mower]; i < end; i++) {
+            final int transition = TransitionTable.transition(orientation, directions[i]);
+            final int nextCoordinateX = coordinateX + TransitionTable.deltaX(transition);
+            final int nextCoordinateY = coordinateY + TransitionTable.deltaY(transition);
+
+            if (garden.contains(nextCoordinateX, nextCoordinateY)
+                    && (TransitionTable.isRotation(transition) || !occupancy.isOccupied(nextCoordinateX, nextCoordinateY))) {
+                coordinateX = nextCoordinateX;
+                coordinateY = nextCoordinateY;
+                orientation = TransitionTable.orientation(transition);
+            }
+        }
+
+        fleet.getCoordinatesX()[mower] = coordinateX;
+        fleet.getCoordinatesY()[mower] = coordinateY;
+        fleet.getOrientations()[mower] = (byte) orientation;
+    }
+
+    /**
+     * Simulates the given mower of the given off-heap fleet from its initial position, with
+     * collisions if an index is given. Directions are unpacked from the fleet buffer, one byte by
+     * 4 directions. The fleet is not changed : the final position is set in the given state, and
+     * added to the given index.
+     *
+     * @param fleet     off-heap fleet
+     * @param mower     mower index
+     * @param occupancy occupied cells, {@link OccupancyIndex#NONE} if collisions are ignored
+     * @param state     state that receives the final position
+     * @return number of ignored moves
+     */
+    public int simulate(final OffHeapFleet fleet, final int mower, final OccupancyIndex occupancy, final MowerState state) {
+        int coordinateX = fleet.coordinateX(mower);
+        int coordinateY = fleet.coordinateY(mower);
+        int orientation = fleet.orientation(mower);
+        int rejectedMoves = 0;
+
+        final long start = fleet.firstDirection(mower);
+        final long end = fleet.firstDirection(mower + 1);
+        int packed = start < end ? fleet.packedDirections(start) : 0;
+        for (long i = start; i < end; i++) {
+            final int shift = (int) (i & 3) << 1;
+            if (shift == 0) {
+                packed = fleet.packedDirections(i);
+            }
+            final int transition = TransitionTable.transition(orientation, (packed >>> shift) & 3);
+            final int nextCoordinateX = coordinateX + TransitionTable.deltaX(transition);
+            final int nextCoordinateY = coordinateY + TransitionTable.deltaY(transition);
+
+            if (garden.contains(nextCoordinateX, nextCoordinateY)
+                    && (TransitionTable.isRotation(transition) || !occupancy.isOccupied(nextCoordinateX, nextCoordinateY))) {
+                coordinateX = nextCoordinateX;
+                coordinateY = nextCoordinateY;
+                orientation = TransitionTable.orientation(transition);
+            } else {
+                rejectedMoves++;
+            }
+        }
+
+        state.setCoordinateX(coordinateX);
+        state.setCoordinateY(coordinateY);
+        state.setOrientation(orientation);
+        occupancy.occupy(coordinateX, coordinateY);
+        return rejectedMoves;
+    }
+}
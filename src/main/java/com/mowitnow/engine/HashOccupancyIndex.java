@@ -0,0 +1,139 @@
+package com.mowitnow.engine;
+
+/**
+ * {@link OccupancyIndex} that stores occupied cells in an open addressing hash set of primitive
+ * longs (linear probing), for huge gardens where few cells are occupied. A cell is stored as its
+ * x coordinate in the high 32 bits and its y coordinate in the low 32 bits.<br>
+ * The table is sized for the expected cell number, up to {@link #MAX_INITIAL_CAPACITY} slots, and
+ * doubles when it is half full, so its memory follows the cells really occupied, not the mower
+ * number. It can hold at most half of {@link #MAX_CAPACITY} cells.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class HashOccupancyIndex implements OccupancyIndex {
+
+    /**
+     * Max slot number allocated before any cell is occupied (512 KB).
+     */
+    static final int MAX_INITIAL_CAPACITY = 1 << 16;
+
+    /**
+     * Max slot number of the table (8 GB).
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private boolean emptyKeyOccupied;
+
+    /**
+     * Constructor.
+     *
+     * @param expectedCells expected occupied cell number
+     */
+    public HashOccupancyIndex(final int expectedCells) {
+        final int capacity = Integer.highestOneBit(Math.min(Math.max(expectedCells, 8), MAX_INITIAL_CAPACITY / 2) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public boolean isOccupied(final int coordinateX, final int coordinateY) {
+        final long key = key(coordinateX, coordinateY);
+        if (key == EMPTY) {
+            return emptyKeyOccupied;
+        }
+
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            final long current = keys[slot];
+            if (current == key) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public void occupy(final int coordinateX, final int coordinateY) {
+        final long key = key(coordinateX, coordinateY);
+        if (key == EMPTY) {
+            emptyKeyOccupied = true;
+            return;
+        }
+
+        if (insert(keys, mask, key)) {
+            size++;
+            if ((long) size * 2 > keys.length) {
+                grow();
+            }
+        }
+    }
+
+    /**
+     * Gets the slot number of the table.
+     *
+     * @return capacity
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    private void grow() {
+        if (keys.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("Occupancy index is full : more than " + MAX_CAPACITY / 2 + " occupied cells");
+        }
+        final long[] grownKeys = new long[keys.length * 2];
+        final int grownMask = grownKeys.length - 1;
+
+        for (final long key : keys) {
+            if (key != EMPTY) {
+                insert(grownKeys, grownMask, key);
+            }
+        }
+
+        this.keys = grownKeys;
+        this.mask = grownMask;
+    }
+
+    /**
+     * Inserts the given key in the given table, returns false if it was already present.
+     */
+    private static boolean insert(final long[] table, final int tableMask, final long key) {
+        for (int slot = (int) mix(key) & tableMask; ; slot = (slot + 1) & tableMask) {
+            final long current = table[slot];
+            if (current == key) {
+                return false;
+            }
+            if (current == EMPTY) {
+                table[slot] = key;
+                return true;
+            }
+        }
+    }
+
+    private int slot(final long key) {
+        return (int) mix(key) & mask;
+    }
+
+    private static long key(final int coordinateX, final int coordinateY) {
+        return ((long) coordinateX << 32) | (coordinateY & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Murmur3 64 bits finalizer, that spreads neighbour cells over the table.
+     */
+    private static long mix(final long key) {
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,40 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.Position;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Mutable primitive state of a mower during a simulation : x/y coordinates and orientation
+ * ordinal.
+ *
+ * @author Mazlum TOSUN
+ */
+@Data
+@AllArgsConstructor
+public class MowerState {
+
+    private int coordinateX;
+    private int coordinateY;
+    private int orientation;
+
+    /**
+     * Static factory method that allows to create a state from the given {@link Position}.
+     *
+     * @param position position
+     * @return {@link MowerState} state
+     */
+    public static MowerState of(final Position position) {
+        return new MowerState(position.getCoordinateX(), position.getCoordinateY(), position.getOrientation().ordinal());
+    }
+
+    /**
+     * Gets the {@link Position} of this state.
+     *
+     * @return {@link Position} position
+     */
+    public Position toPosition() {
+        return new Position(coordinateX, coordinateY, TransitionTable.toOrientation(orientation));
+    }
+}
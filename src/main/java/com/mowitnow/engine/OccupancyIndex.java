@@ -0,0 +1,92 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.Garden;
+
+/**
+ * Index of the garden cells occupied by mowers. Lookups are done in constant time and without
+ * allocation.
+ *
+ * @author Mazlum TOSUN
+ */
+public interface OccupancyIndex {
+
+    /**
+     * Cell number under which a garden is indexed by a dense bitset (16 MB).
+     */
+    long DENSE_MAX_CELLS = 1L << 27;
+
+    /**
+     * Index that never contains any cell, used when collisions are ignored.
+     */
+    OccupancyIndex NONE = new OccupancyIndex() {
+
+        @Override
+        public boolean isOccupied(final int coordinateX, final int coordinateY) {
+            return false;
+        }
+
+        @Override
+        public void occupy(final int coordinateX, final int coordinateY) {
+            // Collisions are ignored.
+        }
+    };
+
+    /**
+     * Static factory method that allows to create an index adapted to the given garden : a dense
+     * {@link BitSetOccupancyIndex} for small gardens, or a {@link HashOccupancyIndex} sized for
+     * the expected occupied cell number for huge gardens.
+     *
+     * @param garden        garden
+     * @param expectedCells expected occupied cell number, typically the mower number
+     * @return {@link OccupancyIndex} empty index
+     */
+    static OccupancyIndex of(final Garden garden, final int expectedCells) {
+        final long cells = (garden.getHorizontalLimitMax() - (long) garden.getHorizontalLimitMin() + 1)
+                * (garden.getVerticalLimitMax() - (long) garden.getVerticalLimitMin() + 1);
+
+        if (cells <= DENSE_MAX_CELLS) {
+            return new BitSetOccupancyIndex(garden);
+        }
+        return new HashOccupancyIndex(expectedCells);
+    }
+
+    /**
+     * Static factory method that allows to create a read only view of the given index : lookups
+     * are delegated, and occupations are ignored. Used when final positions are added later, by a
+     * single thread, as by {@link CollisionSchedule#run}.
+     *
+     * @param index index
+     * @return {@link OccupancyIndex} read only view
+     */
+    static OccupancyIndex readOnly(final OccupancyIndex index) {
+        return new OccupancyIndex() {
+
+            @Override
+            public boolean isOccupied(final int coordinateX, final int coordinateY) {
+                return index.isOccupied(coordinateX, coordinateY);
+            }
+
+            @Override
+            public void occupy(final int coordinateX, final int coordinateY) {
+                // Final positions are added to the index later.
+            }
+        };
+    }
+
+    /**
+     * Checks if the given cell is occupied.
+     *
+     * @param coordinateX x coordinate
+     * @param coordinateY y coordinate
+     * @return boolean for result
+     */
+    boolean isOccupied(final int coordinateX, final int coordinateY);
+
+    /**
+     * Marks the given cell as occupied.
+     *
+     * @param coordinateX x coordinate
+     * @param coordinateY y coordinate
+     */
+    void occupy(final int coordinateX, final int coordinateY);
+}
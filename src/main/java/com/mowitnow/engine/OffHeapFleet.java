@@ -0,0 +1,211 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.Position;
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fleet stored out of the Java heap, in read only buffers, usually memory mapped from a binary
+ * fleet file : the heap holds only the buffer objects, whatever the fleet size, and the garbage
+ * collector has nothing to scan or copy.<br>
+ * Mowers are records of {@link #RECORD_SIZE} bytes, big endian : x (int), y (int), index of the
+ * first direction (long), orientation ordinal (byte) and 7 reserved bytes. Records are split in
+ * windows of {@link #WINDOW_RECORDS} records, because a buffer can not exceed 2 GB. Directions
+ * of all mowers are end to end, 2 bits by direction, 4 by byte from the low bits, split the same
+ * way in windows of {@link #DIRECTION_WINDOW_SIZE} bytes : the total direction number is a
+ * {@code long}, only the direction number of a mower is an {@code int}.<br>
+ * Initial positions are never changed : final positions are computed by
+ * {@link FleetEngine#simulate(OffHeapFleet, int, OccupancyIndex, MowerState)}, one mower at a
+ * time, and given to the caller as soon as the mower has finished.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class OffHeapFleet {
+
+    /**
+     * Size of a mower record, in bytes.
+     */
+    public static final int RECORD_SIZE = 24;
+
+    /**
+     * Number of mower records by window, the last window can be shorter.
+     */
+    public static final int WINDOW_RECORDS = 1 << 26;
+
+    /**
+     * Number of bytes of packed directions by window, the last window can be shorter.
+     */
+    public static final int DIRECTION_WINDOW_SIZE = 1 << 30;
+
+    private static final int WINDOW_SHIFT = 26;
+    private static final int WINDOW_MASK = WINDOW_RECORDS - 1;
+    private static final int DIRECTION_WINDOW_SHIFT = 30;
+    private static final int DIRECTION_WINDOW_MASK = DIRECTION_WINDOW_SIZE - 1;
+
+    private final ByteBuffer[] records;
+    private final ByteBuffer[] directions;
+    private final int size;
+    private final long totalDirectionNumber;
+
+    private OffHeapFleet(final ByteBuffer[] records, final ByteBuffer[] directions, final int size, final long totalDirectionNumber) {
+        this.records = records;
+        this.directions = directions;
+        this.size = size;
+        this.totalDirectionNumber = totalDirectionNumber;
+    }
+
+    /**
+     * Static factory method that allows to create a fleet from the given buffers, as described in
+     * this class. Buffers are not copied, and are read with absolute reads from their index 0.
+     *
+     * @param records              windows of mower records
+     * @param directions           windows of packed directions of all mowers
+     * @param size                 mower number
+     * @param totalDirectionNumber direction number of all mowers
+     * @return {@link OffHeapFleet} fleet
+     * @throws IllegalArgumentException if buffer sizes do not match
+     */
+    public static OffHeapFleet of(final ByteBuffer[] records,
+                                  final ByteBuffer[] directions,
+                                  final int size,
+                                  final long totalDirectionNumber) {
+        final int windowNumber = (int) ((size + (long) WINDOW_MASK) >>> WINDOW_SHIFT);
+        if (records.length != windowNumber || directions.length != directionWindowNumber(totalDirectionNumber)) {
+            throw new IllegalArgumentException("Off-heap fleet buffers do not have matching sizes");
+        }
+        for (int i = 0; i < windowNumber; i++) {
+            final long windowRecords = i < windowNumber - 1 ? WINDOW_RECORDS : size - ((long) i << WINDOW_SHIFT);
+            if (records[i].capacity() != windowRecords * RECORD_SIZE) {
+                throw new IllegalArgumentException("Off-heap fleet buffers do not have matching sizes");
+            }
+        }
+        for (int i = 0; i < directions.length; i++) {
+            if (directions[i].capacity() != directionWindowSize(totalDirectionNumber, i)) {
+                throw new IllegalArgumentException("Off-heap fleet buffers do not have matching sizes");
+            }
+        }
+        return new OffHeapFleet(records, directions, size, totalDirectionNumber);
+    }
+
+    /**
+     * Gets the number of bytes of the given number of packed directions.
+     *
+     * @param directionNumber direction number
+     * @return packed size in bytes
+     */
+    public static long packedSize(final long directionNumber) {
+        return (directionNumber >>> 2) + ((directionNumber & 3) == 0 ? 0 : 1);
+    }
+
+    /**
+     * Gets the number of direction windows of the given number of directions.
+     *
+     * @param directionNumber direction number
+     * @return window number
+     */
+    public static int directionWindowNumber(final long directionNumber) {
+        return (int) ((packedSize(directionNumber) + DIRECTION_WINDOW_MASK) >>> DIRECTION_WINDOW_SHIFT);
+    }
+
+    /**
+     * Gets the size in bytes of the given direction window, for the given number of directions.
+     *
+     * @param directionNumber direction number
+     * @param window          window index
+     * @return window size in bytes
+     */
+    public static int directionWindowSize(final long directionNumber, final int window) {
+        return (int) Math.min(DIRECTION_WINDOW_SIZE, packedSize(directionNumber) - ((long) window << DIRECTION_WINDOW_SHIFT));
+    }
+
+    /**
+     * Gets the mower number of this fleet.
+     *
+     * @return mower number
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the direction number of all mowers.
+     *
+     * @return direction number
+     */
+    public long totalDirectionNumber() {
+        return totalDirectionNumber;
+    }
+
+    /**
+     * Gets the index of the first direction of the given mower, among the directions of all
+     * mowers. The first direction of the mower {@link #size()} is the total direction number.
+     *
+     * @param mower mower index, up to {@link #size()} inclusive
+     * @return first direction index
+     */
+    public long firstDirection(final int mower) {
+        return mower == size ? totalDirectionNumber : records[mower >>> WINDOW_SHIFT].getLong(recordOffset(mower) + 8);
+    }
+
+    /**
+     * Gets the direction number of the given mower, that is checked to fit an {@code int} when the
+     * fleet is mapped.
+     *
+     * @param mower mower index
+     * @return direction number
+     */
+    public int directionNumber(final int mower) {
+        return (int) (firstDirection(mower + 1) - firstDirection(mower));
+    }
+
+    /**
+     * Gets the given direction of the given mower.
+     *
+     * @param mower mower index
+     * @param index direction index in mower directions
+     * @return {@link Direction} direction
+     */
+    public Direction direction(final int mower, final int index) {
+        return Direction.values()[directionCode(firstDirection(mower) + index)];
+    }
+
+    /**
+     * Gets the initial position of the given mower.
+     *
+     * @param mower mower index
+     * @return {@link Position} initial position
+     */
+    public Position position(final int mower) {
+        return new Position(coordinateX(mower), coordinateY(mower), Orientation.values()[orientation(mower)]);
+    }
+
+    int coordinateX(final int mower) {
+        return records[mower >>> WINDOW_SHIFT].getInt(recordOffset(mower));
+    }
+
+    int coordinateY(final int mower) {
+        return records[mower >>> WINDOW_SHIFT].getInt(recordOffset(mower) + 4);
+    }
+
+    int orientation(final int mower) {
+        return records[mower >>> WINDOW_SHIFT].get(recordOffset(mower) + 16);
+    }
+
+    /**
+     * Gets the byte that contains the given direction, among the directions of all mowers.
+     */
+    int packedDirections(final long direction) {
+        final long index = direction >>> 2;
+        return directions[(int) (index >>> DIRECTION_WINDOW_SHIFT)].get((int) (index & DIRECTION_WINDOW_MASK));
+    }
+
+    private int directionCode(final long direction) {
+        return (packedDirections(direction) >>> ((direction & 3) << 1)) & 3;
+    }
+
+    private static int recordOffset(final int mower) {
+        return (mower & WINDOW_MASK) * RECORD_SIZE;
+    }
+}
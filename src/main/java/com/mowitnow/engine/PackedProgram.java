@@ -0,0 +1,224 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.type.Direction;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Directions packed as 2 bits codes, the ordinals of {@link Direction}, in a {@code long} array :
+ * a word holds 32 directions, direction {@code i} is in word {@code i / 32}, at bit
+ * {@code 2 * (i % 32)}. A direction takes 2 bits instead of a reference, and the engine reads its
+ * code with {@link #code(int)}, a shift and a mask, without loading any {@link Direction}.<br>
+ * Parsed programs are unmodifiable, so they can be shared by the program cache, that keys them
+ * by their words. A growable copy only accepts directions appended at its end.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class PackedProgram extends AbstractList<Direction> implements RandomAccess {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int[] DIRECTION_HASHES = Arrays.stream(DIRECTIONS).mapToInt(Direction::hashCode).toArray();
+    private static final int WORD_SHIFT = 5;
+    private static final int LANE_MASK = (1 << WORD_SHIFT) - 1;
+    private static final int CODE_MASK = 3;
+    private static final long LOW_BITS = 0x5555555555555555L;
+    private static final byte[] CODES = new byte[128];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        for (final Direction direction : DIRECTIONS) {
+            CODES[direction.name().charAt(0)] = (byte) direction.ordinal();
+        }
+    }
+
+    private long[] words;
+    private int size;
+    private final boolean growable;
+    private int hashCode;
+
+    private PackedProgram(final long[] words, final int size, final boolean growable) {
+        this.words = words;
+        this.size = size;
+        this.growable = growable;
+    }
+
+    /**
+     * Parses the given directions parameter, read char by char in packed words : no object is
+     * allocated by direction.
+     *
+     * @param directionsParam directions parameter, like {@code "GAGAGAGAA"}
+     * @return {@link PackedProgram} unmodifiable program
+     * @throws IllegalArgumentException if a character is not a direction
+     */
+    public static PackedProgram parse(final String directionsParam) {
+        final int length = directionsParam.length();
+        final long[] words = new long[wordNumber(length)];
+        long word = 0;
+        for (int i = 0; i < length; i++) {
+            final char character = directionsParam.charAt(i);
+            final int code = character < CODES.length ? CODES[character] : -1;
+            if (code < 0) {
+                throw new IllegalArgumentException("Invalid directions at index " + i + " : unexpected '" + character + "'");
+            }
+            word |= (long) code << shift(i);
+            if ((i & LANE_MASK) == LANE_MASK) {
+                words[i >>> WORD_SHIFT] = word;
+                word = 0;
+            }
+        }
+        if ((length & LANE_MASK) != 0) {
+            words[length >>> WORD_SHIFT] = word;
+        }
+        return new PackedProgram(words, length, false);
+    }
+
+    /**
+     * Packs the given direction ordinals, from {@code offset} to {@code offset + length}, like
+     * the directions of a {@link Fleet}, without decoding any {@link Direction}.
+     *
+     * @param codes  direction ordinals
+     * @param offset first direction index
+     * @param length direction number
+     * @return {@link PackedProgram} unmodifiable program
+     */
+    public static PackedProgram of(final byte[] codes, final int offset, final int length) {
+        final long[] words = new long[wordNumber(length)];
+        for (int i = 0; i < length; i++) {
+            words[i >>> WORD_SHIFT] |= (long) (codes[offset + i] & CODE_MASK) << shift(i);
+        }
+        return new PackedProgram(words, length, false);
+    }
+
+    /**
+     * Copies the given directions in a program that accepts directions appended at its end.
+     *
+     * @param directions directions
+     * @return {@link PackedProgram} growable program
+     */
+    public static PackedProgram growableCopy(final List<Direction> directions) {
+        if (directions instanceof PackedProgram) {
+            final PackedProgram program = (PackedProgram) directions;
+            return new PackedProgram(Arrays.copyOf(program.words, wordNumber(program.size)), program.size, true);
+        }
+        final PackedProgram program = new PackedProgram(new long[wordNumber(directions.size())], 0, true);
+        program.addAll(directions);
+        return program;
+    }
+
+    /**
+     * Gets the code of the given direction, that is the ordinal of its {@link Direction}.
+     *
+     * @param index direction index
+     * @return direction code
+     */
+    public int code(final int index) {
+        return (int) (words[index >>> WORD_SHIFT] >>> shift(index)) & CODE_MASK;
+    }
+
+    /**
+     * Counts the directions equal to the given one, 32 directions at a time.
+     *
+     * @param direction direction
+     * @return direction number
+     */
+    public int count(final Direction direction) {
+        final long pattern = direction.ordinal() * LOW_BITS;
+        final int fullWords = size >>> WORD_SHIFT;
+        int count = 0;
+        for (int i = 0; i < fullWords; i++) {
+            count += Long.bitCount(equalLanes(words[i], pattern));
+        }
+        if ((size & LANE_MASK) != 0) {
+            count += Long.bitCount(equalLanes(words[fullWords], pattern) & ((1L << shift(size)) - 1));
+        }
+        return count;
+    }
+
+    @Override
+    public Direction get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return DIRECTIONS[code(index)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(final int index, final Direction direction) {
+        if (!growable || index != size) {
+            throw new UnsupportedOperationException("Directions can only be appended at the end of a growable program");
+        }
+        if (size >>> WORD_SHIFT == words.length) {
+            words = Arrays.copyOf(words, words.length + (words.length >> 1) + 1);
+        }
+        words[size >>> WORD_SHIFT] |= (long) direction.ordinal() << shift(size);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Gets the hash code of this program, as specified by {@link List#hashCode()}, computed from
+     * the codes without loading any {@link Direction}. As for a {@link String}, the hash code of
+     * an unmodifiable program is computed once, so it can be looked up many times in the program
+     * cache.
+     */
+    @Override
+    public int hashCode() {
+        if (hashCode != 0 && !growable) {
+            return hashCode;
+        }
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + DIRECTION_HASHES[code(i)];
+        }
+        if (!growable) {
+            hashCode = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Compares this program with the given list, word by word if it is a packed program too : bits
+     * after the last direction are always 0.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (!(object instanceof PackedProgram)) {
+            return super.equals(object);
+        }
+        final PackedProgram program = (PackedProgram) object;
+        if (program.size != size) {
+            return false;
+        }
+        for (int i = 0; i < wordNumber(size); i++) {
+            if (words[i] != program.words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the low bit of each 2 bits lane of the given word that is equal to the lane of the
+     * given pattern.
+     */
+    private static long equalLanes(final long word, final long pattern) {
+        final long difference = word ^ pattern;
+        return ~(difference | difference >>> 1) & LOW_BITS;
+    }
+
+    private static int shift(final int index) {
+        return (index & LANE_MASK) << 1;
+    }
+
+    private static int wordNumber(final int directionNumber) {
+        return (directionNumber + LANE_MASK) >>> WORD_SHIFT;
+    }
+}
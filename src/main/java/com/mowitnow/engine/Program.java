@@ -0,0 +1,43 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.type.Direction;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Object that contains the parsed directions of a program and their compiled form. Programs are
+ * immutable, so one program is shared by all mowers that have the same directions.
+ *
+ * @author Mazlum TOSUN
+ */
+@Value
+public class Program {
+
+    private final List<Direction> directions;
+
+    /**
+     * Compiled directions, null if directions are too short to be compiled.
+     */
+    private final CompiledProgram compiled;
+
+    /**
+     * Gets the direction number of this program.
+     *
+     * @return direction number
+     */
+    public int length() {
+        return directions.size();
+    }
+
+    /**
+     * Gets the number of directions kept in memory by this program : its direction number, or
+     * the node number of a {@link RepeatProgram}.
+     *
+     * @return weight
+     */
+    public int weight() {
+        return directions instanceof RepeatProgram ? ((RepeatProgram) directions).nodeNumber() : directions.size();
+    }
+}
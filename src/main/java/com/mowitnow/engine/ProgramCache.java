@@ -0,0 +1,84 @@
+package com.mowitnow.engine;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.mapper.DirectionMapper;
+
+import java.util.List;
+
+/**
+ * Bounded and concurrent cache of {@link Program}, keyed by the raw directions parameter (like
+ * "GAGAGAGAA"), whose hash is cached by the {@link String}, or by the {@link PackedProgram} of
+ * directions decoded from a fleet, compared word by word. Mowers that have the same directions
+ * share the same parsed and compiled program, that is parsed and compiled only once : a cache hit
+ * never parses its key.<br>
+ * The cache is bounded by the total direction number of its programs, least recently used
+ * programs are evicted first. A {@link RepeatProgram} is not compiled, it is run by its own tree,
+ * and it weighs its node number.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class ProgramCache {
+
+    private final LoadingCache<Object, Program> programs;
+    private final int compiledMinLength;
+
+    /**
+     * Constructor.
+     *
+     * @param maxDirections     max direction number of all cached programs
+     * @param compiledMinLength direction number from which programs are compiled
+     */
+    public ProgramCache(final long maxDirections, final int compiledMinLength) {
+        this.compiledMinLength = compiledMinLength;
+        this.programs = CacheBuilder.newBuilder()
+                .maximumWeight(maxDirections)
+                .weigher((Object directions, Program program) -> program.weight())
+                .recordStats()
+                .build(CacheLoader.from(this::load));
+    }
+
+    /**
+     * Gets the program of the given directions parameter, parsed and compiled if it is not in
+     * cache.
+     *
+     * @param directionsParam directions parameter
+     * @return {@link Program} program
+     */
+    public Program get(final String directionsParam) {
+        return programs.getUnchecked(directionsParam);
+    }
+
+    /**
+     * Gets the program of the given packed directions, compiled if it is not in cache. The given
+     * directions are cached if they are not, so they must not be modified.
+     *
+     * @param directions packed directions
+     * @return {@link Program} program
+     */
+    public Program get(final PackedProgram directions) {
+        return programs.getUnchecked(directions);
+    }
+
+    /**
+     * Gets cache statistics : hits, misses, evictions...
+     *
+     * @return {@link CacheStats} statistics
+     */
+    public CacheStats stats() {
+        return programs.stats();
+    }
+
+    private Program load(final Object key) {
+        final List<Direction> directions = key instanceof String ? DirectionMapper.toDirection((String) key) : (PackedProgram) key;
+        if (directions instanceof RepeatProgram) {
+            return new Program(directions, null);
+        }
+        final CompiledProgram compiled = directions.size() >= compiledMinLength ? ProgramCompiler.compile(directions) : null;
+
+        return new Program(directions, compiled);
+    }
+}
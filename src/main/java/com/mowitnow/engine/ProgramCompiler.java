@@ -0,0 +1,174 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.experimental.UtilityClass;
+
+import static com.mowitnow.engine.CompiledProgram.BASE_SHIFT;
+import static com.mowitnow.engine.CompiledProgram.BASE_SIZE;
+import static com.mowitnow.engine.CompiledProgram.FAN_OUT;
+import static com.mowitnow.engine.CompiledProgram.MAX_X;
+import static com.mowitnow.engine.CompiledProgram.MAX_Y;
+import static com.mowitnow.engine.CompiledProgram.MIN_X;
+import static com.mowitnow.engine.CompiledProgram.MIN_Y;
+import static com.mowitnow.engine.CompiledProgram.MOVE_X;
+import static com.mowitnow.engine.CompiledProgram.MOVE_Y;
+import static com.mowitnow.engine.CompiledProgram.QUARTER_TURNS;
+import static com.mowitnow.engine.CompiledProgram.SEGMENT_FIELDS;
+import static com.mowitnow.engine.CompiledProgram.TURNS;
+
+/**
+ * Compiler that transforms directions to a {@link CompiledProgram}. Compilation is done once in
+ * O(n), then the program can be run many times, from any position.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class ProgramCompiler {
+
+    /**
+     * Compiles the given {@link Direction} list. A {@link PackedProgram} is referenced by the
+     * program, other lists are packed first.
+     *
+     * @param directions directions
+     * @return {@link CompiledProgram} compiled program
+     */
+    public static CompiledProgram compile(final List<Direction> directions) {
+        return compile(directions instanceof PackedProgram ? (PackedProgram) directions : PackedProgram.growableCopy(directions));
+    }
+
+    /**
+     * Compiles the given direction ordinals, from {@code offset} to {@code offset + length}. They
+     * are packed in a {@link PackedProgram} first.
+     *
+     * @param directions direction ordinals
+     * @param offset     first direction index
+     * @param length     direction number
+     * @return {@link CompiledProgram} compiled program
+     */
+    public static CompiledProgram compile(final byte[] directions, final int offset, final int length) {
+        return compile(PackedProgram.of(directions, offset, length));
+    }
+
+    /**
+     * Compiles the given packed directions, read by their 2 bits codes. The given program is
+     * referenced by the compiled program, directions can only be appended to it.
+     *
+     * @param directions packed directions
+     * @return {@link CompiledProgram} compiled program
+     */
+    public static CompiledProgram compile(final PackedProgram directions) {
+        final int length = directions.size();
+        final List<int[]> levels = new ArrayList<>();
+
+        if (length >= BASE_SIZE) {
+            int[] segments = compileBase(directions, length);
+            levels.add(segments);
+
+            while (segments.length > SEGMENT_FIELDS) {
+                segments = combine(segments);
+                levels.add(segments);
+            }
+        }
+
+        return new CompiledProgram(directions, length, levels.toArray(new int[levels.size()][]));
+    }
+
+    /**
+     * Compiles level 0 segments, by running each segment from (0, 0) facing north without garden.
+     */
+    private static int[] compileBase(final PackedProgram directions, final int length) {
+        final int segmentNumber = (int) ((length + (long) BASE_SIZE - 1) >> BASE_SHIFT);
+        final int[] segments = new int[segmentNumber * SEGMENT_FIELDS];
+        final int north = Orientation.N.ordinal();
+
+        for (int segment = 0; segment < segmentNumber; segment++) {
+            final int from = segment * BASE_SIZE;
+            final int to = Math.min((segment + 1) * BASE_SIZE, length);
+
+            int coordinateX = 0;
+            int coordinateY = 0;
+            int orientation = north;
+            int minX = 0;
+            int maxX = 0;
+            int minY = 0;
+            int maxY = 0;
+
+            for (int i = from; i < to; i++) {
+                final int transition = TransitionTable.transition(orientation, directions.code(i));
+                coordinateX += TransitionTable.deltaX(transition);
+                coordinateY += TransitionTable.deltaY(transition);
+                orientation = TransitionTable.orientation(transition);
+
+                minX = Math.min(minX, coordinateX);
+                maxX = Math.max(maxX, coordinateX);
+                minY = Math.min(minY, coordinateY);
+                maxY = Math.max(maxY, coordinateY);
+            }
+
+            final int index = segment * SEGMENT_FIELDS;
+            segments[index + MOVE_X] = coordinateX;
+            segments[index + MOVE_Y] = coordinateY;
+            segments[index + TURNS] = QUARTER_TURNS[orientation];
+            segments[index + MIN_X] = minX;
+            segments[index + MAX_X] = maxX;
+            segments[index + MIN_Y] = minY;
+            segments[index + MAX_Y] = maxY;
+        }
+
+        return segments;
+    }
+
+    /**
+     * Compiles the segments of the next level, by chaining {@link CompiledProgram#FAN_OUT}
+     * segments of the given level.
+     */
+    private static int[] combine(final int[] children) {
+        final int childNumber = children.length / SEGMENT_FIELDS;
+        final int segmentNumber = (childNumber + FAN_OUT - 1) / FAN_OUT;
+        final int[] segments = new int[segmentNumber * SEGMENT_FIELDS];
+
+        for (int segment = 0; segment < segmentNumber; segment++) {
+            long coordinateX = 0;
+            long coordinateY = 0;
+            int turns = 0;
+            long minX = 0;
+            long maxX = 0;
+            long minY = 0;
+            long maxY = 0;
+
+            final int lastChild = Math.min((segment + 1) * FAN_OUT, childNumber);
+            for (int child = segment * FAN_OUT; child < lastChild; child++) {
+                final int index = child * SEGMENT_FIELDS;
+                final long cornerX1 = CompiledProgram.rotateX(turns, children[index + MIN_X], children[index + MIN_Y]);
+                final long cornerY1 = CompiledProgram.rotateY(turns, children[index + MIN_X], children[index + MIN_Y]);
+                final long cornerX2 = CompiledProgram.rotateX(turns, children[index + MAX_X], children[index + MAX_Y]);
+                final long cornerY2 = CompiledProgram.rotateY(turns, children[index + MAX_X], children[index + MAX_Y]);
+
+                minX = Math.min(minX, coordinateX + Math.min(cornerX1, cornerX2));
+                maxX = Math.max(maxX, coordinateX + Math.max(cornerX1, cornerX2));
+                minY = Math.min(minY, coordinateY + Math.min(cornerY1, cornerY2));
+                maxY = Math.max(maxY, coordinateY + Math.max(cornerY1, cornerY2));
+
+                coordinateX += CompiledProgram.rotateX(turns, children[index + MOVE_X], children[index + MOVE_Y]);
+                coordinateY += CompiledProgram.rotateY(turns, children[index + MOVE_X], children[index + MOVE_Y]);
+                turns = (turns + children[index + TURNS]) & 3;
+            }
+
+            final int index = segment * SEGMENT_FIELDS;
+            segments[index + MOVE_X] = (int) coordinateX;
+            segments[index + MOVE_Y] = (int) coordinateY;
+            segments[index + TURNS] = turns;
+            segments[index + MIN_X] = (int) minX;
+            segments[index + MAX_X] = (int) maxX;
+            segments[index + MIN_Y] = (int) minY;
+            segments[index + MAX_Y] = (int) maxY;
+        }
+
+        return segments;
+    }
+}
@@ -0,0 +1,528 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.domain.type.Direction;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Directions written with run-length and repeat groups, kept as a compact program tree instead
+ * of being expanded : {@code A12} is 12 forward moves, {@code (AAAAD)x250000} repeats its group
+ * 250000 times, and groups can be nested, like {@code ((A3G)x4D)x1000}. The program is an
+ * unmodifiable {@link Direction} list whose directions are found in the tree on demand, so the
+ * memory of a program grows with its text, not with its direction number.<br>
+ * {@link #run(Garden, OccupancyIndex, MowerState)} runs the tree without stepping each
+ * direction : a run of rotations is applied at once, a run of forward moves stops at the first
+ * refused move, since all the following ones are refused too, and each iteration of a repeat
+ * group is a function of the mower state only, as cells are not changed while a mower moves. When
+ * the state at the start of an iteration recurs (Brent's cycle detection, with constant memory),
+ * the remaining full cycles are skipped arithmetically.<br>
+ * Parsed programs are unmodifiable, so they can be shared by the program cache. A growable copy
+ * shares the tree, and keeps directions appended at its end in a {@link PackedProgram} tail, so
+ * appending directions never expands the tree.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class RepeatProgram extends AbstractList<Direction> implements RandomAccess {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int FORWARD = Direction.A.ordinal();
+
+    private final Node root;
+    private final int nodeNumber;
+    private final PackedProgram tail;
+
+    private RepeatProgram(final Node root, final int nodeNumber, final PackedProgram tail) {
+        this.root = root;
+        this.nodeNumber = nodeNumber;
+        this.tail = tail;
+    }
+
+    /**
+     * Checks if the given directions parameter uses run-length or repeat groups.
+     *
+     * @param directionsParam directions parameter
+     * @return boolean for result
+     */
+    public static boolean isCompressed(final String directionsParam) {
+        for (int i = 0; i < directionsParam.length(); i++) {
+            final char character = directionsParam.charAt(i);
+            if (character == '(' || Character.isDigit(character)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the given directions parameter, with run-length and repeat groups. Counts are
+     * positive, and a group without count is run once.
+     *
+     * @param directionsParam directions parameter, like {@code "G(A5D)x100"}
+     * @return {@link RepeatProgram} program
+     * @throws IllegalArgumentException if the parameter is not valid, or if the program has more
+     *                                  than {@link Integer#MAX_VALUE} directions
+     */
+    public static RepeatProgram parse(final String directionsParam) {
+        final Parser parser = new Parser(directionsParam);
+        final Node root = parser.sequence();
+        if (parser.index < directionsParam.length()) {
+            throw parser.error("unexpected ')'");
+        }
+        return new RepeatProgram(root, parser.nodeNumber, null);
+    }
+
+    /**
+     * Copies this program in a program that accepts directions appended at its end. The copy
+     * shares the tree of this program, only appended directions are copied.
+     *
+     * @return {@link RepeatProgram} growable program
+     */
+    public RepeatProgram growableCopy() {
+        final PackedProgram copiedTail = PackedProgram.growableCopy(tail == null ? Collections.emptyList() : tail);
+        return new RepeatProgram(root, nodeNumber, copiedTail);
+    }
+
+    /**
+     * Counts the directions equal to the given one, on the tree : a run counts its length, and a
+     * repeat group counts its body once, multiplied by its count.
+     *
+     * @param direction direction
+     * @return direction number
+     */
+    public int count(final Direction direction) {
+        final long count = root.count(direction.ordinal());
+        return Math.toIntExact(tail == null ? count : count + tail.count(direction));
+    }
+
+    @Override
+    public Direction get(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+        }
+        return index < root.length ? DIRECTIONS[root.direction(index)] : tail.get((int) (index - root.length));
+    }
+
+    @Override
+    public int size() {
+        return Math.toIntExact(tail == null ? root.length : root.length + tail.size());
+    }
+
+    /**
+     * Appends the given direction at the end of this growable program.
+     *
+     * @throws UnsupportedOperationException if this program is not growable, or if the index is
+     *                                       not the end of the program
+     * @throws IllegalArgumentException      if the program would have more than
+     *                                       {@link Integer#MAX_VALUE} directions, as for parsed
+     *                                       programs
+     */
+    @Override
+    public void add(final int index, final Direction direction) {
+        addAll(index, Collections.singletonList(direction));
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends Direction> directions) {
+        return addAll(size(), directions);
+    }
+
+    /**
+     * Appends the given directions at the end of this growable program : no direction is appended
+     * if the program would have more than {@link Integer#MAX_VALUE} directions.
+     *
+     * @throws UnsupportedOperationException if this program is not growable, or if the index is
+     *                                       not the end of the program
+     * @throws IllegalArgumentException      if the program would have more than
+     *                                       {@link Integer#MAX_VALUE} directions, as for parsed
+     *                                       programs
+     */
+    @Override
+    public boolean addAll(final int index, final Collection<? extends Direction> directions) {
+        if (tail == null || index != size()) {
+            throw new UnsupportedOperationException("Directions can only be appended at the end of a growable program");
+        }
+        if ((long) index + directions.size() > Parser.MAX_COUNT) {
+            throw new IllegalArgumentException("Directions are too long : more than " + Parser.MAX_COUNT + " directions");
+        }
+        modCount++;
+        return tail.addAll(directions);
+    }
+
+    /**
+     * Gets the node number of the program tree, that gives its memory size.
+     *
+     * @return node number
+     */
+    public int nodeNumber() {
+        return nodeNumber;
+    }
+
+    /**
+     * Runs this program from the given state, with the same results as stepping its directions
+     * one by one : a move that goes out of garden, or into an occupied cell, is ignored. The given
+     * state is updated with the final state.
+     *
+     * @param garden    garden
+     * @param occupancy occupied cells, {@link OccupancyIndex#NONE} if collisions are ignored
+     * @param state     initial state, updated with the final state
+     * @return number of ignored moves
+     */
+    public int run(final Garden garden, final OccupancyIndex occupancy, final MowerState state) {
+        final int rejectedMoves = (int) root.run(garden, occupancy, state);
+        return tail == null ? rejectedMoves : rejectedMoves + runTail(garden, occupancy, state);
+    }
+
+    /**
+     * Steps the appended directions one by one from the given state, and gets the number of
+     * ignored moves.
+     */
+    private int runTail(final Garden garden, final OccupancyIndex occupancy, final MowerState state) {
+        int coordinateX = state.getCoordinateX();
+        int coordinateY = state.getCoordinateY();
+        int orientation = state.getOrientation();
+        int rejectedMoves = 0;
+        for (int i = 0; i < tail.size(); i++) {
+            final int transition = TransitionTable.transition(orientation, tail.code(i));
+            final int nextCoordinateX = coordinateX + TransitionTable.deltaX(transition);
+            final int nextCoordinateY = coordinateY + TransitionTable.deltaY(transition);
+            if (garden.contains(nextCoordinateX, nextCoordinateY)
+                    && (TransitionTable.isRotation(transition) || !occupancy.isOccupied(nextCoordinateX, nextCoordinateY))) {
+                coordinateX = nextCoordinateX;
+                coordinateY = nextCoordinateY;
+                orientation = TransitionTable.orientation(transition);
+            } else {
+                rejectedMoves++;
+            }
+        }
+        state.setCoordinateX(coordinateX);
+        state.setCoordinateY(coordinateY);
+        state.setOrientation(orientation);
+        return rejectedMoves;
+    }
+
+    /**
+     * Node of a program tree, that covers {@link #length} directions.
+     */
+    private abstract static class Node {
+
+        protected final long length;
+
+        Node(final long length) {
+            this.length = length;
+        }
+
+        /**
+         * Gets the direction ordinal at the given index of this node.
+         */
+        abstract int direction(long index);
+
+        /**
+         * Counts the directions of this node equal to the given direction ordinal.
+         */
+        abstract long count(int direction);
+
+        /**
+         * Runs this node from the given state, and gets the number of ignored moves.
+         */
+        abstract long run(Garden garden, OccupancyIndex occupancy, MowerState state);
+    }
+
+    /**
+     * Same direction repeated {@link #length} times.
+     */
+    private static final class Run extends Node {
+
+        private final int direction;
+
+        Run(final int direction, final long count) {
+            super(count);
+            this.direction = direction;
+        }
+
+        @Override
+        int direction(final long index) {
+            return direction;
+        }
+
+        @Override
+        long count(final int countedDirection) {
+            return countedDirection == direction ? length : 0;
+        }
+
+        @Override
+        long run(final Garden garden, final OccupancyIndex occupancy, final MowerState state) {
+            int coordinateX = state.getCoordinateX();
+            int coordinateY = state.getCoordinateY();
+            if (direction != FORWARD) {
+                if (!garden.contains(coordinateX, coordinateY)) {
+                    return length;
+                }
+                int orientation = state.getOrientation();
+                for (int i = 0; i < (length & 3); i++) {
+                    orientation = TransitionTable.orientation(TransitionTable.transition(orientation, direction));
+                }
+                state.setOrientation(orientation);
+                return 0;
+            }
+
+            final int transition = TransitionTable.transition(state.getOrientation(), FORWARD);
+            final int deltaX = TransitionTable.deltaX(transition);
+            final int deltaY = TransitionTable.deltaY(transition);
+            if (occupancy == OccupancyIndex.NONE && !garden.hasObstacles() && garden.contains(coordinateX, coordinateY)) {
+                final long steps = Math.min(length, distanceToWall(garden, deltaX, deltaY, coordinateX, coordinateY));
+                state.setCoordinateX((int) (coordinateX + deltaX * steps));
+                state.setCoordinateY((int) (coordinateY + deltaY * steps));
+                return length - steps;
+            }
+
+            for (long i = 0; i < length; i++) {
+                final int nextCoordinateX = coordinateX + deltaX;
+                final int nextCoordinateY = coordinateY + deltaY;
+                if (!garden.contains(nextCoordinateX, nextCoordinateY) || occupancy.isOccupied(nextCoordinateX, nextCoordinateY)) {
+                    state.setCoordinateX(coordinateX);
+                    state.setCoordinateY(coordinateY);
+                    return length - i;
+                }
+                coordinateX = nextCoordinateX;
+                coordinateY = nextCoordinateY;
+            }
+            state.setCoordinateX(coordinateX);
+            state.setCoordinateY(coordinateY);
+            return 0;
+        }
+
+        private static long distanceToWall(final Garden garden, final int deltaX, final int deltaY, final long coordinateX, final long coordinateY) {
+            if (deltaX > 0) {
+                return garden.getHorizontalLimitMax() - coordinateX;
+            }
+            if (deltaX < 0) {
+                return coordinateX - garden.getHorizontalLimitMin();
+            }
+            return deltaY > 0 ? garden.getVerticalLimitMax() - coordinateY : coordinateY - garden.getVerticalLimitMin();
+        }
+    }
+
+    /**
+     * Body node repeated {@link #count} times.
+     */
+    private static final class Repeat extends Node {
+
+        private final Node body;
+        private final long count;
+
+        Repeat(final Node body, final long count) {
+            super(body.length * count);
+            this.body = body;
+            this.count = count;
+        }
+
+        @Override
+        int direction(final long index) {
+            return body.direction(index % body.length);
+        }
+
+        @Override
+        long count(final int direction) {
+            return body.count(direction) * count;
+        }
+
+        /**
+         * Runs the iterations of the body, and looks for a cycle of states by Brent's algorithm :
+         * a saved state is compared to the state after each iteration, and it is saved again
+         * each time the number of iterations since it was saved reaches a power of 2.
+         */
+        @Override
+        long run(final Garden garden, final OccupancyIndex occupancy, final MowerState state) {
+            long rejectedMoves = 0;
+            int savedCoordinateX = state.getCoordinateX();
+            int savedCoordinateY = state.getCoordinateY();
+            int savedOrientation = state.getOrientation();
+            long savedRejectedMoves = 0;
+            long power = 1;
+            long period = 0;
+
+            for (long iteration = 1; iteration <= count; iteration++) {
+                rejectedMoves += body.run(garden, occupancy, state);
+                period++;
+
+                if (state.getCoordinateX() == savedCoordinateX && state.getCoordinateY() == savedCoordinateY
+                        && state.getOrientation() == savedOrientation) {
+                    final long cycles = (count - iteration) / period;
+                    rejectedMoves += cycles * (rejectedMoves - savedRejectedMoves);
+                    for (long remaining = (count - iteration) % period; remaining > 0; remaining--) {
+                        rejectedMoves += body.run(garden, occupancy, state);
+                    }
+                    return rejectedMoves;
+                }
+                if (period == power) {
+                    savedCoordinateX = state.getCoordinateX();
+                    savedCoordinateY = state.getCoordinateY();
+                    savedOrientation = state.getOrientation();
+                    savedRejectedMoves = rejectedMoves;
+                    power <<= 1;
+                    period = 0;
+                }
+            }
+            return rejectedMoves;
+        }
+    }
+
+    /**
+     * Children nodes run one after the other.
+     */
+    private static final class Sequence extends Node {
+
+        private final Node[] children;
+        private final long[] offsets;
+
+        Sequence(final Node[] children, final long[] offsets) {
+            super(offsets[children.length]);
+            this.children = children;
+            this.offsets = offsets;
+        }
+
+        @Override
+        int direction(final long index) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low < high) {
+                final int middle = (low + high + 1) >>> 1;
+                if (offsets[middle] <= index) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return children[low].direction(index - offsets[low]);
+        }
+
+        @Override
+        long count(final int direction) {
+            long count = 0;
+            for (final Node child : children) {
+                count += child.count(direction);
+            }
+            return count;
+        }
+
+        @Override
+        long run(final Garden garden, final OccupancyIndex occupancy, final MowerState state) {
+            long rejectedMoves = 0;
+            for (final Node child : children) {
+                rejectedMoves += child.run(garden, occupancy, state);
+            }
+            return rejectedMoves;
+        }
+    }
+
+    /**
+     * Recursive descent parser of directions. Consecutive runs of the same direction are merged,
+     * and empty nodes are dropped.
+     */
+    private static final class Parser {
+
+        private static final long MAX_COUNT = Integer.MAX_VALUE;
+
+        private final String text;
+        private int index;
+        private int nodeNumber;
+
+        Parser(final String text) {
+            this.text = text;
+        }
+
+        /**
+         * Parses directions and groups until the end of text or a closing parenthesis.
+         */
+        Node sequence() {
+            final List<Node> children = new ArrayList<>();
+            while (index < text.length() && text.charAt(index) != ')') {
+                final Node node = text.charAt(index) == '(' ? group() : run();
+                final Node last = children.isEmpty() ? null : children.get(children.size() - 1);
+                if (node instanceof Run && last instanceof Run && ((Run) node).direction == ((Run) last).direction) {
+                    children.set(children.size() - 1, new Run(((Run) node).direction, checkedLength(last.length + node.length)));
+                } else if (node.length > 0) {
+                    children.add(node);
+                    nodeNumber++;
+                }
+            }
+
+            if (children.size() == 1) {
+                return children.get(0);
+            }
+            final long[] offsets = new long[children.size() + 1];
+            for (int i = 0; i < children.size(); i++) {
+                offsets[i + 1] = checkedLength(offsets[i] + children.get(i).length);
+            }
+            nodeNumber++;
+            return new Sequence(children.toArray(new Node[children.size()]), offsets);
+        }
+
+        private Node run() {
+            final int direction = "GDA".indexOf(text.charAt(index));
+            if (direction < 0) {
+                throw error("unexpected '" + text.charAt(index) + "'");
+            }
+            index++;
+            return new Run(direction, count());
+        }
+
+        private Node group() {
+            index++;
+            final Node body = sequence();
+            if (index >= text.length()) {
+                throw error("')' expected");
+            }
+            index++;
+            if (index < text.length() && text.charAt(index) == 'x') {
+                index++;
+                if (index >= text.length() || !Character.isDigit(text.charAt(index))) {
+                    throw error("count expected");
+                }
+            }
+            final long count = count();
+            checkedLength(body.length * count);
+            return count == 1 ? body : new Repeat(body, count);
+        }
+
+        /**
+         * Parses the count at the current index, 1 if there is none.
+         */
+        private long count() {
+            final int start = index;
+            long count = 0;
+            while (index < text.length() && Character.isDigit(text.charAt(index))) {
+                count = checkedLength(count * 10 + text.charAt(index) - '0');
+                index++;
+            }
+            if (index == start) {
+                return 1;
+            }
+            if (count == 0) {
+                throw new IllegalArgumentException("Invalid directions at index " + start + " : count should be positive");
+            }
+            return count;
+        }
+
+        /**
+         * Checks that the given length is not over the max direction number, so lengths never
+         * overflow while parsing.
+         */
+        private long checkedLength(final long length) {
+            if (length > MAX_COUNT) {
+                throw new IllegalArgumentException("Directions are too long at index " + index + " : more than " + MAX_COUNT + " directions");
+            }
+            return length;
+        }
+
+        private IllegalArgumentException error(final String message) {
+            return new IllegalArgumentException("Invalid directions at index " + index + " : " + message);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Precomputed table of all mower moves : (orientation x direction) -> (x move, y move, new
+ * orientation).<br>
+ * Orientations and directions are represented by their ordinal, so a mower can be stepped with
+ * primitive ints and without any allocation :
+ * <pre>
+ * final int transition = TransitionTable.transition(orientation, direction);
+ * x += TransitionTable.deltaX(transition);
+ * y += TransitionTable.deltaY(transition);
+ * orientation = TransitionTable.orientation(transition);
+ * </pre>
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class TransitionTable {
+
+    private static final Orientation[] ORIENTATIONS = Orientation.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int DIRECTION_NUMBER = DIRECTIONS.length;
+
+    private static final int[] DELTA_X = new int[ORIENTATIONS.length * DIRECTION_NUMBER];
+    private static final int[] DELTA_Y = new int[ORIENTATIONS.length * DIRECTION_NUMBER];
+    private static final int[] NEXT_ORIENTATION = new int[ORIENTATIONS.length * DIRECTION_NUMBER];
+
+    static {
+        for (final Orientation orientation : ORIENTATIONS) {
+            register(orientation, Direction.G, 0, 0, orientation.left());
+            register(orientation, Direction.D, 0, 0, orientation.right());
+            register(orientation, Direction.A, orientation.deltaX(), orientation.deltaY(), orientation);
+        }
+    }
+
+    private static void register(final Orientation orientation,
+                                 final Direction direction,
+                                 final int deltaX,
+                                 final int deltaY,
+                                 final Orientation nextOrientation) {
+        final int transition = transition(orientation.ordinal(), direction.ordinal());
+        DELTA_X[transition] = deltaX;
+        DELTA_Y[transition] = deltaY;
+        NEXT_ORIENTATION[transition] = nextOrientation.ordinal();
+    }
+
+    /**
+     * Gets the transition index of the given orientation and direction ordinals.
+     *
+     * @param orientation orientation ordinal
+     * @param direction   direction ordinal
+     * @return transition index
+     */
+    public static int transition(final int orientation, final int direction) {
+        return orientation * DIRECTION_NUMBER + direction;
+    }
+
+    /**
+     * Gets the X coordinate move of the given transition.
+     *
+     * @param transition transition index
+     * @return X coordinate move
+     */
+    public static int deltaX(final int transition) {
+        return DELTA_X[transition];
+    }
+
+    /**
+     * Gets the Y coordinate move of the given transition.
+     *
+     * @param transition transition index
+     * @return Y coordinate move
+     */
+    public static int deltaY(final int transition) {
+        return DELTA_Y[transition];
+    }
+
+    /**
+     * Checks if the given transition only rotates the mower, without moving it.
+     *
+     * @param transition transition index
+     * @return boolean for result
+     */
+    public static boolean isRotation(final int transition) {
+        return DELTA_X[transition] == 0 && DELTA_Y[transition] == 0;
+    }
+
+    /**
+     * Gets the orientation ordinal reached by the given transition.
+     *
+     * @param transition transition index
+     * @return orientation ordinal
+     */
+    public static int orientation(final int transition) {
+        return NEXT_ORIENTATION[transition];
+    }
+
+    /**
+     * Gets the {@link Orientation} of the given ordinal, without copying enum values.
+     *
+     * @param orientation orientation ordinal
+     * @return {@link Orientation} orientation
+     */
+    public static Orientation toOrientation(final int orientation) {
+        return ORIENTATIONS[orientation];
+    }
+
+    /**
+     * Gets the {@link Direction} of the given ordinal, without copying enum values.
+     *
+     * @param direction direction ordinal
+     * @return {@link Direction} direction
+     */
+    public static Direction toDirection(final int direction) {
+        return DIRECTIONS[direction];
+    }
+}
@@ -0,0 +1,99 @@
+package com.mowitnow.engine;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Fork/join task that runs an action on a range of mowers, split by weight rather than by mower
+ * number : a range is split at the mower where half of its weight is reached, until the range
+ * weight is under a threshold.<br>
+ * Weights are given as cumulative weights : {@code cumulativeWeight(i)} is the weight of mowers
+ * {@code 0} to {@code i} (exclusive), so it is increasing and the split mower is found by binary
+ * search. The weight of a mower is typically its direction number, plus one for its own cost.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class WeightedRangeTask extends RecursiveAction {
+
+    /**
+     * Default weight under which a range is not split anymore.
+     */
+    public static final long DEFAULT_THRESHOLD = 1L << 14;
+
+    /**
+     * Action run on a range of mowers.
+     */
+    @FunctionalInterface
+    public interface RangeAction {
+
+        /**
+         * Runs the action on mowers from {@code from} (inclusive) to {@code to} (exclusive).
+         *
+         * @param from first mower index (inclusive)
+         * @param to   last mower index (exclusive)
+         */
+        void run(final int from, final int to);
+    }
+
+    private final IntToLongFunction cumulativeWeight;
+    private final RangeAction action;
+    private final long threshold;
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructor.
+     *
+     * @param cumulativeWeight cumulative weight function, increasing
+     * @param action           action to run on ranges
+     * @param threshold        weight under which a range is not split anymore
+     * @param from             first mower index (inclusive)
+     * @param to               last mower index (exclusive)
+     */
+    public WeightedRangeTask(final IntToLongFunction cumulativeWeight,
+                             final RangeAction action,
+                             final long threshold,
+                             final int from,
+                             final int to) {
+        this.cumulativeWeight = cumulativeWeight;
+        this.action = action;
+        this.threshold = threshold;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        final long fromWeight = cumulativeWeight.applyAsLong(from);
+        final long weight = cumulativeWeight.applyAsLong(to) - fromWeight;
+
+        if (to - from < 2 || weight <= threshold) {
+            action.run(from, to);
+            return;
+        }
+
+        final int middle = split(fromWeight + weight / 2);
+        invokeAll(new WeightedRangeTask(cumulativeWeight, action, threshold, from, middle),
+                new WeightedRangeTask(cumulativeWeight, action, threshold, middle, to));
+    }
+
+    /**
+     * Finds the first mower whose cumulative weight reaches the given weight, kept strictly
+     * inside the range so that both halves are not empty.
+     */
+    private int split(final long halfWeight) {
+        int low = from + 1;
+        int high = to - 1;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (cumulativeWeight.applyAsLong(middle) < halfWeight) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
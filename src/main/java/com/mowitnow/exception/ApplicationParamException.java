@@ -1,5 +1,11 @@
 package com.mowitnow.exception;
 
+import com.mowitnow.validator.ValidationError;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import lombok.NoArgsConstructor;
 
 /**
@@ -10,6 +16,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class ApplicationParamException extends RuntimeException {
 
+    private List<ValidationError> errors = Collections.emptyList();
+
     /**
      * Constructor with message.
      *
@@ -18,4 +26,23 @@ public class ApplicationParamException extends RuntimeException {
     public ApplicationParamException(String message) {
         super(message);
     }
+
+    /**
+     * Constructor with validation errors. Message contains an error by line.
+     *
+     * @param errors validation errors
+     */
+    public ApplicationParamException(List<ValidationError> errors) {
+        super(errors.stream().map(ValidationError::toString).collect(Collectors.joining("\n")));
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Gets validation errors, if the exception is thrown by a validation.
+     *
+     * @return validation errors, empty if the exception is not thrown by a validation
+     */
+    public List<ValidationError> getErrors() {
+        return errors;
+    }
 }
@@ -0,0 +1,294 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.engine.OffHeapFleet;
+import com.mowitnow.exception.ApplicationParamException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Reader of binary fleet files written by {@link BinaryFleetWriter}.<br>
+ * {@link #read(Path)} memory maps the file and decodes it with absolute reads into the arrays of
+ * a heap {@link Fleet}, without parsing and without any object by mower or by direction. This is
+ * a full copy of the content : the fleet changes its positions while it is simulated, and keeps
+ * one byte by direction, so each 2 bits code is unpacked in a byte, 4 times the packed size.
+ * Packed directions are unpacked 4 by byte, and a whole byte is checked for invalid codes at
+ * once.<br>
+ * A fleet too big for the heap is mapped as an {@link OffHeapFleet} instead, that reads the
+ * mapped file as it is.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class BinaryFleetReader {
+
+    private static final long MAX_WINDOW_SIZE = (long) OffHeapFleet.WINDOW_RECORDS * OffHeapFleet.RECORD_SIZE;
+
+    /**
+     * Checks if the given content starts as a binary fleet file. Content is read from its
+     * position, and its position is not changed.
+     *
+     * @param content content
+     * @return boolean for result
+     */
+    public static boolean isBinary(final ByteBuffer content) {
+        return content.remaining() >= 4 && content.getInt(content.position()) == BinaryFleetWriter.MAGIC;
+    }
+
+    /**
+     * Checks if the given file starts as a binary fleet file.
+     *
+     * @param file file
+     * @return boolean for result
+     * @throws UncheckedIOException if the file can not be read
+     */
+    public static boolean isBinary(final Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer magic = ByteBuffer.allocate(4);
+            int read = 0;
+            while (magic.hasRemaining() && read >= 0) {
+                read = channel.read(magic);
+            }
+            magic.flip();
+            return isBinary(magic);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read input file " + file, e);
+        }
+    }
+
+    /**
+     * Reads the given binary fleet file in a {@link FleetFile}.
+     *
+     * @param file binary fleet file
+     * @return {@link FleetFile} garden and fleet of the file
+     * @throws ApplicationParamException if the file is not a valid binary fleet file
+     * @throws UncheckedIOException      if the file can not be read
+     */
+    public static FleetFile read(final Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ApplicationParamException("Binary fleet file is too big : " + channel.size() + " bytes");
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read binary fleet file " + file, e);
+        }
+    }
+
+    /**
+     * Reads the given content, in the binary fleet format, in a {@link FleetFile}. Content is read
+     * from its position to its limit, and its position is not changed. Records and directions are
+     * copied in the fleet arrays, directions unpacked in one byte each.
+     *
+     * @param content content in the binary fleet format
+     * @return {@link FleetFile} garden and fleet of the content
+     * @throws ApplicationParamException if the content is not valid
+     */
+    public static FleetFile read(final ByteBuffer content) {
+        final ByteBuffer buffer = content.duplicate().order(ByteOrder.BIG_ENDIAN);
+        final int start = buffer.position();
+        final Header header = header(buffer, start, buffer.remaining());
+        if (header.directionNumber > Integer.MAX_VALUE) {
+            throw new ApplicationParamException("Too many directions for a heap fleet : " + header.directionNumber + ", use an off-heap fleet");
+        }
+        final int mowerNumber = header.mowerNumber;
+        final int directionNumber = (int) header.directionNumber;
+
+        final int[] coordinatesX = new int[mowerNumber];
+        final int[] coordinatesY = new int[mowerNumber];
+        final byte[] orientations = new byte[mowerNumber];
+        final int[] directionOffsets = new int[mowerNumber + 1];
+        int record = start + BinaryFleetWriter.HEADER_SIZE;
+        for (int i = 0; i < mowerNumber; i++, record += BinaryFleetWriter.MOWER_SIZE) {
+            coordinatesX[i] = buffer.getInt(record);
+            coordinatesY[i] = buffer.getInt(record + 4);
+            final long offset = buffer.getLong(record + 8);
+            orientations[i] = buffer.get(record + 16);
+            checkRecord(i, orientations[i], offset, i == 0 ? 0 : directionOffsets[i - 1], directionNumber);
+            directionOffsets[i] = (int) offset;
+        }
+        directionOffsets[mowerNumber] = directionNumber;
+
+        final Fleet fleet = Fleet.of(coordinatesX, coordinatesY, orientations,
+                readDirections(buffer, start + (int) header.directionsStart, directionNumber), directionOffsets);
+        return new FleetFile(header.garden, fleet);
+    }
+
+    /**
+     * Maps the given binary fleet file in an {@link OffHeapFleetFile}. Records and directions are
+     * checked once by a sequential scan of the mapped file, then read from it as they are, so the
+     * heap does not grow with the fleet size. Records and directions are mapped by windows, so the
+     * direction number of the fleet is not limited by the size of a buffer. The file must not be
+     * changed while the fleet is used.
+     *
+     * @param file binary fleet file
+     * @return {@link OffHeapFleetFile} garden and off-heap fleet of the file
+     * @throws ApplicationParamException if the file is not a valid binary fleet file
+     * @throws UncheckedIOException      if the file can not be read
+     */
+    public static OffHeapFleetFile map(final Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), BinaryFleetWriter.HEADER_SIZE));
+            final Header header = header(headerBuffer, 0, channel.size());
+
+            final ByteBuffer[] records = new ByteBuffer[(int) ((header.mowerNumber + (long) OffHeapFleet.WINDOW_RECORDS - 1) / OffHeapFleet.WINDOW_RECORDS)];
+            final long recordsSize = header.directionsStart - BinaryFleetWriter.HEADER_SIZE;
+            long previousOffset = 0;
+            for (int window = 0; window < records.length; window++) {
+                final long windowStart = window * MAX_WINDOW_SIZE;
+                records[window] = channel.map(FileChannel.MapMode.READ_ONLY, BinaryFleetWriter.HEADER_SIZE + windowStart,
+                        Math.min(MAX_WINDOW_SIZE, recordsSize - windowStart));
+                for (int record = 0; record < records[window].capacity(); record += BinaryFleetWriter.MOWER_SIZE) {
+                    final int mower = (int) ((windowStart + record) / BinaryFleetWriter.MOWER_SIZE);
+                    final long offset = records[window].getLong(record + 8);
+                    checkRecord(mower, records[window].get(record + 16), offset, previousOffset, header.directionNumber);
+                    previousOffset = offset;
+                }
+            }
+            if (header.mowerNumber > 0) {
+                checkMowerDirections(header.mowerNumber - 1, previousOffset, header.directionNumber);
+            }
+
+            final ByteBuffer[] directions = new ByteBuffer[OffHeapFleet.directionWindowNumber(header.directionNumber)];
+            for (int window = 0; window < directions.length; window++) {
+                directions[window] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        header.directionsStart + (long) window * OffHeapFleet.DIRECTION_WINDOW_SIZE,
+                        OffHeapFleet.directionWindowSize(header.directionNumber, window));
+            }
+            checkDirections(directions, header.directionNumber);
+            return new OffHeapFleetFile(header.garden, OffHeapFleet.of(records, directions, header.mowerNumber, header.directionNumber));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read binary fleet file " + file, e);
+        }
+    }
+
+    /**
+     * Reads and checks the header of the given content of the given size, from the given offset.
+     */
+    private static Header header(final ByteBuffer buffer, final int start, final long size) {
+        if (size < BinaryFleetWriter.HEADER_SIZE || buffer.getInt(start) != BinaryFleetWriter.MAGIC) {
+            throw new ApplicationParamException("Invalid binary fleet file");
+        }
+        if (buffer.getInt(start + 4) != BinaryFleetWriter.VERSION) {
+            throw new ApplicationParamException("Unsupported binary fleet file version " + buffer.getInt(start + 4));
+        }
+
+        final Garden garden = new Garden(buffer.getInt(start + 8), buffer.getInt(start + 12), buffer.getInt(start + 16), buffer.getInt(start + 20));
+        if (garden.getHorizontalLimitMin() > garden.getHorizontalLimitMax() || garden.getVerticalLimitMin() > garden.getVerticalLimitMax()) {
+            throw new ApplicationParamException("Invalid garden bounds in binary fleet file");
+        }
+        final int mowerNumber = buffer.getInt(start + 24);
+        final long directionNumber = buffer.getLong(start + 28);
+        final long directionsStart = BinaryFleetWriter.HEADER_SIZE + (long) mowerNumber * BinaryFleetWriter.MOWER_SIZE;
+        if (mowerNumber < 0 || directionNumber < 0 || size != directionsStart + OffHeapFleet.packedSize(directionNumber)) {
+            throw new ApplicationParamException("Truncated binary fleet file");
+        }
+        return new Header(garden, mowerNumber, directionNumber, directionsStart);
+    }
+
+    /**
+     * Checks the record of the given mower, and the direction number of the previous mower, that
+     * ends at the first direction of this one.
+     */
+    private static void checkRecord(final int mower, final byte orientation, final long offset, final long previousOffset, final long directionNumber) {
+        if ((orientation & 0xFF) > 3) {
+            throw new ApplicationParamException("Invalid orientation code " + orientation + " of mower " + mower);
+        }
+        if (offset < previousOffset || offset > directionNumber || mower == 0 && offset != 0) {
+            throw new ApplicationParamException("Invalid first direction " + offset + " of mower " + mower);
+        }
+        if (mower > 0) {
+            checkMowerDirections(mower - 1, previousOffset, offset);
+        }
+    }
+
+    /**
+     * Checks that the given mower, whose directions are from {@code from} (inclusive) to
+     * {@code to} (exclusive), has at most {@link Integer#MAX_VALUE} directions.
+     */
+    private static void checkMowerDirections(final int mower, final long from, final long to) {
+        if (to - from > Integer.MAX_VALUE) {
+            throw new ApplicationParamException("Too many directions for mower " + mower + " : " + (to - from));
+        }
+    }
+
+    /**
+     * Unpacks the given number of directions from the given offset. A byte contains an invalid
+     * code 3 if one of its 2 bits pairs has both bits set.
+     */
+    private static byte[] readDirections(final ByteBuffer buffer, final int offset, final int directionNumber) {
+        final byte[] directions = new byte[directionNumber];
+        final int fullBytes = directionNumber >>> 2;
+        int invalid = 0;
+        for (int i = 0; i < fullBytes; i++) {
+            final int packed = buffer.get(offset + i);
+            invalid |= packed & (packed >>> 1) & 0x55;
+            final int direction = i << 2;
+            directions[direction] = (byte) (packed & 3);
+            directions[direction + 1] = (byte) ((packed >>> 2) & 3);
+            directions[direction + 2] = (byte) ((packed >>> 4) & 3);
+            directions[direction + 3] = (byte) ((packed >>> 6) & 3);
+        }
+        for (int direction = fullBytes << 2; direction < directionNumber; direction++) {
+            final int code = (buffer.get(offset + fullBytes) >>> ((direction & 3) << 1)) & 3;
+            invalid |= code & (code >>> 1);
+            directions[direction] = (byte) code;
+        }
+
+        if (invalid != 0) {
+            throw new ApplicationParamException("Invalid direction code in binary fleet file");
+        }
+        return directions;
+    }
+
+    /**
+     * Checks the given number of packed directions, window by window, without unpacking them.
+     * Bits after the last direction are ignored.
+     */
+    private static void checkDirections(final ByteBuffer[] directions, final long directionNumber) {
+        int invalid = 0;
+        for (int window = 0; window < directions.length; window++) {
+            final boolean partialLastByte = window == directions.length - 1 && (directionNumber & 3) != 0;
+            final int fullBytes = directions[window].capacity() - (partialLastByte ? 1 : 0);
+            for (int i = 0; i < fullBytes; i++) {
+                final int packed = directions[window].get(i);
+                invalid |= packed & (packed >>> 1) & 0x55;
+            }
+            if (partialLastByte) {
+                final int packed = directions[window].get(fullBytes) & ((1 << ((directionNumber & 3) << 1)) - 1);
+                invalid |= packed & (packed >>> 1) & 0x55;
+            }
+        }
+
+        if (invalid != 0) {
+            throw new ApplicationParamException("Invalid direction code in binary fleet file");
+        }
+    }
+
+    /**
+     * Header of a binary fleet file.
+     */
+    private static final class Header {
+
+        private final Garden garden;
+        private final int mowerNumber;
+        private final long directionNumber;
+        private final long directionsStart;
+
+        private Header(final Garden garden, final int mowerNumber, final long directionNumber, final long directionsStart) {
+            this.garden = garden;
+            this.mowerNumber = mowerNumber;
+            this.directionNumber = directionNumber;
+            this.directionsStart = directionsStart;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.domain.Position;
+import com.mowitnow.domain.type.Orientation;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.exception.ApplicationParamException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Writer of binary fleet files, read by {@link BinaryFleetReader}. A fleet is parsed from the
+ * text input file once, then its binary file is decoded without any parsing on each run.<br>
+ * File layout, big endian :
+ * <pre>
+ * header    : magic (int), version (int),
+ *             garden horizontal min, horizontal max, vertical min, vertical max (ints),
+ *             mower number (int), direction number (long)
+ * mower     : x (int), y (int), index of its first direction (long), orientation ordinal (byte),
+ *             7 reserved bytes, for each mower : records have a fixed width of 24 bytes
+ * direction : direction ordinals of all mowers end to end, 2 bits by direction, 4 by byte from
+ *             the low bits
+ * </pre>
+ * Directions of the mower {@code i} are from its first direction (inclusive) to the first
+ * direction of the mower {@code i + 1}, or the direction number for the last mower (exclusive).
+ * The direction number of the fleet is a {@code long}, so it does not limit the fleet size, but a
+ * mower has at most {@link Integer#MAX_VALUE} directions. Version 1 files, with {@code int}
+ * direction indexes, are not read anymore.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class BinaryFleetWriter {
+
+    static final int MAGIC = 0x4D57464C;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 36;
+    static final int MOWER_SIZE = 24;
+
+    private static final byte[] RESERVED = new byte[7];
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Converts the given text input file to a binary fleet file. The input file is read in a
+     * single pass and written as it is read : mower records go to the binary file and packed
+     * directions to a temporary file, appended at the end, so the heap does not grow with the
+     * fleet size. The binary file is deleted if the input file is not valid.
+     *
+     * @param inputFile  text input file
+     * @param binaryFile binary fleet file, created or replaced
+     * @throws ApplicationParamException if the input file is not valid or too big for the binary
+     *                                   format
+     * @throws IOException               if a file can not be read or written
+     */
+    public static void convert(final Path inputFile, final Path binaryFile) throws IOException {
+        final Path directionFile = Files.createTempFile(binaryFile.toAbsolutePath().getParent(), binaryFile.getFileName().toString(), ".directions");
+        boolean converted = false;
+        try (FileChannel output = FileChannel.open(binaryFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             FileChannel directions = FileChannel.open(directionFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            output.position(HEADER_SIZE);
+            final ConvertingHandler handler = new ConvertingHandler(
+                    new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(output), BUFFER_SIZE)),
+                    new BufferedOutputStream(Channels.newOutputStream(directions), BUFFER_SIZE));
+            FleetFileReader.read(inputFile, handler);
+            handler.flush();
+
+            for (long position = 0; position < directions.size(); ) {
+                position += directions.transferTo(position, directions.size() - position, output);
+            }
+            final ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_SIZE);
+            writeHeader(new DataOutputStream(header), handler.garden, handler.mowerNumber, handler.directionNumber);
+            output.write(ByteBuffer.wrap(header.toByteArray()), 0);
+            converted = true;
+        } finally {
+            Files.deleteIfExists(directionFile);
+            if (!converted) {
+                Files.deleteIfExists(binaryFile);
+            }
+        }
+    }
+
+    /**
+     * Writes the given garden and fleet, with the current mower positions, to the given output.
+     * The output is not closed.
+     *
+     * @param garden garden
+     * @param fleet  fleet
+     * @param output output
+     * @throws IOException if the output fails
+     */
+    public static void write(final Garden garden, final Fleet fleet, final OutputStream output) throws IOException {
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+        writeHeader(data, garden, fleet.size(), fleet.totalDirectionNumber());
+
+        long firstDirection = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            final Position position = fleet.position(i);
+            writeMower(data, position.getCoordinateX(), position.getCoordinateY(), firstDirection, position.getOrientation());
+            firstDirection += fleet.directionNumber(i);
+        }
+
+        int packed = 0;
+        int packedNumber = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            for (int j = 0; j < fleet.directionNumber(i); j++) {
+                packed |= fleet.direction(i, j).ordinal() << (packedNumber << 1);
+                if (++packedNumber == 4) {
+                    data.write(packed);
+                    packed = 0;
+                    packedNumber = 0;
+                }
+            }
+        }
+        if (packedNumber > 0) {
+            data.write(packed);
+        }
+        data.flush();
+    }
+
+    private static void writeHeader(final DataOutputStream data, final Garden garden, final int mowerNumber, final long directionNumber) throws IOException {
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(garden.getHorizontalLimitMin());
+        data.writeInt(garden.getHorizontalLimitMax());
+        data.writeInt(garden.getVerticalLimitMin());
+        data.writeInt(garden.getVerticalLimitMax());
+        data.writeInt(mowerNumber);
+        data.writeLong(directionNumber);
+    }
+
+    private static void writeMower(final DataOutputStream data,
+                                   final int coordinateX,
+                                   final int coordinateY,
+                                   final long firstDirection,
+                                   final Orientation orientation) throws IOException {
+        data.writeInt(coordinateX);
+        data.writeInt(coordinateY);
+        data.writeLong(firstDirection);
+        data.writeByte(orientation.ordinal());
+        data.write(RESERVED);
+    }
+
+    /**
+     * Handler that writes mower records and packed directions as the input file is read. Write
+     * errors are thrown as {@link UncheckedIOException}, because a handler can not throw checked
+     * exceptions.
+     */
+    private static final class ConvertingHandler implements FleetHandler {
+
+        private final DataOutputStream records;
+        private final OutputStream directions;
+        private Garden garden;
+        private int mowerNumber;
+        private long directionNumber;
+        private int mowerDirectionNumber;
+        private int packed;
+
+        private ConvertingHandler(final DataOutputStream records, final OutputStream directions) {
+            this.records = records;
+            this.directions = directions;
+        }
+
+        @Override
+        public void garden(final int horizontalLimitMax, final int verticalLimitMax) {
+            this.garden = new Garden(0, horizontalLimitMax, 0, verticalLimitMax);
+        }
+
+        @Override
+        public void mower(final int coordinateX, final int coordinateY, final Orientation orientation) {
+            if (mowerNumber == Integer.MAX_VALUE) {
+                throw new ApplicationParamException("Too many mowers for the binary fleet format");
+            }
+            try {
+                writeMower(records, coordinateX, coordinateY, directionNumber, orientation);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write binary fleet file", e);
+            }
+            mowerNumber++;
+            mowerDirectionNumber = 0;
+        }
+
+        @Override
+        public void direction(final int direction) {
+            if (mowerDirectionNumber == Integer.MAX_VALUE) {
+                throw new ApplicationParamException("Too many directions for mower " + (mowerNumber - 1) + " in the binary fleet format");
+            }
+            if (directionNumber == Long.MAX_VALUE) {
+                throw new ApplicationParamException("Too many directions for the binary fleet format");
+            }
+            final int shift = (int) (directionNumber & 3) << 1;
+            packed |= direction << shift;
+            directionNumber++;
+            mowerDirectionNumber++;
+            if (shift == 6) {
+                writeDirections();
+            }
+        }
+
+        private void writeDirections() {
+            try {
+                directions.write(packed);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write binary fleet file", e);
+            }
+            packed = 0;
+        }
+
+        private void flush() throws IOException {
+            if ((directionNumber & 3) != 0) {
+                writeDirections();
+            }
+            records.flush();
+            directions.flush();
+        }
+    }
+}
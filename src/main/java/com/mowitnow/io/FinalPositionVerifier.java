@@ -0,0 +1,303 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.Position;
+import com.mowitnow.dto.MismatchDto;
+import com.mowitnow.dto.VerificationReportDto;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.engine.WeightedRangeTask;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Verifier of the final positions of a fleet against an expected results file, in the format of
+ * {@link FinalPositionWriter} : line {@code i} is the expected final position of mower {@code i}.
+ * <br>
+ * The expected file is never loaded in the heap : it is split in chunks of about
+ * {@link #CHUNK_SIZE} bytes, cut after a line end, and each chunk is memory mapped. Lines of
+ * each chunk are counted in parallel, which gives the first mower of each chunk, then chunks are
+ * compared in parallel : expected coordinates are parsed from the mapped bytes and compared to
+ * the fleet, and only mismatching lines are decoded as strings. Each chunk keeps at most the max
+ * mismatch number, so the report is bounded whatever the number of mismatches.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class FinalPositionVerifier {
+
+    /**
+     * Default max number of mismatches listed in a report.
+     */
+    public static final int DEFAULT_MAX_MISMATCHES = 1000;
+
+    /**
+     * Size of a chunk of the expected file, in bytes, before it is extended to the next line end.
+     */
+    static final int CHUNK_SIZE = 1 << 22;
+
+    private static final int BOUND_SEARCH_SIZE = 1 << 12;
+    private static final int MAX_NUMBER_DIGITS = 10;
+    private static final int MAX_EXPECTED_LENGTH = 64;
+
+    /**
+     * Verifies the final positions of the given fleet against the given expected results file. A
+     * mower without expected line, or an expected line without mower, is a mismatch.
+     *
+     * @param fleet         simulated fleet
+     * @param expectedFile  expected results file
+     * @param pool          fork/join pool, null to verify on the current thread
+     * @param maxMismatches max number of mismatches listed in the report
+     * @return {@link VerificationReportDto} verification report
+     * @throws UncheckedIOException if the expected file can not be read
+     */
+    public static VerificationReportDto verify(final Fleet fleet, final Path expectedFile, final ForkJoinPool pool, final int maxMismatches) {
+        return verify(fleet, expectedFile, pool, maxMismatches, CHUNK_SIZE);
+    }
+
+    /**
+     * Verifies the final positions of the given fleet, with chunks of the given size.
+     */
+    static VerificationReportDto verify(final Fleet fleet,
+                                        final Path expectedFile,
+                                        final ForkJoinPool pool,
+                                        final int maxMismatches,
+                                        final int chunkSize) {
+        try (FileChannel channel = FileChannel.open(expectedFile, StandardOpenOption.READ)) {
+            final List<Long> bounds = chunkBounds(channel, chunkSize);
+            final int chunkNumber = bounds.size() - 1;
+            final ByteBuffer[] chunks = new ByteBuffer[chunkNumber];
+            for (int i = 0; i < chunkNumber; i++) {
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, bounds.get(i), bounds.get(i + 1) - bounds.get(i));
+            }
+
+            final long[] firstLines = new long[chunkNumber + 1];
+            forEachChunk(pool, chunkNumber, chunk -> firstLines[chunk + 1] = lineNumber(chunks[chunk]));
+            for (int i = 0; i < chunkNumber; i++) {
+                firstLines[i + 1] += firstLines[i];
+            }
+            final Mismatches[] chunkMismatches = new Mismatches[chunkNumber];
+            forEachChunk(pool, chunkNumber, chunk -> chunkMismatches[chunk] = compare(fleet, chunks[chunk], firstLines[chunk], maxMismatches));
+
+            final Mismatches mismatches = new Mismatches(maxMismatches);
+            for (final Mismatches chunk : chunkMismatches) {
+                mismatches.addAll(chunk);
+            }
+            for (long mower = firstLines[chunkNumber]; mower < fleet.size(); mower++) {
+                mismatches.add(mower, null, format(fleet.position((int) mower)));
+            }
+
+            return VerificationReportDto.builder()
+                    .mowerNumber(fleet.size())
+                    .expectedNumber(firstLines[chunkNumber])
+                    .mismatchNumber(mismatches.number)
+                    .mismatches(mismatches.list)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read expected results file " + expectedFile, e);
+        }
+    }
+
+    /**
+     * Writes the given report to the given writer : a summary line, then a line by listed
+     * mismatch. The writer is not closed.
+     * <pre>
+     * Mowers 2, expected 2, mismatches 1
+     * mower 1: expected 5 1 E, actual 5 2 N
+     * </pre>
+     *
+     * @param report verification report
+     * @param writer writer
+     * @throws IOException if the writer fails
+     */
+    public static void writeReport(final VerificationReportDto report, final Writer writer) throws IOException {
+        writer.write(String.format("Mowers %d, expected %d, mismatches %d%n", report.getMowerNumber(), report.getExpectedNumber(), report.getMismatchNumber()));
+        for (final MismatchDto mismatch : report.getMismatches()) {
+            writer.write(String.format("mower %d: expected %s, actual %s%n", mismatch.getMowerId(),
+                    mismatch.getExpected() == null ? "none" : mismatch.getExpected(),
+                    mismatch.getActual() == null ? "none" : mismatch.getActual()));
+        }
+    }
+
+    /**
+     * Gets the bounds of the chunks of the file : chunks start at 0, then after the first line
+     * end found from every chunk size bytes, and the last bound is the file size.
+     */
+    private static List<Long> chunkBounds(final FileChannel channel, final int chunkSize) throws IOException {
+        final long size = channel.size();
+        final List<Long> bounds = new ArrayList<>();
+        final ByteBuffer buffer = ByteBuffer.allocate(BOUND_SEARCH_SIZE);
+        bounds.add(0L);
+
+        long bound = nextLineStart(channel, chunkSize, buffer);
+        while (bound < size) {
+            bounds.add(bound);
+            bound = nextLineStart(channel, bound + chunkSize, buffer);
+        }
+        bounds.add(size);
+        return bounds;
+    }
+
+    /**
+     * Gets the start of the first line that starts at or after the given position, or the file
+     * size if there is none.
+     */
+    private static long nextLineStart(final FileChannel channel, final long position, final ByteBuffer buffer) throws IOException {
+        long start = position - 1;
+        while (start < channel.size()) {
+            buffer.clear();
+            final int read = channel.read(buffer, start);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            start += read;
+        }
+        return channel.size();
+    }
+
+    /**
+     * Runs the given action for each chunk, in parallel on the given pool if there is one.
+     */
+    private static void forEachChunk(final ForkJoinPool pool, final int chunkNumber, final IntConsumer action) {
+        final WeightedRangeTask.RangeAction rangeAction = (from, to) -> {
+            for (int chunk = from; chunk < to; chunk++) {
+                action.accept(chunk);
+            }
+        };
+        if (pool == null) {
+            rangeAction.run(0, chunkNumber);
+        } else {
+            pool.invoke(new WeightedRangeTask(i -> i, rangeAction, 1, 0, chunkNumber));
+        }
+    }
+
+    /**
+     * Counts the lines of the given chunk : its line ends, and its last line if it has no line
+     * end, which can only be the last line of the file.
+     */
+    private static long lineNumber(final ByteBuffer chunk) {
+        long lines = 0;
+        for (int i = 0; i < chunk.limit(); i++) {
+            if (chunk.get(i) == '\n') {
+                lines++;
+            }
+        }
+        return chunk.limit() > 0 && chunk.get(chunk.limit() - 1) != '\n' ? lines + 1 : lines;
+    }
+
+    /**
+     * Compares the lines of the given chunk to the fleet, from the given line.
+     */
+    private static Mismatches compare(final Fleet fleet, final ByteBuffer chunk, final long firstLine, final int maxMismatches) {
+        final Mismatches mismatches = new Mismatches(maxMismatches);
+        long line = firstLine;
+        int start = 0;
+        while (start < chunk.limit()) {
+            int end = start;
+            while (end < chunk.limit() && chunk.get(end) != '\n') {
+                end++;
+            }
+            final int lineEnd = end > start && chunk.get(end - 1) == '\r' ? end - 1 : end;
+
+            if (line >= fleet.size()) {
+                mismatches.add(line, text(chunk, start, lineEnd), null);
+            } else {
+                final Position position = fleet.position((int) line);
+                if (!matches(chunk, start, lineEnd, position)) {
+                    mismatches.add(line, text(chunk, start, lineEnd), format(position));
+                }
+            }
+            line++;
+            start = end + 1;
+        }
+        return mismatches;
+    }
+
+    /**
+     * Checks if the given line is exactly {@code "x y orientation"} of the given position.
+     */
+    private static boolean matches(final ByteBuffer chunk, final int start, final int end, final Position position) {
+        final int afterX = matchNumber(chunk, start, end, position.getCoordinateX());
+        if (afterX < 0 || afterX >= end || chunk.get(afterX) != ' ') {
+            return false;
+        }
+        final int afterY = matchNumber(chunk, afterX + 1, end, position.getCoordinateY());
+        return afterY >= 0 && afterY + 2 == end && chunk.get(afterY) == ' '
+                && chunk.get(afterY + 1) == position.getOrientation().name().charAt(0);
+    }
+
+    /**
+     * Reads the number that starts at the given index, and gets the index after it, or -1 if it
+     * is not the given number.
+     */
+    private static int matchNumber(final ByteBuffer chunk, final int start, final int end, final int expected) {
+        final boolean negative = start < end && chunk.get(start) == '-';
+        final int digitsStart = negative ? start + 1 : start;
+        int index = digitsStart;
+        long value = 0;
+        while (index < end && index - digitsStart < MAX_NUMBER_DIGITS && chunk.get(index) >= '0' && chunk.get(index) <= '9') {
+            value = value * 10 + chunk.get(index) - '0';
+            index++;
+        }
+        return index > digitsStart && (negative ? -value : value) == expected ? index : -1;
+    }
+
+    private static String text(final ByteBuffer chunk, final int start, final int end) {
+        final byte[] bytes = new byte[Math.min(end - start, MAX_EXPECTED_LENGTH)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = chunk.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static String format(final Position position) {
+        return position.getCoordinateX() + " " + position.getCoordinateY() + " " + position.getOrientation().name();
+    }
+
+    /**
+     * Mismatches found in a part of the verification : all are counted, the first ones are
+     * listed.
+     */
+    private static final class Mismatches {
+
+        private final int max;
+        private final List<MismatchDto> list = new ArrayList<>();
+        private long number;
+
+        private Mismatches(final int max) {
+            this.max = max;
+        }
+
+        private void add(final long mowerId, final String expected, final String actual) {
+            number++;
+            if (list.size() < max) {
+                list.add(MismatchDto.builder()
+                        .mowerId(mowerId)
+                        .expected(expected)
+                        .actual(actual)
+                        .build());
+            }
+        }
+
+        private void addAll(final Mismatches mismatches) {
+            number += mismatches.number;
+            list.addAll(mismatches.list.subList(0, Math.min(mismatches.list.size(), max - list.size())));
+        }
+    }
+}
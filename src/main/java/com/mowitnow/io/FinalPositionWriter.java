@@ -0,0 +1,39 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.Position;
+import com.mowitnow.engine.Fleet;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Writer of the final positions of a fleet, one line by mower, in mowers order :
+ * <pre>
+ * 1 3 N
+ * 5 1 E
+ * </pre>
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class FinalPositionWriter {
+
+    /**
+     * Writes the final positions of the given fleet to the given writer. The writer is not
+     * closed.
+     *
+     * @param fleet  simulated fleet
+     * @param writer writer
+     * @throws IOException if the writer fails
+     */
+    public static void write(final Fleet fleet, final Writer writer) throws IOException {
+        for (int i = 0; i < fleet.size(); i++) {
+            final Position position = fleet.position(i);
+            writer.append(String.valueOf(position.getCoordinateX())).append(' ')
+                    .append(String.valueOf(position.getCoordinateY())).append(' ')
+                    .append(position.getOrientation().name()).append('\n');
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.engine.Fleet;
+
+import lombok.Value;
+
+/**
+ * Object that contains the garden and the fleet read from an input file.
+ *
+ * @author Mazlum TOSUN
+ */
+@Value
+public class FleetFile {
+
+    private final Garden garden;
+    private final Fleet fleet;
+}
@@ -0,0 +1,381 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+import com.mowitnow.engine.FleetBuilder;
+import com.mowitnow.exception.ApplicationParamException;
+import com.mowitnow.validator.ValidationError;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Reader of the input file format :
+ * <pre>
+ * 5 5
+ * 1 2 N
+ * GAGAGAGAA
+ * 3 3 E
+ * AADAADADDA
+ * </pre>
+ * The first line contains the garden upper right corner, then each mower has a line with its
+ * initial position and orientation and a line with its directions.<br>
+ * The file is memory mapped by windows and read in a single pass, byte by byte : coordinates can
+ * have many digits and no {@link String} is built. Any whitespace separates fields, so the file
+ * can also be written in one line.<br>
+ * The file is validated in the same pass : an error is recorded with its line and column, without
+ * stack trace, and reading goes on from the next line, without building the fleet anymore. All
+ * errors are reported by a single {@link ApplicationParamException} at the end of the file, or as
+ * soon as the max error number is reached, so an invalid file is rejected at least as fast as a
+ * valid one is read.<br>
+ * A file or content in the binary fleet format, recognized by its first bytes, is read by the
+ * {@link BinaryFleetReader} instead, so binary files are accepted wherever input files are.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class FleetFileReader {
+
+    /**
+     * Default max number of errors reported for an input file.
+     */
+    public static final int DEFAULT_MAX_ERRORS = 100;
+
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    /**
+     * Reads the given input file in a {@link FleetFile}.
+     *
+     * @param file input file
+     * @return {@link FleetFile} garden and fleet of the file
+     * @throws ApplicationParamException if the file content is not valid
+     * @throws UncheckedIOException      if the file can not be read
+     */
+    public static FleetFile read(final Path file) {
+        return read(file, DEFAULT_MAX_ERRORS);
+    }
+
+    /**
+     * Reads the given input file in a {@link FleetFile}, stopping at the given number of errors.
+     *
+     * @param file      input file
+     * @param maxErrors max number of errors reported
+     * @return {@link FleetFile} garden and fleet of the file
+     * @throws ApplicationParamException if the file content is not valid
+     * @throws UncheckedIOException      if the file can not be read
+     */
+    public static FleetFile read(final Path file, final int maxErrors) {
+        if (BinaryFleetReader.isBinary(file)) {
+            return BinaryFleetReader.read(file);
+        }
+        final FleetFileHandler handler = new FleetFileHandler();
+        read(file, handler, maxErrors);
+
+        return new FleetFile(handler.garden, handler.builder.build());
+    }
+
+    /**
+     * Reads the given content, in the input file format, in a {@link FleetFile}. Content is read
+     * from its position to its limit, and its position is not changed.
+     *
+     * @param content content in the input file format
+     * @return {@link FleetFile} garden and fleet of the content
+     * @throws ApplicationParamException if the content is not valid
+     */
+    public static FleetFile read(final ByteBuffer content) {
+        if (BinaryFleetReader.isBinary(content)) {
+            return BinaryFleetReader.read(content);
+        }
+        final FleetFileHandler handler = new FleetFileHandler();
+        final Parser parser = new Parser(handler, DEFAULT_MAX_ERRORS);
+        for (int i = content.position(); i < content.limit(); i++) {
+            parser.accept(content.get(i));
+        }
+        parser.finish();
+
+        return new FleetFile(handler.garden, handler.builder.build());
+    }
+
+    /**
+     * Reads the given input file and sends its content to the given {@link FleetHandler}.
+     *
+     * @param file    input file
+     * @param handler handler
+     * @throws ApplicationParamException if the file content is not valid
+     * @throws UncheckedIOException      if the file can not be read
+     */
+    public static void read(final Path file, final FleetHandler handler) {
+        read(file, handler, DEFAULT_MAX_ERRORS);
+    }
+
+    /**
+     * Reads the given input file and sends its content to the given {@link FleetHandler}, stopping
+     * at the given number of errors. The handler is not called anymore after the first error.
+     *
+     * @param file      input file
+     * @param handler   handler
+     * @param maxErrors max number of errors reported
+     * @throws ApplicationParamException if the file content is not valid
+     * @throws UncheckedIOException      if the file can not be read
+     */
+    public static void read(final Path file, final FleetHandler handler, final int maxErrors) {
+        read(file, handler, maxErrors, WINDOW_SIZE);
+    }
+
+    static void read(final Path file, final FleetHandler handler, final int maxErrors, final long windowSize) {
+        final Parser parser = new Parser(handler, maxErrors);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            for (long position = 0; position < size; position += windowSize) {
+                final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position));
+                final int limit = window.limit();
+                for (int i = 0; i < limit; i++) {
+                    parser.accept(window.get(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read input file " + file, e);
+        }
+
+        parser.finish();
+    }
+
+    /**
+     * Handler that builds the garden and the fleet of a file.
+     */
+    private static final class FleetFileHandler implements FleetHandler {
+
+        private final FleetBuilder builder = FleetBuilder.builder();
+        private Garden garden;
+
+        @Override
+        public void garden(final int horizontalLimitMax, final int verticalLimitMax) {
+            this.garden = new Garden(0, horizontalLimitMax, 0, verticalLimitMax);
+        }
+
+        @Override
+        public void mower(final int coordinateX, final int coordinateY, final Orientation orientation) {
+            builder.mower(coordinateX, coordinateY, orientation);
+        }
+
+        @Override
+        public void direction(final int direction) {
+            builder.direction(direction);
+        }
+    }
+
+    /**
+     * Handler that ignores the content, once the file is known to be invalid.
+     */
+    private static final class IgnoringHandler implements FleetHandler {
+
+        private static final IgnoringHandler INSTANCE = new IgnoringHandler();
+
+        @Override
+        public void garden(final int horizontalLimitMax, final int verticalLimitMax) {
+            // Content is not used.
+        }
+
+        @Override
+        public void mower(final int coordinateX, final int coordinateY, final Orientation orientation) {
+            // Content is not used.
+        }
+
+        @Override
+        public void direction(final int direction) {
+            // Content is not used.
+        }
+    }
+
+    /**
+     * State machine that parses the input bytes one by one.<br>
+     * After an error, the rest of the line is skipped and the next line is read as directions, or
+     * as a mower if it starts with a digit, which is what follows any line of a valid file.
+     */
+    private static final class Parser {
+
+        private static final int GARDEN_X = 0;
+        private static final int GARDEN_Y = 1;
+        private static final int MOWER_X = 2;
+        private static final int MOWER_Y = 3;
+        private static final int ORIENTATION = 4;
+        private static final int DIRECTIONS = 5;
+
+        private static final int MAX_NUMBER = (Integer.MAX_VALUE - 9) / 10;
+
+        private final int maxErrors;
+        private final List<ValidationError> errors = new ArrayList<>();
+        private FleetHandler handler;
+
+        private int expected = GARDEN_X;
+        private boolean inField;
+        private boolean skippingLine;
+        private int number;
+        private int gardenX;
+        private int coordinateX;
+        private int coordinateY;
+        private Orientation orientation;
+        private int line = 1;
+        private int column;
+
+        private Parser(final FleetHandler handler, final int maxErrors) {
+            this.handler = handler;
+            this.maxErrors = maxErrors;
+        }
+
+        private void accept(final byte value) {
+            column++;
+            if (value == ' ' || value == '\t' || value == '\r' || value == '\n') {
+                if (!skippingLine) {
+                    endField();
+                }
+                if (value == '\n') {
+                    line++;
+                    column = 0;
+                    skippingLine = false;
+                }
+            } else if (skippingLine) {
+                return;
+            } else if (value >= '0' && value <= '9') {
+                acceptDigit(value - '0');
+            } else {
+                acceptLetter(value);
+            }
+        }
+
+        private void acceptDigit(final int digit) {
+            if (expected == DIRECTIONS && !inField) {
+                expected = MOWER_X;
+            }
+            if (expected == ORIENTATION || expected == DIRECTIONS) {
+                error("Unexpected digit");
+            } else if (inField && number > MAX_NUMBER) {
+                error("Coordinate is too big");
+            } else {
+                number = inField ? number * 10 + digit : digit;
+                inField = true;
+            }
+        }
+
+        private void acceptLetter(final byte value) {
+            if (expected == ORIENTATION && !inField) {
+                orientation = toOrientation(value);
+                if (orientation == null) {
+                    error("Invalid orientation '" + (char) value + "'");
+                } else {
+                    inField = true;
+                }
+            } else if (expected == DIRECTIONS) {
+                final int direction = toDirection(value);
+                if (direction < 0) {
+                    error("Invalid direction '" + (char) value + "'");
+                } else {
+                    handler.direction(direction);
+                    inField = true;
+                }
+            } else {
+                error("Unexpected character '" + (char) value + "'");
+            }
+        }
+
+        private void endField() {
+            if (!inField) {
+                return;
+            }
+            inField = false;
+
+            switch (expected) {
+                case GARDEN_X:
+                    gardenX = number;
+                    expected = GARDEN_Y;
+                    break;
+                case GARDEN_Y:
+                    handler.garden(gardenX, number);
+                    expected = MOWER_X;
+                    break;
+                case MOWER_X:
+                    coordinateX = number;
+                    expected = MOWER_Y;
+                    break;
+                case MOWER_Y:
+                    coordinateY = number;
+                    expected = ORIENTATION;
+                    break;
+                case ORIENTATION:
+                    handler.mower(coordinateX, coordinateY, orientation);
+                    expected = DIRECTIONS;
+                    break;
+                default:
+                    expected = MOWER_X;
+            }
+        }
+
+        private void finish() {
+            if (!skippingLine) {
+                endField();
+                if (expected != MOWER_X && expected != DIRECTIONS) {
+                    column++;
+                    error("Unexpected end of file");
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new ApplicationParamException(errors);
+            }
+        }
+
+        private static Orientation toOrientation(final byte value) {
+            switch (value) {
+                case 'N':
+                    return Orientation.N;
+                case 'E':
+                    return Orientation.E;
+                case 'W':
+                    return Orientation.W;
+                case 'S':
+                    return Orientation.S;
+                default:
+                    return null;
+            }
+        }
+
+        private static int toDirection(final byte value) {
+            switch (value) {
+                case 'G':
+                    return Direction.G.ordinal();
+                case 'D':
+                    return Direction.D.ordinal();
+                case 'A':
+                    return Direction.A.ordinal();
+                default:
+                    return -1;
+            }
+        }
+
+        /**
+         * Records an error at the current byte, then skips the rest of the line. Errors are
+         * thrown as soon as the max error number is reached.
+         */
+        private void error(final String reason) {
+            errors.add(new ValidationError(line, column, reason));
+            if (errors.size() >= maxErrors) {
+                throw new ApplicationParamException(errors);
+            }
+
+            handler = IgnoringHandler.INSTANCE;
+            skippingLine = true;
+            inField = false;
+            expected = DIRECTIONS;
+        }
+    }
+}
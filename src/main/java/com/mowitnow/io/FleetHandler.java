@@ -0,0 +1,36 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.type.Orientation;
+
+/**
+ * Handler of the events read from a fleet input, in input order : the garden first, then each
+ * mower followed by its directions.
+ *
+ * @author Mazlum TOSUN
+ */
+public interface FleetHandler {
+
+    /**
+     * Called with the garden upper right corner. Lower left corner is (0, 0).
+     *
+     * @param horizontalLimitMax horizontal X limit of garden
+     * @param verticalLimitMax   vertical Y limit of garden
+     */
+    void garden(final int horizontalLimitMax, final int verticalLimitMax);
+
+    /**
+     * Called with the initial position of a new mower.
+     *
+     * @param coordinateX x coordinate
+     * @param coordinateY y coordinate
+     * @param orientation orientation
+     */
+    void mower(final int coordinateX, final int coordinateY, final Orientation orientation);
+
+    /**
+     * Called with a direction of the last mower.
+     *
+     * @param direction direction ordinal
+     */
+    void direction(final int direction);
+}
@@ -0,0 +1,172 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.ObstacleMap;
+import com.mowitnow.exception.ApplicationParamException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Reader of obstacle files, in the portable bitmap format (PBM) :
+ * <pre>
+ * P1
+ * # 6x6 garden with a flower bed
+ * 6 6
+ * 0 0 0 0 0 0
+ * 0 1 1 0 0 0
+ * 0 1 1 0 0 0
+ * 0 0 0 0 0 0
+ * 0 0 0 0 0 0
+ * 0 0 0 0 0 0
+ * </pre>
+ * Black pixels (1) are obstacles, and the first row is the garden top side. Cells out of a non
+ * rectangular garden are given as obstacles. Both plain (P1) and raw (P4, one bit by pixel)
+ * formats are read, the raw format being the compact one for big gardens.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class ObstacleMapReader {
+
+    /**
+     * Reads the given obstacle file in an {@link ObstacleMap}.
+     *
+     * @param file obstacle file
+     * @return {@link ObstacleMap} obstacles of the file
+     * @throws ApplicationParamException if the file content is not valid
+     * @throws UncheckedIOException      if the file can not be read
+     */
+    public static ObstacleMap read(final Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ApplicationParamException("Obstacle file is too big : " + channel.size() + " bytes");
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read obstacle file " + file, e);
+        }
+    }
+
+    private static ObstacleMap read(final MappedByteBuffer buffer) {
+        final Header header = new Header(buffer);
+        final String magic = header.token();
+        if (!"P1".equals(magic) && !"P4".equals(magic)) {
+            throw new ApplicationParamException("Obstacle file is not a PBM file (P1 or P4)");
+        }
+
+        final int width = header.number();
+        final int height = header.number();
+        if (width <= 0 || height <= 0 || (long) width * height > (long) Integer.MAX_VALUE << 6) {
+            throw new ApplicationParamException("Invalid obstacle file size : " + width + "x" + height);
+        }
+
+        final long[] words = new long[(int) (((long) width * height + 63) >>> 6)];
+        if ("P1".equals(magic)) {
+            readPlain(header, width, height, words);
+        } else {
+            readRaw(header, width, height, words);
+        }
+        return new ObstacleMap(width, height, words);
+    }
+
+    private static void readPlain(final Header header, final int width, final int height, final long[] words) {
+        for (int row = height - 1; row >= 0; row--) {
+            for (int column = 0; column < width; column++) {
+                if (header.pixel()) {
+                    set(words, (long) row * width + column);
+                }
+            }
+        }
+    }
+
+    private static void readRaw(final Header header, final int width, final int height, final long[] words) {
+        final MappedByteBuffer buffer = header.buffer;
+        final int rowBytes = ((width - 1) >> 3) + 1;
+        if (buffer.remaining() < (long) rowBytes * height + 1) {
+            throw new ApplicationParamException("Unexpected end of obstacle file");
+        }
+        buffer.get();
+
+        for (int row = height - 1; row >= 0; row--) {
+            for (int column = 0; column < width; column += 8) {
+                final int pixels = buffer.get() & 0xFF;
+                for (int bit = 0; bit < 8 && column + bit < width; bit++) {
+                    if ((pixels & (0x80 >>> bit)) != 0) {
+                        set(words, (long) row * width + column + bit);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void set(final long[] words, final long cell) {
+        words[(int) (cell >>> 6)] |= 1L << cell;
+    }
+
+    /**
+     * Tokenizer of the PBM header and plain pixels, that skips whitespaces and comments.
+     */
+    private static final class Header {
+
+        private final MappedByteBuffer buffer;
+
+        private Header(final MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private String token() {
+            skipSeparators();
+            final StringBuilder token = new StringBuilder();
+            while (buffer.hasRemaining() && !isSeparator(buffer.get(buffer.position()))) {
+                token.append((char) buffer.get());
+            }
+            return token.toString();
+        }
+
+        private int number() {
+            final String token = token();
+            try {
+                return Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                throw new ApplicationParamException("Invalid obstacle file size '" + token + "'");
+            }
+        }
+
+        private boolean pixel() {
+            skipSeparators();
+            if (!buffer.hasRemaining()) {
+                throw new ApplicationParamException("Unexpected end of obstacle file");
+            }
+            final byte value = buffer.get();
+            if (value != '0' && value != '1') {
+                throw new ApplicationParamException("Invalid obstacle pixel '" + (char) value + "'");
+            }
+            return value == '1';
+        }
+
+        private void skipSeparators() {
+            while (buffer.hasRemaining()) {
+                final byte value = buffer.get(buffer.position());
+                if (value == '#') {
+                    while (buffer.hasRemaining() && buffer.get() != '\n') {
+                        // Skips comment.
+                    }
+                } else if (isSeparator(value)) {
+                    buffer.get();
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private static boolean isSeparator(final byte value) {
+            return value == ' ' || value == '\t' || value == '\r' || value == '\n';
+        }
+    }
+}
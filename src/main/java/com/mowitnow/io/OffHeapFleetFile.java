@@ -0,0 +1,18 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.engine.OffHeapFleet;
+
+import lombok.Value;
+
+/**
+ * Object that contains the garden and the off-heap fleet mapped from a binary fleet file.
+ *
+ * @author Mazlum TOSUN
+ */
+@Value
+public class OffHeapFleetFile {
+
+    private final Garden garden;
+    private final OffHeapFleet fleet;
+}
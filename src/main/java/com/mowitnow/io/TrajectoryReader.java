@@ -0,0 +1,230 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.Position;
+import com.mowitnow.domain.type.Orientation;
+import com.mowitnow.engine.TransitionTable;
+import com.mowitnow.exception.ApplicationParamException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader of trajectory files written by {@link TrajectoryWriter}, that replays the path of each
+ * mower. The file is memory mapped, and mowers are indexed when the file is opened, so the
+ * position of any mower at any step is found from the nearest checkpoint, by decoding at most
+ * {@link TrajectoryWriter#CHECKPOINT_INTERVAL} steps.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class TrajectoryReader implements Closeable {
+
+    private static final int WINDOW_SHIFT = 30;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] windows;
+    private final int checkpointInterval;
+    private final long[] mowerOffsets;
+
+    /**
+     * Handler of the steps of a replayed path.
+     */
+    @FunctionalInterface
+    public interface StepHandler {
+
+        /**
+         * Called for each step, in order.
+         *
+         * @param code        step code : direction ordinal if the step is accepted, {@link
+         *                    TrajectoryWriter#BLOCKED} otherwise
+         * @param coordinateX x coordinate after the step
+         * @param coordinateY y coordinate after the step
+         * @param orientation orientation after the step
+         */
+        void step(final int code, final int coordinateX, final int coordinateY, final Orientation orientation);
+    }
+
+    /**
+     * Constructor, that maps and indexes the given file.
+     *
+     * @param file trajectory file
+     * @throws ApplicationParamException if the file is not a valid trajectory file
+     * @throws UncheckedIOException      if the file can not be read
+     */
+    public TrajectoryReader(final Path file) {
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read trajectory file " + file, e);
+        }
+
+        try {
+            final long size = channel.size();
+            this.windows = new MappedByteBuffer[(int) ((size >>> WINDOW_SHIFT) + 1)];
+            for (int i = 0; i < windows.length; i++) {
+                final long start = (long) i << WINDOW_SHIFT;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(1L << WINDOW_SHIFT, size - start));
+            }
+
+            if (size < TrajectoryWriter.HEADER_SIZE || getInt(0) != TrajectoryWriter.MAGIC) {
+                throw new ApplicationParamException("Invalid trajectory file " + file);
+            }
+            this.checkpointInterval = getInt(4);
+            if (checkpointInterval <= 0 || checkpointInterval % 4 != 0) {
+                throw new ApplicationParamException("Invalid trajectory file " + file + " : checkpoint interval " + checkpointInterval
+                        + " should be a positive multiple of 4");
+            }
+            final int mowerNumber = getInt(8);
+            if (mowerNumber < 0 || mowerNumber > (size - TrajectoryWriter.HEADER_SIZE) / TrajectoryWriter.MOWER_HEADER_SIZE) {
+                throw new ApplicationParamException("Truncated trajectory file " + file);
+            }
+            this.mowerOffsets = new long[mowerNumber];
+
+            long offset = TrajectoryWriter.HEADER_SIZE;
+            for (int i = 0; i < mowerOffsets.length; i++) {
+                if (offset + TrajectoryWriter.MOWER_HEADER_SIZE > size || getInt(offset + 4) < 0) {
+                    throw new ApplicationParamException("Truncated trajectory file " + file);
+                }
+                mowerOffsets[i] = offset;
+                offset += recordSize(getInt(offset + 4));
+            }
+            if (offset != size) {
+                throw new ApplicationParamException("Truncated trajectory file " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            closeOnError(e);
+            if (e instanceof IOException) {
+                throw new UncheckedIOException("Unable to read trajectory file " + file, (IOException) e);
+            }
+            throw (RuntimeException) e;
+        }
+    }
+
+    /**
+     * Gets the mower number of the file.
+     *
+     * @return mower number
+     */
+    public int mowerNumber() {
+        return mowerOffsets.length;
+    }
+
+    /**
+     * Gets the id of the given mower.
+     *
+     * @param mower mower index in file
+     * @return mower id
+     */
+    public int mowerId(final int mower) {
+        return getInt(mowerOffsets[mower]);
+    }
+
+    /**
+     * Gets the step number of the given mower.
+     *
+     * @param mower mower index in file
+     * @return step number
+     */
+    public int stepNumber(final int mower) {
+        return getInt(mowerOffsets[mower] + 4);
+    }
+
+    /**
+     * Gets the position of the given mower after the given step number.
+     *
+     * @param mower mower index in file
+     * @param step  step number, from 0 for the initial position to the mower step number for the
+     *              final position
+     * @return {@link Position} position after the step
+     */
+    public Position position(final int mower, final int step) {
+        if (step < 0 || step > stepNumber(mower)) {
+            throw new IndexOutOfBoundsException("Step " + step + " is not in trajectory of mower " + mower);
+        }
+
+        final int block = step / checkpointInterval;
+        final long stateOffset = block == 0 ? mowerOffsets[mower] + 8 : blockOffset(mower, block - 1) + checkpointInterval / 4;
+        final int[] state = {getInt(stateOffset), getInt(stateOffset + 4), get(stateOffset + 8)};
+
+        final long codesOffset = blockOffset(mower, block);
+        for (int i = 0; i < step - block * checkpointInterval; i++) {
+            apply(state, code(codesOffset, i));
+        }
+        return new Position(state[0], state[1], TransitionTable.toOrientation(state[2]));
+    }
+
+    /**
+     * Replays the path of the given mower, step by step.
+     *
+     * @param mower   mower index in file
+     * @param handler handler of steps
+     */
+    public void replay(final int mower, final StepHandler handler) {
+        final long offset = mowerOffsets[mower];
+        final int stepNumber = getInt(offset + 4);
+        final int[] state = {getInt(offset + 8), getInt(offset + 12), get(offset + 16)};
+
+        for (int step = 0; step < stepNumber; step++) {
+            final int code = code(blockOffset(mower, step / checkpointInterval), step % checkpointInterval);
+            apply(state, code);
+            handler.step(code, state[0], state[1], TransitionTable.toOrientation(state[2]));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Closes the channel after the given error, that keeps the close error as suppressed.
+     */
+    private void closeOnError(final Exception error) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            error.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Applies the given step code to the given state : x, y and orientation ordinal.
+     */
+    private static void apply(final int[] state, final int code) {
+        if (code == TrajectoryWriter.BLOCKED) {
+            return;
+        }
+        final int transition = TransitionTable.transition(state[2], code);
+        state[0] += TransitionTable.deltaX(transition);
+        state[1] += TransitionTable.deltaY(transition);
+        state[2] = TransitionTable.orientation(transition);
+    }
+
+    private int code(final long codesOffset, final int index) {
+        return (get(codesOffset + (index >> 2)) >>> ((index & 3) << 1)) & 3;
+    }
+
+    private long blockOffset(final int mower, final int block) {
+        return mowerOffsets[mower] + TrajectoryWriter.MOWER_HEADER_SIZE
+                + (long) block * (checkpointInterval / 4 + TrajectoryWriter.CHECKPOINT_SIZE);
+    }
+
+    private long recordSize(final int stepNumber) {
+        final int remainingSteps = stepNumber % checkpointInterval;
+        return TrajectoryWriter.MOWER_HEADER_SIZE
+                + (long) (stepNumber / checkpointInterval) * (checkpointInterval / 4 + TrajectoryWriter.CHECKPOINT_SIZE)
+                + (remainingSteps == 0 ? 0 : (remainingSteps + 3) / 4 + TrajectoryWriter.CHECKPOINT_SIZE);
+    }
+
+    private int get(final long offset) {
+        return windows[(int) (offset >>> WINDOW_SHIFT)].get((int) (offset & ((1L << WINDOW_SHIFT) - 1))) & 0xFF;
+    }
+
+    private int getInt(final long offset) {
+        return get(offset) << 24 | get(offset + 1) << 16 | get(offset + 2) << 8 | get(offset + 3);
+    }
+}
@@ -0,0 +1,170 @@
+package com.mowitnow.io;
+
+import com.mowitnow.domain.type.Orientation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer of trajectory files, that record the path of each mower step by step.<br>
+ * A step is recorded as a 2 bits code : the direction ordinal when the move is accepted, or
+ * {@link #BLOCKED} when it is refused. Every {@link #CHECKPOINT_INTERVAL} steps, and after the last
+ * step, the absolute position is also recorded, so that {@link TrajectoryReader} can go to any
+ * step without decoding the whole path.<br>
+ * File layout, big endian :
+ * <pre>
+ * header : magic (int), checkpoint interval (int), mower number (int)
+ * mower  : id (int), step number (int), x (int), y (int), orientation (byte), then blocks
+ * block  : codes of up to CHECKPOINT_INTERVAL steps, 4 by byte from the low bits,
+ *          then the position after the block : x (int), y (int), orientation (byte)
+ * </pre>
+ * The file is written through memory mapped windows, so recording costs a few instructions by
+ * step and no system call.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class TrajectoryWriter implements Closeable {
+
+    /**
+     * Code of a refused step. Accepted steps are coded by their direction ordinal.
+     */
+    public static final int BLOCKED = 3;
+
+    /**
+     * Step number between two absolute positions.
+     */
+    public static final int CHECKPOINT_INTERVAL = 1 << 12;
+
+    static final int MAGIC = 0x4D575452;
+    static final int HEADER_SIZE = 12;
+    static final int MOWER_HEADER_SIZE = 17;
+    static final int CHECKPOINT_SIZE = 9;
+
+    private static final long WINDOW_SIZE = 1L << 26;
+
+    private final FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    private int mowerNumber;
+    private int remainingSteps;
+    private int blockSteps;
+    private int pendingCodes;
+
+    /**
+     * Constructor, that creates or replaces the given file.
+     *
+     * @param file trajectory file
+     * @throws UncheckedIOException if the file can not be written
+     */
+    public TrajectoryWriter(final Path file) {
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.window = channel.map(FileChannel.MapMode.READ_WRITE, 0, WINDOW_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write trajectory file " + file, e);
+        }
+        window.putInt(MAGIC).putInt(CHECKPOINT_INTERVAL).putInt(0);
+    }
+
+    /**
+     * Starts the trajectory of a new mower. The previous mower must have recorded all its steps.
+     *
+     * @param mowerId     mower id
+     * @param stepNumber  step number that will be recorded, that is the mower direction number
+     * @param coordinateX initial x coordinate
+     * @param coordinateY initial y coordinate
+     * @param orientation initial orientation
+     */
+    public void mower(final int mowerId,
+                      final int stepNumber,
+                      final int coordinateX,
+                      final int coordinateY,
+                      final Orientation orientation) {
+        checkMowerEnded();
+        ensure(MOWER_HEADER_SIZE);
+        window.putInt(mowerId).putInt(stepNumber).putInt(coordinateX).putInt(coordinateY).put((byte) orientation.ordinal());
+
+        this.mowerNumber++;
+        this.remainingSteps = stepNumber;
+        this.blockSteps = 0;
+    }
+
+    /**
+     * Records a step of the current mower.
+     *
+     * @param code        step code : direction ordinal if the step is accepted, {@link #BLOCKED}
+     *                    otherwise
+     * @param coordinateX x coordinate after the step
+     * @param coordinateY y coordinate after the step
+     * @param orientation orientation ordinal after the step
+     */
+    public void step(final int code, final int coordinateX, final int coordinateY, final int orientation) {
+        if (remainingSteps == 0) {
+            throw new IllegalStateException("All steps of mower are already recorded");
+        }
+
+        pendingCodes |= code << ((blockSteps & 3) << 1);
+        blockSteps++;
+        remainingSteps--;
+
+        if ((blockSteps & 3) == 0 || remainingSteps == 0) {
+            ensure(1);
+            window.put((byte) pendingCodes);
+            pendingCodes = 0;
+        }
+        if (blockSteps == CHECKPOINT_INTERVAL || remainingSteps == 0) {
+            ensure(CHECKPOINT_SIZE);
+            window.putInt(coordinateX).putInt(coordinateY).put((byte) orientation);
+            blockSteps = 0;
+        }
+    }
+
+    /**
+     * Writes the mower number and trims the file.
+     *
+     * @throws IOException if the file can not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            checkMowerEnded();
+            final long size = windowStart + window.position();
+            window.force();
+
+            channel.write((ByteBuffer) ByteBuffer.allocate(4).putInt(mowerNumber).flip(), 8);
+            channel.truncate(size);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void checkMowerEnded() {
+        if (remainingSteps != 0) {
+            throw new IllegalStateException(remainingSteps + " steps of mower are not recorded");
+        }
+    }
+
+    /**
+     * Maps the next window if the current one has less than the given remaining bytes.
+     */
+    private void ensure(final int bytes) {
+        if (window.remaining() >= bytes) {
+            return;
+        }
+
+        try {
+            windowStart += window.position();
+            window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, WINDOW_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write trajectory file", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.mowitnow.job;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Job run by a {@link FleetJobRunner} : its input gives a fleet in the input file format, and
+ * the final positions of its mowers are written to its output. The job is closed by the runner
+ * when it is done, successfully or not.
+ *
+ * @author Mazlum TOSUN
+ */
+public interface FleetJob extends Closeable {
+
+    /**
+     * Opens the input of the job. It is closed by the runner.
+     *
+     * @return {@link InputStream} job input
+     * @throws IOException if the input can not be opened
+     */
+    InputStream openInput() throws IOException;
+
+    /**
+     * Opens the output of the job. It is closed by the runner.
+     *
+     * @return {@link OutputStream} job output
+     * @throws IOException if the output can not be opened
+     */
+    OutputStream openOutput() throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * Factory method that allows to get a job that reads the given input file and writes the
+     * given output file.
+     *
+     * @param input  input file
+     * @param output output file, created or replaced
+     * @return {@link FleetJob} job
+     */
+    static FleetJob ofFiles(final Path input, final Path output) {
+        return new FleetJob() {
+
+            @Override
+            public InputStream openInput() throws IOException {
+                return Files.newInputStream(input);
+            }
+
+            @Override
+            public OutputStream openOutput() throws IOException {
+                return Files.newOutputStream(output);
+            }
+        };
+    }
+
+    /**
+     * Factory method that allows to get a job that reads its fleet from the given socket, until
+     * the client shuts its output down, and writes final positions back to the socket. The socket
+     * is closed with the job.
+     *
+     * @param socket connected socket
+     * @return {@link FleetJob} job
+     */
+    static FleetJob ofSocket(final Socket socket) {
+        return new FleetJob() {
+
+            @Override
+            public InputStream openInput() throws IOException {
+                return new FilterInputStream(socket.getInputStream()) {
+
+                    @Override
+                    public void close() throws IOException {
+                        socket.shutdownInput();
+                    }
+                };
+            }
+
+            @Override
+            public OutputStream openOutput() throws IOException {
+                return socket.getOutputStream();
+            }
+
+            @Override
+            public void close() throws IOException {
+                socket.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.mowitnow.job;
+
+import com.google.common.io.ByteStreams;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.engine.FleetEngine;
+import com.mowitnow.engine.OccupancyIndex;
+import com.mowitnow.io.FinalPositionWriter;
+import com.mowitnow.io.FleetFile;
+import com.mowitnow.io.FleetFileReader;
+import com.mowitnow.service.ApplicationParamService;
+
+import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runner of fleet jobs, each one on its own thread : the job input is read and parsed, the
+ * fleet is simulated, and final positions are written to the job output.<br>
+ * Jobs are mostly blocked on I/O, so with virtual threads thousands of jobs can run at once
+ * without sizing a thread pool. The number of running jobs is capped by a semaphore : a job
+ * submitted while the cap is reached waits for a running job to end. Locks held while blocking,
+ * as the semaphore, never use monitors, so a virtual thread is not pinned to its carrier thread.
+ *
+ * @author Mazlum TOSUN
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+@Slf4j
+public class FleetJobRunner {
+
+    @NonNull
+    private final ApplicationParamService applicationParamService;
+    private ThreadFactory threadFactory;
+    private Semaphore permits;
+    private int maxConcurrency;
+    private boolean collision;
+
+    /**
+     * Allows to initialize the runner from application parameters.
+     */
+    @PostConstruct
+    public void init() {
+        this.threadFactory = JobThreads.of(applicationParamService.getJobThreads());
+        this.maxConcurrency = Integer.parseInt(applicationParamService.getJobMaxConcurrency());
+        this.permits = new Semaphore(maxConcurrency);
+        this.collision = BooleanUtils.toBoolean(applicationParamService.getCollision());
+    }
+
+    /**
+     * Submits the given job. If the max number of running jobs is reached, waits for a running
+     * job to end.
+     *
+     * @param job job
+     * @return {@link CompletableFuture} mower number of the job, completed when final positions
+     * are written, or with the job error
+     * @throws InterruptedException if interrupted while waiting for a running job to end
+     */
+    public CompletableFuture<Integer> submit(final FleetJob job) throws InterruptedException {
+        permits.acquire();
+
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        try {
+            threadFactory.newThread(() -> {
+                try {
+                    result.complete(run(job));
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.debug("Fleet job failed", e);
+                    result.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                }
+            }).start();
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of running jobs.
+     *
+     * @return running job number
+     */
+    public int getRunningJobCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * Runs the given job on the current thread : reads and parses its input, simulates its fleet
+     * and writes final positions to its output.
+     *
+     * @param job job
+     * @return mower number of the job
+     * @throws IOException if the job input or output fails
+     */
+    int run(final FleetJob job) throws IOException {
+        try (FleetJob closedJob = job) {
+            final byte[] content;
+            try (InputStream input = closedJob.openInput()) {
+                content = ByteStreams.toByteArray(input);
+            }
+
+            final FleetFile fleetFile = FleetFileReader.read(ByteBuffer.wrap(content));
+            final Fleet fleet = fleetFile.getFleet();
+            final FleetEngine engine = new FleetEngine(fleetFile.getGarden());
+            if (collision) {
+                engine.simulate(fleet, OccupancyIndex.of(fleetFile.getGarden(), fleet.size()));
+            } else {
+                engine.simulate(fleet);
+            }
+
+            try (OutputStream output = closedJob.openOutput();
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.US_ASCII))) {
+                FinalPositionWriter.write(fleet, writer);
+            }
+            return fleet.size();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.mowitnow.job;
+
+import com.mowitnow.exception.ApplicationParamException;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Factories of the threads that run fleet jobs, one thread by job.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class JobThreads {
+
+    /**
+     * Platform threads : daemon threads of the operating system.
+     */
+    public static final String PLATFORM = "platform";
+
+    /**
+     * Virtual threads, scheduled by the JVM on a few carrier threads and unmounted while they
+     * block on I/O. They are only available with a Java 21 build.
+     */
+    public static final String VIRTUAL = "virtual";
+
+    private static final String VIRTUAL_FACTORY_CLASS = "com.mowitnow.job.VirtualJobThreads";
+
+    /**
+     * Gets the thread factory of the given kind of threads.
+     *
+     * @param threads kind of threads, {@link #PLATFORM} or {@link #VIRTUAL}
+     * @return {@link ThreadFactory} thread factory
+     * @throws ApplicationParamException if the kind of threads is unknown or not available
+     */
+    public static ThreadFactory of(final String threads) {
+        if (PLATFORM.equals(threads)) {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            return task -> {
+                final Thread thread = new Thread(task, "mower-job-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        if (VIRTUAL.equals(threads)) {
+            return virtualThreadFactory();
+        }
+        throw new ApplicationParamException("Unknown job threads '" + threads + "'");
+    }
+
+    /**
+     * Checks if virtual threads are available, that is the application is built with the Java 21
+     * profile and runs on Java 21 or later.
+     *
+     * @return boolean for result
+     */
+    public static boolean isVirtualAvailable() {
+        try {
+            virtualThreadFactory();
+            return true;
+        } catch (ApplicationParamException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            return ((Supplier<ThreadFactory>) Class.forName(VIRTUAL_FACTORY_CLASS).getDeclaredConstructor().newInstance()).get();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new ApplicationParamException("Virtual threads need a Java 21 build (profile java21) and runtime");
+        }
+    }
+}
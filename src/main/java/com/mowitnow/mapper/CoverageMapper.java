@@ -0,0 +1,146 @@
+package com.mowitnow.mapper;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.domain.ObstacleMap;
+import com.mowitnow.dto.CoverageDto;
+import com.mowitnow.dto.UnmowedRegionDto;
+import com.mowitnow.engine.CoverageBitmap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Mapper that allows to transform a {@link CoverageBitmap} to a {@link CoverageDto}.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class CoverageMapper {
+
+    /**
+     * Max number of unmowed regions given in a coverage.
+     */
+    public static final int MAX_UNMOWED_REGIONS = 1000;
+
+    /**
+     * Allows to transform the given coverage bitmap of the given garden to a {@link CoverageDto}.
+     * <br>
+     * Unmowed regions are found row by row : each row is split in runs of unmowed cells by
+     * skipping mowed cells in the bitmap, and a run that has the same bounds as a run of the
+     * previous row extends its region. Obstacle cells are neither mowed nor unmowed.
+     *
+     * @param garden garden
+     * @param bitmap coverage bitmap of the garden
+     * @return {@link CoverageDto} coverage
+     */
+    public static CoverageDto bitmapToCoverage(final Garden garden, final CoverageBitmap bitmap) {
+        final long cellNumber = bitmap.cellNumber() - (garden.hasObstacles() ? garden.getObstacles().obstacleCount() : 0);
+        final long mowedCellNumber = bitmap.cardinality();
+        final RegionCollector regions = new RegionCollector(garden, bitmap);
+
+        return CoverageDto.builder()
+                .cellNumber(cellNumber)
+                .mowedCellNumber(mowedCellNumber)
+                .percentage(cellNumber == 0 ? 100 : mowedCellNumber * 100.0 / cellNumber)
+                .unmowedRegionNumber(regions.regionNumber)
+                .unmowedRegions(regions.regions)
+                .build();
+    }
+
+    /**
+     * Collector of the unmowed regions, by a single scan of garden rows.
+     */
+    private static final class RegionCollector {
+
+        private final Garden garden;
+        private final long width;
+        private final List<UnmowedRegionDto> regions = new ArrayList<>();
+        private long regionNumber;
+
+        // Regions open on the previous row and on the current row, by run bounds, in run order.
+        private Map<Long, Long> openRegions = new LinkedHashMap<>();
+        private Map<Long, Long> nextRegions = new LinkedHashMap<>();
+
+        private RegionCollector(final Garden garden, final CoverageBitmap bitmap) {
+            this.garden = garden;
+            this.width = garden.getHorizontalLimitMax() - (long) garden.getHorizontalLimitMin() + 1;
+            final long height = garden.getVerticalLimitMax() - (long) garden.getVerticalLimitMin() + 1;
+            final ObstacleMap obstacles = garden.getObstacles();
+
+            for (long row = 0; row < height; row++) {
+                final long rowStart = (long) row * width;
+                final long rowEnd = rowStart + width;
+
+                long start = bitmap.nextUnmowed(rowStart, rowEnd);
+                while (start < rowEnd) {
+                    final long end = bitmap.nextMowed(start, rowEnd);
+                    if (obstacles == null) {
+                        run(row, start - rowStart, end - rowStart);
+                    } else {
+                        runsWithoutObstacles(obstacles, (int) row, (int) (start - rowStart), (int) (end - rowStart));
+                    }
+                    start = bitmap.nextUnmowed(end, rowEnd);
+                }
+
+                closeRegions(row - 1);
+            }
+            closeRegions(height - 1);
+        }
+
+        private void runsWithoutObstacles(final ObstacleMap obstacles, final int row, final int from, final int to) {
+            int start = from;
+            for (int column = from; column < to; column++) {
+                if (obstacles.isBlocked(column, row)) {
+                    if (start < column) {
+                        run(row, start, column);
+                    }
+                    start = column + 1;
+                }
+            }
+            if (start < to) {
+                run(row, start, to);
+            }
+        }
+
+        /**
+         * Adds the given run of unmowed cells, from column {@code from} (inclusive) to column
+         * {@code to} (exclusive), to the region of the previous row that has the same bounds.
+         * Columns are offsets from the garden min, below 2^32, so bounds are packed with the last
+         * column of the run.
+         */
+        private void run(final long row, final long from, final long to) {
+            final long bounds = from << 32 | to - 1;
+            final Long minRow = openRegions.remove(bounds);
+            nextRegions.put(bounds, minRow == null ? row : minRow);
+        }
+
+        /**
+         * Closes the regions that are not extended by the current row, their last row being the
+         * given row.
+         */
+        private void closeRegions(final long maxRow) {
+            for (final Map.Entry<Long, Long> region : openRegions.entrySet()) {
+                regionNumber++;
+                if (regions.size() < MAX_UNMOWED_REGIONS) {
+                    final long from = region.getKey() >>> 32;
+                    final long last = region.getKey() & 0xFFFFFFFFL;
+                    regions.add(UnmowedRegionDto.builder()
+                            .horizontalMin((int) (garden.getHorizontalLimitMin() + from))
+                            .horizontalMax((int) (garden.getHorizontalLimitMin() + last))
+                            .verticalMin((int) (garden.getVerticalLimitMin() + region.getValue()))
+                            .verticalMax((int) (garden.getVerticalLimitMin() + maxRow))
+                            .build());
+                }
+            }
+
+            final Map<Long, Long> closedRegions = openRegions;
+            closedRegions.clear();
+            openRegions = nextRegions;
+            nextRegions = closedRegions;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.mowitnow.mapper;
 
 import com.mowitnow.constant.MowitnowConstant;
 import com.mowitnow.domain.type.Direction;
+import com.mowitnow.engine.PackedProgram;
+import com.mowitnow.engine.RepeatProgram;
 
 import java.util.List;
 import java.util.regex.Pattern;
@@ -34,16 +36,17 @@ public class DirectionMapper {
     }
 
     /**
-     * Allows to transform the given directions parameter to {@link Direction} list.
+     * Allows to transform the given directions parameter to {@link Direction} list, packed by 2 bits
+     * in a {@link PackedProgram}. A parameter with run-length or repeat groups, like
+     * "(AAAAD)x250000", gives a {@link RepeatProgram} that is not expanded.
      *
      * @param directionsParam directions parameter
      * @return {@link Direction} direction list
      */
-    private static List<Direction> toDirection(final String directionsParam) {
-        return directionsParam.chars()
-                .mapToObj(i -> (char) i)
-                .map(String::valueOf)
-                .map(Direction::valueOf)
-                .collect(toList());
+    public static List<Direction> toDirection(final String directionsParam) {
+        if (RepeatProgram.isCompressed(directionsParam)) {
+            return RepeatProgram.parse(directionsParam);
+        }
+        return PackedProgram.parse(directionsParam);
     }
 }
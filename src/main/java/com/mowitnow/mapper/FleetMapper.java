@@ -0,0 +1,114 @@
+package com.mowitnow.mapper;
+
+import com.mowitnow.domain.Mower;
+import com.mowitnow.dto.PositionFinalDto;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.engine.FleetBuilder;
+import com.mowitnow.engine.OffHeapFleet;
+import com.mowitnow.engine.Program;
+import com.mowitnow.engine.ProgramCache;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import lombok.experimental.UtilityClass;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Mapper that allows to transform object that concerns {@link Fleet}.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class FleetMapper {
+
+    /**
+     * Allows to transform the given {@link Mower} list to a {@link Fleet}. Mower index in fleet is
+     * its index in list.
+     *
+     * @param mowers mowers
+     * @return {@link Fleet} fleet
+     */
+    public static Fleet mowersToFleet(final List<Mower> mowers) {
+        final int directionNumber = mowers.stream().mapToInt(m -> m.getDirections().size()).sum();
+        final FleetBuilder builder = FleetBuilder.builder(mowers.size(), directionNumber);
+
+        mowers.forEach(m -> builder.mower(m.getPosition().getCoordinateX(),
+                m.getPosition().getCoordinateY(),
+                m.getPosition().getOrientation(),
+                m.getDirections()));
+
+        return builder.build();
+    }
+
+    /**
+     * Allows to transform the given {@link Fleet} to {@link Mower} list. Mower id is its index in
+     * fleet.
+     *
+     * @param fleet fleet
+     * @return {@link Mower} mower list
+     */
+    public static List<Mower> fleetToMowers(final Fleet fleet) {
+        return IntStream.range(0, fleet.size())
+                .mapToObj(n -> Mower.builder()
+                        .id(n)
+                        .position(fleet.position(n))
+                        .directions(IntStream.range(0, fleet.directionNumber(n)).mapToObj(i -> fleet.direction(n, i)).collect(toList()))
+                        .build())
+                .collect(toList());
+    }
+
+    /**
+     * Allows to transform the given {@link Fleet} to {@link Mower} list, with programs taken from
+     * the given {@link ProgramCache}. Directions are packed straight from the fleet codes, and
+     * looked up by their packed words. Mower id is its index in fleet.
+     *
+     * @param fleet        fleet
+     * @param programCache program cache
+     * @return {@link Mower} mower list
+     */
+    public static List<Mower> fleetToMowers(final Fleet fleet, final ProgramCache programCache) {
+        return IntStream.range(0, fleet.size())
+                .mapToObj(n -> {
+                    final Program program = programCache.get(fleet.packedDirections(n));
+                    return Mower.builder()
+                            .id(n)
+                            .position(fleet.position(n))
+                            .directions(program.getDirections())
+                            .program(program.getCompiled())
+                            .build();
+                })
+                .collect(toList());
+    }
+
+    /**
+     * Allows to transform the given mower of the given {@link OffHeapFleet} to a {@link Mower},
+     * with its initial position. Mower id is its index in fleet.
+     *
+     * @param fleet off-heap fleet
+     * @param mower mower index
+     * @return {@link Mower} mower
+     */
+    public static Mower offHeapFleetToMower(final OffHeapFleet fleet, final int mower) {
+        return Mower.builder()
+                .id(mower)
+                .position(fleet.position(mower))
+                .directions(IntStream.range(0, fleet.directionNumber(mower)).mapToObj(i -> fleet.direction(mower, i)).collect(toList()))
+                .build();
+    }
+
+    /**
+     * Allows to transform the positions of the given simulated {@link Fleet} to {@link
+     * PositionFinalDto} list, associated to the given {@link Mower} list.
+     *
+     * @param fleet  simulated fleet
+     * @param mowers mowers of the fleet
+     * @return final {@link PositionFinalDto} list
+     */
+    public static List<PositionFinalDto> fleetToFinalPositions(final Fleet fleet, final List<Mower> mowers) {
+        return IntStream.range(0, fleet.size())
+                .mapToObj(n -> PositionFinalDto.builder().mower(mowers.get(n)).position(fleet.position(n)).build())
+                .collect(toList());
+    }
+}
@@ -0,0 +1,29 @@
+package com.mowitnow.mapper;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.service.ApplicationParamService;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Mapper that allows to transform object that concerns {@link Garden}.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class GardenMapper {
+
+    /**
+     * Allows to transform the garden limits of the given applications parameters to {@link
+     * Garden}.
+     *
+     * @param applicationParamService application parameters
+     * @return {@link Garden} garden
+     */
+    public static Garden paramsToGarden(final ApplicationParamService applicationParamService) {
+        return new Garden(Integer.parseInt(applicationParamService.getGardenHorizontalLimitMin()),
+                Integer.parseInt(applicationParamService.getGardenHorizontalLimitMax()),
+                Integer.parseInt(applicationParamService.getGardenVerticalLimitMin()),
+                Integer.parseInt(applicationParamService.getGardenVerticalLimitMax()));
+    }
+}
@@ -4,9 +4,12 @@ import com.mowitnow.constant.MowitnowConstant;
 import com.mowitnow.domain.Mower;
 import com.mowitnow.domain.Position;
 import com.mowitnow.domain.type.Direction;
+import com.mowitnow.engine.Program;
+import com.mowitnow.engine.ProgramCache;
 import lombok.experimental.UtilityClass;
 
 import java.util.List;
+import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
@@ -36,4 +39,33 @@ public class MowerMapper {
                 .mapToObj(n -> Mower.builder().id(n).position(positions.get(n)).directions(groupedDirections.get(n)).build())
                 .collect(toList());
     }
+
+    /**
+     * Allows to transform the given applications parameters to {@link Mower} list, with programs
+     * taken from the given {@link ProgramCache}. Mowers that have the same directions parameter
+     * share the same directions list and compiled program.
+     *
+     * @param directionsParams directions parameters
+     * @param positionParams   position parameters
+     * @param programCache     program cache
+     * @return {@link Mower} mower list
+     */
+    public static List<Mower> paramsToMowers(final String directionsParams,
+                                             final String positionParams,
+                                             final ProgramCache programCache) {
+        final List<Program> programs = Pattern.compile(MowitnowConstant.MOWERS_SEPARATOR)
+                .splitAsStream(directionsParams)
+                .map(programCache::get)
+                .collect(toList());
+        final List<Position> positions = PositionMapper.paramsToPositions(positionParams);
+
+        return IntStream.range(0, programs.size())
+                .mapToObj(n -> Mower.builder()
+                        .id(n)
+                        .position(positions.get(n))
+                        .directions(programs.get(n).getDirections())
+                        .program(programs.get(n).getCompiled())
+                        .build())
+                .collect(toList());
+    }
 }
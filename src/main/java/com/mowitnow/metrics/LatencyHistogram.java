@@ -0,0 +1,155 @@
+package com.mowitnow.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of durations in nanoseconds, with log-linear buckets in the style of HDR
+ * histograms : each power of two is split in {@link #SUB_BUCKETS} buckets, so a recorded value is
+ * known within about 6 %, from 1 ns to 2^63 ns, in less than a thousand buckets.<br>
+ * Buckets are {@link LongAdder}s, so threads that record at the same time do not contend on a
+ * single counter. Reads are not atomic snapshots : a value recorded while reading may be missed.
+ *
+ * @author Mazlum TOSUN
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_NUMBER = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_NUMBER];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructor of an empty histogram.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the given duration. Negative durations are recorded as 0.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(nanos, 0);
+        buckets[index(value)].increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return count
+     */
+    public long count() {
+        long count = 0;
+        for (final LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the sum of recorded durations.
+     *
+     * @return total in nanoseconds
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * Gets the max recorded duration.
+     *
+     * @return max in nanoseconds, 0 if nothing is recorded
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of recorded durations.
+     *
+     * @return mean in nanoseconds, 0 if nothing is recorded
+     */
+    public double mean() {
+        final long count = count();
+        return count == 0 ? 0 : (double) total() / count;
+    }
+
+    /**
+     * Gets the duration under which the given percentage of recorded durations are. The result is
+     * the highest value of the bucket of the percentile, never greater than the max.
+     *
+     * @param percentile percentile, from 0 to 100
+     * @return duration in nanoseconds, 0 if nothing is recorded
+     */
+    public long percentile(final double percentile) {
+        final long[] counts = new long[buckets.length];
+        long count = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Clears all recorded durations.
+     */
+    public void reset() {
+        for (final LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * Gets the bucket of the given value : values under {@link #SUB_BUCKETS} have their own
+     * bucket, then each power of two has {@link #SUB_BUCKETS} buckets.
+     */
+    static int index(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the lowest value of the given bucket.
+     */
+    static long lowestValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        final int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static long highestValue(final int index) {
+        return index == BUCKET_NUMBER - 1 ? Long.MAX_VALUE : lowestValue(index + 1) - 1;
+    }
+}
@@ -0,0 +1,218 @@
+package com.mowitnow.metrics;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of mower simulations : executed commands, moves refused because they go out of garden
+ * or into an obstacle or an occupied cell, simulation time by mower, parse time of mowers and
+ * fleet size.<br>
+ * Mowers are recorded through a {@link Recorder} by thread, that adds to the counters once by
+ * {@link #FLUSH_INTERVAL} mowers. Counters are {@link LongAdder}s, so workers that simulate in
+ * parallel do not contend on them. Reading the clock costs as much as simulating a few commands,
+ * so only one mower in {@link #LATENCY_SAMPLING} is timed. Metrics are exported by JMX, under
+ * {@value #OBJECT_NAME}.
+ *
+ * @author Mazlum TOSUN
+ */
+@Component
+@ManagedResource(objectName = SimulationMetrics.OBJECT_NAME, description = "Mower simulation metrics")
+public class SimulationMetrics {
+
+    /**
+     * JMX object name of the metrics.
+     */
+    public static final String OBJECT_NAME = "com.mowitnow:type=SimulationMetrics";
+
+    /**
+     * One mower in this number is timed.
+     */
+    public static final int LATENCY_SAMPLING = 16;
+
+    /**
+     * Simulation time of a mower that is not timed.
+     */
+    public static final long NOT_TIMED = -1;
+
+    /**
+     * Max number of mowers recorded by a recorder and not yet added to the counters.
+     */
+    public static final int FLUSH_INTERVAL = 1024;
+
+    private final LongAdder mowerCount = new LongAdder();
+    private final LongAdder commandCount = new LongAdder();
+    private final LongAdder timedCommandCount = new LongAdder();
+    private final LongAdder rejectedMoveCount = new LongAdder();
+    private final LatencyHistogram mowerLatency = new LatencyHistogram();
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+    private volatile int fleetSize;
+
+    /**
+     * Checks if the simulation of the given mower is timed.
+     *
+     * @param mowerId mower id
+     * @return boolean for result
+     */
+    public static boolean isTimed(final int mowerId) {
+        return mowerId % LATENCY_SAMPLING == 0;
+    }
+
+    /**
+     * Gets a new recorder of mower simulations, to be used by a single thread.
+     *
+     * @return {@link Recorder} recorder
+     */
+    public Recorder recorder() {
+        return new Recorder();
+    }
+
+    /**
+     * Records the parsing of a fleet.
+     *
+     * @param nanos     parse time in nanoseconds
+     * @param fleetSize mower number of the fleet
+     */
+    public void recordParse(final long nanos, final int fleetSize) {
+        parseLatency.record(nanos);
+        this.fleetSize = fleetSize;
+    }
+
+    /**
+     * Gets the histogram of simulation time by mower, of timed mowers.
+     *
+     * @return {@link LatencyHistogram} mower latency
+     */
+    public LatencyHistogram getMowerLatency() {
+        return mowerLatency;
+    }
+
+    @ManagedAttribute(description = "Executed command number")
+    public long getCommandCount() {
+        return commandCount.sum();
+    }
+
+    @ManagedAttribute(description = "Refused move number")
+    public long getRejectedMoveCount() {
+        return rejectedMoveCount.sum();
+    }
+
+    @ManagedAttribute(description = "Simulated mower number")
+    public long getSimulatedMowerCount() {
+        return mowerCount.sum();
+    }
+
+    @ManagedAttribute(description = "Executed commands by second of mower simulation time, measured on timed mowers")
+    public double getCommandsPerSecond() {
+        final long nanos = mowerLatency.total();
+        return nanos == 0 ? 0 : timedCommandCount.sum() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    @ManagedAttribute(description = "Mean simulation time by mower, in microseconds")
+    public double getMowerLatencyMeanMicros() {
+        return mowerLatency.mean() / TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    @ManagedAttribute(description = "Median simulation time by mower, in microseconds")
+    public long getMowerLatencyP50Micros() {
+        return TimeUnit.NANOSECONDS.toMicros(mowerLatency.percentile(50));
+    }
+
+    @ManagedAttribute(description = "99th percentile of simulation time by mower, in microseconds")
+    public long getMowerLatencyP99Micros() {
+        return TimeUnit.NANOSECONDS.toMicros(mowerLatency.percentile(99));
+    }
+
+    @ManagedAttribute(description = "99.9th percentile of simulation time by mower, in microseconds")
+    public long getMowerLatencyP999Micros() {
+        return TimeUnit.NANOSECONDS.toMicros(mowerLatency.percentile(99.9));
+    }
+
+    @ManagedAttribute(description = "Max simulation time by mower, in microseconds")
+    public long getMowerLatencyMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(mowerLatency.max());
+    }
+
+    @ManagedAttribute(description = "Parsed fleet number")
+    public long getParseCount() {
+        return parseLatency.count();
+    }
+
+    @ManagedAttribute(description = "Total parse time of fleets, in milliseconds")
+    public long getParseTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(parseLatency.total());
+    }
+
+    @ManagedAttribute(description = "Mower number of the last parsed fleet")
+    public int getFleetSize() {
+        return fleetSize;
+    }
+
+    /**
+     * Recorder of mower simulations, used by a single thread. Counts are added to the metrics
+     * every {@link #FLUSH_INTERVAL} mowers, and when the recorder is flushed.
+     */
+    public final class Recorder {
+
+        private int mowers;
+        private long commands;
+        private long timedCommands;
+        private long rejectedMoves;
+
+        private Recorder() {
+        }
+
+        /**
+         * Records the simulation of a mower.
+         *
+         * @param nanos              simulation time in nanoseconds, or {@link #NOT_TIMED}
+         * @param mowerCommands      executed command number
+         * @param mowerRejectedMoves refused move number
+         */
+        public void recordMower(final long nanos, final int mowerCommands, final int mowerRejectedMoves) {
+            if (nanos != NOT_TIMED) {
+                mowerLatency.record(nanos);
+                timedCommands += mowerCommands;
+            }
+            commands += mowerCommands;
+            rejectedMoves += mowerRejectedMoves;
+            if (++mowers == FLUSH_INTERVAL) {
+                flush();
+            }
+        }
+
+        /**
+         * Adds recorded counts to the metrics.
+         */
+        public void flush() {
+            if (mowers == 0) {
+                return;
+            }
+            mowerCount.add(mowers);
+            commandCount.add(commands);
+            timedCommandCount.add(timedCommands);
+            rejectedMoveCount.add(rejectedMoves);
+            mowers = 0;
+            commands = 0;
+            timedCommands = 0;
+            rejectedMoves = 0;
+        }
+    }
+
+    /**
+     * Clears all counters and histograms. The fleet size is kept.
+     */
+    @ManagedOperation(description = "Clears all counters and histograms")
+    public void reset() {
+        mowerCount.reset();
+        commandCount.reset();
+        timedCommandCount.reset();
+        rejectedMoveCount.reset();
+        mowerLatency.reset();
+        parseLatency.reset();
+    }
+}
@@ -0,0 +1,353 @@
+package com.mowitnow.pipeline;
+
+import com.mowitnow.dto.PipelineReportDto;
+import com.mowitnow.dto.StageReportDto;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.engine.FleetEngine;
+import com.mowitnow.engine.OccupancyIndex;
+import com.mowitnow.io.FinalPositionWriter;
+import com.mowitnow.io.FleetFile;
+import com.mowitnow.io.FleetFileReader;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Builder;
+
+/**
+ * Pipeline that simulates all fleet files of a directory in one JVM. Files go through stages :
+ * the directory is listed, then each file is read, parsed, simulated, and its final positions are
+ * written to the output directory, in a file of the same name with the {@link #OUTPUT_EXTENSION}
+ * extension.<br>
+ * Each stage has its own threads, and stages are linked by bounded queues : a stage waits while
+ * the next queue is full, so a slow stage slows down the stages before it and the number of files
+ * in memory is bounded. The time spent by each stage, working or waiting, is given in the
+ * {@link PipelineReportDto}, so the stage that limits the pipeline can be found and given more
+ * threads.<br>
+ * A file that can not be read or parsed does not stop the pipeline : its error is written to a
+ * file with the {@link #ERROR_EXTENSION} extension.
+ *
+ * @author Mazlum TOSUN
+ */
+public final class FleetPipeline {
+
+    /**
+     * Extension added to the input file name for its final positions.
+     */
+    public static final String OUTPUT_EXTENSION = ".out";
+
+    /**
+     * Extension added to the input file name for its error, if it fails.
+     */
+    public static final String ERROR_EXTENSION = ".err";
+
+    private static final FleetTask END = new FleetTask(null);
+
+    private final int readers;
+    private final int parsers;
+    private final int simulators;
+    private final int writers;
+    private final int queueCapacity;
+    private final boolean collision;
+
+    /**
+     * Constructor.
+     *
+     * @param readers       thread number of the read stage
+     * @param parsers       thread number of the parse stage
+     * @param simulators    thread number of the simulate stage
+     * @param writers       thread number of the write stage
+     * @param queueCapacity capacity of the queue before each stage
+     * @param collision     true if mowers of a fleet collide
+     * @throws IllegalArgumentException if a thread number or the queue capacity is not positive
+     */
+    @Builder
+    private FleetPipeline(final int readers,
+                          final int parsers,
+                          final int simulators,
+                          final int writers,
+                          final int queueCapacity,
+                          final boolean collision) {
+        if (readers <= 0 || parsers <= 0 || simulators <= 0 || writers <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Pipeline thread numbers and queue capacity should be positive");
+        }
+        this.readers = readers;
+        this.parsers = parsers;
+        this.simulators = simulators;
+        this.writers = writers;
+        this.queueCapacity = queueCapacity;
+        this.collision = collision;
+    }
+
+    /**
+     * Runs the pipeline over the regular files of the given directory, and waits for all files.
+     *
+     * @param inputDirectory  directory of fleet files
+     * @param outputDirectory directory of final positions, created if it does not exist
+     * @return {@link PipelineReportDto} report of the run
+     * @throws IOException          if a directory can not be listed or created
+     * @throws InterruptedException if interrupted while waiting for stages
+     */
+    public PipelineReportDto run(final Path inputDirectory, final Path outputDirectory) throws IOException, InterruptedException {
+        Files.createDirectories(outputDirectory);
+        final long start = System.nanoTime();
+        final LongAdder failedFiles = new LongAdder();
+        final LongAdder mowers = new LongAdder();
+
+        final Stage write = new Stage("write", writers, null, task -> write(task, outputDirectory, failedFiles, mowers));
+        final Stage simulate = new Stage("simulate", simulators, write, this::simulate);
+        final Stage parse = new Stage("parse", parsers, simulate, FleetPipeline::parse);
+        final Stage read = new Stage("read", readers, parse, FleetPipeline::read);
+        final List<Stage> stages = Arrays.asList(read, parse, simulate, write);
+        stages.forEach(Stage::start);
+
+        final Stage list = new Stage("list", 1, read, null);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inputDirectory, Files::isRegularFile)) {
+            final Iterator<Path> iterator = files.iterator();
+            long listStart = System.nanoTime();
+            while (iterator.hasNext()) {
+                list.offer(new FleetTask(iterator.next()), listStart);
+                listStart = System.nanoTime();
+            }
+        } finally {
+            list.end();
+            for (final Stage stage : stages) {
+                stage.join();
+            }
+        }
+
+        final List<StageReportDto> stageReports = new ArrayList<>();
+        stageReports.add(list.report());
+        stages.forEach(stage -> stageReports.add(stage.report()));
+        return PipelineReportDto.builder()
+                .fileNumber(list.items.sum())
+                .failedFileNumber(failedFiles.sum())
+                .mowerNumber(mowers.sum())
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .stages(stageReports)
+                .build();
+    }
+
+    private static void read(final FleetTask task) throws IOException {
+        task.content = Files.readAllBytes(task.file);
+    }
+
+    private static void parse(final FleetTask task) {
+        task.fleetFile = FleetFileReader.read(ByteBuffer.wrap(task.content));
+        task.content = null;
+    }
+
+    private void simulate(final FleetTask task) {
+        final Fleet fleet = task.fleetFile.getFleet();
+        final FleetEngine engine = new FleetEngine(task.fleetFile.getGarden());
+        if (collision) {
+            engine.simulate(fleet, OccupancyIndex.of(task.fleetFile.getGarden(), fleet.size()));
+        } else {
+            engine.simulate(fleet);
+        }
+    }
+
+    /**
+     * Writes the final positions of the given task, or its error if a previous stage failed. A
+     * task that can not be written is counted as failed.
+     */
+    private static void write(final FleetTask task,
+                              final Path outputDirectory,
+                              final LongAdder failedFiles,
+                              final LongAdder mowers) throws IOException {
+        final String fileName = task.file.getFileName().toString();
+        if (task.error != null) {
+            failedFiles.increment();
+            Files.write(outputDirectory.resolve(fileName + ERROR_EXTENSION), errorMessage(task.error).getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        final Fleet fleet = task.fleetFile.getFleet();
+        try (Writer writer = Files.newBufferedWriter(outputDirectory.resolve(fileName + OUTPUT_EXTENSION), StandardCharsets.US_ASCII)) {
+            FinalPositionWriter.write(fleet, writer);
+        } catch (IOException e) {
+            failedFiles.increment();
+            throw e;
+        }
+        mowers.add(fleet.size());
+    }
+
+    private static String errorMessage(final Exception error) {
+        return (error.getMessage() == null ? error.getClass().getName() : error.getMessage()) + '\n';
+    }
+
+    /**
+     * Work done by a stage on a file.
+     */
+    @FunctionalInterface
+    private interface StageWork {
+
+        void process(final FleetTask task) throws IOException;
+    }
+
+    /**
+     * File going through the pipeline, with the result of the last stage. A task is handled by a
+     * single thread at a time, queues ensure visibility between stages.
+     */
+    private static final class FleetTask {
+
+        private final Path file;
+        private byte[] content;
+        private FleetFile fleetFile;
+        private Exception error;
+
+        private FleetTask(final Path file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * Stage of the pipeline : its threads take tasks from its queue, process them and give them
+     * to the next stage. A task that has failed is given to the next stage without processing, up
+     * to the last stage that processes all tasks, so it can report errors. When the last thread of
+     * a stage ends, it sends an end task to each thread of the next stage.<br>
+     * A work that throws an {@link Error}, like an {@link OutOfMemoryError}, fails the stage : its
+     * threads go on taking tasks, so that previous stages never wait for them, but they mark
+     * tasks as failed without processing them, and the failure is thrown when the stage is
+     * joined.
+     */
+    private final class Stage {
+
+        private final String name;
+        private final int threadNumber;
+        private final Stage next;
+        private final StageWork work;
+        private final BlockingQueue<FleetTask> queue;
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicInteger runningThreads;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private final LongAdder items = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder inputWaitNanos = new LongAdder();
+        private final LongAdder outputWaitNanos = new LongAdder();
+
+        private Stage(final String name, final int threadNumber, final Stage next, final StageWork work) {
+            this.name = name;
+            this.threadNumber = threadNumber;
+            this.next = next;
+            this.work = work;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.runningThreads = new AtomicInteger(threadNumber);
+        }
+
+        private void start() {
+            for (int i = 0; i < threadNumber; i++) {
+                final Thread thread = new Thread(this::runThread, "mower-pipeline-" + name + "-" + i);
+                thread.setDaemon(true);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+
+        private void runThread() {
+            try {
+                while (true) {
+                    final long waitStart = System.nanoTime();
+                    final FleetTask task = queue.take();
+                    final long workStart = System.nanoTime();
+                    inputWaitNanos.add(workStart - waitStart);
+                    if (task == END) {
+                        return;
+                    }
+
+                    if (failure.get() != null) {
+                        task.error = stageFailure();
+                    } else if (task.error == null || next == null) {
+                        try {
+                            work.process(task);
+                        } catch (IOException | RuntimeException e) {
+                            task.error = e;
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                            task.error = stageFailure();
+                        }
+                    }
+                    offer(task, workStart);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure.set(e);
+            } finally {
+                if (runningThreads.decrementAndGet() == 0) {
+                    end();
+                }
+            }
+        }
+
+        private IllegalStateException stageFailure() {
+            return new IllegalStateException("Pipeline stage " + name + " failed : " + failure.get());
+        }
+
+        /**
+         * Counts the given processed task, and gives it to the next stage, waiting while its queue
+         * is full.
+         */
+        private void offer(final FleetTask task, final long workStart) throws InterruptedException {
+            final long workEnd = System.nanoTime();
+            items.increment();
+            busyNanos.add(workEnd - workStart);
+            if (next != null) {
+                next.queue.put(task);
+                outputWaitNanos.add(System.nanoTime() - workEnd);
+            }
+        }
+
+        /**
+         * Sends an end task to each thread of the next stage.
+         */
+        private void end() {
+            if (next == null) {
+                return;
+            }
+            try {
+                for (int i = 0; i < next.threadNumber; i++) {
+                    next.queue.put(END);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void join() throws InterruptedException {
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            if (failure.get() != null) {
+                throw new IllegalStateException("Pipeline stage " + name + " failed", failure.get());
+            }
+        }
+
+        private StageReportDto report() {
+            return StageReportDto.builder()
+                    .name(name)
+                    .threadNumber(threadNumber)
+                    .fileNumber(items.sum())
+                    .busyMillis(TimeUnit.NANOSECONDS.toMillis(busyNanos.sum()))
+                    .inputWaitMillis(TimeUnit.NANOSECONDS.toMillis(inputWaitNanos.sum()))
+                    .outputWaitMillis(TimeUnit.NANOSECONDS.toMillis(outputWaitNanos.sum()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.mowitnow.server;
+
+import com.mowitnow.engine.WeightedRangeTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Batcher that coalesces simulation jobs submitted concurrently into batched engine runs.<br>
+ * Jobs wait in a bounded queue : a job is rejected when the queue is full (admission control).
+ * A single dispatcher thread takes the next job, with all jobs queued meanwhile up to the batch
+ * size, and runs them in one fork/join invocation split by job weight. Batching never waits for
+ * more jobs : batches grow by themselves when jobs arrive faster than they are simulated.
+ *
+ * @author Mazlum TOSUN
+ */
+@Slf4j
+public class SimulationBatcher {
+
+    /**
+     * Weight under which a range of jobs is simulated by a single task.
+     */
+    private static final long JOB_RANGE_THRESHOLD = 1L << 14;
+
+    private final BlockingQueue<SimulationJob> queue;
+    private final int batchSize;
+    private final ForkJoinPool pool;
+    private final Thread dispatcher;
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong jobCount = new AtomicLong();
+    private volatile boolean stopped;
+
+    /**
+     * Constructor.
+     *
+     * @param queueCapacity max number of jobs waiting for simulation
+     * @param batchSize     max number of jobs by batch
+     * @param pool          fork/join pool that simulates batches
+     */
+    public SimulationBatcher(final int queueCapacity, final int batchSize, final ForkJoinPool pool) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.pool = pool;
+        this.dispatcher = new Thread(this::dispatch, "simulation-batcher");
+        this.dispatcher.setDaemon(true);
+    }
+
+    /**
+     * Starts the dispatcher thread. Jobs submitted before are simulated in the first batches.
+     */
+    public void start() {
+        dispatcher.start();
+    }
+
+    /**
+     * Submits the given job, if the queue is not full. A job accepted while the batcher is
+     * stopping is cancelled, as the jobs still in queue.
+     *
+     * @param job simulation job
+     * @return true if the job is accepted, false if it is rejected
+     */
+    public boolean submit(final SimulationJob job) {
+        if (stopped || !queue.offer(job)) {
+            return false;
+        }
+        if (stopped) {
+            cancelPendingJobs();
+        }
+        return true;
+    }
+
+    /**
+     * Stops the dispatcher thread. The current batch is finished, and jobs still in queue are
+     * cancelled.
+     *
+     * @throws InterruptedException if interrupted while waiting for the current batch
+     */
+    public void stop() throws InterruptedException {
+        stopped = true;
+        dispatcher.interrupt();
+        dispatcher.join();
+        cancelPendingJobs();
+    }
+
+    /**
+     * Gets the number of batches simulated.
+     *
+     * @return batch number
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Gets the number of jobs simulated.
+     *
+     * @return job number
+     */
+    public long getJobCount() {
+        return jobCount.get();
+    }
+
+    /**
+     * Cancels the jobs still in queue. Called once the batcher is stopped, by the stopping thread
+     * and by threads that submitted a job meanwhile.
+     */
+    private void cancelPendingJobs() {
+        final List<SimulationJob> pendingJobs = new ArrayList<>();
+        queue.drainTo(pendingJobs);
+        pendingJobs.forEach(job -> job.getResult().completeExceptionally(new CancellationException("Simulation server is stopped")));
+    }
+
+    private void dispatch() {
+        final List<SimulationJob> batch = new ArrayList<>(batchSize);
+        while (!stopped) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+
+            LOGGER.debug("Simulating batch of {} jobs...", batch.size());
+            try {
+                run(batch);
+            } catch (Throwable e) {
+                LOGGER.error("Batch of {} jobs failed", batch.size(), e);
+                batch.forEach(job -> job.getResult().completeExceptionally(e));
+            }
+            batchCount.incrementAndGet();
+            jobCount.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * Simulates the given batch of jobs on the pool. Jobs are split in ranges of similar weight,
+     * so that a big job does not wait behind many small ones.
+     */
+    private void run(final List<SimulationJob> batch) {
+        final long[] cumulativeWeights = new long[batch.size() + 1];
+        for (int i = 0; i < batch.size(); i++) {
+            cumulativeWeights[i + 1] = cumulativeWeights[i] + batch.get(i).weight();
+        }
+
+        pool.invoke(new WeightedRangeTask(i -> cumulativeWeights[i],
+                (from, to) -> batch.subList(from, to).forEach(SimulationJob::run),
+                JOB_RANGE_THRESHOLD,
+                0,
+                batch.size()));
+    }
+}
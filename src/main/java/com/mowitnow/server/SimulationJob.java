@@ -0,0 +1,58 @@
+package com.mowitnow.server;
+
+import com.mowitnow.domain.Garden;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.engine.FleetEngine;
+import com.mowitnow.engine.OccupancyIndex;
+
+import java.util.concurrent.CompletableFuture;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Simulation submitted to the {@link SimulationBatcher} : a garden and a fleet, simulated with or
+ * without collisions. Result is the fleet itself, with final positions.
+ *
+ * @author Mazlum TOSUN
+ */
+@Getter
+@RequiredArgsConstructor
+public class SimulationJob {
+
+    @NonNull
+    private final Garden garden;
+    @NonNull
+    private final Fleet fleet;
+    private final boolean collision;
+    private final CompletableFuture<Fleet> result = new CompletableFuture<>();
+
+    /**
+     * Gets the weight of this job, used to balance batches : its direction number, plus one by
+     * mower.
+     *
+     * @return job weight
+     */
+    public long weight() {
+        return (long) fleet.totalDirectionNumber() + fleet.size();
+    }
+
+    /**
+     * Simulates the fleet and completes the result, normally or with the simulation error, even
+     * an {@link Error}, so that the dispatcher and the other jobs of the batch go on.
+     */
+    void run() {
+        try {
+            final FleetEngine engine = new FleetEngine(garden);
+            if (collision) {
+                engine.simulate(fleet, OccupancyIndex.of(garden, fleet.size()));
+            } else {
+                engine.simulate(fleet);
+            }
+            result.complete(fleet);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
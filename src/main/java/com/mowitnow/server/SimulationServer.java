@@ -0,0 +1,205 @@
+package com.mowitnow.server;
+
+import com.google.common.io.ByteStreams;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.exception.ApplicationParamException;
+import com.mowitnow.io.FinalPositionWriter;
+import com.mowitnow.io.FleetFile;
+import com.mowitnow.io.FleetFileReader;
+import com.mowitnow.service.ApplicationParamService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Embedded HTTP server that simulates fleets submitted at runtime, so that many small simulations
+ * do not pay the application startup each.<br>
+ * A simulation is submitted by {@code POST /simulations}, with a body in the input file format
+ * (garden upper right corner, then mowers), and {@code ?collision=true} to enable collisions.
+ * The response streams one line by mower, in mowers order : {@code "x y orientation"}.<br>
+ * Simulations are coalesced in batches by a {@link SimulationBatcher}. When its queue is full, a
+ * simulation is rejected with status 503, so the server does not accumulate more work than it can
+ * simulate. The server is started only if the server port parameter is given.
+ *
+ * @author Mazlum TOSUN
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Inject))
+@Slf4j
+public class SimulationServer {
+
+    /**
+     * Path of the simulation endpoint.
+     */
+    public static final String SIMULATIONS_PATH = "/simulations";
+
+    private static final int MAX_REQUEST_BYTES = 1 << 24;
+    private static final int HANDLER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    @NonNull
+    private final ApplicationParamService applicationParamService;
+    private HttpServer server;
+    private ExecutorService handlerExecutor;
+    private ForkJoinPool pool;
+    private SimulationBatcher batcher;
+
+    /**
+     * Allows to start the server on the port given by application parameters, if it is given.
+     *
+     * @throws IOException if the server can not be bound
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        final String port = applicationParamService.getServerPort();
+        if (StringUtils.isEmpty(port)) {
+            return;
+        }
+
+        this.pool = new ForkJoinPool(Integer.parseInt(applicationParamService.getParallelism()));
+        this.batcher = new SimulationBatcher(Integer.parseInt(applicationParamService.getServerQueueCapacity()),
+                Integer.parseInt(applicationParamService.getServerBatchSize()), pool);
+        this.handlerExecutor = Executors.newFixedThreadPool(HANDLER_THREADS);
+
+        this.server = HttpServer.create(new InetSocketAddress(Integer.parseInt(port)), 0);
+        this.server.createContext(SIMULATIONS_PATH, this::handle);
+        this.server.setExecutor(handlerExecutor);
+
+        batcher.start();
+        server.start();
+        LOGGER.info("Simulation server listening on port {}", getPort());
+    }
+
+    /**
+     * Allows to stop the server. Simulations waiting in queue are cancelled.
+     *
+     * @throws InterruptedException if interrupted while waiting for the current batch
+     */
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        if (server == null) {
+            return;
+        }
+
+        server.stop(0);
+        batcher.stop();
+        handlerExecutor.shutdown();
+        pool.shutdown();
+    }
+
+    /**
+     * Gets the port the server is listening on, useful when the port parameter is 0.
+     *
+     * @return server port, -1 if the server is not started
+     */
+    public int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the batcher of simulations.
+     *
+     * @return {@link SimulationBatcher} batcher, null if the server is not started
+     */
+    public SimulationBatcher getBatcher() {
+        return batcher;
+    }
+
+    /**
+     * Handles a simulation request : the body is parsed and submitted on a handler thread, then the
+     * response is written by a handler thread when the simulation is done, so no handler thread
+     * waits for simulations.
+     */
+    private void handle(final HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "Method not allowed");
+            return;
+        }
+
+        final byte[] body;
+        try (InputStream input = exchange.getRequestBody()) {
+            body = ByteStreams.toByteArray(ByteStreams.limit(input, MAX_REQUEST_BYTES + 1L));
+        }
+        if (body.length > MAX_REQUEST_BYTES) {
+            respond(exchange, 413, "Simulation is too big");
+            return;
+        }
+
+        final FleetFile fleetFile;
+        try {
+            fleetFile = FleetFileReader.read(ByteBuffer.wrap(body));
+        } catch (ApplicationParamException e) {
+            respond(exchange, 400, e.getMessage());
+            return;
+        }
+
+        final SimulationJob job = new SimulationJob(fleetFile.getGarden(), fleetFile.getFleet(), isCollision(exchange));
+        if (!batcher.submit(job)) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, "Too many simulations");
+            return;
+        }
+
+        job.getResult().whenCompleteAsync((fleet, error) -> {
+            try {
+                if (error == null) {
+                    writeFinalPositions(exchange, fleet);
+                } else if (error instanceof CancellationException) {
+                    respond(exchange, 503, error.getMessage());
+                } else {
+                    respond(exchange, 500, "Simulation failed : " + error.getMessage());
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Unable to write simulation result", e);
+            } finally {
+                exchange.close();
+            }
+        }, handlerExecutor);
+    }
+
+    private static boolean isCollision(final HttpExchange exchange) {
+        final String query = exchange.getRequestURI().getQuery();
+        return query != null && Arrays.asList(query.split("&")).contains("collision=true");
+    }
+
+    /**
+     * Streams final positions of the given fleet, one line by mower, with a chunked response.
+     */
+    private static void writeFinalPositions(final HttpExchange exchange, final Fleet fleet) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=US-ASCII");
+        exchange.sendResponseHeaders(200, 0);
+
+        try (Writer writer = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.US_ASCII)) {
+            FinalPositionWriter.write(fleet, writer);
+        }
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final String message) throws IOException {
+        final byte[] content = (message + '\n').getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, content.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(content);
+        }
+    }
+}
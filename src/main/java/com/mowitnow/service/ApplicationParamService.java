@@ -22,6 +22,108 @@ public interface ApplicationParamService {
      */
     String getPosition();
 
+    /**
+     * Get input file parameter. When it is given, garden and mowers are read from this file
+     * instead of positions and directions parameters.
+     *
+     * @return {@link String} input file path, empty if there is no input file
+     */
+    String getInputFile();
+
+    /**
+     * Get parallelism parameter, that is the number of threads used to compute final positions.
+     * Final positions are computed sequentially if parallelism is 1.
+     *
+     * @return {@link String} parallelism
+     */
+    String getParallelism();
+
+    /**
+     * Get collision parameter. When it is true, a mower does not move into a cell occupied by a
+     * mower that has already finished, and mowers move sequentially.
+     *
+     * @return {@link String} collision boolean
+     */
+    String getCollision();
+
+    /**
+     * Get program cache size parameter, that is the max direction number of all programs kept in
+     * cache.
+     *
+     * @return {@link String} program cache max direction number
+     */
+    String getProgramCacheMaxDirections();
+
+    /**
+     * Get trajectory file parameter. When it is given, the path of each mower is recorded in this
+     * file, and mowers move sequentially.
+     *
+     * @return {@link String} trajectory file path, empty if trajectories are not recorded
+     */
+    String getTrajectoryFile();
+
+    /**
+     * Get server port parameter. When it is given, a simulation server is started on this port
+     * (0 for any free port).
+     *
+     * @return {@link String} server port, empty if there is no server
+     */
+    String getServerPort();
+
+    /**
+     * Get server queue capacity parameter, that is the max number of simulations waiting to be
+     * simulated. Simulations beyond are rejected.
+     *
+     * @return {@link String} server queue capacity
+     */
+    String getServerQueueCapacity();
+
+    /**
+     * Get server batch size parameter, that is the max number of simulations run in one batch.
+     *
+     * @return {@link String} server batch size
+     */
+    String getServerBatchSize();
+
+    /**
+     * Get job threads parameter, that is the kind of threads running fleet jobs : platform
+     * threads, or virtual threads with a Java 21 build.
+     *
+     * @return {@link String} job threads, platform or virtual
+     */
+    String getJobThreads();
+
+    /**
+     * Get job max concurrency parameter, that is the max number of fleet jobs running at once.
+     *
+     * @return {@link String} job max concurrency
+     */
+    String getJobMaxConcurrency();
+
+    /**
+     * Get validation max errors parameter, that is the max number of errors reported for an input
+     * file before reading stops.
+     *
+     * @return {@link String} validation max errors
+     */
+    String getValidationMaxErrors();
+
+    /**
+     * Get continuation parameter, that indicates if the last computed state of each mower is kept,
+     * so that a mower continues from it when directions are appended.
+     *
+     * @return {@link String} continuation
+     */
+    String getContinuation();
+
+    /**
+     * Get off-heap parameter, that indicates if the fleet of the input file is kept out of the
+     * heap, in a memory mapped binary fleet file, and simulated by chunks.
+     *
+     * @return {@link String} off-heap
+     */
+    String getOffHeap();
+
     /**
      * Get expected result positions parameters.
      *
@@ -29,6 +131,14 @@ public interface ApplicationParamService {
      */
     String getExpectedPositions();
 
+    /**
+     * Get garden obstacles parameter, that is the path of a PBM file of the garden cells where a
+     * mower can not go.
+     *
+     * @return {@link String} obstacle file path, empty if the garden has no obstacles
+     */
+    String getGardenObstacles();
+
     /**
      * Get a parameter that represents horizontal X limit of garden.
      *
@@ -0,0 +1,22 @@
+package com.mowitnow.service;
+
+import com.mowitnow.dto.MowerResultDto;
+
+/**
+ * Handler of the mower results streamed by {@link MowerService#forEachFinalPosition(MowerResultHandler)}.
+ * Handler is always called from the thread that streams results, so it does not need to be thread
+ * safe, and results are not computed faster than the handler consumes them.
+ *
+ * @author Mazlum TOSUN
+ */
+@FunctionalInterface
+public interface MowerResultHandler {
+
+    /**
+     * Called with the result of a mower, as soon as the mower has finished.
+     *
+     * @param result mower result
+     * @return true to continue, false to stop streaming results
+     */
+    boolean onResult(final MowerResultDto result);
+}
@@ -1,8 +1,12 @@
 package com.mowitnow.service;
 
+import com.google.common.cache.CacheStats;
+import com.mowitnow.domain.Garden;
 import com.mowitnow.domain.Mower;
 import com.mowitnow.domain.Position;
+import com.mowitnow.dto.CoverageDto;
 import com.mowitnow.dto.PositionFinalDto;
+import com.mowitnow.exception.ApplicationParamException;
 
 import java.util.List;
 
@@ -22,6 +26,63 @@ public interface MowerService {
      */
     List<PositionFinalDto> getFinalPositions();
 
+    /**
+     * Streams final positions of the all mowers to the given handler, one result by mower as
+     * soon as the mower has finished. Results are emitted in mowers order when final positions are
+     * computed sequentially, and in completion order when they are computed in parallel.<br>
+     * The handler is called from the current thread and the method returns when all results are
+     * emitted or the handler stops. Results waiting for the handler are bounded, so computation
+     * waits for a slow handler and memory does not grow with the mower number.
+     *
+     * @param handler handler of mower results
+     */
+    void forEachFinalPosition(final MowerResultHandler handler);
+
+    /**
+     * Computes the coverage of the garden by the all mowers : each cell entered by a mower,
+     * including its initial cell, is mowed. Coverage gives the mowed percentage of the cells that
+     * are not obstacles, and the regions not mowed.
+     *
+     * @return {@link CoverageDto} garden coverage
+     * @throws UnsupportedOperationException if the fleet is off-heap
+     */
+    CoverageDto getCoverage();
+
+    /**
+     * Appends the given directions to the given mower, and gets its new final position. When
+     * continuation is enabled, the mower continues from its last computed state, so only the
+     * appended directions are simulated, and the next computation of final positions does the
+     * same.<br>
+     * With collisions, the mower sees the final positions of the mowers before it, and the mowers
+     * after it are computed again from their initial position, because their path could change.
+     * Must not be called while final positions are computed.
+     *
+     * @param mowerId    mower id
+     * @param directions appended directions, like "GAGAA"
+     * @return {@link PositionFinalDto} new final position of the mower
+     * @throws IllegalArgumentException  if the mower does not exist
+     * @throws ApplicationParamException if directions are not valid
+     * @throws UnsupportedOperationException if the fleet is off-heap
+     */
+    PositionFinalDto appendDirections(final int mowerId, final String directions);
+
+    /**
+     * Replaces the garden, for example when its limits or its obstacles change. Last computed
+     * states of mowers are invalidated, so mowers are computed again from their initial position.
+     * Must not be called while final positions are computed.
+     *
+     * @param garden new garden
+     */
+    void updateGarden(final Garden garden);
+
+    /**
+     * Gets statistics of the cache that shares programs between mowers that have the same
+     * directions : hits, misses, evictions...
+     *
+     * @return {@link CacheStats} program cache statistics
+     */
+    CacheStats getProgramCacheStats();
+
     /**
      * Checks if a mower is in garden surface from its x/y coordinates. That coordinates are given
      * by{@link Position} object. The garden limits are configured in application parameter file.
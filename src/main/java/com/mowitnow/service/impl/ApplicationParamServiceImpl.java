@@ -2,17 +2,21 @@ package com.mowitnow.service.impl;
 
 import com.mowitnow.constant.MowitnowConstant;
 import com.mowitnow.exception.ApplicationParamException;
+import com.mowitnow.job.JobThreads;
 import com.mowitnow.service.ApplicationParamService;
 import com.mowitnow.validator.Validator;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.function.Function;
-import java.util.function.Supplier;
 
 /**
  * Implementation of {@link ApplicationParamService}.
@@ -25,21 +29,49 @@ import java.util.function.Supplier;
 @Slf4j
 public class ApplicationParamServiceImpl implements ApplicationParamService {
 
-    @Value("${mower.positions}")
+    @Value("${mower.positions:}")
     private String position;
-    @Value("${mower.directions}")
+    @Value("${mower.directions:}")
     private String directions;
-    @Value("${mower.expectedPositions}")
+    @Value("${mower.expectedPositions:}")
     private String expectedPositions;
+    @Value("${mower.file:}")
+    private String inputFile;
+    @Value("${mower.parallelism:1}")
+    private String parallelism = "1";
+    @Value("${mower.collision:false}")
+    private String collision = "false";
+    @Value("${mower.programCache.maxDirections:16777216}")
+    private String programCacheMaxDirections = "16777216";
+    @Value("${mower.trajectoryFile:}")
+    private String trajectoryFile = "";
+    @Value("${mower.server.port:}")
+    private String serverPort = "";
+    @Value("${mower.server.queueCapacity:1024}")
+    private String serverQueueCapacity = "1024";
+    @Value("${mower.server.batchSize:64}")
+    private String serverBatchSize = "64";
+    @Value("${mower.jobs.threads:platform}")
+    private String jobThreads = JobThreads.PLATFORM;
+    @Value("${mower.jobs.maxConcurrency:256}")
+    private String jobMaxConcurrency = "256";
+    @Value("${mower.validation.maxErrors:100}")
+    private String validationMaxErrors = "100";
+    @Value("${mower.continuation:false}")
+    private String continuation = "false";
+    @Value("${mower.offHeap:false}")
+    private String offHeap = "false";
 
-    @Value("${garden.limit.horizontal.min}")
+    @Value("${garden.limit.horizontal.min:}")
     private String gardenHorizontalLimitMin;
-    @Value("${garden.limit.horizontal.max}")
+    @Value("${garden.limit.horizontal.max:}")
     private String gardenHorizontalLimitMax;
-    @Value("${garden.limit.vertical.min}")
+    @Value("${garden.limit.vertical.min:}")
     private String gardenVerticalLimitMin;
-    @Value("${garden.limit.vertical.max}")
+    @Value("${garden.limit.vertical.max:}")
     private String gardenVerticalLimitMax;
+    @Value("${garden.obstacles:}")
+    private String gardenObstacles = "";
 
     /**
      * Allows to initializes application parameters.
@@ -52,38 +84,122 @@ public class ApplicationParamServiceImpl implements ApplicationParamService {
         LOGGER.debug("Initializing application parameters...");
 
         Validator.of(this)
-                .validate(ApplicationParamServiceImpl::getPosition, StringUtils::isNotEmpty, "Positions parameters should not be empty")
-                .validate(ApplicationParamServiceImpl::getDirections, StringUtils::isNotEmpty, "Directions parameters should not be empty")
-                .validate(ApplicationParamServiceImpl::getExpectedPositions, StringUtils::isNotEmpty, "Expected positions parameters should not be empty")
+                .validate(ApplicationParamServiceImpl::getInputFile, this::isEmptyOrReadable, "Input file should be readable")
+                .validate(ApplicationParamServiceImpl::getPosition, this::isNotEmptyOrOptional, "Positions parameters should not be empty")
+                .validate(ApplicationParamServiceImpl::getDirections, this::isNotEmptyOrOptional, "Directions parameters should not be empty")
+                .validate(ApplicationParamServiceImpl::getExpectedPositions, this::isNotEmptyOrOptional, "Expected positions parameters should not be empty")
                 .validate(Function.identity(), this::positionsLengthSameDirections, "Positions length must be same to directions length")
-                .validate(ApplicationParamServiceImpl::getGardenHorizontalLimitMin, StringUtils::isNotEmpty, "Garden horizontal limit min should not be empty")
-                .validate(ApplicationParamServiceImpl::getGardenHorizontalLimitMin, StringUtils::isNumeric, "Garden horizontal limit min should not be in type numeric")
-                .validate(ApplicationParamServiceImpl::getGardenHorizontalLimitMax, StringUtils::isNotEmpty, "Garden horizontal limit max should not be empty")
-                .validate(ApplicationParamServiceImpl::getGardenHorizontalLimitMax, StringUtils::isNumeric, "Garden horizontal limit max should not be in type numeric")
-                .validate(ApplicationParamServiceImpl::getGardenVerticalLimitMin, StringUtils::isNotEmpty, "Garden vertical limit min should not be empty")
-                .validate(ApplicationParamServiceImpl::getGardenVerticalLimitMin, StringUtils::isNumeric, "Garden vertical limit min should not be in type numeric")
-                .validate(ApplicationParamServiceImpl::getGardenVerticalLimitMax, StringUtils::isNotEmpty, "Garden vertical limit max should not be empty")
-                .validate(ApplicationParamServiceImpl::getGardenVerticalLimitMax, StringUtils::isNumeric, "Garden vertical limit max should not be in type numeric")
+                .validate(ApplicationParamServiceImpl::getParallelism, this::isPositiveNumber, "Parallelism should be a positive number")
+                .validate(ApplicationParamServiceImpl::getCollision, this::isBoolean, "Collision should be a boolean")
+                .validate(ApplicationParamServiceImpl::getProgramCacheMaxDirections, StringUtils::isNumeric, "Program cache max directions should be in type numeric")
+                .validate(ApplicationParamServiceImpl::getServerPort, this::isEmptyOrNumeric, "Server port should be in type numeric")
+                .validate(ApplicationParamServiceImpl::getServerQueueCapacity, this::isPositiveNumber, "Server queue capacity should be a positive number")
+                .validate(ApplicationParamServiceImpl::getServerBatchSize, this::isPositiveNumber, "Server batch size should be a positive number")
+                .validate(ApplicationParamServiceImpl::getJobThreads, this::isJobThreads, "Job threads should be platform or virtual (Java 21 build)")
+                .validate(ApplicationParamServiceImpl::getJobMaxConcurrency, this::isPositiveNumber, "Job max concurrency should be a positive number")
+                .validate(ApplicationParamServiceImpl::getValidationMaxErrors, this::isPositiveNumber, "Validation max errors should be a positive number")
+                .validate(ApplicationParamServiceImpl::getContinuation, this::isBoolean, "Continuation should be a boolean")
+                .validate(ApplicationParamServiceImpl::getOffHeap, this::isBoolean, "Off-heap should be a boolean")
+                .validate(ApplicationParamServiceImpl::getGardenHorizontalLimitMin, this::isNotEmptyOrOptional, "Garden horizontal limit min should not be empty")
+                .validate(ApplicationParamServiceImpl::getGardenHorizontalLimitMin, this::isEmptyOrNumeric, "Garden horizontal limit min should not be in type numeric")
+                .validate(ApplicationParamServiceImpl::getGardenHorizontalLimitMax, this::isNotEmptyOrOptional, "Garden horizontal limit max should not be empty")
+                .validate(ApplicationParamServiceImpl::getGardenHorizontalLimitMax, this::isEmptyOrNumeric, "Garden horizontal limit max should not be in type numeric")
+                .validate(ApplicationParamServiceImpl::getGardenVerticalLimitMin, this::isNotEmptyOrOptional, "Garden vertical limit min should not be empty")
+                .validate(ApplicationParamServiceImpl::getGardenVerticalLimitMin, this::isEmptyOrNumeric, "Garden vertical limit min should not be in type numeric")
+                .validate(ApplicationParamServiceImpl::getGardenVerticalLimitMax, this::isNotEmptyOrOptional, "Garden vertical limit max should not be empty")
+                .validate(ApplicationParamServiceImpl::getGardenVerticalLimitMax, this::isEmptyOrNumeric, "Garden vertical limit max should not be in type numeric")
+                .validate(ApplicationParamServiceImpl::getGardenObstacles, this::isEmptyOrReadable, "Garden obstacles file should be readable")
                 .get();
     }
 
     /**
-     * Checks if positions length is same to directions length.
+     * Checks if the given static fleet parameter is not empty. Parameter is optional if the static
+     * fleet is, see {@link #isStaticFleetOptional()}.
+     *
+     * @param param current parameter
+     * @return boolean for result
+     */
+    private boolean isNotEmptyOrOptional(final String param) {
+        return isStaticFleetOptional() || StringUtils.isNotEmpty(param);
+    }
+
+    /**
+     * Checks if the static fleet parameters (positions, directions, expected positions and
+     * garden limits) are optional : if an input file is given, or if a server port is given
+     * without positions nor directions, the server then simulates the fleets it receives.
+     *
+     * @return boolean for result
+     */
+    private boolean isStaticFleetOptional() {
+        return StringUtils.isNotEmpty(inputFile)
+                || StringUtils.isNotEmpty(serverPort) && StringUtils.isEmpty(position) && StringUtils.isEmpty(directions);
+    }
+
+    /**
+     * Checks if the given parameter is a number greater than 0, in the int range.
+     *
+     * @param param current parameter
+     * @return boolean for result
+     */
+    private boolean isPositiveNumber(final String param) {
+        return StringUtils.isNumeric(param) && NumberUtils.toInt(param) > 0;
+    }
+
+    /**
+     * Checks if the given optional parameter is not given or numeric.
+     *
+     * @param param current parameter
+     * @return boolean for result
+     */
+    private boolean isEmptyOrNumeric(final String param) {
+        return StringUtils.isEmpty(param) || StringUtils.isNumeric(param);
+    }
+
+    /**
+     * Checks if the given parameter is a boolean (true, false, yes, no, on, off).
+     *
+     * @param param current parameter
+     * @return boolean for result
+     */
+    private boolean isBoolean(final String param) {
+        return BooleanUtils.toBooleanObject(param) != null;
+    }
+
+    /**
+     * Checks if the given parameter is a kind of job threads available in this build.
+     *
+     * @param param current parameter
+     * @return boolean for result
+     */
+    private boolean isJobThreads(final String param) {
+        return JobThreads.PLATFORM.equals(param) || JobThreads.VIRTUAL.equals(param) && JobThreads.isVirtualAvailable();
+    }
+
+    /**
+     * Checks if the given file is not given or readable.
+     *
+     * @param file current file
+     * @return boolean for result
+     */
+    private boolean isEmptyOrReadable(final String file) {
+        return StringUtils.isEmpty(file) || Files.isReadable(Paths.get(file));
+    }
+
+    /**
+     * Checks if positions length is same to directions length, by counting separators, so no
+     * string is split. Check is skipped if an input file is given.
      *
      * @param param current service that contains parameters
      * @return boolean for result
      */
     private boolean positionsLengthSameDirections(final ApplicationParamServiceImpl param) {
-        final Supplier<Integer> positionLength = () -> param.getPosition()
-                .split(MowitnowConstant.MOWERS_SEPARATOR)
-                .length;
-
-        final Supplier<Integer> directionLength = () -> param.getDirections()
-                .split(MowitnowConstant.MOWERS_SEPARATOR)
-                .length;
+        if (StringUtils.isNotEmpty(param.getInputFile())) {
+            return true;
+        }
 
         return param.getPosition() != null
                 && param.getDirections() != null
-                && positionLength.get().equals(directionLength.get());
+                && StringUtils.countMatches(param.getPosition(), MowitnowConstant.MOWERS_SEPARATOR)
+                == StringUtils.countMatches(param.getDirections(), MowitnowConstant.MOWERS_SEPARATOR);
     }
 }
@@ -1,25 +1,72 @@
 package com.mowitnow.service.impl;
 
-import com.google.common.collect.Maps;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Lists;
+import com.mowitnow.domain.Garden;
 import com.mowitnow.domain.Mower;
+import com.mowitnow.domain.ObstacleMap;
 import com.mowitnow.domain.Position;
 import com.mowitnow.domain.type.Direction;
+import com.mowitnow.dto.CoverageDto;
+import com.mowitnow.dto.MowerResultDto;
 import com.mowitnow.dto.PositionFinalDto;
+import com.mowitnow.engine.CollisionSchedule;
+import com.mowitnow.engine.CompiledProgram;
+import com.mowitnow.engine.CoverageBitmap;
+import com.mowitnow.engine.FleetEngine;
+import com.mowitnow.engine.MowerState;
+import com.mowitnow.engine.OccupancyIndex;
+import com.mowitnow.engine.OffHeapFleet;
+import com.mowitnow.engine.PackedProgram;
+import com.mowitnow.engine.ProgramCache;
+import com.mowitnow.engine.RepeatProgram;
+import com.mowitnow.engine.TransitionTable;
+import com.mowitnow.engine.WeightedRangeTask;
+import com.mowitnow.exception.ApplicationParamException;
+import com.mowitnow.io.BinaryFleetReader;
+import com.mowitnow.io.BinaryFleetWriter;
+import com.mowitnow.io.FleetFile;
+import com.mowitnow.io.FleetFileReader;
+import com.mowitnow.io.ObstacleMapReader;
+import com.mowitnow.io.OffHeapFleetFile;
+import com.mowitnow.io.TrajectoryWriter;
+import com.mowitnow.mapper.CoverageMapper;
+import com.mowitnow.mapper.DirectionMapper;
+import com.mowitnow.mapper.FleetMapper;
+import com.mowitnow.mapper.GardenMapper;
 import com.mowitnow.mapper.MowerMapper;
+import com.mowitnow.metrics.SimulationMetrics;
 import com.mowitnow.service.ApplicationParamService;
+import com.mowitnow.service.MowerResultHandler;
 import com.mowitnow.service.MowerService;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.function.Supplier;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
@@ -31,18 +78,250 @@ import static java.util.stream.Collectors.toList;
  * @see MowerService
  */
 @Service
-@RequiredArgsConstructor(onConstructor = @__(@Inject))
 @Slf4j
 public class MowerServiceImpl implements MowerService {
 
+    /**
+     * Direction number from which mower directions are compiled.
+     */
+    private static final int COMPILED_PROGRAM_MIN_LENGTH = 1 << 12;
+
+    /**
+     * Max number of results computed in parallel and waiting for the result handler.
+     */
+    private static final int RESULT_QUEUE_CAPACITY = 1 << 10;
+
+    /**
+     * Max number of mowers computed in parallel by a slice of a collision wave, whose final
+     * positions wait to be occupied and given to the result handler.
+     */
+    private static final int COLLISION_SLICE_SIZE = 1 << 16;
+
+    /**
+     * Time between two checks of the parallel computation state, when results are waited.
+     */
+    private static final long RESULT_POLL_MILLIS = 10;
+
+    /**
+     * Characters of the directions that can be appended to a mower.
+     */
+    private static final String DIRECTION_CHARACTERS = "GDA";
+
+    /**
+     * Last computed state of a mower in continuations : x, y, orientation ordinal, and number of
+     * directions applied, 0 if the mower must be computed from its initial position.
+     */
+    private static final int CONTINUATION_SIZE = 4;
+    private static final int CONTINUATION_OFFSET = 3;
+
+    /**
+     * Number of mowers of an off-heap fleet simulated together, before their results are given.
+     * Final states of a chunk are kept in a single int array, 12 bytes by mower.
+     */
+    private static final int OFF_HEAP_CHUNK_SIZE = 1 << 16;
+    private static final int OFF_HEAP_STATE_SIZE = 3;
+
     @NonNull
     private final ApplicationParamService applicationParamService;
+    @NonNull
+    private final SimulationMetrics metrics;
     private List<Mower> mowers;
+    private Garden garden;
+    private boolean collision;
+    private String trajectoryFile;
+    private ProgramCache programCache;
+    private ForkJoinPool pool;
+    private long[] cumulativeDirections;
+    private CollisionSchedule collisionSchedule;
+    private int[] continuations;
+    private final BitSet growableMowers = new BitSet();
+    private OffHeapFleet offHeapFleet;
+    private Path offHeapFile;
 
+    /**
+     * Constructor with its own metrics, that are not exported.
+     *
+     * @param applicationParamService application parameters
+     */
+    public MowerServiceImpl(@NonNull final ApplicationParamService applicationParamService) {
+        this(applicationParamService, new SimulationMetrics());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param applicationParamService application parameters
+     * @param metrics                 metrics updated by simulations
+     */
+    @Inject
+    public MowerServiceImpl(@NonNull final ApplicationParamService applicationParamService, @NonNull final SimulationMetrics metrics) {
+        this.applicationParamService = applicationParamService;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Allows to initialize mowers by application parameters, or by the input file if it is given.
+     * Programs of mowers are taken from the program cache, so mowers that have the same directions
+     * share them. Long programs are compiled, except with collisions because a compiled segment
+     * could cross a mower, and when trajectories are recorded because they need each step.<br>
+     * If continuation is enabled, the last computed state of each mower is kept in a single int
+     * array, 16 bytes by mower.<br>
+     * If off-heap is enabled, no mower is built : the fleet of the input file stays in a memory
+     * mapped binary fleet file, see {@link #initOffHeapFleet()}.<br>
+     * In server mode without positions nor directions, there is no static fleet : the service
+     * has no mower, on a single cell garden.
+     */
     @PostConstruct
-    private void init() {
-        LOGGER.debug("Initializing mowers by application parameters...");
-        this.mowers = MowerMapper.paramsToMowers(applicationParamService.getDirections(), applicationParamService.getPosition());
+    public void init() {
+        this.collision = BooleanUtils.toBoolean(applicationParamService.getCollision());
+        this.trajectoryFile = applicationParamService.getTrajectoryFile();
+        this.programCache = new ProgramCache(Long.parseLong(applicationParamService.getProgramCacheMaxDirections()),
+                collision || isRecording() ? Integer.MAX_VALUE : COMPILED_PROGRAM_MIN_LENGTH);
+
+        final long parseStart = System.nanoTime();
+        if (BooleanUtils.toBoolean(applicationParamService.getOffHeap())) {
+            initOffHeapFleet();
+        } else if (StringUtils.isNotEmpty(applicationParamService.getInputFile())) {
+            LOGGER.debug("Initializing mowers by input file {}...", applicationParamService.getInputFile());
+            final FleetFile fleetFile = FleetFileReader.read(Paths.get(applicationParamService.getInputFile()),
+                    Integer.parseInt(applicationParamService.getValidationMaxErrors()));
+            this.mowers = FleetMapper.fleetToMowers(fleetFile.getFleet(), programCache);
+            this.garden = fleetFile.getGarden();
+        } else if (StringUtils.isEmpty(applicationParamService.getPosition()) && StringUtils.isEmpty(applicationParamService.getDirections())) {
+            LOGGER.debug("No static fleet, the simulation server simulates the fleets it receives");
+            this.mowers = new ArrayList<>();
+            this.garden = new Garden(0, 0, 0, 0);
+        } else {
+            LOGGER.debug("Initializing mowers by application parameters...");
+            this.mowers = MowerMapper.paramsToMowers(applicationParamService.getDirections(), applicationParamService.getPosition(), programCache);
+            this.garden = GardenMapper.paramsToGarden(applicationParamService);
+        }
+        metrics.recordParse(System.nanoTime() - parseStart, offHeapFleet == null ? mowers.size() : offHeapFleet.size());
+        initObstacles(applicationParamService.getGardenObstacles());
+        if (BooleanUtils.toBoolean(applicationParamService.getContinuation())) {
+            this.continuations = new int[mowers.size() * CONTINUATION_SIZE];
+        }
+
+        LOGGER.debug("Program cache statistics : {}", programCache.stats());
+        initParallelism(Integer.parseInt(applicationParamService.getParallelism()));
+    }
+
+    /**
+     * Allows to initialize the off-heap fleet by the input file. A binary fleet file is mapped as
+     * it is, a text input file is first converted to a temporary binary fleet file, deleted when
+     * the service is destroyed. The heap then holds a chunk of final states at most, whatever the
+     * fleet size.
+     *
+     * @throws ApplicationParamException if there is no input file, or if trajectories or
+     *                                   continuation are enabled
+     */
+    private void initOffHeapFleet() {
+        if (StringUtils.isEmpty(applicationParamService.getInputFile())) {
+            throw new ApplicationParamException("Off-heap fleet needs an input file");
+        }
+        if (isRecording() || BooleanUtils.toBoolean(applicationParamService.getContinuation())) {
+            throw new ApplicationParamException("Off-heap fleet does not support trajectories nor continuation");
+        }
+
+        final Path inputFile = Paths.get(applicationParamService.getInputFile());
+        LOGGER.debug("Initializing off-heap fleet by input file {}...", inputFile);
+        try {
+            if (!BinaryFleetReader.isBinary(inputFile)) {
+                this.offHeapFile = Files.createTempFile("mowers", ".fleet");
+                BinaryFleetWriter.convert(inputFile, offHeapFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to convert input file " + inputFile, e);
+        }
+
+        final OffHeapFleetFile fleetFile = BinaryFleetReader.map(offHeapFile == null ? inputFile : offHeapFile);
+        this.offHeapFleet = fleetFile.getFleet();
+        this.garden = fleetFile.getGarden();
+    }
+
+    /**
+     * Allows to add to garden the obstacles of the given file, if it is given.
+     *
+     * @param obstacleFile obstacle file path, or empty
+     * @throws ApplicationParamException if obstacles size is not the garden size
+     */
+    private void initObstacles(final String obstacleFile) {
+        if (StringUtils.isEmpty(obstacleFile)) {
+            return;
+        }
+
+        LOGGER.debug("Initializing garden obstacles by file {}...", obstacleFile);
+        final ObstacleMap obstacles = ObstacleMapReader.read(Paths.get(obstacleFile));
+        try {
+            this.garden = garden.withObstacles(obstacles);
+        } catch (IllegalArgumentException e) {
+            throw new ApplicationParamException(e.getMessage());
+        }
+        LOGGER.debug("Garden has {} obstacle cells", obstacles.obstacleCount());
+    }
+
+    /**
+     * Allows to initialize the pool used to compute final positions in parallel, and the
+     * cumulative direction number of mowers used to split the work.
+     *
+     * @param parallelism thread number, final positions are computed sequentially if it is 1 or
+     *                    if trajectories are recorded
+     */
+    private void initParallelism(final int parallelism) {
+        if (parallelism <= 1) {
+            return;
+        }
+        if (isRecording()) {
+            LOGGER.warn("Mowers move sequentially when trajectories are recorded, parallelism {} is ignored", parallelism);
+            return;
+        }
+
+        LOGGER.debug("Initializing pool of {} threads...", parallelism);
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Gets the cumulative weights of the mowers, used to split them in ranges of similar work : a
+     * mower weighs its direction number plus one. Weights are kept until directions are appended.
+     * When continued mowers are computed, a mower weighs its remaining directions only, so these
+     * weights are computed for each run.
+     *
+     * @param continued true if mowers continue from their last computed state
+     * @return cumulative weights, from 0 for the first mower
+     */
+    private long[] cumulativeDirections(final boolean continued) {
+        if (continued && continuations != null) {
+            return computeCumulativeDirections(true);
+        }
+        if (cumulativeDirections == null) {
+            this.cumulativeDirections = computeCumulativeDirections(false);
+        }
+        return cumulativeDirections;
+    }
+
+    private long[] computeCumulativeDirections(final boolean continued) {
+        final long[] weights = new long[mowers.size() + 1];
+        for (int i = 0; i < mowers.size(); i++) {
+            final int continuedDirections = continued ? continuations[i * CONTINUATION_SIZE + CONTINUATION_OFFSET] : 0;
+            weights[i + 1] = weights[i] + mowers.get(i).getDirections().size() - continuedDirections + 1;
+        }
+        return weights;
+    }
+
+    /**
+     * Allows to shutdown the pool used to compute final positions in parallel, and to delete the
+     * temporary binary fleet file of an off-heap fleet.
+     */
+    @PreDestroy
+    public void destroy() {
+        Optional.ofNullable(pool).ifPresent(ForkJoinPool::shutdown);
+        if (offHeapFile != null) {
+            try {
+                Files.deleteIfExists(offHeapFile);
+            } catch (IOException e) {
+                LOGGER.warn("Unable to delete temporary fleet file {}", offHeapFile, e);
+            }
+        }
     }
 
     @Override
@@ -50,81 +329,660 @@ public class MowerServiceImpl implements MowerService {
 
         LOGGER.debug("Getting mowers final position...");
 
-        return this.getMowers().stream()
-                .map(this::getFinalPosition)
-                .collect(toList());
+        if (offHeapFleet != null) {
+            final List<PositionFinalDto> finalPositions = new ArrayList<>(offHeapFleet.size());
+            forEachOffHeapFinalPosition(result -> finalPositions.add(PositionFinalDto.builder()
+                    .mower(FleetMapper.offHeapFleetToMower(offHeapFleet, result.getMowerId()))
+                    .position(result.getPosition())
+                    .build()));
+            return finalPositions;
+        }
+        if (pool == null) {
+            final OccupancyIndex occupancy = collision ? OccupancyIndex.of(garden, mowers.size()) : OccupancyIndex.NONE;
+            final SimulationMetrics.Recorder recorder = metrics.recorder();
+            try (TrajectoryWriter trajectory = openTrajectory()) {
+                return this.getMowers().stream()
+                        .map(mower -> getFinalPosition(mower, occupancy, trajectory, recorder))
+                        .collect(toList());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write trajectory file " + trajectoryFile, e);
+            } finally {
+                recorder.flush();
+            }
+        }
+
+        if (collision) {
+            final PositionFinalDto[] finalPositions = new PositionFinalDto[mowers.size()];
+            forEachFinalPositionWithCollisions(result -> {
+                finalPositions[result.getMowerId()] = PositionFinalDto.builder()
+                        .mower(mowers.get(result.getMowerId()))
+                        .position(result.getPosition())
+                        .build();
+                return true;
+            });
+            return Lists.newArrayList(finalPositions);
+        }
+        return getFinalPositionsInParallel();
+    }
+
+    /**
+     * Gets final positions of the all mowers in parallel. Mowers never interact, so they are split
+     * in ranges of similar direction number, computed independently on the pool. Each result is
+     * stored at its mower index, so result list keeps the mowers order.
+     *
+     * @return final {@link PositionFinalDto} list
+     */
+    private List<PositionFinalDto> getFinalPositionsInParallel() {
+        final List<Mower> currentMowers = this.getMowers();
+        final PositionFinalDto[] finalPositions = new PositionFinalDto[currentMowers.size()];
+        final long[] weights = cumulativeDirections(true);
+
+        pool.invoke(new WeightedRangeTask(i -> weights[i],
+                (from, to) -> {
+                    final SimulationMetrics.Recorder recorder = metrics.recorder();
+                    IntStream.range(from, to).forEach(i -> finalPositions[i] = getFinalPosition(currentMowers.get(i), OccupancyIndex.NONE, null, recorder));
+                    recorder.flush();
+                },
+                WeightedRangeTask.DEFAULT_THRESHOLD,
+                0,
+                currentMowers.size()));
+
+        return Lists.newArrayList(finalPositions);
     }
 
     @Override
-    public boolean isInGarden(final Position position) {
-        val gardenHorizontalLimitMin = Integer.parseInt(applicationParamService.getGardenHorizontalLimitMin());
-        val gardenHorizontalLimitMax = Integer.parseInt(applicationParamService.getGardenHorizontalLimitMax());
-        val gardenVerticalLimitMin = Integer.parseInt(applicationParamService.getGardenVerticalLimitMin());
-        val gardenVerticalLimitMax = Integer.parseInt(applicationParamService.getGardenVerticalLimitMax());
+    public void forEachFinalPosition(final MowerResultHandler handler) {
+
+        LOGGER.debug("Streaming mowers final position...");
+
+        if (offHeapFleet != null) {
+            forEachOffHeapFinalPosition(handler);
+            return;
+        }
+        if (pool == null) {
+            final OccupancyIndex occupancy = collision ? OccupancyIndex.of(garden, mowers.size()) : OccupancyIndex.NONE;
+            final SimulationMetrics.Recorder recorder = metrics.recorder();
+            try (TrajectoryWriter trajectory = openTrajectory()) {
+                for (final Mower mower : this.getMowers()) {
+                    if (!handler.onResult(getResult(mower, occupancy, trajectory, recorder))) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write trajectory file " + trajectoryFile, e);
+            } finally {
+                recorder.flush();
+            }
+            return;
+        }
 
-        return IntStream.rangeClosed(gardenHorizontalLimitMin, gardenHorizontalLimitMax).anyMatch(position.getCoordinateX()::equals)
-                && IntStream.rangeClosed(gardenVerticalLimitMin, gardenVerticalLimitMax).anyMatch(position.getCoordinateY()::equals);
+        if (collision) {
+            forEachFinalPositionWithCollisions(handler);
+        } else {
+            forEachFinalPositionInParallel(handler);
+        }
     }
 
     /**
-     * Factory method that allows to get final position of the given mower. Final position contains
-     * x/y coordinate and orientation. A result is add in object that contains mower last position
-     * and mower data.
+     * Streams final positions of the all mowers with collisions, computed in parallel by waves of
+     * the {@link CollisionSchedule} : mowers of a wave can not meet, so they are computed on the
+     * pool against the cells occupied by previous waves. Then the current thread occupies their
+     * final positions and gives their results, in schedule order. Final positions are the same
+     * as sequential ones.<br>
+     * Waves are computed by slices of at most {@link #COLLISION_SLICE_SIZE} mowers, so final
+     * positions waiting for the handler are bounded, whatever the mower number.
      *
-     * @return {@link PositionFinalDto} object that contains mower last position and mower data
+     * @param handler handler of mower results
      */
-    private PositionFinalDto getFinalPosition(final Mower mower) {
+    private void forEachFinalPositionWithCollisions(final MowerResultHandler handler) {
+        final List<Mower> currentMowers = this.getMowers();
+        final CollisionSchedule schedule = collisionSchedule();
+        final OccupancyIndex occupancy = OccupancyIndex.of(garden, currentMowers.size());
+        final OccupancyIndex previousWaves = OccupancyIndex.readOnly(occupancy);
+        final Position[] positions = new Position[Math.max(1, Math.min(currentMowers.size(), COLLISION_SLICE_SIZE))];
+        final int[] finished = {0};
 
-        LOGGER.debug("Getting mower [{}] final position...", mower.getId());
+        schedule.run(pool, positions.length, (from, to) -> {
+            final SimulationMetrics.Recorder recorder = metrics.recorder();
+            for (int i = from; i < to; i++) {
+                positions[i % positions.length] = computeFinalPosition(currentMowers.get(schedule.mower(i)), previousWaves, null, null, recorder);
+            }
+            recorder.flush();
+        }, mower -> {
+            final int slot = finished[0]++ % positions.length;
+            final Position position = positions[slot];
+            positions[slot] = null;
+            occupancy.occupy(position.getCoordinateX(), position.getCoordinateY());
+            return handler.onResult(MowerResultDto.builder()
+                    .mowerId(mower)
+                    .position(position)
+                    .build());
+        });
+    }
+
+    /**
+     * Gets the collision schedule of the mowers, built from their initial positions and their
+     * forward move numbers, and kept until directions or garden change.
+     *
+     * @return {@link CollisionSchedule} collision schedule
+     */
+    private CollisionSchedule collisionSchedule() {
+        if (collisionSchedule == null) {
+            final CollisionSchedule.Builder builder = CollisionSchedule.builder(garden, mowers.size());
+            for (final Mower mower : mowers) {
+                builder.mower(mower.getPosition().getCoordinateX(), mower.getPosition().getCoordinateY(),
+                        forwardMoveNumber(mower.getDirections()), mower.getDirections().size());
+            }
+            this.collisionSchedule = builder.build();
+        }
+        return collisionSchedule;
+    }
+
+    /**
+     * Gets the forward move number of the given directions, counted by packed words for a
+     * {@link PackedProgram}, and on the tree for a {@link RepeatProgram}.
+     *
+     * @param directions directions
+     * @return forward move number
+     */
+    private static int forwardMoveNumber(final List<Direction> directions) {
+        if (directions instanceof PackedProgram) {
+            return ((PackedProgram) directions).count(Direction.A);
+        }
+        return directions instanceof RepeatProgram
+                ? ((RepeatProgram) directions).count(Direction.A)
+                : Collections.frequency(directions, Direction.A);
+    }
+
+    /**
+     * Streams final positions of the all mowers computed in parallel. Ranges of mowers are
+     * computed on the pool, and results are handed over to the current thread by a bounded queue :
+     * workers wait while the queue is full. When the handler stops, workers are cancelled.
+     *
+     * @param handler handler of mower results
+     */
+    private void forEachFinalPositionInParallel(final MowerResultHandler handler) {
+        final List<Mower> currentMowers = this.getMowers();
+        final BlockingQueue<MowerResultDto> results = new ArrayBlockingQueue<>(RESULT_QUEUE_CAPACITY);
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final long[] weights = cumulativeDirections(true);
 
-        final Map<Integer, Position> mowerCurrentPosition = Maps.newHashMap();
-        mowerCurrentPosition.put(mower.getId(), mower.getPosition());
+        final ForkJoinTask<Void> task = pool.submit(new WeightedRangeTask(i -> weights[i],
+                (from, to) -> {
+                    final SimulationMetrics.Recorder recorder = metrics.recorder();
+                    for (int i = from; i < to && !cancelled.get(); i++) {
+                        offer(results, getResult(currentMowers.get(i), OccupancyIndex.NONE, null, recorder), cancelled);
+                    }
+                    recorder.flush();
+                },
+                WeightedRangeTask.DEFAULT_THRESHOLD,
+                0,
+                currentMowers.size()));
 
-        return mower.getDirections().stream()
-                .map(direction -> this.calculateNextPosition(mower, direction, mowerCurrentPosition))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .reduce((d1, d2) -> d2)
-                .get();
+        try {
+            for (int i = 0; i < currentMowers.size(); i++) {
+                if (!handler.onResult(take(results, task))) {
+                    return;
+                }
+            }
+        } finally {
+            cancelled.set(true);
+            results.clear();
+        }
     }
 
     /**
-     * Factory method that allows to calculate and get next position of {@link Mower} by current
-     * position of mower, current direction and coordinate X/Y.
+     * Streams final positions of the all mowers of the off-heap fleet, in mowers order. Mowers are
+     * simulated by chunks, in parallel on the pool if there is one and collisions are ignored,
+     * then the results of the chunk are given to the handler, so results waiting for the handler
+     * are bounded by the chunk size.
      *
-     * @param mower                mower
-     * @param direction            direction
-     * @param mowerCurrentPosition mower current position
-     * @return {@link PositionFinalDto} object that contains mower next position and mower data
+     * @param handler handler of mower results
      */
-    private Optional<PositionFinalDto> calculateNextPosition(final Mower mower,
-                                                             final Direction direction,
-                                                             final Map<Integer, Position> mowerCurrentPosition) {
-        final Position currentPosition = mowerCurrentPosition.get(mower.getId());
-        final Position nextPosition = currentPosition
-                .getOrientation()
-                .moveMower(direction, currentPosition.getCoordinateX(), currentPosition.getCoordinateY());
+    private void forEachOffHeapFinalPosition(final MowerResultHandler handler) {
+        final FleetEngine engine = new FleetEngine(garden);
+        final OccupancyIndex occupancy = collision ? OccupancyIndex.of(garden, offHeapFleet.size()) : OccupancyIndex.NONE;
+        final int[] states = new int[Math.min(offHeapFleet.size(), OFF_HEAP_CHUNK_SIZE) * OFF_HEAP_STATE_SIZE];
 
-        return Optional.of(nextPosition)
-                .filter(this::isInGarden)
-                .flatMap(p -> buildNextPositionOfMower(mower, p, mowerCurrentPosition));
+        for (int chunkStart = 0; chunkStart < offHeapFleet.size(); chunkStart += OFF_HEAP_CHUNK_SIZE) {
+            final int from = chunkStart;
+            final int to = (int) Math.min(offHeapFleet.size(), (long) chunkStart + OFF_HEAP_CHUNK_SIZE);
+            if (pool == null || collision) {
+                simulateOffHeap(engine, occupancy, from, to, from, states);
+            } else {
+                pool.invoke(new WeightedRangeTask(i -> (long) offHeapFleet.firstDirection(i) + i,
+                        (rangeFrom, rangeTo) -> simulateOffHeap(engine, OccupancyIndex.NONE, rangeFrom, rangeTo, from, states),
+                        WeightedRangeTask.DEFAULT_THRESHOLD,
+                        from,
+                        to));
+            }
+
+            for (int mower = from; mower < to; mower++) {
+                final int state = (mower - from) * OFF_HEAP_STATE_SIZE;
+                final MowerResultDto result = MowerResultDto.builder()
+                        .mowerId(mower)
+                        .position(new Position(states[state], states[state + 1], TransitionTable.toOrientation(states[state + 2])))
+                        .build();
+                if (!handler.onResult(result)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Simulates the mowers of the off-heap fleet from mower {@code from} (inclusive) to mower
+     * {@code to} (exclusive), and keeps their final states in the given chunk states.
+     */
+    private void simulateOffHeap(final FleetEngine engine,
+                                 final OccupancyIndex occupancy,
+                                 final int from,
+                                 final int to,
+                                 final int chunkStart,
+                                 final int[] states) {
+        final MowerState mowerState = new MowerState(0, 0, 0);
+        final SimulationMetrics.Recorder recorder = metrics.recorder();
+        for (int mower = from; mower < to; mower++) {
+            final boolean timed = SimulationMetrics.isTimed(mower);
+            final long start = timed ? System.nanoTime() : 0;
+            final int rejectedMoves = engine.simulate(offHeapFleet, mower, occupancy, mowerState);
+            recorder.recordMower(timed ? System.nanoTime() - start : SimulationMetrics.NOT_TIMED, offHeapFleet.directionNumber(mower), rejectedMoves);
+
+            final int state = (mower - chunkStart) * OFF_HEAP_STATE_SIZE;
+            states[state] = mowerState.getCoordinateX();
+            states[state + 1] = mowerState.getCoordinateY();
+            states[state + 2] = mowerState.getOrientation();
+        }
+        recorder.flush();
+    }
+
+    /**
+     * Puts the given result in queue, waiting while the queue is full unless computation is
+     * cancelled.
+     */
+    private static void offer(final BlockingQueue<MowerResultDto> results,
+                              final MowerResultDto result,
+                              final AtomicBoolean cancelled) {
+        try {
+            while (!cancelled.get() && !results.offer(result, RESULT_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                LOGGER.trace("Waiting for result handler...");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled.set(true);
+        }
+    }
+
+    /**
+     * Takes the next result from queue, waiting while it is empty. If the computation has failed,
+     * its exception is thrown.
+     */
+    private static MowerResultDto take(final BlockingQueue<MowerResultDto> results, final ForkJoinTask<Void> task) {
+        try {
+            MowerResultDto result;
+            while ((result = results.poll(RESULT_POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (task.isCompletedAbnormally()) {
+                    task.join();
+                }
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for mower results", e);
+        }
+    }
+
+    @Override
+    public CoverageDto getCoverage() {
+
+        LOGGER.debug("Computing garden coverage...");
+        checkNotOffHeap("Coverage");
+
+        final CoverageBitmap coverage;
+        if (pool == null || collision) {
+            final OccupancyIndex occupancy = collision ? OccupancyIndex.of(garden, mowers.size()) : OccupancyIndex.NONE;
+            final SimulationMetrics.Recorder recorder = metrics.recorder();
+            coverage = new CoverageBitmap(garden);
+            this.getMowers().forEach(mower -> computeFinalPosition(mower, occupancy, null, coverage, recorder));
+            recorder.flush();
+        } else {
+            coverage = getCoverageInParallel();
+        }
+
+        return CoverageMapper.bitmapToCoverage(garden, coverage);
+    }
+
+    /**
+     * Gets the coverage bitmap of the all mowers computed in parallel. Each task takes a free
+     * bitmap, marks mowed cells in it and gives it back, so there are no more bitmaps than tasks
+     * running at the same time, and no bitmap is kept by pool threads after the call. Bitmaps are
+     * merged at the end.
+     *
+     * @return {@link CoverageBitmap} coverage bitmap
+     */
+    private CoverageBitmap getCoverageInParallel() {
+        final List<Mower> currentMowers = this.getMowers();
+        final Queue<CoverageBitmap> workerCoverages = new ConcurrentLinkedQueue<>();
+        final long[] weights = cumulativeDirections(false);
+
+        pool.invoke(new WeightedRangeTask(i -> weights[i],
+                (from, to) -> {
+                    final CoverageBitmap freeCoverage = workerCoverages.poll();
+                    final CoverageBitmap coverage = freeCoverage == null ? new CoverageBitmap(garden) : freeCoverage;
+                    final SimulationMetrics.Recorder recorder = metrics.recorder();
+                    IntStream.range(from, to).forEach(i -> computeFinalPosition(currentMowers.get(i), OccupancyIndex.NONE, null, coverage, recorder));
+                    recorder.flush();
+                    workerCoverages.add(coverage);
+                },
+                WeightedRangeTask.DEFAULT_THRESHOLD,
+                0,
+                currentMowers.size()));
+
+        return workerCoverages.stream().reduce(new CoverageBitmap(garden), CoverageBitmap::or);
+    }
+
+    @Override
+    public PositionFinalDto appendDirections(final int mowerId, final String directions) {
+        checkNotOffHeap("Appending directions");
+        if (mowerId < 0 || mowerId >= mowers.size()) {
+            throw new IllegalArgumentException("Unknown mower " + mowerId);
+        }
+        if (!StringUtils.containsOnly(directions, DIRECTION_CHARACTERS)) {
+            throw new ApplicationParamException("Directions should only contain G, D and A");
+        }
+
+        LOGGER.debug("Appending {} directions to mower [{}]...", directions.length(), mowerId);
+
+        final Mower mower = growableMower(mowerId);
+        mower.getDirections().addAll(DirectionMapper.toDirection(directions));
+        this.collisionSchedule = null;
+        this.cumulativeDirections = null;
+        if (collision) {
+            invalidateContinuations(mowerId + 1);
+        }
+
+        final OccupancyIndex occupancy = collision ? OccupancyIndex.of(garden, mowers.size()) : OccupancyIndex.NONE;
+        final SimulationMetrics.Recorder recorder = metrics.recorder();
+        try {
+            if (collision) {
+                occupyPreviousMowers(mowerId, occupancy);
+            }
+            return getFinalPosition(mower, occupancy, null, recorder);
+        } finally {
+            recorder.flush();
+        }
+    }
+
+    /**
+     * Occupies the final positions of the mowers before the given one. A mower whose last computed
+     * state covers all its directions is occupied at its stored position, without being simulated.
+     * Other mowers are computed again by a recorder of their own : they are only replayed to know
+     * occupied cells, so they are not recorded in the service metrics.
+     *
+     * @param mowerId   mower id, previous mowers are occupied
+     * @param occupancy occupied cells
+     */
+    private void occupyPreviousMowers(final int mowerId, final OccupancyIndex occupancy) {
+        SimulationMetrics.Recorder replayRecorder = null;
+        for (int i = 0; i < mowerId; i++) {
+            final int continuation = i * CONTINUATION_SIZE;
+            final int continuedDirections = continuations != null ? continuations[continuation + CONTINUATION_OFFSET] : 0;
+            if (continuedDirections > 0 && continuedDirections == mowers.get(i).getDirections().size()) {
+                occupancy.occupy(continuations[continuation], continuations[continuation + 1]);
+            } else {
+                if (replayRecorder == null) {
+                    replayRecorder = new SimulationMetrics().recorder();
+                }
+                computeFinalPosition(mowers.get(i), occupancy, null, null, replayRecorder);
+            }
+        }
+    }
+
+    /**
+     * Gets the given mower with directions that can grow. Directions of a mower can be shared with
+     * other mowers by the program cache, so they are copied the first time directions are
+     * appended, then the mower keeps its own list. A {@link RepeatProgram} keeps its tree, and
+     * appended directions are packed after it.
+     *
+     * @param mowerId mower id
+     * @return {@link Mower} mower with its own directions
+     */
+    private Mower growableMower(final int mowerId) {
+        final Mower mower = mowers.get(mowerId);
+        if (growableMowers.get(mowerId)) {
+            return mower;
+        }
+
+        final Mower growableMower = Mower.builder()
+                .id(mower.getId())
+                .position(mower.getPosition())
+                .directions(growableCopy(mower.getDirections()))
+                .program(mower.getProgram())
+                .build();
+        mowers.set(mowerId, growableMower);
+        growableMowers.set(mowerId);
+        return growableMower;
+    }
+
+    private static List<Direction> growableCopy(final List<Direction> directions) {
+        return directions instanceof RepeatProgram
+                ? ((RepeatProgram) directions).growableCopy()
+                : PackedProgram.growableCopy(directions);
+    }
+
+    @Override
+    public void updateGarden(@NonNull final Garden garden) {
+        if (garden.equals(this.garden)) {
+            return;
+        }
+
+        LOGGER.debug("Updating garden, last computed states of mowers are invalidated...");
+        this.garden = garden;
+        this.collisionSchedule = null;
+        invalidateContinuations(0);
+    }
+
+    /**
+     * Invalidates the last computed states of the mowers from the given mower id, so they are
+     * computed again from their initial position.
+     *
+     * @param fromMowerId first mower id
+     */
+    private void invalidateContinuations(final int fromMowerId) {
+        if (continuations != null) {
+            Arrays.fill(continuations, fromMowerId * CONTINUATION_SIZE, continuations.length, 0);
+        }
+    }
+
+    @Override
+    public CacheStats getProgramCacheStats() {
+        return programCache.stats();
+    }
+
+    @Override
+    public boolean isInGarden(final Position position) {
+        return garden.contains(position.getCoordinateX(), position.getCoordinateY());
     }
 
     /**
-     * Build an optional that contains the next position with the concerned mower.<br>
-     * The given current position is updated with the new position (the mower entry is updated).
+     * Factory method that allows to get final position of the given mower. A result is add in
+     * object that contains mower last position and mower data.
+     *
+     * @param mower     mower
+     * @param occupancy  cells occupied by previous mowers, {@link OccupancyIndex#NONE} if
+     *                   collisions are ignored
+     * @param trajectory writer of mower trajectory, null if trajectories are not recorded
+     * @param recorder   recorder of the current thread metrics
+     * @return {@link PositionFinalDto} object that contains mower last position and mower data
      */
-    private Optional<PositionFinalDto> buildNextPositionOfMower(final Mower mower,
-                                                                final Position nextPosition,
-                                                                final Map<Integer, Position> mowerCurrentPosition) {
-        final Supplier<PositionFinalDto> mowerNextPosition = () -> PositionFinalDto.builder()
+    private PositionFinalDto getFinalPosition(final Mower mower,
+                                              final OccupancyIndex occupancy,
+                                              final TrajectoryWriter trajectory,
+                                              final SimulationMetrics.Recorder recorder) {
+        return PositionFinalDto.builder()
                 .mower(mower)
-                .position(nextPosition)
+                .position(computeFinalPosition(mower, occupancy, trajectory, null, recorder))
                 .build();
+    }
 
-        mowerCurrentPosition.put(mower.getId(), nextPosition);
+    /**
+     * Factory method that allows to get the lightweight result of the given mower, that contains
+     * mower last position and mower id.
+     *
+     * @param mower     mower
+     * @param occupancy  cells occupied by previous mowers, {@link OccupancyIndex#NONE} if
+     *                   collisions are ignored
+     * @param trajectory writer of mower trajectory, null if trajectories are not recorded
+     * @param recorder   recorder of the current thread metrics
+     * @return {@link MowerResultDto} object that contains mower last position and mower id
+     */
+    private MowerResultDto getResult(final Mower mower,
+                                     final OccupancyIndex occupancy,
+                                     final TrajectoryWriter trajectory,
+                                     final SimulationMetrics.Recorder recorder) {
+        return MowerResultDto.builder()
+                .mowerId(mower.getId())
+                .position(computeFinalPosition(mower, occupancy, trajectory, null, recorder))
+                .build();
+    }
+
+    /**
+     * Computes final position of the given mower. Final position contains x/y coordinate and
+     * orientation.<br>
+     * Mower is stepped with primitive ints through the {@link TransitionTable}, so no object is
+     * allocated by direction : only the final position is built. A move that goes out of garden
+     * or into a cell occupied by a previous mower is ignored, the mower keeps its position and
+     * orientation. When mower has finished, its final position is added to occupied cells.<br>
+     * Long programs are run through their {@link CompiledProgram}, that gives the same result,
+     * then directions appended after the program are stepped. Directions with repeat groups are
+     * run through their {@link RepeatProgram} tree, with collisions too. Other directions are
+     * decoded from their {@link PackedProgram} 2 bits codes.<br>
+     * When a trajectory writer is given, each step is recorded, accepted or not. When a coverage
+     * bitmap is given, each cell entered by the mower, including its initial cell, is marked.
+     * Otherwise, if continuation is enabled, the mower continues from its last computed state,
+     * and its new state is kept.<br>
+     * Command number and ignored move number of the mower are recorded by the given recorder,
+     * with its simulation time if it is timed.
+     *
+     * @param mower      mower
+     * @param occupancy  cells occupied by previous mowers, {@link OccupancyIndex#NONE} if
+     *                   collisions are ignored
+     * @param trajectory writer of mower trajectory, null if trajectories are not recorded
+     * @param coverage   bitmap of mowed cells, null if coverage is not computed
+     * @param recorder   recorder of the current thread metrics
+     * @return {@link Position} mower final position
+     */
+    private Position computeFinalPosition(final Mower mower,
+                                          final OccupancyIndex occupancy,
+                                          final TrajectoryWriter trajectory,
+                                          final CoverageBitmap coverage,
+                                          final SimulationMetrics.Recorder recorder) {
+
+        LOGGER.debug("Getting mower [{}] final position...", mower.getId());
+
+        final boolean timed = SimulationMetrics.isTimed(mower.getId());
+        final long start = timed ? System.nanoTime() : 0;
+        final List<Direction> directions = mower.getDirections();
+        final int continuation = mower.getId() * CONTINUATION_SIZE;
+        final int continuedDirections = continuations != null && trajectory == null && coverage == null
+                ? continuations[continuation + CONTINUATION_OFFSET] : 0;
+
+        int coordinateX;
+        int coordinateY;
+        int orientation;
+        int rejectedMoves = 0;
+        int from = continuedDirections;
+        if (continuedDirections > 0) {
+            coordinateX = continuations[continuation];
+            coordinateY = continuations[continuation + 1];
+            orientation = continuations[continuation + 2];
+        } else if (mower.getProgram() != null && occupancy == OccupancyIndex.NONE && trajectory == null && coverage == null) {
+            final MowerState state = MowerState.of(mower.getPosition());
+            rejectedMoves = mower.getProgram().run(garden, state);
+            coordinateX = state.getCoordinateX();
+            coordinateY = state.getCoordinateY();
+            orientation = state.getOrientation();
+            from = mower.getProgram().length();
+        } else if (directions instanceof RepeatProgram && trajectory == null && coverage == null) {
+            final MowerState state = MowerState.of(mower.getPosition());
+            rejectedMoves = ((RepeatProgram) directions).run(garden, occupancy, state);
+            coordinateX = state.getCoordinateX();
+            coordinateY = state.getCoordinateY();
+            orientation = state.getOrientation();
+            from = directions.size();
+        } else {
+            final Position initialPosition = mower.getPosition();
+            coordinateX = initialPosition.getCoordinateX();
+            coordinateY = initialPosition.getCoordinateY();
+            orientation = initialPosition.getOrientation().ordinal();
+            if (trajectory != null) {
+                trajectory.mower(mower.getId(), directions.size(), coordinateX, coordinateY, initialPosition.getOrientation());
+            }
+            if (coverage != null && garden.contains(coordinateX, coordinateY)) {
+                coverage.add(coordinateX, coordinateY);
+            }
+        }
+
+        final PackedProgram packed = directions instanceof PackedProgram ? (PackedProgram) directions : null;
+        final int directionNumber = directions.size();
+        for (int i = from; i < directionNumber; i++) {
+            final int direction = packed != null ? packed.code(i) : directions.get(i).ordinal();
+            final int transition = TransitionTable.transition(orientation, direction);
+            final int nextCoordinateX = coordinateX + TransitionTable.deltaX(transition);
+            final int nextCoordinateY = coordinateY + TransitionTable.deltaY(transition);
+
+            final boolean accepted = garden.contains(nextCoordinateX, nextCoordinateY)
+                    && (TransitionTable.isRotation(transition) || !occupancy.isOccupied(nextCoordinateX, nextCoordinateY));
+            if (accepted) {
+                coordinateX = nextCoordinateX;
+                coordinateY = nextCoordinateY;
+                orientation = TransitionTable.orientation(transition);
+                if (coverage != null) {
+                    coverage.add(coordinateX, coordinateY);
+                }
+            } else {
+                rejectedMoves++;
+            }
+            if (trajectory != null) {
+                trajectory.step(accepted ? direction : TrajectoryWriter.BLOCKED, coordinateX, coordinateY, orientation);
+            }
+        }
+
+        occupancy.occupy(coordinateX, coordinateY);
+        if (continuations != null) {
+            continuations[continuation] = coordinateX;
+            continuations[continuation + 1] = coordinateY;
+            continuations[continuation + 2] = orientation;
+            continuations[continuation + CONTINUATION_OFFSET] = directionNumber;
+        }
+        recorder.recordMower(timed ? System.nanoTime() - start : SimulationMetrics.NOT_TIMED, directionNumber - continuedDirections, rejectedMoves);
+
+        return new Position(coordinateX, coordinateY, TransitionTable.toOrientation(orientation));
+    }
+
+    /**
+     * Checks that the fleet is not off-heap, for the given operation that needs mowers.
+     *
+     * @param operation operation name
+     * @throws UnsupportedOperationException if the fleet is off-heap
+     */
+    private void checkNotOffHeap(final String operation) {
+        if (offHeapFleet != null) {
+            throw new UnsupportedOperationException(operation + " is not supported with an off-heap fleet");
+        }
+    }
+
+    /**
+     * Opens the trajectory file, if trajectories are recorded.
+     *
+     * @return {@link TrajectoryWriter} trajectory writer, null if trajectories are not recorded
+     */
+    private TrajectoryWriter openTrajectory() {
+        return isRecording() ? new TrajectoryWriter(Paths.get(trajectoryFile)) : null;
+    }
 
-        return Optional.of(mowerNextPosition.get());
+    private boolean isRecording() {
+        return StringUtils.isNotEmpty(trajectoryFile);
     }
 
     private List<Mower> getMowers() {
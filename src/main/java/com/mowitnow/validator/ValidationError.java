@@ -0,0 +1,42 @@
+package com.mowitnow.validator;
+
+import lombok.Value;
+
+/**
+ * Validation error, a plain record of where and why a validation failed : unlike an exception,
+ * it costs no stack trace, so errors of large inputs can be collected cheaply and reported by a
+ * single {@link com.mowitnow.exception.ApplicationParamException}.
+ *
+ * @author Mazlum TOSUN
+ */
+@Value
+public class ValidationError {
+
+    /**
+     * Line of the error, from 1, or 0 if the error is not in an input file.
+     */
+    private final int line;
+
+    /**
+     * Column of the error in its line, from 1, or 0 if the error is not in an input file.
+     */
+    private final int column;
+
+    private final String reason;
+
+    /**
+     * Static factory method that allows to create an error that is not in an input file, as an
+     * invalid parameter.
+     *
+     * @param reason reason of error
+     * @return {@link ValidationError} error
+     */
+    public static ValidationError of(final String reason) {
+        return new ValidationError(0, 0, reason);
+    }
+
+    @Override
+    public String toString() {
+        return line == 0 ? reason : reason + " at line " + line + ", column " + column;
+    }
+}
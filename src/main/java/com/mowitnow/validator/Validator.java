@@ -3,7 +3,6 @@ package com.mowitnow.validator;
 import com.mowitnow.exception.ApplicationParamException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import lombok.val;
 import org.apache.commons.lang3.BooleanUtils;
 
 import java.util.ArrayList;
@@ -23,7 +22,7 @@ public class Validator<T> {
 
     @NonNull
     private final T object;
-    private final List<ApplicationParamException> errors = new ArrayList<>();
+    private final List<ValidationError> errors = new ArrayList<>();
 
     /**
      * Static factory method that allows to create new {@link Validator} instance, with given
@@ -42,7 +41,7 @@ public class Validator<T> {
      *
      * @param projection current projection
      * @param filter     current predicate
-     * @param message    current message to add in exception list, if current {@link Predicate}
+     * @param message    current message to add in error list, if current {@link Predicate}
      *                   returns false
      * @return current {@link Validator}
      */
@@ -52,15 +51,15 @@ public class Validator<T> {
         final boolean isValidField = filterOnField.test(object);
         Optional.of(isValidField)
                 .filter(BooleanUtils::isFalse)
-                .ifPresent(e -> this.errors.add(new ApplicationParamException(message)));
+                .ifPresent(e -> this.errors.add(ValidationError.of(message)));
 
         return this;
     }
 
     /**
      * Gets error messages, if it exists validation errors.<br>
-     * If there are no error, current object in validator is returned, otherwise an
-     * {@link ApplicationParamException} is thrown with all error messages.
+     * If there are no error, current object in validator is returned, otherwise a single
+     * {@link ApplicationParamException} is thrown with all errors.
      *
      * @return T object in validator
      * @throws ApplicationParamException if it exists validation errors
@@ -70,8 +69,6 @@ public class Validator<T> {
             return object;
         }
 
-        val exception = new ApplicationParamException();
-        errors.forEach(exception::addSuppressed);
-        throw exception;
+        throw new ApplicationParamException(errors);
     }
 }
@@ -0,0 +1,174 @@
+package com.mowitnow;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link BatchLauncher}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class BatchLauncherTest extends AbstractTest {
+
+    private static final String SIMULATION = "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Object[] parametersForValidArguments() {
+        return new Object[][]{
+                {"", "1 3 N\n5 1 E\n"},
+                {"--mower.parallelism=4", "1 3 N\n5 1 E\n"},
+                {"--mower.collision --mower.parallelism=4", "1 3 N\n5 1 E\n"},
+                {"--mower.collision", "1 3 N\n5 1 E\n"},
+                {"--mower.collision=true --mower.positions=12N --garden.limit.horizontal.max=5", "1 3 N\n5 1 E\n"}};
+    }
+
+    private Object[] parametersForInvalidArguments() {
+        return new Object[][]{
+                {"", "Input file should be readable"},
+                {"--mower.file=unknown/mowers.txt", "Input file should be readable"},
+                {"mower.file", "Invalid argument 'mower.file', expected --name=value"},
+                {"--mower.file=%s --mower.parallelism=0", "Parallelism should be a positive number"},
+                {"--mower.file=%s --mower.parallelism=99999999999", "Parallelism should be a positive number"},
+                {"--mower.file=%s --mower.collision=GTC", "Collision should be a boolean"},
+                {"--mower.file=%s --mower.validation.maxErrors=0", "Validation max errors should be a positive number"},
+                {"--mower.file=%s --garden.obstacles=unknown/obstacles.pbm", "Garden obstacles file should be readable"},
+                {"--mower.file=%s --mower.expected=unknown/expected.txt", "Expected results file should be readable"},
+                {"--mower.file=%s --mower.expected=%1$s --mower.verification.maxMismatches=0", "Verification max mismatches should be a positive number"},
+                {"--mower.directory=unknown/fleets --mower.output=out", "Input directory should be readable"},
+                {"--mower.directory=. --mower.output=out --mower.pipeline.parsers=0", "Pipeline parsers should be a positive number"}};
+    }
+
+    @Test
+    @Parameters(method = "parametersForValidArguments")
+    public void givenInputFile_whenRun_thenFinalPositionsArePrinted(final String otherArgs, final String expectedOutput) throws IOException {
+
+        // Given.
+        val inputFile = write(SIMULATION);
+        val args = ("--mower.file=" + inputFile + " " + otherArgs).trim().split(" ");
+        val output = new ByteArrayOutputStream();
+        val errors = new ByteArrayOutputStream();
+
+        // When.
+        val status = BatchLauncher.run(args, output, new PrintStream(errors, true));
+
+        // Then.
+        assertThat(status).isZero();
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo(expectedOutput);
+        assertThat(errors.size()).isZero();
+    }
+
+    @Test
+    public void givenObstacles_whenRun_thenMowerDoesNotMoveOnObstacle() throws IOException {
+
+        // Given.
+        val inputFile = write("5 5\n1 2 N\nAA\n");
+        val obstacleFile = write("P1\n6 6\n000000\n000000\n010000\n000000\n000000\n000000\n");
+        val output = new ByteArrayOutputStream();
+
+        // When.
+        val status = BatchLauncher.run(new String[]{"--mower.file=" + inputFile, "--garden.obstacles=" + obstacleFile},
+                output, System.err);
+
+        // Then.
+        assertThat(status).isZero();
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo("1 2 N\n");
+    }
+
+    @Test
+    public void givenConvertedInputFile_whenRun_thenSameFinalPositionsArePrinted() throws IOException {
+
+        // Given.
+        val inputFile = write(SIMULATION);
+        val binaryFile = temporaryFolder.getRoot().toPath().resolve("fleet.bin");
+        val output = new ByteArrayOutputStream();
+
+        // When.
+        val convertStatus = BatchLauncher.run(new String[]{"--mower.file=" + inputFile, "--mower.convert=" + binaryFile},
+                output, System.err);
+        val status = BatchLauncher.run(new String[]{"--mower.file=" + binaryFile}, output, System.err);
+
+        // Then.
+        assertThat(convertStatus).isZero();
+        assertThat(status).isZero();
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo("1 3 N\n5 1 E\n");
+    }
+
+    @Test
+    @Parameters({"1", "4"})
+    public void givenExpectedFile_whenRun_thenMismatchReportIsPrinted(final int parallelism) throws IOException {
+
+        // Given.
+        val inputFile = write(SIMULATION);
+        val expectedFile = write("1 3 N\n5 2 E\n3 3 S\n");
+        val output = new ByteArrayOutputStream();
+
+        // When.
+        val status = BatchLauncher.run(new String[]{"--mower.file=" + inputFile, "--mower.expected=" + expectedFile,
+                "--mower.parallelism=" + parallelism}, output, System.err);
+
+        // Then.
+        assertThat(status).isEqualTo(3);
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo(String.format(
+                "Mowers 2, expected 3, mismatches 2%nmower 1: expected 5 2 E, actual 5 1 E%nmower 2: expected 3 3 S, actual none%n"));
+    }
+
+    @Test
+    public void givenInputDirectory_whenRun_thenFinalPositionsAreWrittenAndReportIsPrinted() throws IOException {
+
+        // Given.
+        val inputDirectory = temporaryFolder.newFolder("input").toPath();
+        Files.write(inputDirectory.resolve("fleet.txt"), SIMULATION.getBytes(StandardCharsets.US_ASCII));
+        val outputDirectory = temporaryFolder.getRoot().toPath().resolve("output");
+        val output = new ByteArrayOutputStream();
+
+        // When.
+        val status = BatchLauncher.run(new String[]{"--mower.directory=" + inputDirectory, "--mower.output=" + outputDirectory,
+                "--mower.pipeline.simulators=2"}, output, System.err);
+
+        // Then.
+        assertThat(status).isZero();
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII))
+                .startsWith("Files 1, failed 0, mowers 2, ")
+                .contains("simulate        2       1");
+        assertThat(Files.readAllBytes(outputDirectory.resolve("fleet.txt.out"))).isEqualTo("1 3 N\n5 1 E\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @Parameters(method = "parametersForInvalidArguments")
+    public void givenInvalidArguments_whenRun_thenErrorIsPrinted(final String args, final String expectedError) throws IOException {
+
+        // Given.
+        val inputFile = write(SIMULATION);
+        val output = new ByteArrayOutputStream();
+        val errors = new ByteArrayOutputStream();
+
+        // When.
+        val status = BatchLauncher.run(args.isEmpty() ? new String[0] : String.format(args, inputFile).split(" "),
+                output, new PrintStream(errors, true));
+
+        // Then.
+        assertThat(status).isEqualTo(1);
+        assertThat(output.size()).isZero();
+        assertThat(new String(errors.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expectedError + System.lineSeparator());
+    }
+
+    private String write(final String content) throws IOException {
+        val file = temporaryFolder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.mowitnow;
+
+import com.mowitnow.constant.MowitnowConstant;
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+import com.mowitnow.service.impl.ApplicationParamServiceImpl;
+
+import java.util.Random;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Builds seeded random application parameters, in a 5x5 garden, in order to compare engines on
+ * bigger fleets than the application parameters file.
+ *
+ * @author Mazlum TOSUN
+ */
+@UtilityClass
+public class RandomFleetParams {
+
+    private static final int GARDEN_LIMIT = 5;
+
+    /**
+     * Builds application parameters of a random fleet.
+     *
+     * @param mowerNumber     mower number
+     * @param directionNumber direction number by mower
+     * @param parallelism     parallelism parameter
+     * @return {@link ApplicationParamServiceImpl} application parameters
+     */
+    public static ApplicationParamServiceImpl of(final int mowerNumber, final int directionNumber, final int parallelism) {
+        final Random random = new Random(7L);
+        final StringBuilder positions = new StringBuilder();
+        final StringBuilder directions = new StringBuilder();
+
+        for (int i = 0; i < mowerNumber; i++) {
+            if (i > 0) {
+                positions.append(MowitnowConstant.MOWERS_SEPARATOR);
+                directions.append(MowitnowConstant.MOWERS_SEPARATOR);
+            }
+            positions.append(random.nextInt(GARDEN_LIMIT + 1))
+                    .append(random.nextInt(GARDEN_LIMIT + 1))
+                    .append(Orientation.values()[random.nextInt(4)]);
+            for (int d = 0; d < directionNumber; d++) {
+                directions.append(Direction.values()[random.nextInt(3)]);
+            }
+        }
+
+        final ApplicationParamServiceImpl params = new ApplicationParamServiceImpl();
+        params.setPosition(positions.toString());
+        params.setDirections(directions.toString());
+        params.setExpectedPositions(positions.toString());
+        params.setParallelism(String.valueOf(parallelism));
+        params.setGardenHorizontalLimitMin("0");
+        params.setGardenHorizontalLimitMax(String.valueOf(GARDEN_LIMIT));
+        params.setGardenVerticalLimitMin("0");
+        params.setGardenVerticalLimitMax(String.valueOf(GARDEN_LIMIT));
+
+        return params;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.Garden;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link CollisionSchedule}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class CollisionScheduleTest extends AbstractTest {
+
+    private static final Garden GARDEN = new Garden(0, 255, 0, 255);
+
+    @Test
+    public void givenMowers_whenBuildSchedule_thenMowersThatCanMeetAreInLaterWaves() {
+
+        // When.
+        val schedule = CollisionSchedule.builder(GARDEN, 2)
+                .mower(10, 10, 2, 5)
+                .mower(100, 100, 2, 5)
+                .mower(11, 11, 1, 5)
+                .mower(0, 0, 0, 5)
+                .mower(50, 50, 200, 300)
+                .mower(100, 100, 0, 0)
+                .build();
+
+        // Then.
+        val mowers = new ArrayList<Integer>();
+        for (int i = 0; i < 6; i++) {
+            mowers.add(schedule.mower(i));
+        }
+        assertThat(schedule.waveNumber()).isEqualTo(4);
+        assertThat(mowers).containsExactly(0, 1, 3, 2, 4, 5);
+    }
+
+    @Test
+    public void givenFinishThatStops_whenRunSchedule_thenNoMoreWaveIsRun() {
+
+        // Given.
+        val schedule = CollisionSchedule.builder(GARDEN, 3)
+                .mower(10, 10, 2, 5)
+                .mower(11, 11, 2, 5)
+                .mower(12, 12, 2, 5)
+                .build();
+        val simulated = new ArrayList<Integer>();
+        val finished = new ArrayList<Integer>();
+        val pool = new ForkJoinPool(2);
+
+        // When.
+        val completed = schedule.run(pool, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                simulated.add(schedule.mower(i));
+            }
+        }, mower -> finished.add(mower) && mower < 1);
+        pool.shutdown();
+
+        // Then.
+        assertThat(completed).isFalse();
+        assertThat(simulated).containsExactly(0, 1);
+        assertThat(finished).containsExactly(0, 1);
+    }
+
+    @Test
+    public void givenMaxSliceSize_whenRunSchedule_thenWavesAreSimulatedAndFinishedBySlices() {
+
+        // Given.
+        val schedule = CollisionSchedule.builder(GARDEN, 4)
+                .mower(10, 10, 2, 5)
+                .mower(100, 100, 2, 5)
+                .mower(200, 200, 2, 5)
+                .mower(11, 11, 2, 5)
+                .build();
+        val events = new ArrayList<String>();
+
+        // When.
+        val completed = schedule.run(ForkJoinPool.commonPool(), 2, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                events.add("simulate " + schedule.mower(i));
+            }
+        }, mower -> events.add("finish " + mower));
+
+        // Then.
+        assertThat(completed).isTrue();
+        assertThat(events).containsExactly("simulate 0", "simulate 1", "finish 0", "finish 1",
+                "simulate 2", "finish 2",
+                "simulate 3", "finish 3");
+    }
+}
@@ -0,0 +1,116 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.Garden;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Allows to test treatments of {@link CoverageBitmap}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class CoverageBitmapTest extends AbstractTest {
+
+    private static final Garden GARDEN = new Garden(-10, 989, 5, 504);
+    private static final int WIDTH = 1000;
+
+    @Test
+    @Parameters({"100", "5000", "200000"})
+    public void givenMowedCells_whenCheckContains_thenSameCellsThanBitSet(final int cellNumber) {
+
+        // Given.
+        val random = new Random(cellNumber);
+        val bitmap = new CoverageBitmap(GARDEN);
+        val expected = new BitSet();
+
+        // When.
+        for (int i = 0; i < cellNumber; i++) {
+            final int x = -10 + random.nextInt(WIDTH);
+            final int y = 5 + random.nextInt(500);
+            bitmap.add(x, y);
+            expected.set((y - 5) * WIDTH + x + 10);
+        }
+        bitmap.add(-11, 5);
+        bitmap.add(0, 505);
+
+        // Then.
+        assertThat(bitmap.cellNumber()).isEqualTo(500000L);
+        assertThat(bitmap.cardinality()).isEqualTo(expected.cardinality());
+        for (int cell = 0; cell < bitmap.cellNumber(); cell++) {
+            assertThat(bitmap.contains(cell % WIDTH - 10, cell / WIDTH + 5)).isEqualTo(expected.get(cell));
+        }
+        assertThat(bitmap.contains(-11, 5)).isFalse();
+        assertThat(bitmap.nextMowed(0, bitmap.cellNumber())).isEqualTo(expected.nextSetBit(0));
+        assertThat(bitmap.nextUnmowed(0, bitmap.cellNumber())).isEqualTo(expected.nextClearBit(0));
+    }
+
+    @Test
+    public void givenBitmapsOfWorkers_whenOr_thenBitmapContainsAllMowedCells() {
+
+        // Given.
+        val sparse = new CoverageBitmap(GARDEN);
+        val dense = new CoverageBitmap(GARDEN);
+        for (int x = -10; x < 990; x += 7) {
+            sparse.add(x, 5);
+        }
+        for (int y = 5; y < 505; y++) {
+            for (int x = -10; x < 990; x += 2) {
+                dense.add(x, y);
+            }
+        }
+
+        // When.
+        val merged = new CoverageBitmap(GARDEN).or(sparse).or(dense);
+
+        // Then.
+        assertThat(merged.cardinality()).isEqualTo(250000L + 143 - 72);
+        assertThat(merged.contains(-10, 5)).isTrue();
+        assertThat(merged.contains(-3, 5)).isTrue();
+        assertThat(merged.contains(-3, 6)).isFalse();
+        assertThat(sparse.cardinality()).isEqualTo(143L);
+        assertThat(dense.cardinality()).isEqualTo(250000L);
+    }
+
+    @Test
+    public void givenMowedRun_whenNextMowedAndNextUnmowed_thenRunBoundsAreFound() {
+
+        // Given.
+        val bitmap = new CoverageBitmap(GARDEN);
+        for (int x = 60000; x < 140000; x++) {
+            bitmap.add(x % WIDTH - 10, x / WIDTH + 5);
+        }
+
+        // When.
+        val runStart = bitmap.nextMowed(10, 200000);
+        val runEnd = bitmap.nextUnmowed(runStart, 200000);
+
+        // Then.
+        assertThat(runStart).isEqualTo(60000L);
+        assertThat(runEnd).isEqualTo(140000L);
+        assertThat(bitmap.nextMowed(runEnd, 200000)).isEqualTo(200000L);
+        assertThat(bitmap.nextUnmowed(70000, 100000)).isEqualTo(100000L);
+    }
+
+    @Test
+    public void givenBitmapsOfDifferentGardens_whenOr_thenIllegalArgumentException() {
+
+        // Given.
+        val bitmap = new CoverageBitmap(GARDEN);
+        val other = new CoverageBitmap(new Garden(0, 5, 0, 5));
+
+        // When / Then.
+        assertThatThrownBy(() -> bitmap.or(other))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Coverage bitmaps are not sized to the same garden");
+    }
+}
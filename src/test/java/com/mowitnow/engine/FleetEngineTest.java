@@ -0,0 +1,157 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.RandomFleetParams;
+import com.mowitnow.domain.Garden;
+import com.mowitnow.domain.Mower;
+import com.mowitnow.dto.PositionFinalDto;
+import com.mowitnow.mapper.FleetMapper;
+import com.mowitnow.mapper.GardenMapper;
+import com.mowitnow.mapper.MowerMapper;
+import com.mowitnow.service.ApplicationParamService;
+import com.mowitnow.service.MowerService;
+import com.mowitnow.service.impl.MowerServiceImpl;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.inject.Inject;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link FleetEngine}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class FleetEngineTest extends AbstractTest {
+
+    @Inject
+    private MowerService mowerService;
+    @Inject
+    private ApplicationParamService applicationParamService;
+
+    @Test
+    public void givenAppParams_whenSimulateFleet_thenSameResultThanMowerService() {
+
+        // Given.
+        val mowers = MowerMapper.paramsToMowers(applicationParamService.getDirections(), applicationParamService.getPosition());
+        val fleet = FleetMapper.mowersToFleet(mowers);
+
+        // When.
+        new FleetEngine(GardenMapper.paramsToGarden(applicationParamService)).simulate(fleet);
+
+        // Then.
+        assertSamePositions(FleetMapper.fleetToFinalPositions(fleet, mowers), mowerService.getFinalPositions());
+    }
+
+    @Test
+    public void givenRandomFleet_whenSimulateFleet_thenSameResultThanMowerService() {
+
+        // Given.
+        val params = RandomFleetParams.of(1000, 50, 1);
+        val mowers = MowerMapper.paramsToMowers(params.getDirections(), params.getPosition());
+        val fleet = FleetMapper.mowersToFleet(mowers);
+        val service = new MowerServiceImpl(params);
+        service.init();
+
+        // When.
+        new FleetEngine(GardenMapper.paramsToGarden(params)).simulate(fleet);
+
+        // Then.
+        assertThat(fleet.size()).isEqualTo(1000);
+        assertThat(fleet.directionNumber(0)).isEqualTo(50);
+        assertSamePositions(FleetMapper.fleetToFinalPositions(fleet, mowers), service.getFinalPositions());
+    }
+
+    @Test
+    public void givenRandomFleetAndCollisions_whenSimulateFleet_thenSameResultThanMowerService() {
+
+        // Given.
+        val params = RandomFleetParams.of(30, 50, 1);
+        params.setCollision("true");
+        val mowers = MowerMapper.paramsToMowers(params.getDirections(), params.getPosition());
+        val fleet = FleetMapper.mowersToFleet(mowers);
+        val garden = GardenMapper.paramsToGarden(params);
+        val service = new MowerServiceImpl(params);
+        service.init();
+
+        // When.
+        new FleetEngine(garden).simulate(fleet, OccupancyIndex.of(garden, fleet.size()));
+
+        // Then.
+        assertSamePositions(FleetMapper.fleetToFinalPositions(fleet, mowers), service.getFinalPositions());
+    }
+
+    @Test
+    public void givenRandomFleet_whenSimulateFleetInParallel_thenSameResultThanSequential() {
+
+        // Given.
+        val params = RandomFleetParams.of(5000, 20, 1);
+        val mowers = MowerMapper.paramsToMowers(params.getDirections(), params.getPosition());
+        val sequentialFleet = FleetMapper.mowersToFleet(mowers);
+        val parallelFleet = sequentialFleet.copy();
+        val fleetEngine = new FleetEngine(GardenMapper.paramsToGarden(params));
+        val pool = new ForkJoinPool(4);
+
+        // When.
+        fleetEngine.simulate(sequentialFleet);
+        fleetEngine.simulate(parallelFleet, pool);
+        pool.shutdown();
+
+        // Then.
+        assertSamePositions(FleetMapper.fleetToFinalPositions(parallelFleet, mowers), FleetMapper.fleetToFinalPositions(sequentialFleet, mowers));
+    }
+
+    @Test
+    @Parameters({"5", "300", "100000"})
+    public void givenRandomFleetAndCollisions_whenSimulateFleetInParallel_thenSameResultThanSequential(final int gardenLimit) {
+
+        // Given.
+        val random = new Random(11L);
+        val mowerNumber = 20000;
+        val coordinatesX = new int[mowerNumber];
+        val coordinatesY = new int[mowerNumber];
+        val orientations = new byte[mowerNumber];
+        val directionOffsets = new int[mowerNumber + 1];
+        for (int i = 0; i < mowerNumber; i++) {
+            coordinatesX[i] = random.nextInt(Math.min(gardenLimit, 300) + 1);
+            coordinatesY[i] = random.nextInt(Math.min(gardenLimit, 300) + 1);
+            orientations[i] = (byte) random.nextInt(4);
+            directionOffsets[i + 1] = directionOffsets[i] + random.nextInt(13);
+        }
+        val directions = new byte[directionOffsets[mowerNumber]];
+        for (int i = 0; i < directions.length; i++) {
+            directions[i] = (byte) random.nextInt(3);
+        }
+        val garden = new Garden(0, gardenLimit, 0, gardenLimit);
+        val sequentialFleet = Fleet.of(coordinatesX, coordinatesY, orientations, directions, directionOffsets);
+        val parallelFleet = sequentialFleet.copy();
+        val fleetEngine = new FleetEngine(garden);
+        val pool = new ForkJoinPool(4);
+
+        // When.
+        fleetEngine.simulate(sequentialFleet, OccupancyIndex.of(garden, mowerNumber));
+        fleetEngine.simulate(parallelFleet, OccupancyIndex.of(garden, mowerNumber), pool);
+        pool.shutdown();
+
+        // Then.
+        for (int i = 0; i < mowerNumber; i++) {
+            assertThat(parallelFleet.position(i)).isEqualTo(sequentialFleet.position(i));
+        }
+    }
+
+    static void assertSamePositions(final List<PositionFinalDto> actual, final List<PositionFinalDto> expected) {
+        assertThat(actual.stream().map(PositionFinalDto::getPosition).collect(toList()))
+                .isEqualTo(expected.stream().map(PositionFinalDto::getPosition).collect(toList()));
+        assertThat(actual.stream().map(PositionFinalDto::getMower).map(Mower::getId).collect(toList()))
+                .isEqualTo(expected.stream().map(PositionFinalDto::getMower).map(Mower::getId).collect(toList()));
+    }
+}
@@ -0,0 +1,98 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.Garden;
+
+import org.junit.Test;
+
+import java.util.function.Supplier;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link OccupancyIndex} implementations.
+ *
+ * @author Mazlum TOSUN
+ */
+public class OccupancyIndexTest extends AbstractTest {
+
+    private static final Garden GARDEN = new Garden(-3, 100, 2, 70);
+
+    private Object[] parametersForIndexes() {
+        final Supplier<OccupancyIndex> bitSet = () -> new BitSetOccupancyIndex(GARDEN);
+        final Supplier<OccupancyIndex> hash = () -> new HashOccupancyIndex(2);
+
+        return new Object[][]{{bitSet}, {hash}};
+    }
+
+    @Test
+    @Parameters(method = "parametersForIndexes")
+    public void givenOccupiedCells_whenCheckOccupied_thenOnlyOccupiedCellsAreFound(final Supplier<OccupancyIndex> indexSupplier) {
+
+        // Given.
+        val index = indexSupplier.get();
+
+        // When.
+        for (int x = -3; x <= 100; x += 3) {
+            for (int y = 2; y <= 70; y += 5) {
+                index.occupy(x, y);
+            }
+        }
+
+        // Then.
+        for (int x = -3; x <= 100; x++) {
+            for (int y = 2; y <= 70; y++) {
+                assertThat(index.isOccupied(x, y)).isEqualTo((x + 3) % 3 == 0 && (y - 2) % 5 == 0);
+            }
+        }
+    }
+
+    @Test
+    public void givenCellZero_whenOccupyInHashIndex_thenCellIsFound() {
+
+        // Given.
+        val index = new HashOccupancyIndex(4);
+
+        // When.
+        index.occupy(0, 0);
+
+        // Then.
+        assertThat(index.isOccupied(0, 0)).isTrue();
+        assertThat(index.isOccupied(0, 1)).isFalse();
+        assertThat(index.isOccupied(Integer.MIN_VALUE, Integer.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    public void givenHugeExpectedCellNumber_whenOccupyCells_thenHashIndexGrowsWithOccupiedCells() {
+
+        // Given.
+        val index = new HashOccupancyIndex(1 << 29);
+        val initialCapacity = index.capacity();
+
+        // When.
+        for (int i = 0; i < 100000; i++) {
+            index.occupy(i, -i);
+        }
+
+        // Then.
+        assertThat(initialCapacity).isEqualTo(HashOccupancyIndex.MAX_INITIAL_CAPACITY);
+        assertThat(index.capacity()).isEqualTo(1 << 18);
+        assertThat(index.isOccupied(99999, -99999)).isTrue();
+        assertThat(index.isOccupied(99999, 99999)).isFalse();
+    }
+
+    @Test
+    public void givenGardenSize_whenCreateIndex_thenAdaptedIndexIsCreated() {
+
+        // Given, when.
+        val smallGardenIndex = OccupancyIndex.of(new Garden(0, 9999, 0, 9999), 10);
+        val hugeGardenIndex = OccupancyIndex.of(new Garden(0, 1000000, 0, 1000000), 10);
+
+        // Then.
+        assertThat(smallGardenIndex).isInstanceOf(BitSetOccupancyIndex.class);
+        assertThat(hugeGardenIndex).isInstanceOf(HashOccupancyIndex.class);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.type.Direction;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Allows to test treatments of {@link PackedProgram}. Packed programs must give the same
+ * directions than a {@link Direction} list.
+ *
+ * @author Mazlum TOSUN
+ */
+public class PackedProgramTest extends AbstractTest {
+
+    @Test
+    @Parameters({"0", "1", "31", "32", "33", "1000"})
+    public void givenDirections_whenParse_thenSameDirectionsAndCountsThanDirectionList(final int directionNumber) {
+
+        // Given.
+        val random = new Random(directionNumber);
+        val directionsParam = new StringBuilder();
+        val expectedDirections = new ArrayList<Direction>();
+        for (int i = 0; i < directionNumber; i++) {
+            final Direction direction = Direction.values()[random.nextInt(3)];
+            directionsParam.append(direction.name());
+            expectedDirections.add(direction);
+        }
+
+        // When.
+        val program = PackedProgram.parse(directionsParam.toString());
+
+        // Then.
+        assertThat(program).isEqualTo(expectedDirections);
+        for (int i = 0; i < directionNumber; i++) {
+            assertThat(program.code(i)).isEqualTo(expectedDirections.get(i).ordinal());
+        }
+        for (final Direction direction : Direction.values()) {
+            assertThat(program.count(direction)).isEqualTo(Collections.frequency(expectedDirections, direction));
+        }
+    }
+
+    @Test
+    public void givenGrowableCopy_whenAppendDirections_thenParsedProgramIsNotChanged() {
+
+        // Given.
+        val program = PackedProgram.parse("GADAGADAGADAGADAGADAGADAGADAGAD");
+        val growable = PackedProgram.growableCopy(program);
+
+        // When.
+        growable.addAll(PackedProgram.parse("AAG"));
+
+        // Then.
+        assertThat(growable.stream().map(Direction::name).collect(joining())).isEqualTo("GADAGADAGADAGADAGADAGADAGADAGADAAG");
+        assertThat(growable.count(Direction.A)).isEqualTo(17);
+        assertThat(program).hasSize(31);
+        assertThatThrownBy(() -> program.add(Direction.A)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void givenDirectionOrdinals_whenPack_thenEqualToParsedProgramAndDirectionList() {
+
+        // Given.
+        val codes = new byte[]{2, 0, 1, 2, 2, 0, 1, 2, 2, 2, 0, 1, 2, 0, 1, 2, 2, 0, 1, 2, 2, 2, 0, 1, 2, 0, 1, 2, 2, 0, 1, 2, 2, 2, 0};
+
+        // When.
+        val program = PackedProgram.of(codes, 1, 33);
+
+        // Then.
+        val parsedProgram = PackedProgram.parse("GDAAGDAAAGDAGDAAGDAAAGDAGDAAGDAAA");
+        val expectedDirections = new ArrayList<Direction>(parsedProgram);
+        assertThat(program).isEqualTo(parsedProgram).isEqualTo(expectedDirections);
+        assertThat(program.hashCode()).isEqualTo(parsedProgram.hashCode()).isEqualTo(expectedDirections.hashCode());
+        assertThat(program).isNotEqualTo(PackedProgram.of(codes, 0, 33));
+    }
+
+    @Test
+    public void givenInvalidDirection_whenParse_thenIllegalArgumentException() {
+
+        // When / Then.
+        assertThatThrownBy(() -> PackedProgram.parse("GAB"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid directions at index 2 : unexpected 'B'");
+    }
+}
@@ -0,0 +1,84 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+import com.mowitnow.mapper.MowerMapper;
+
+import org.junit.Test;
+
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link ProgramCache}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class ProgramCacheTest extends AbstractTest {
+
+    @Test
+    public void givenSameDirections_whenMapToMowersWithCache_thenMowersShareProgram() {
+
+        // Given.
+        val programCache = new ProgramCache(1000, 5);
+        val directionsParams = "GAGAGAGAA,AAD,GAGAGAGAA,AAD,GAGAGAGAA";
+        val positionParams = "12N,33E,12N,33E,44S";
+
+        // When.
+        val mowers = MowerMapper.paramsToMowers(directionsParams, positionParams, programCache);
+
+        // Then.
+        assertThat(mowers).hasSize(5);
+        assertThat(mowers.get(0).getDirections()).isSameAs(mowers.get(2).getDirections()).isSameAs(mowers.get(4).getDirections());
+        assertThat(mowers.get(1).getDirections()).isSameAs(mowers.get(3).getDirections()).containsExactly(Direction.A, Direction.A, Direction.D);
+        assertThat(mowers.get(0).getProgram()).isNotNull().isSameAs(mowers.get(4).getProgram());
+        assertThat(mowers.get(1).getProgram()).isNull();
+        assertThat(programCache.stats().missCount()).isEqualTo(2);
+        assertThat(programCache.stats().hitCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void givenSameDirectionsInFleet_whenGetPackedPrograms_thenProgramIsShared() {
+
+        // Given.
+        val programCache = new ProgramCache(1000, 5);
+        val fleet = FleetBuilder.builder()
+                .mower(1, 2, Orientation.N)
+                .direction(0).direction(2).direction(0).direction(2).direction(2).direction(1)
+                .mower(3, 4, Orientation.S)
+                .direction(0).direction(2).direction(0).direction(2).direction(2).direction(1)
+                .build();
+
+        // When.
+        val firstProgram = programCache.get(fleet.packedDirections(0));
+        val secondProgram = programCache.get(fleet.packedDirections(1));
+
+        // Then.
+        assertThat(secondProgram).isSameAs(firstProgram);
+        assertThat(firstProgram.getDirections()).isEqualTo(PackedProgram.parse("GAGAAD"));
+        assertThat(firstProgram.getCompiled()).isNotNull();
+        assertThat(programCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenCacheFull_whenGetNewProgram_thenLeastRecentlyUsedProgramIsEvicted() {
+
+        // Given.
+        val programCache = new ProgramCache(10, Integer.MAX_VALUE);
+        programCache.get("AAAA");
+        programCache.get("GGGG");
+        programCache.get("AAAA");
+
+        // When.
+        programCache.get("DDDD");
+
+        // Then.
+        assertThat(programCache.stats().evictionCount()).isEqualTo(1);
+        programCache.get("AAAA");
+        assertThat(programCache.stats().hitCount()).isEqualTo(2);
+        programCache.get("GGGG");
+        assertThat(programCache.stats().missCount()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,87 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.Garden;
+import com.mowitnow.domain.type.Orientation;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link ProgramCompiler} and {@link CompiledProgram}. Compiled
+ * programs must give the same final position than directions run one by one.
+ *
+ * @author Mazlum TOSUN
+ */
+public class ProgramCompilerTest extends AbstractTest {
+
+    private Object[] parametersForPrograms() {
+        return new Object[][]{
+                {"GDA", 1, 10, 5},
+                {"GDA", 63, 10, 5},
+                {"GDA", 64, 10, 5},
+                {"GDA", 5000, 5, 5},
+                {"GDA", 100000, 1000, 500},
+                {"GDAAAAAAAA", 100000, 200, 100},
+                {"AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAD", 200000, 100, 50},
+                {"AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAD", 200000, 100, -20}};
+    }
+
+    @Test
+    @Parameters(method = "parametersForPrograms")
+    public void givenRandomProgram_whenRunCompiledProgram_thenSameResultThanDirectionsOneByOne(final String alphabet,
+                                                                                              final int length,
+                                                                                              final int gardenLimit,
+                                                                                              final int start) {
+        // Given.
+        val random = new Random(length);
+        val garden = new Garden(0, gardenLimit, 0, gardenLimit);
+        val directions = new byte[length];
+        for (int i = 0; i < length; i++) {
+            directions[i] = (byte) "GDA".indexOf(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+
+        for (final Orientation orientation : Orientation.values()) {
+            val fleetBuilder = FleetBuilder.builder().mower(start, start / 2, orientation);
+            for (final byte direction : directions) {
+                fleetBuilder.direction(direction);
+            }
+            val fleet = fleetBuilder.build();
+            val state = new MowerState(start, start / 2, orientation.ordinal());
+
+            // When.
+            ProgramCompiler.compile(directions, 0, length).run(garden, state);
+            new FleetEngine(garden).simulate(fleet);
+
+            // Then.
+            assertThat(state.toPosition()).isEqualTo(fleet.position(0));
+        }
+    }
+
+    @Test
+    public void givenLongRunAgainstWall_whenRunCompiledProgram_thenMowerIsClampedAgainstWall() {
+
+        // Given.
+        val directions = new byte[3000001];
+        Arrays.fill(directions, (byte) 2);
+        directions[1500000] = 1;
+        val program = ProgramCompiler.compile(directions, 0, directions.length);
+        val state = new MowerState(2, 3, Orientation.N.ordinal());
+
+        // When.
+        program.run(new Garden(0, 5, 0, 5), state);
+
+        // Then.
+        assertThat(program.length()).isEqualTo(3000001);
+        assertThat(state.toPosition().getCoordinateX()).isEqualTo(5);
+        assertThat(state.toPosition().getCoordinateY()).isEqualTo(5);
+        assertThat(state.toPosition().getOrientation()).isEqualTo(Orientation.E);
+    }
+}
@@ -0,0 +1,206 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.Garden;
+import com.mowitnow.domain.ObstacleMap;
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Allows to test treatments of {@link RepeatProgram}. Repeat programs must give the same
+ * directions and the same final position than their expanded directions run one by one.
+ *
+ * @author Mazlum TOSUN
+ */
+public class RepeatProgramTest extends AbstractTest {
+
+    private static final Garden GARDEN = new Garden(0, 9, 0, 9);
+
+    private Object[] parametersForPrograms() {
+        return new Object[][]{
+                {"A3G2(AD)x2", "AAAGGADAD", 7},
+                {"((A2G)x2D)x2", "AAGAAGDAAGAAGD", 7},
+                {"G(A)x3(D)AA1", "GAAADAA", 7},
+                {"()x5A(G)x1", "AG", 5},
+                {"", "", 1}};
+    }
+
+    private Object[] parametersForInvalidPrograms() {
+        return new Object[][]{
+                {"(AA", "Invalid directions at index 3 : ')' expected"},
+                {"AA)", "Invalid directions at index 2 : unexpected ')'"},
+                {"AB2", "Invalid directions at index 1 : unexpected 'B'"},
+                {"(A)x", "Invalid directions at index 4 : count expected"},
+                {"A0", "Invalid directions at index 1 : count should be positive"},
+                {"(A2)x2000000000", "Directions are too long at index 15 : more than 2147483647 directions"}};
+    }
+
+    @Test
+    @Parameters(method = "parametersForPrograms")
+    public void givenCompressedDirections_whenParse_thenSameDirectionsThanExpanded(final String compressed,
+                                                                                  final String expanded,
+                                                                                  final int nodeNumber) {
+        // When.
+        val program = RepeatProgram.parse(compressed);
+
+        // Then.
+        assertThat(program.stream().map(Direction::name).collect(joining())).isEqualTo(expanded);
+        assertThat(program.nodeNumber()).isEqualTo(nodeNumber);
+    }
+
+    @Test
+    @Parameters(method = "parametersForInvalidPrograms")
+    public void givenInvalidDirections_whenParse_thenIllegalArgumentException(final String compressed, final String message) {
+
+        // When / Then.
+        assertThatThrownBy(() -> RepeatProgram.parse(compressed))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(message);
+    }
+
+    @Test
+    @Parameters({"1", "2", "3", "4", "5", "6", "7", "8"})
+    public void givenRandomProgram_whenRun_thenSameResultThanDirectionsOneByOne(final long seed) {
+
+        // Given.
+        val random = new Random(seed);
+        val program = RepeatProgram.parse(randomProgram(random, 0));
+        val words = new long[2];
+        words[0] = random.nextLong() & random.nextLong();
+        words[1] = random.nextLong() & random.nextLong();
+        val gardens = new Garden[]{GARDEN, GARDEN.withObstacles(new ObstacleMap(10, 10, words))};
+        val occupancy = new BitSetOccupancyIndex(GARDEN);
+        for (int i = 0; i < 10; i++) {
+            occupancy.occupy(random.nextInt(10), random.nextInt(10));
+        }
+
+        for (final Garden garden : gardens) {
+            for (final OccupancyIndex index : new OccupancyIndex[]{OccupancyIndex.NONE, occupancy}) {
+                val state = new MowerState(random.nextInt(12) - 1, random.nextInt(12) - 1, random.nextInt(4));
+                val expectedState = new MowerState(state.getCoordinateX(), state.getCoordinateY(), state.getOrientation());
+
+                // When.
+                val rejectedMoves = program.run(garden, index, state);
+                val expectedRejectedMoves = step(program, garden, index, expectedState);
+
+                // Then.
+                assertThat(state).isEqualTo(expectedState);
+                assertThat(rejectedMoves).isEqualTo(expectedRejectedMoves);
+            }
+        }
+    }
+
+    @Test
+    public void givenBillionsOfRepeatedDirections_whenRun_thenCycleIsSkipped() {
+
+        // Given.
+        val program = RepeatProgram.parse("(AAAAD)x400000000");
+        val shortProgram = RepeatProgram.parse("(AAAAD)x400");
+        val state = new MowerState(2, 3, Orientation.N.ordinal());
+        val expectedState = new MowerState(2, 3, Orientation.N.ordinal());
+
+        // When.
+        program.run(GARDEN, OccupancyIndex.NONE, state);
+        shortProgram.run(GARDEN, OccupancyIndex.NONE, expectedState);
+
+        // Then.
+        assertThat(program.size()).isEqualTo(2000000000);
+        assertThat(program.get(1999999999)).isEqualTo(Direction.D);
+        assertThat(state).isEqualTo(expectedState);
+    }
+
+    @Test
+    public void givenGrowableCopy_whenAppendDirections_thenTreeIsKeptAndParsedProgramIsNotChanged() {
+
+        // Given.
+        val program = RepeatProgram.parse("(A3D)x1000");
+        val growable = program.growableCopy();
+        val state = new MowerState(2, 3, Orientation.N.ordinal());
+        val expectedState = new MowerState(2, 3, Orientation.N.ordinal());
+
+        // When.
+        growable.addAll(PackedProgram.parse("GAA"));
+        val rejectedMoves = growable.run(GARDEN, OccupancyIndex.NONE, state);
+        val expectedRejectedMoves = step(growable, GARDEN, OccupancyIndex.NONE, expectedState);
+
+        // Then.
+        assertThat(growable).hasSize(4003);
+        assertThat(growable.nodeNumber()).isEqualTo(program.nodeNumber());
+        assertThat(growable.subList(3999, 4003).stream().map(Direction::name).collect(joining())).isEqualTo("DGAA");
+        assertThat(growable.count(Direction.A)).isEqualTo(3002);
+        assertThat(program.count(Direction.A)).isEqualTo(3000);
+        assertThat(state).isEqualTo(expectedState);
+        assertThat(rejectedMoves).isEqualTo(expectedRejectedMoves);
+        assertThat(program).hasSize(4000);
+        assertThatThrownBy(() -> program.add(Direction.A)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void givenGrowableCopyOfMaxLength_whenAppendDirections_thenIllegalArgumentExceptionAndNothingIsAppended() {
+
+        // Given.
+        val growable = RepeatProgram.parse("(A)x2147483646").growableCopy();
+
+        // When / Then.
+        assertThatThrownBy(() -> growable.addAll(PackedProgram.parse("GD")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Directions are too long : more than 2147483647 directions");
+        assertThat(growable.size()).isEqualTo(Integer.MAX_VALUE - 1);
+        growable.add(Direction.G);
+        assertThat(growable.size()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(growable.count(Direction.A)).isEqualTo(Integer.MAX_VALUE - 1);
+        assertThatThrownBy(() -> growable.add(Direction.G)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Builds a random program with run-length and nested repeat groups.
+     */
+    private static String randomProgram(final Random random, final int depth) {
+        val program = new StringBuilder();
+        final int elements = 1 + random.nextInt(4);
+        for (int i = 0; i < elements; i++) {
+            if (depth < 3 && random.nextBoolean()) {
+                program.append('(').append(randomProgram(random, depth + 1)).append(")x").append(1 + random.nextInt(40));
+            } else {
+                program.append("GDAAA".charAt(random.nextInt(5)));
+                if (random.nextBoolean()) {
+                    program.append(1 + random.nextInt(12));
+                }
+            }
+        }
+        return program.toString();
+    }
+
+    /**
+     * Runs the given directions one by one, and gets the number of ignored moves.
+     */
+    private static int step(final List<Direction> directions, final Garden garden, final OccupancyIndex occupancy, final MowerState state) {
+        int rejectedMoves = 0;
+        for (final Direction direction : directions) {
+            final int transition = TransitionTable.transition(state.getOrientation(), direction.ordinal());
+            final int nextCoordinateX = state.getCoordinateX() + TransitionTable.deltaX(transition);
+            final int nextCoordinateY = state.getCoordinateY() + TransitionTable.deltaY(transition);
+            if (garden.contains(nextCoordinateX, nextCoordinateY)
+                    && (TransitionTable.isRotation(transition) || !occupancy.isOccupied(nextCoordinateX, nextCoordinateY))) {
+                state.setCoordinateX(nextCoordinateX);
+                state.setCoordinateY(nextCoordinateY);
+                state.setOrientation(TransitionTable.orientation(transition));
+            } else {
+                rejectedMoves++;
+            }
+        }
+        return rejectedMoves;
+    }
+}
@@ -0,0 +1,58 @@
+package com.mowitnow.engine;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.type.Direction;
+import com.mowitnow.domain.type.Orientation;
+
+import org.junit.Test;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link TransitionTable}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class TransitionTableTest extends AbstractTest {
+
+    private Object[] parametersForTransitions() {
+        return new Object[][]{
+                {Orientation.N, Direction.G, 0, 0, Orientation.W},
+                {Orientation.N, Direction.D, 0, 0, Orientation.E},
+                {Orientation.N, Direction.A, 0, 1, Orientation.N},
+                {Orientation.E, Direction.G, 0, 0, Orientation.N},
+                {Orientation.E, Direction.D, 0, 0, Orientation.S},
+                {Orientation.E, Direction.A, 1, 0, Orientation.E},
+                {Orientation.W, Direction.G, 0, 0, Orientation.S},
+                {Orientation.W, Direction.D, 0, 0, Orientation.N},
+                {Orientation.W, Direction.A, -1, 0, Orientation.W},
+                {Orientation.S, Direction.G, 0, 0, Orientation.E},
+                {Orientation.S, Direction.D, 0, 0, Orientation.W},
+                {Orientation.S, Direction.A, 0, -1, Orientation.S}};
+    }
+
+    @Test
+    @Parameters(method = "parametersForTransitions")
+    public void givenOrientationAndDirection_whenGetTransition_thenExpectedMove(final Orientation orientation,
+                                                                               final Direction direction,
+                                                                               final int expectedDeltaX,
+                                                                               final int expectedDeltaY,
+                                                                               final Orientation expectedOrientation) {
+        // Given.
+        val transition = TransitionTable.transition(orientation.ordinal(), direction.ordinal());
+
+        // When.
+        val position = orientation.moveMower(direction, 2, 3);
+
+        // Then.
+        assertThat(TransitionTable.deltaX(transition)).isEqualTo(expectedDeltaX);
+        assertThat(TransitionTable.deltaY(transition)).isEqualTo(expectedDeltaY);
+        assertThat(TransitionTable.toOrientation(TransitionTable.orientation(transition))).isEqualTo(expectedOrientation);
+        assertThat(position.getCoordinateX()).isEqualTo(2 + expectedDeltaX);
+        assertThat(position.getCoordinateY()).isEqualTo(3 + expectedDeltaY);
+        assertThat(position.getOrientation()).isEqualTo(expectedOrientation);
+    }
+}
@@ -0,0 +1,184 @@
+package com.mowitnow.io;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.Position;
+import com.mowitnow.domain.type.Orientation;
+import com.mowitnow.engine.FleetEngine;
+import com.mowitnow.engine.MowerState;
+import com.mowitnow.engine.OccupancyIndex;
+import com.mowitnow.exception.ApplicationParamException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Allows to test treatments of {@link BinaryFleetReader} and {@link BinaryFleetWriter}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class BinaryFleetReaderTest extends AbstractTest {
+
+    private static final String INPUT_FILE = "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Object[] parametersForInvalidContents() {
+        return new Object[][]{
+                {"truncated", "Truncated binary fleet file"},
+                {"version", "Unsupported binary fleet file version 1"},
+                {"orientation", "Invalid orientation code 7 of mower 1"},
+                {"direction", "Invalid direction code in binary fleet file"}};
+    }
+
+    @Test
+    public void givenConvertedFile_whenReadAndSimulate_thenSamePositionsAsTextFile() throws IOException {
+
+        // Given.
+        val inputFile = temporaryFolder.newFile("fleet.txt").toPath();
+        Files.write(inputFile, INPUT_FILE.getBytes(StandardCharsets.US_ASCII));
+        val binaryFile = temporaryFolder.newFile("fleet.bin").toPath();
+
+        // When.
+        BinaryFleetWriter.convert(inputFile, binaryFile);
+        val fleetFile = FleetFileReader.read(binaryFile);
+        new FleetEngine(fleetFile.getGarden()).simulate(fleetFile.getFleet());
+
+        // Then.
+        assertThat(Files.size(binaryFile)).isEqualTo(BinaryFleetWriter.HEADER_SIZE + 2 * BinaryFleetWriter.MOWER_SIZE + 5);
+        assertThat(fleetFile.getGarden().getHorizontalLimitMax()).isEqualTo(5);
+        assertThat(fleetFile.getGarden().getVerticalLimitMax()).isEqualTo(5);
+        assertThat(fleetFile.getFleet().size()).isEqualTo(2);
+        assertThat(fleetFile.getFleet().directionNumber(1)).isEqualTo(10);
+        assertThat(fleetFile.getFleet().position(0)).isEqualTo(new Position(1, 3, Orientation.N));
+        assertThat(fleetFile.getFleet().position(1)).isEqualTo(new Position(5, 1, Orientation.E));
+    }
+
+    @Test
+    public void givenBinaryContentAfterPosition_whenRead_thenPositionIsNotChanged() throws IOException {
+
+        // Given.
+        val content = ByteBuffer.wrap(binaryContent(8), 8, binaryContent(0).length);
+
+        // When.
+        val fleetFile = FleetFileReader.read(content);
+
+        // Then.
+        assertThat(content.position()).isEqualTo(8);
+        assertThat(fleetFile.getFleet().size()).isEqualTo(2);
+        assertThat(fleetFile.getFleet().position(1)).isEqualTo(new Position(3, 3, Orientation.E));
+    }
+
+    @Test
+    public void givenConvertedFile_whenMapAndSimulate_thenSamePositionsAsHeapFleet() throws IOException {
+
+        // Given.
+        val inputFile = temporaryFolder.newFile("fleet.txt").toPath();
+        Files.write(inputFile, "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n1 1 S\n\n2 2 W\nA\n".getBytes(StandardCharsets.US_ASCII));
+        val binaryFile = temporaryFolder.newFile("fleet.bin").toPath();
+        val heapFleetFile = FleetFileReader.read(inputFile);
+        new FleetEngine(heapFleetFile.getGarden()).simulate(heapFleetFile.getFleet());
+
+        // When.
+        BinaryFleetWriter.convert(inputFile, binaryFile);
+        val fleetFile = BinaryFleetReader.map(binaryFile);
+        val engine = new FleetEngine(fleetFile.getGarden());
+        val state = new MowerState(0, 0, 0);
+        val finalPositions = new ArrayList<Position>();
+        for (int i = 0; i < fleetFile.getFleet().size(); i++) {
+            engine.simulate(fleetFile.getFleet(), i, OccupancyIndex.NONE, state);
+            finalPositions.add(state.toPosition());
+        }
+
+        // Then.
+        assertThat(fleetFile.getFleet().size()).isEqualTo(4);
+        assertThat(fleetFile.getFleet().directionNumber(2)).isZero();
+        assertThat(fleetFile.getFleet().position(1)).isEqualTo(new Position(3, 3, Orientation.E));
+        assertThat(finalPositions).containsExactly(heapFleetFile.getFleet().position(0), heapFleetFile.getFleet().position(1),
+                heapFleetFile.getFleet().position(2), heapFleetFile.getFleet().position(3));
+    }
+
+    @Test
+    @Parameters(method = "parametersForInvalidContents")
+    public void givenInvalidContent_whenRead_thenApplicationParamException(final String corruption, final String message) throws IOException {
+
+        // Given.
+        byte[] content = binaryContent(0);
+        switch (corruption) {
+            case "truncated":
+                content = Arrays.copyOf(content, content.length - 1);
+                break;
+            case "version":
+                content[7] = 1;
+                break;
+            case "orientation":
+                content[BinaryFleetWriter.HEADER_SIZE + BinaryFleetWriter.MOWER_SIZE + 16] = 7;
+                break;
+            default:
+                content[content.length - 1] = (byte) 0xFF;
+        }
+        val buffer = ByteBuffer.wrap(content);
+
+        // When / Then.
+        assertThatThrownBy(() -> BinaryFleetReader.read(buffer))
+                .isInstanceOf(ApplicationParamException.class)
+                .hasMessage(message);
+    }
+
+    @Test
+    public void givenMowerWithMoreThanIntDirections_whenMap_thenApplicationParamException() throws IOException {
+
+        // Given.
+        val directionNumber = Integer.MAX_VALUE + 2L;
+        val binaryFile = temporaryFolder.newFile("fleet.bin").toPath();
+        val header = ByteBuffer.allocate(BinaryFleetWriter.HEADER_SIZE + 2 * BinaryFleetWriter.MOWER_SIZE)
+                .putInt(BinaryFleetWriter.MAGIC)
+                .putInt(BinaryFleetWriter.VERSION)
+                .putInt(0).putInt(5).putInt(0).putInt(5)
+                .putInt(2)
+                .putLong(directionNumber);
+        header.putInt(1).putInt(1).putLong(0).put((byte) 0).put(new byte[7]);
+        header.putInt(2).putInt(2).putLong(Integer.MAX_VALUE + 1L).put((byte) 0).put(new byte[7]);
+        header.flip();
+        try (FileChannel channel = FileChannel.open(binaryFile, StandardOpenOption.WRITE)) {
+            channel.write(header);
+            channel.write(ByteBuffer.allocate(1), header.capacity() + directionNumber / 4);
+        }
+
+        // When / Then.
+        assertThatThrownBy(() -> BinaryFleetReader.map(binaryFile))
+                .isInstanceOf(ApplicationParamException.class)
+                .hasMessage("Too many directions for mower 0 : 2147483648");
+        assertThatThrownBy(() -> BinaryFleetReader.read(binaryFile))
+                .isInstanceOf(ApplicationParamException.class)
+                .hasMessage("Too many directions for a heap fleet : 2147483649, use an off-heap fleet");
+    }
+
+    /**
+     * Gets the binary content of the input file, after the given number of padding bytes.
+     */
+    private static byte[] binaryContent(final int padding) throws IOException {
+        val fleetFile = FleetFileReader.read(ByteBuffer.wrap(INPUT_FILE.getBytes(StandardCharsets.US_ASCII)));
+        val output = new ByteArrayOutputStream();
+        output.write(new byte[padding]);
+        BinaryFleetWriter.write(fleetFile.getGarden(), fleetFile.getFleet(), output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,99 @@
+package com.mowitnow.io;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.dto.MismatchDto;
+import com.mowitnow.engine.Fleet;
+import com.mowitnow.engine.FleetEngine;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link FinalPositionVerifier}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class FinalPositionVerifierTest extends AbstractTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    @Parameters({"1, 1024", "4, 1024", "4, 7"})
+    public void givenExpectedFileWithMismatches_whenVerify_thenMismatchesAreReportedInMowersOrder(final int parallelism,
+                                                                                                final int chunkSize) throws IOException {
+        // Given.
+        val fleet = simulatedFleet(300);
+        val writer = new StringWriter();
+        FinalPositionWriter.write(fleet, writer);
+        val lines = writer.toString().split("\n");
+        lines[3] = "0 0 X";
+        lines[150] = "12 -4 N\r";
+        lines[298] = "garbage";
+        val expectedFile = temporaryFolder.newFile().toPath();
+        Files.write(expectedFile, String.join("\n", Arrays.copyOf(lines, 299)).getBytes(StandardCharsets.US_ASCII));
+        val pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+
+        // When.
+        val report = FinalPositionVerifier.verify(fleet, expectedFile, pool, 3, chunkSize);
+        if (pool != null) {
+            pool.shutdown();
+        }
+
+        // Then.
+        assertThat(report.getMowerNumber()).isEqualTo(300);
+        assertThat(report.getExpectedNumber()).isEqualTo(299);
+        assertThat(report.getMismatchNumber()).isEqualTo(4);
+        assertThat(report.getMismatches().stream().map(MismatchDto::getMowerId).collect(toList())).containsExactly(3L, 150L, 298L);
+        assertThat(report.getMismatches().get(0).getExpected()).isEqualTo("0 0 X");
+        assertThat(report.getMismatches().get(1).getExpected()).isEqualTo("12 -4 N");
+        assertThat(report.getMismatches().get(2).getActual()).isEqualTo(writer.toString().split("\n")[298]);
+    }
+
+    @Test
+    public void givenSameResults_whenVerifyAndWriteReport_thenNoMismatchIsReported() throws IOException {
+
+        // Given.
+        val fleet = simulatedFleet(50);
+        val writer = new StringWriter();
+        FinalPositionWriter.write(fleet, writer);
+        val expectedFile = temporaryFolder.newFile().toPath();
+        Files.write(expectedFile, writer.toString().getBytes(StandardCharsets.US_ASCII));
+        val reportWriter = new StringWriter();
+
+        // When.
+        FinalPositionVerifier.writeReport(FinalPositionVerifier.verify(fleet, expectedFile, null, 10, 16), reportWriter);
+
+        // Then.
+        assertThat(reportWriter.toString()).isEqualTo(String.format("Mowers 50, expected 50, mismatches 0%n"));
+    }
+
+    /**
+     * Gets a simulated fleet of the given mower number.
+     */
+    private static Fleet simulatedFleet(final int mowerNumber) {
+        val content = new StringBuilder("20 20\n");
+        for (int i = 0; i < mowerNumber; i++) {
+            content.append(i % 21).append(' ').append(i * 7 % 21).append(' ').append("NESW".charAt(i % 4)).append('\n')
+                    .append("GAADAAAGA".substring(i % 5)).append('\n');
+        }
+        val fleetFile = FleetFileReader.read(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.US_ASCII)));
+        new FleetEngine(fleetFile.getGarden()).simulate(fleetFile.getFleet());
+        return fleetFile.getFleet();
+    }
+}
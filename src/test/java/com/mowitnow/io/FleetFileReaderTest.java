@@ -0,0 +1,173 @@
+package com.mowitnow.io;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.Position;
+import com.mowitnow.domain.type.Orientation;
+import com.mowitnow.engine.FleetEngine;
+import com.mowitnow.exception.ApplicationParamException;
+import com.mowitnow.validator.ValidationError;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Allows to test treatments of {@link FleetFileReader}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class FleetFileReaderTest extends AbstractTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Object[] parametersForValidFiles() {
+        return new Object[][]{
+                {"5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n", 1024L},
+                {"5 5\r\n1 2 N\r\nGAGAGAGAA\r\n3 3 E\r\nAADAADADDA", 1024L},
+                {"5 5 1 2 N GAGAGAGAA 3 3 E AADAADADDA", 1024L},
+                {"5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n", 3L}};
+    }
+
+    private Object[] parametersForInvalidFiles() {
+        return new Object[][]{
+                {"", "Unexpected end of file at line 1, column 1"},
+                {"5 5\n1 2\n", "Unexpected end of file at line 3, column 1"},
+                {"5 5\n1 2 X\nGAGA\n", "Invalid orientation 'X' at line 2, column 5"},
+                {"5 5\n1 2 N\nGAGB\n", "Invalid direction 'B' at line 3, column 4"},
+                {"5 5\n1 2 N3\n", "Unexpected digit at line 2, column 6"},
+                {"5 N\n", "Unexpected character 'N' at line 1, column 3"},
+                {"5 99999999999\n", "Coordinate is too big at line 1, column 12"}};
+    }
+
+    @Test
+    @Parameters(method = "parametersForValidFiles")
+    public void givenValidFile_whenReadAndSimulate_thenExpectedPositions(final String content, final long windowSize) throws IOException {
+
+        // Given.
+        val file = write(content);
+        val handler = new RecordingHandler();
+
+        // When.
+        FleetFileReader.read(file, handler, FleetFileReader.DEFAULT_MAX_ERRORS, windowSize);
+        val fleetFile = FleetFileReader.read(file);
+        new FleetEngine(fleetFile.getGarden()).simulate(fleetFile.getFleet());
+
+        // Then.
+        assertThat(handler.toString()).isEqualTo("garden 5 5|mower 1 2 N|GAGAGAGAA|mower 3 3 E|AADAADADDA");
+        assertThat(fleetFile.getFleet().size()).isEqualTo(2);
+        assertThat(fleetFile.getFleet().position(0)).isEqualTo(new Position(1, 3, Orientation.N));
+        assertThat(fleetFile.getFleet().position(1)).isEqualTo(new Position(5, 1, Orientation.E));
+    }
+
+    @Test
+    public void givenMultiDigitCoordinatesAndEmptyDirections_whenRead_thenCorrectFleet() throws IOException {
+
+        // Given.
+        val file = write("120 1050\n110 1000 S\n\n12 34 W\nAAG\n");
+
+        // When.
+        val fleetFile = FleetFileReader.read(file);
+
+        // Then.
+        assertThat(fleetFile.getGarden().getHorizontalLimitMax()).isEqualTo(120);
+        assertThat(fleetFile.getGarden().getVerticalLimitMax()).isEqualTo(1050);
+        assertThat(fleetFile.getFleet().size()).isEqualTo(2);
+        assertThat(fleetFile.getFleet().position(0)).isEqualTo(new Position(110, 1000, Orientation.S));
+        assertThat(fleetFile.getFleet().directionNumber(0)).isZero();
+        assertThat(fleetFile.getFleet().position(1)).isEqualTo(new Position(12, 34, Orientation.W));
+        assertThat(fleetFile.getFleet().directionNumber(1)).isEqualTo(3);
+    }
+
+    @Test
+    @Parameters(method = "parametersForInvalidFiles")
+    public void givenInvalidFile_whenRead_thenExceptionIsThrownWithExpectedMessage(final String content,
+                                                                                   final String expectedMessage) throws IOException {
+        // Given.
+        val file = write(content);
+
+        // When.
+        final ThrowingCallable action = () -> FleetFileReader.read(file);
+
+        // Then.
+        assertThatThrownBy(action).isInstanceOf(ApplicationParamException.class).hasMessage(expectedMessage);
+    }
+
+    @Test
+    public void givenFileWithManyErrors_whenRead_thenAllErrorsAreThrownTogether() throws IOException {
+
+        // Given.
+        val file = write("5 5\n1 2 X\nGAGA\n3 3 E\nAAXDA\n4 4 N\nGA\n1 1\n");
+
+        // When.
+        final ThrowingCallable action = () -> FleetFileReader.read(file);
+
+        // Then.
+        assertThatThrownBy(action).isInstanceOf(ApplicationParamException.class)
+                .hasMessage("Invalid orientation 'X' at line 2, column 5\n"
+                        + "Invalid direction 'X' at line 5, column 3\n"
+                        + "Unexpected end of file at line 9, column 1");
+    }
+
+    @Test
+    public void givenFileWithMoreErrorsThanMax_whenRead_thenReadingStopsAtMaxErrors() throws IOException {
+
+        // Given.
+        val file = write("5 5\n1 2 N\nB\n1 2 N\nB\n1 2 N\nB\n");
+
+        // When.
+        val exception = (ApplicationParamException) catchThrowable(() -> FleetFileReader.read(file, 2));
+
+        // Then.
+        assertThat(exception.getErrors()).containsExactly(
+                new ValidationError(3, 1, "Invalid direction 'B'"),
+                new ValidationError(5, 1, "Invalid direction 'B'"));
+    }
+
+    private Path write(final String content) throws IOException {
+        final Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    /**
+     * Handler that records the read events in a string.
+     */
+    private static final class RecordingHandler implements FleetHandler {
+
+        private final StringBuilder events = new StringBuilder();
+
+        @Override
+        public void garden(final int horizontalLimitMax, final int verticalLimitMax) {
+            events.append("garden ").append(horizontalLimitMax).append(' ').append(verticalLimitMax);
+        }
+
+        @Override
+        public void mower(final int coordinateX, final int coordinateY, final Orientation orientation) {
+            events.append("|mower ").append(coordinateX).append(' ').append(coordinateY).append(' ').append(orientation).append('|');
+        }
+
+        @Override
+        public void direction(final int direction) {
+            events.append("GDA".charAt(direction));
+        }
+
+        @Override
+        public String toString() {
+            return events.toString();
+        }
+    }
+}
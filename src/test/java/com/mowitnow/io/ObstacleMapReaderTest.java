@@ -0,0 +1,94 @@
+package com.mowitnow.io;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.ObstacleMap;
+import com.mowitnow.exception.ApplicationParamException;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Allows to test treatments of {@link ObstacleMapReader}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class ObstacleMapReaderTest extends AbstractTest {
+
+    private static final String PLAIN_FILE = "P1\n# Flower bed\n10 3\n0000000001\n0110000000\n0 1 1 0 0 0 0 0 0 0\n";
+    private static final byte[] RAW_FILE = {'P', '4', ' ', '1', '0', ' ', '3', '\n',
+            0x00, 0x40, 0x60, 0x00, 0x60, 0x00};
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Object[] parametersForInvalidFiles() {
+        return new Object[][]{
+                {"", "Obstacle file is not a PBM file (P1 or P4)"},
+                {"P2\n2 2\n0 0 0 0\n", "Obstacle file is not a PBM file (P1 or P4)"},
+                {"P1\n2 x\n", "Invalid obstacle file size 'x'"},
+                {"P1\n0 2\n", "Invalid obstacle file size : 0x2"},
+                {"P1\n2 2\n0 0 0\n", "Unexpected end of obstacle file"},
+                {"P1\n2 2\n0 0 2 0\n", "Invalid obstacle pixel '2'"},
+                {"P4\n16 2\n\u0001\u0001\u0001", "Unexpected end of obstacle file"}};
+    }
+
+    @Test
+    public void givenPlainAndRawFiles_whenRead_thenSameObstacles() throws IOException {
+
+        // Given.
+        val plainFile = write(PLAIN_FILE.getBytes(StandardCharsets.US_ASCII));
+        val rawFile = write(RAW_FILE);
+
+        // When.
+        val plainObstacles = ObstacleMapReader.read(plainFile);
+        val rawObstacles = ObstacleMapReader.read(rawFile);
+
+        // Then.
+        assertFlowerBed(plainObstacles);
+        assertFlowerBed(rawObstacles);
+    }
+
+    @Test
+    @Parameters(method = "parametersForInvalidFiles")
+    public void givenInvalidFile_whenRead_thenExceptionIsThrownWithExpectedMessage(final String content,
+                                                                                   final String expectedMessage) throws IOException {
+        // Given.
+        val file = write(content.getBytes(StandardCharsets.ISO_8859_1));
+
+        // When.
+        final ThrowingCallable action = () -> ObstacleMapReader.read(file);
+
+        // Then.
+        assertThatThrownBy(action).isInstanceOf(ApplicationParamException.class).hasMessage(expectedMessage);
+    }
+
+    private void assertFlowerBed(final ObstacleMap obstacles) {
+        assertThat(obstacles.getWidth()).isEqualTo(10);
+        assertThat(obstacles.getHeight()).isEqualTo(3);
+        assertThat(obstacles.obstacleCount()).isEqualTo(5);
+        assertThat(obstacles.isBlocked(9, 2)).isTrue();
+        assertThat(obstacles.isBlocked(1, 1)).isTrue();
+        assertThat(obstacles.isBlocked(2, 0)).isTrue();
+        assertThat(obstacles.isBlocked(0, 0)).isFalse();
+        assertThat(obstacles.isBlocked(8, 2)).isFalse();
+    }
+
+    private Path write(final byte[] content) throws IOException {
+        final Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mowitnow.io;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.RandomFleetParams;
+import com.mowitnow.domain.Position;
+import com.mowitnow.dto.PositionFinalDto;
+import com.mowitnow.exception.ApplicationParamException;
+import com.mowitnow.service.impl.MowerServiceImpl;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Allows to test treatments of {@link TrajectoryWriter} and {@link TrajectoryReader}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class TrajectoryReaderTest extends AbstractTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    @Parameters({"1", "2", "4095", "4096", "4097", "10000"})
+    public void givenRecordedTrajectories_whenReplay_thenSamePathsThanSimulation(final int directionNumber) throws IOException {
+
+        // Given.
+        val file = temporaryFolder.newFile().toPath();
+        val params = RandomFleetParams.of(20, directionNumber, 4);
+        params.setCollision("true");
+        params.setTrajectoryFile(file.toString());
+        val service = new MowerServiceImpl(params);
+        service.init();
+        val finalPositions = service.getFinalPositions().stream().map(PositionFinalDto::getPosition).collect(toList());
+
+        // When.
+        try (TrajectoryReader reader = new TrajectoryReader(file)) {
+
+            // Then.
+            assertThat(reader.mowerNumber()).isEqualTo(20);
+            for (int mower = 0; mower < reader.mowerNumber(); mower++) {
+                final List<Position> path = new ArrayList<>();
+                path.add(reader.position(mower, 0));
+                reader.replay(mower, (code, x, y, orientation) -> path.add(new Position(x, y, orientation)));
+
+                assertThat(reader.mowerId(mower)).isEqualTo(mower);
+                assertThat(reader.stepNumber(mower)).isEqualTo(directionNumber);
+                assertThat(path).hasSize(directionNumber + 1);
+                assertThat(path.get(directionNumber)).isEqualTo(finalPositions.get(mower));
+                for (int step = 0; step <= directionNumber; step += 97) {
+                    assertThat(reader.position(mower, step)).isEqualTo(path.get(step));
+                }
+                assertThat(reader.position(mower, directionNumber)).isEqualTo(finalPositions.get(mower));
+            }
+        }
+        assertThat(Files.size(file)).isLessThanOrEqualTo(12 + 20 * (17 + directionNumber / 4 + 1 + 9 * (directionNumber / 4096 + 1)));
+    }
+
+    @Test
+    public void givenInvalidFile_whenRead_thenExceptionIsThrown() throws IOException {
+
+        // Given.
+        val file = temporaryFolder.newFile().toPath();
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+        // When.
+        final ThrowingCallable action = () -> new TrajectoryReader(file);
+
+        // Then.
+        assertThatThrownBy(action).isInstanceOf(ApplicationParamException.class).hasMessageStartingWith("Invalid trajectory file");
+    }
+
+    @Test
+    @Parameters({"0, 1, Invalid trajectory file", "6, 1, Invalid trajectory file", "4096, 1, Truncated trajectory file",
+            "4096, -1, Truncated trajectory file"})
+    public void givenInvalidHeader_whenRead_thenExceptionIsThrown(final int checkpointInterval,
+                                                                 final int mowerNumber,
+                                                                 final String expectedMessage) throws IOException {
+        // Given.
+        val file = temporaryFolder.newFile().toPath();
+        Files.write(file, ByteBuffer.allocate(TrajectoryWriter.HEADER_SIZE)
+                .putInt(TrajectoryWriter.MAGIC)
+                .putInt(checkpointInterval)
+                .putInt(mowerNumber)
+                .array());
+
+        // When.
+        final ThrowingCallable action = () -> new TrajectoryReader(file);
+
+        // Then.
+        assertThatThrownBy(action).isInstanceOf(ApplicationParamException.class).hasMessageStartingWith(expectedMessage);
+    }
+}
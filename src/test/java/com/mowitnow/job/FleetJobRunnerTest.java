@@ -0,0 +1,200 @@
+package com.mowitnow.job;
+
+import com.google.common.io.ByteStreams;
+import com.mowitnow.AbstractTest;
+import com.mowitnow.RandomFleetParams;
+import com.mowitnow.exception.ApplicationParamException;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Allows to test treatments of {@link FleetJobRunner}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class FleetJobRunnerTest extends AbstractTest {
+
+    private static final String SIMULATION = "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n";
+    private static final String FINAL_POSITIONS = "1 3 N\n5 1 E\n";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    @Parameters({JobThreads.PLATFORM, JobThreads.VIRTUAL})
+    public void givenFileJobs_whenSubmit_thenFinalPositionsAreWritten(final String threads) throws Exception {
+
+        // Given.
+        Assume.assumeTrue(JobThreads.PLATFORM.equals(threads) || JobThreads.isVirtualAvailable());
+        val runner = runner(threads, 8);
+        val outputs = new ArrayList<Path>();
+        val results = new ArrayList<CompletableFuture<Integer>>();
+
+        // When.
+        for (int i = 0; i < 200; i++) {
+            val input = temporaryFolder.newFile().toPath();
+            val output = temporaryFolder.getRoot().toPath().resolve("output-" + i);
+            Files.write(input, SIMULATION.getBytes(StandardCharsets.US_ASCII));
+            outputs.add(output);
+            results.add(runner.submit(FleetJob.ofFiles(input, output)));
+        }
+
+        // Then.
+        for (int i = 0; i < outputs.size(); i++) {
+            assertThat(results.get(i).get(10, TimeUnit.SECONDS)).isEqualTo(2);
+            assertThat(new String(Files.readAllBytes(outputs.get(i)), StandardCharsets.US_ASCII)).isEqualTo(FINAL_POSITIONS);
+        }
+        assertThat(runner.getRunningJobCount()).isZero();
+    }
+
+    @Test
+    public void givenMaxConcurrencyReached_whenSubmit_thenJobWaitsForRunningJob() throws Exception {
+
+        // Given.
+        val runner = runner(JobThreads.PLATFORM, 2);
+        val started = new CountDownLatch(2);
+        val release = new CountDownLatch(1);
+        val blockedResults = new ArrayList<CompletableFuture<Integer>>();
+        for (int i = 0; i < 2; i++) {
+            blockedResults.add(runner.submit(new BlockingJob(started, release)));
+        }
+        started.await(10, TimeUnit.SECONDS);
+
+        // When.
+        val lastResult = CompletableFuture.supplyAsync(() -> {
+            try {
+                return runner.submit(new BlockingJob(new CountDownLatch(1), new CountDownLatch(0))).get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+
+        // Then.
+        assertThat(lastResult).isNotDone();
+        assertThat(runner.getRunningJobCount()).isEqualTo(2);
+
+        release.countDown();
+        assertThat(lastResult.get(10, TimeUnit.SECONDS)).isEqualTo(2);
+        for (val result : blockedResults) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void givenInvalidInput_whenSubmit_thenResultFailsAndJobIsClosed() throws Exception {
+
+        // Given.
+        val runner = runner(JobThreads.PLATFORM, 1);
+        val job = new BlockingJob(new CountDownLatch(1), new CountDownLatch(0), "5 5\n1 2 X\n");
+
+        // When.
+        val result = runner.submit(job);
+
+        // Then.
+        assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ApplicationParamException.class)
+                .hasMessageContaining("Invalid orientation 'X' at line 2");
+        assertThat(job.closed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(runner.submit(new BlockingJob(new CountDownLatch(1), new CountDownLatch(0))).get(10, TimeUnit.SECONDS)).isEqualTo(2);
+    }
+
+    @Test
+    public void givenSocketJob_whenSubmit_thenFinalPositionsAreSentBack() throws Exception {
+
+        // Given.
+        val runner = runner(JobThreads.PLATFORM, 1);
+
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+             Socket client = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+
+            // When.
+            val result = runner.submit(FleetJob.ofSocket(serverSocket.accept()));
+            client.getOutputStream().write(SIMULATION.getBytes(StandardCharsets.US_ASCII));
+            client.shutdownOutput();
+            val response = ByteStreams.toByteArray(client.getInputStream());
+
+            // Then.
+            assertThat(new String(response, StandardCharsets.US_ASCII)).isEqualTo(FINAL_POSITIONS);
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(2);
+        }
+    }
+
+    private static FleetJobRunner runner(final String threads, final int maxConcurrency) {
+        val params = RandomFleetParams.of(1, 1, 1);
+        params.setJobThreads(threads);
+        params.setJobMaxConcurrency(String.valueOf(maxConcurrency));
+        val runner = new FleetJobRunner(params);
+        runner.init();
+        return runner;
+    }
+
+    /**
+     * Job with an input that blocks until released, as a slow socket.
+     */
+    private static final class BlockingJob implements FleetJob {
+
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+        private final String content;
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        private BlockingJob(final CountDownLatch started, final CountDownLatch release) {
+            this(started, release, SIMULATION);
+        }
+
+        private BlockingJob(final CountDownLatch started, final CountDownLatch release, final String content) {
+            this.started = started;
+            this.release = release;
+            this.content = content;
+        }
+
+        @Override
+        public InputStream openInput() throws IOException {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public OutputStream openOutput() {
+            return new ByteArrayOutputStream();
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mowitnow.mapper;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.Garden;
+import com.mowitnow.dto.UnmowedRegionDto;
+import com.mowitnow.engine.CoverageBitmap;
+
+import org.junit.Test;
+
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link CoverageMapper}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class CoverageMapperTest extends AbstractTest {
+
+    @Test
+    public void givenGardenWiderThanIntegerRange_whenMapToCoverage_thenUnmowedRegionsHaveGardenCoordinates() {
+
+        // Given.
+        val garden = new Garden(-2000000000, 2000000000, 0, 1);
+        val bitmap = new CoverageBitmap(garden);
+        bitmap.add(0, 0);
+        bitmap.add(0, 1);
+
+        // When.
+        val coverage = CoverageMapper.bitmapToCoverage(garden, bitmap);
+
+        // Then.
+        assertThat(coverage.getCellNumber()).isEqualTo(8000000002L);
+        assertThat(coverage.getMowedCellNumber()).isEqualTo(2L);
+        assertThat(coverage.getUnmowedRegions()).containsExactly(
+                UnmowedRegionDto.builder().horizontalMin(-2000000000).horizontalMax(-1).verticalMin(0).verticalMax(1).build(),
+                UnmowedRegionDto.builder().horizontalMin(1).horizontalMax(2000000000).verticalMin(0).verticalMax(1).build());
+    }
+}
@@ -0,0 +1,87 @@
+package com.mowitnow.metrics;
+
+import com.mowitnow.AbstractTest;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Allows to test treatments of {@link LatencyHistogram}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class LatencyHistogramTest extends AbstractTest {
+
+    @Test
+    @Parameters({"0", "1", "15", "16", "17", "1000", "123456789", "9223372036854775807"})
+    public void givenValue_whenGetBucket_thenValueIsInBucketWithSixPercentPrecision(final long value) {
+
+        // When.
+        val index = LatencyHistogram.index(value);
+
+        // Then.
+        assertThat(LatencyHistogram.lowestValue(index)).isLessThanOrEqualTo(value);
+        assertThat(value - LatencyHistogram.lowestValue(index)).isLessThanOrEqualTo(value / 16);
+        if (value < Long.MAX_VALUE) {
+            assertThat(LatencyHistogram.lowestValue(index + 1)).isGreaterThan(value);
+        }
+    }
+
+    @Test
+    public void givenUniformValues_whenGetPercentiles_thenPercentilesAreWithinBucketPrecision() {
+
+        // Given.
+        val histogram = new LatencyHistogram();
+
+        // When.
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        // Then.
+        assertThat(histogram.count()).isEqualTo(100000L);
+        assertThat(histogram.max()).isEqualTo(100000000L);
+        assertThat(histogram.mean()).isEqualTo(50000500.0);
+        assertThat((double) histogram.percentile(50)).isCloseTo(50000000.0, within(50000000.0 / 16));
+        assertThat((double) histogram.percentile(99)).isCloseTo(99000000.0, within(99000000.0 / 16));
+        assertThat(histogram.percentile(100)).isEqualTo(100000000L);
+        assertThat(histogram.percentile(0)).isEqualTo(1023L);
+    }
+
+    @Test
+    public void givenConcurrentRecords_whenCount_thenNoRecordIsLost() throws InterruptedException {
+
+        // Given.
+        val histogram = new LatencyHistogram();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When.
+        for (int thread = 0; thread < 4; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // Then.
+        assertThat(histogram.count()).isEqualTo(400000L);
+        assertThat(histogram.total()).isEqualTo(4 * (100000L * 99999 / 2));
+        assertThat(histogram.max()).isEqualTo(99999L);
+
+        histogram.reset();
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.percentile(50)).isZero();
+    }
+}
@@ -0,0 +1,88 @@
+package com.mowitnow.metrics;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.service.MowerService;
+
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+
+import javax.inject.Inject;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link SimulationMetrics}. JMX is disabled by default in tests,
+ * so it is enabled for this test.
+ *
+ * @author Mazlum TOSUN
+ */
+@TestPropertySource(properties = "spring.jmx.enabled=true")
+public class SimulationMetricsTest extends AbstractTest {
+
+    @Inject
+    private MowerService mowerService;
+    @Inject
+    private SimulationMetrics simulationMetrics;
+
+    @Test
+    public void givenRecorder_whenRecordMowers_thenCountsAreAddedByFlush() {
+
+        // Given.
+        val metrics = new SimulationMetrics();
+        val recorder = metrics.recorder();
+
+        // When.
+        recorder.recordMower(1000, 10, 2);
+        recorder.recordMower(SimulationMetrics.NOT_TIMED, 20, 0);
+        val countBeforeFlush = metrics.getCommandCount();
+        recorder.flush();
+
+        // Then.
+        assertThat(countBeforeFlush).isZero();
+        assertThat(metrics.getSimulatedMowerCount()).isEqualTo(2L);
+        assertThat(metrics.getCommandCount()).isEqualTo(30L);
+        assertThat(metrics.getRejectedMoveCount()).isEqualTo(2L);
+        assertThat(metrics.getMowerLatency().count()).isEqualTo(1L);
+        assertThat(metrics.getCommandsPerSecond()).isEqualTo(1.0e7);
+    }
+
+    @Test
+    public void givenRecorder_whenRecordManyMowers_thenCountsAreAddedByInterval() {
+
+        // Given.
+        val metrics = new SimulationMetrics();
+        val recorder = metrics.recorder();
+
+        // When.
+        for (int i = 0; i < SimulationMetrics.FLUSH_INTERVAL + 1; i++) {
+            recorder.recordMower(SimulationMetrics.NOT_TIMED, 1, 0);
+        }
+
+        // Then.
+        assertThat(metrics.getSimulatedMowerCount()).isEqualTo(SimulationMetrics.FLUSH_INTERVAL);
+    }
+
+    @Test
+    public void givenSimulation_whenReadJmxAttributes_thenMetricsAreExported() throws JMException {
+
+        // Given.
+        simulationMetrics.reset();
+
+        // When.
+        mowerService.getFinalPositions();
+
+        // Then.
+        val server = ManagementFactory.getPlatformMBeanServer();
+        val name = new ObjectName(SimulationMetrics.OBJECT_NAME);
+        assertThat(server.getAttribute(name, "CommandCount")).isEqualTo(19L);
+        assertThat(server.getAttribute(name, "SimulatedMowerCount")).isEqualTo(2L);
+        assertThat(server.getAttribute(name, "RejectedMoveCount")).isEqualTo(0L);
+        assertThat(server.getAttribute(name, "FleetSize")).isEqualTo(2);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mowitnow.pipeline;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.dto.StageReportDto;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link FleetPipeline}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class FleetPipelineTest extends AbstractTest {
+
+    private static final String SIMULATION = "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    @Parameters({"1, 1", "4, 2"})
+    public void givenDirectoryOfFiles_whenRun_thenFinalPositionsAreWrittenForEachFile(final int threadNumber,
+                                                                                     final int queueCapacity) throws Exception {
+        // Given.
+        val inputDirectory = temporaryFolder.newFolder("input").toPath();
+        for (int i = 0; i < 200; i++) {
+            write(inputDirectory.resolve("fleet-" + i + ".txt"), SIMULATION);
+        }
+        val outputDirectory = temporaryFolder.getRoot().toPath().resolve("output");
+        val pipeline = FleetPipeline.builder()
+                .readers(threadNumber)
+                .parsers(threadNumber)
+                .simulators(threadNumber)
+                .writers(threadNumber)
+                .queueCapacity(queueCapacity)
+                .build();
+
+        // When.
+        val report = pipeline.run(inputDirectory, outputDirectory);
+
+        // Then.
+        assertThat(report.getFileNumber()).isEqualTo(200L);
+        assertThat(report.getFailedFileNumber()).isZero();
+        assertThat(report.getMowerNumber()).isEqualTo(400L);
+        assertThat(report.getStages().stream().map(StageReportDto::getName).collect(toList()))
+                .containsExactly("list", "read", "parse", "simulate", "write");
+        assertThat(report.getStages()).extracting(StageReportDto::getFileNumber).containsOnly(200L);
+        for (int i = 0; i < 200; i++) {
+            assertThat(read(outputDirectory.resolve("fleet-" + i + ".txt" + FleetPipeline.OUTPUT_EXTENSION))).isEqualTo("1 3 N\n5 1 E\n");
+        }
+    }
+
+    @Test
+    public void givenInvalidFile_whenRun_thenErrorIsWrittenAndOtherFilesAreSimulated() throws Exception {
+
+        // Given.
+        val inputDirectory = temporaryFolder.newFolder("input").toPath();
+        write(inputDirectory.resolve("valid.txt"), SIMULATION);
+        write(inputDirectory.resolve("invalid.txt"), "5 5\n1 2 X\nGAGA\n");
+        val outputDirectory = temporaryFolder.newFolder("output").toPath();
+        val pipeline = FleetPipeline.builder().readers(1).parsers(2).simulators(2).writers(1).queueCapacity(4).collision(true).build();
+
+        // When.
+        val report = pipeline.run(inputDirectory, outputDirectory);
+
+        // Then.
+        assertThat(report.getFileNumber()).isEqualTo(2L);
+        assertThat(report.getFailedFileNumber()).isEqualTo(1L);
+        assertThat(report.getMowerNumber()).isEqualTo(2L);
+        assertThat(read(outputDirectory.resolve("valid.txt" + FleetPipeline.OUTPUT_EXTENSION))).isEqualTo("1 3 N\n5 1 E\n");
+        assertThat(read(outputDirectory.resolve("invalid.txt" + FleetPipeline.ERROR_EXTENSION)))
+                .isEqualTo("Invalid orientation 'X' at line 2, column 5\n");
+        assertThat(Files.exists(outputDirectory.resolve("invalid.txt" + FleetPipeline.OUTPUT_EXTENSION))).isFalse();
+    }
+
+    private static void write(final Path file, final String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String read(final Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+    }
+}
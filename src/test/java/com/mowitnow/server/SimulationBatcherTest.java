@@ -0,0 +1,104 @@
+package com.mowitnow.server;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.domain.Garden;
+import com.mowitnow.domain.Position;
+import com.mowitnow.domain.type.Orientation;
+import com.mowitnow.engine.FleetBuilder;
+
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Allows to test treatments of {@link SimulationBatcher}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class SimulationBatcherTest extends AbstractTest {
+
+    @Test
+    public void givenFullQueue_whenSubmit_thenJobIsRejected() throws InterruptedException {
+
+        // Given.
+        val batcher = new SimulationBatcher(2, 64, ForkJoinPool.commonPool());
+        val firstJob = job(false);
+        batcher.submit(firstJob);
+        batcher.submit(job(false));
+
+        // When.
+        val accepted = batcher.submit(job(false));
+        batcher.stop();
+
+        // Then.
+        assertThat(accepted).isFalse();
+        assertThatThrownBy(firstJob.getResult()::join).isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    public void givenQueuedJobs_whenStart_thenJobsAreSimulatedInBatches() throws Exception {
+
+        // Given.
+        val batcher = new SimulationBatcher(100, 40, ForkJoinPool.commonPool());
+        val jobs = new SimulationJob[100];
+        for (int i = 0; i < jobs.length; i++) {
+            jobs[i] = job(i % 2 == 0);
+            assertThat(batcher.submit(jobs[i])).isTrue();
+        }
+
+        // When.
+        batcher.start();
+        for (val job : jobs) {
+            job.getResult().get();
+        }
+        batcher.stop();
+
+        // Then.
+        assertThat(batcher.getJobCount()).isEqualTo(100);
+        assertThat(batcher.getBatchCount()).isEqualTo(3);
+        assertThat(jobs[0].getResult().get().position(0)).isEqualTo(new Position(1, 3, Orientation.N));
+        assertThat(jobs[0].getResult().get().position(1)).isEqualTo(new Position(1, 2, Orientation.N));
+        assertThat(jobs[1].getResult().get().position(1)).isEqualTo(new Position(1, 4, Orientation.N));
+    }
+
+    @Test
+    public void givenJobThatThrowsError_whenDispatch_thenJobFailsAndNextJobsAreSimulated() throws Exception {
+
+        // Given.
+        val batcher = new SimulationBatcher(10, 10, ForkJoinPool.commonPool());
+        val failingJob = new SimulationJob(new Garden(0, 5, 0, 5), job(false).getFleet(), false) {
+
+            @Override
+            void run() {
+                throw new StackOverflowError("Too deep");
+            }
+        };
+        val nextJob = job(false);
+        batcher.start();
+
+        // When.
+        batcher.submit(failingJob);
+        assertThatThrownBy(failingJob.getResult()::join).hasCauseInstanceOf(StackOverflowError.class);
+        batcher.submit(nextJob);
+        val nextFleet = nextJob.getResult().get();
+        batcher.stop();
+
+        // Then.
+        assertThat(nextFleet.position(1)).isEqualTo(new Position(1, 4, Orientation.N));
+        assertThat(batcher.submit(job(false))).isFalse();
+    }
+
+    private static SimulationJob job(final boolean collision) {
+        val fleet = FleetBuilder.builder()
+                .mower(1, 2, Orientation.N).direction(2)
+                .mower(1, 2, Orientation.N).direction(2).direction(2)
+                .build();
+        return new SimulationJob(new Garden(0, 5, 0, 5), fleet, collision);
+    }
+}
@@ -0,0 +1,43 @@
+package com.mowitnow.server;
+
+import com.mowitnow.AbstractTest;
+import com.mowitnow.service.MowerService;
+
+import org.junit.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.IOException;
+
+import javax.inject.Inject;
+
+import lombok.val;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test the application started in server mode with only the server port : the test
+ * configuration file is not loaded, so there is no static fleet.
+ *
+ * @author Mazlum TOSUN
+ */
+@SpringBootTest(properties = {"spring.config.name=none", "mower.server.port=0"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class SimulationServerApplicationTest extends AbstractTest {
+
+    @Inject
+    private SimulationServer server;
+    @Inject
+    private MowerService mowerService;
+
+    @Test
+    public void givenOnlyServerPort_whenPost_thenFinalPositionsAreStreamed() throws IOException {
+
+        // When.
+        val response = SimulationServerTest.request(server.getPort(), "POST", "", "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n");
+
+        // Then.
+        assertThat(response).isEqualTo("200 1 3 N\n5 1 E\n");
+        assertThat(mowerService.getFinalPositions()).isEmpty();
+    }
+}
@@ -0,0 +1,136 @@
+package com.mowitnow.server;
+
+import com.google.common.io.ByteStreams;
+import com.mowitnow.AbstractTest;
+import com.mowitnow.RandomFleetParams;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import junitparams.Parameters;
+import lombok.val;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allows to test treatments of {@link SimulationServer}.
+ *
+ * @author Mazlum TOSUN
+ */
+public class SimulationServerTest extends AbstractTest {
+
+    private static final String SIMULATION = "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n";
+
+    private SimulationServer server;
+
+    private Object[] parametersForInvalidRequests() {
+        return new Object[][]{
+                {"POST", "5 5\n1 2 X\n", 400, "Invalid orientation 'X' at line 2, column 5\n"},
+                {"GET", "", 405, "Method not allowed\n"}};
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        val params = RandomFleetParams.of(1, 1, 2);
+        params.setServerPort("0");
+        this.server = new SimulationServer(params);
+        this.server.init();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        server.destroy();
+    }
+
+    @Test
+    public void givenSimulation_whenPost_thenFinalPositionsAreStreamed() throws IOException {
+
+        // When.
+        val response = request("POST", "", SIMULATION);
+
+        // Then.
+        assertThat(response).isEqualTo("200 1 3 N\n5 1 E\n");
+    }
+
+    @Test
+    public void givenCollision_whenPost_thenMowerDoesNotMoveIntoOccupiedCell() throws IOException {
+
+        // When.
+        val response = request("POST", "?collision=true", "5 5\n1 2 N\nA\n1 2 N\nAA\n");
+
+        // Then.
+        assertThat(response).isEqualTo("200 1 3 N\n1 2 N\n");
+    }
+
+    @Test
+    @Parameters(method = "parametersForInvalidRequests")
+    public void givenInvalidRequest_whenSend_thenErrorStatus(final String method,
+                                                            final String body,
+                                                            final int expectedStatus,
+                                                            final String expectedMessage) throws IOException {
+        // When.
+        val response = request(method, "", body);
+
+        // Then.
+        assertThat(response).isEqualTo(expectedStatus + " " + expectedMessage);
+    }
+
+    @Test
+    public void givenConcurrentSimulations_whenPost_thenAllAreSimulated() throws Exception {
+
+        // Given.
+        val executor = Executors.newFixedThreadPool(8);
+        final List<Callable<String>> requests = IntStream.range(0, 200)
+                .mapToObj(i -> (Callable<String>) () -> request("POST", "", SIMULATION))
+                .collect(toList());
+
+        // When.
+        val responses = executor.invokeAll(requests);
+        executor.shutdown();
+
+        // Then.
+        for (val response : responses) {
+            assertThat(response.get()).isEqualTo("200 1 3 N\n5 1 E\n");
+        }
+        assertThat(server.getBatcher().getJobCount()).isEqualTo(200);
+        assertThat(server.getBatcher().getBatchCount()).isBetween(1L, 200L);
+    }
+
+    private String request(final String method, final String query, final String body) throws IOException {
+        return request(server.getPort(), method, query, body);
+    }
+
+    /**
+     * Sends a request to the server listening on the given port, and gets the response status
+     * and body.
+     */
+    static String request(final int port, final String method, final String query, final String body) throws IOException {
+        val connection = (HttpURLConnection) new URL("http://localhost:" + port + SimulationServer.SIMULATIONS_PATH + query)
+                .openConnection();
+        connection.setRequestMethod(method);
+        if ("POST".equals(method)) {
+            connection.setDoOutput(true);
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body.getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+
+        val status = connection.getResponseCode();
+        try (InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return status + " " + new String(ByteStreams.toByteArray(input), StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -67,6 +67,38 @@ public class ApplicationParamServiceTest extends AbstractTest {
         final Consumer<ApplicationParamServiceImpl> emptyGardenVerticalLimitMax = a -> a.setGardenVerticalLimitMax("");
         final Consumer<ApplicationParamServiceImpl> nonNumericGardenVerticalLimitMax = a -> a.setGardenVerticalLimitMax("GTC");
 
+        // Parallelism.
+        final Consumer<ApplicationParamServiceImpl> zeroParallelism = a -> a.setParallelism("0");
+        final Consumer<ApplicationParamServiceImpl> nonNumericParallelism = a -> a.setParallelism("GTC");
+        final Consumer<ApplicationParamServiceImpl> tooBigParallelism = a -> a.setParallelism("99999999999");
+
+        // Collision.
+        final Consumer<ApplicationParamServiceImpl> nonBooleanCollision = a -> a.setCollision("GTC");
+
+        // Server.
+        final Consumer<ApplicationParamServiceImpl> nonNumericServerPort = a -> a.setServerPort("GTC");
+        final Consumer<ApplicationParamServiceImpl> zeroServerQueueCapacity = a -> a.setServerQueueCapacity("0");
+        final Consumer<ApplicationParamServiceImpl> nonNumericServerBatchSize = a -> a.setServerBatchSize("GTC");
+
+        // Jobs.
+        final Consumer<ApplicationParamServiceImpl> unknownJobThreads = a -> a.setJobThreads("fibers");
+        final Consumer<ApplicationParamServiceImpl> zeroJobMaxConcurrency = a -> a.setJobMaxConcurrency("0");
+
+        // Validation.
+        final Consumer<ApplicationParamServiceImpl> zeroValidationMaxErrors = a -> a.setValidationMaxErrors("0");
+
+        // Continuation.
+        final Consumer<ApplicationParamServiceImpl> nonBooleanContinuation = a -> a.setContinuation("GTC");
+
+        // Off-heap.
+        final Consumer<ApplicationParamServiceImpl> nonBooleanOffHeap = a -> a.setOffHeap("GTC");
+
+        // Garden obstacles.
+        final Consumer<ApplicationParamServiceImpl> unreadableGardenObstacles = a -> a.setGardenObstacles("unknown/obstacles.pbm");
+
+        // Input file (last, because an input file makes positions and directions optional).
+        final Consumer<ApplicationParamServiceImpl> unreadableInputFile = a -> a.setInputFile("unknown/mowers.txt");
+
         return new Object[][]{
                 {nullPosition, "Positions parameters should not be empty"},
                 {emptyPosition, "Positions parameters should not be empty"},
@@ -92,7 +124,30 @@ public class ApplicationParamServiceTest extends AbstractTest {
 
                 {nullGardenVerticalLimitMax, "Garden vertical limit max should not be empty"},
                 {emptyGardenVerticalLimitMax, "Garden vertical limit max should not be empty"},
-                {nonNumericGardenVerticalLimitMax, "Garden vertical limit max should not be in type numeric"}};
+                {nonNumericGardenVerticalLimitMax, "Garden vertical limit max should not be in type numeric"},
+
+                {zeroParallelism, "Parallelism should be a positive number"},
+                {nonNumericParallelism, "Parallelism should be a positive number"},
+                {tooBigParallelism, "Parallelism should be a positive number"},
+
+                {nonBooleanCollision, "Collision should be a boolean"},
+
+                {nonNumericServerPort, "Server port should be in type numeric"},
+                {zeroServerQueueCapacity, "Server queue capacity should be a positive number"},
+                {nonNumericServerBatchSize, "Server batch size should be a positive number"},
+
+                {unknownJobThreads, "Job threads should be platform or virtual (Java 21 build)"},
+                {zeroJobMaxConcurrency, "Job max concurrency should be a positive number"},
+
+                {zeroValidationMaxErrors, "Validation max errors should be a positive number"},
+
+                {nonBooleanContinuation, "Continuation should be a boolean"},
+
+                {nonBooleanOffHeap, "Off-heap should be a boolean"},
+
+                {unreadableGardenObstacles, "Garden obstacles file should be readable"},
+
+                {unreadableInputFile, "Input file should be readable"}};
     }
 
     @Test
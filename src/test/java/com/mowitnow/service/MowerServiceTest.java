@@ -1,17 +1,34 @@
 package com.mowitnow.service;
 
 import com.mowitnow.AbstractTest;
+import com.mowitnow.RandomFleetParams;
 import com.mowitnow.constant.MowitnowConstant;
+import com.mowitnow.domain.Garden;
 import com.mowitnow.domain.Position;
 import com.mowitnow.domain.type.Orientation;
+import com.mowitnow.dto.MowerResultDto;
 import com.mowitnow.dto.PositionFinalDto;
+import com.mowitnow.dto.UnmowedRegionDto;
+import com.mowitnow.metrics.SimulationMetrics;
+import com.mowitnow.service.impl.MowerServiceImpl;
 import junitparams.Parameters;
 import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -26,6 +43,15 @@ public class MowerServiceTest extends AbstractTest {
     @Inject
     private ApplicationParamService applicationParamService;
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Object[] parametersForMetrics() {
+        return new Object[][]{
+                {"AAAAG", 5L, 1L},
+                {StringUtils.repeat('A', 5000), 5000L, 4997L}};
+    }
+
     private Object[] parametersCheckIntoGarden() {
         return new Object[][]{
                 {1, 2, Orientation.N, true},
@@ -67,6 +93,454 @@ public class MowerServiceTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void givenParallelism_whenComputeLastPositionOfMowers_thenSameResultThanSequential() {
+
+        // Given.
+        val sequentialService = new MowerServiceImpl(RandomFleetParams.of(20000, 10, 1));
+        val parallelService = new MowerServiceImpl(RandomFleetParams.of(20000, 10, 4));
+        sequentialService.init();
+        parallelService.init();
+
+        // When.
+        val sequentialPositions = sequentialService.getFinalPositions();
+        val parallelPositions = parallelService.getFinalPositions();
+        parallelService.destroy();
+
+        // Then.
+        assertThat(parallelPositions.stream().map(PositionFinalDto::getPosition).collect(toList()))
+                .isEqualTo(sequentialPositions.stream().map(PositionFinalDto::getPosition).collect(toList()));
+        assertThat(parallelPositions.stream().map(p -> p.getMower().getId()).collect(toList()))
+                .isEqualTo(sequentialPositions.stream().map(p -> p.getMower().getId()).collect(toList()));
+    }
+
+    @Test
+    @Parameters({"1", "4"})
+    public void givenParallelism_whenStreamFinalPositions_thenSameResultsThanList(final int parallelism) {
+
+        // Given.
+        val service = new MowerServiceImpl(RandomFleetParams.of(5000, 10, parallelism));
+        service.init();
+        val results = new ArrayList<MowerResultDto>();
+
+        // When.
+        service.forEachFinalPosition(results::add);
+        val finalPositions = service.getFinalPositions();
+        service.destroy();
+
+        // Then.
+        results.sort(Comparator.comparing(MowerResultDto::getMowerId));
+        assertThat(results.stream().map(MowerResultDto::getMowerId).collect(toList()))
+                .isEqualTo(finalPositions.stream().map(p -> p.getMower().getId()).collect(toList()));
+        assertThat(results.stream().map(MowerResultDto::getPosition).collect(toList()))
+                .isEqualTo(finalPositions.stream().map(PositionFinalDto::getPosition).collect(toList()));
+    }
+
+    @Test
+    @Parameters({"1", "4"})
+    public void givenHandlerThatStops_whenStreamFinalPositions_thenNoMoreResult(final int parallelism) {
+
+        // Given.
+        val service = new MowerServiceImpl(RandomFleetParams.of(5000, 10, parallelism));
+        service.init();
+        val results = new ArrayList<MowerResultDto>();
+
+        // When.
+        service.forEachFinalPosition(result -> results.add(result) && results.size() < 10);
+        service.destroy();
+
+        // Then.
+        assertThat(results).hasSize(10);
+    }
+
+    @Test
+    @Parameters({"false, 2", "true, 1"})
+    public void givenCollision_whenComputeLastPositionOfMowers_thenMowerDoesNotMoveIntoOccupiedCell(final String collision,
+                                                                                                   final int expectedCoordinateY) {
+        // Given.
+        val params = RandomFleetParams.of(1, 1, 1);
+        params.setPosition("11N,10N");
+        params.setDirections("A,AA");
+        params.setCollision(collision);
+        val service = new MowerServiceImpl(params);
+        service.init();
+
+        // When.
+        val finalPositions = service.getFinalPositions();
+
+        // Then.
+        assertThat(finalPositions.get(0).getPosition()).isEqualTo(new Position(1, 2, Orientation.N));
+        assertThat(finalPositions.get(1).getPosition()).isEqualTo(new Position(1, expectedCoordinateY, Orientation.N));
+    }
+
+    @Test
+    @Parameters({"1", "3"})
+    public void givenCollisionAndParallelism_whenComputeLastPositionOfMowers_thenSameResultThanSequential(final int directionNumber) {
+
+        // Given.
+        val sequentialParams = RandomFleetParams.of(5000, directionNumber, 1);
+        val parallelParams = RandomFleetParams.of(5000, directionNumber, 4);
+        sequentialParams.setCollision("true");
+        parallelParams.setCollision("true");
+        val sequentialService = new MowerServiceImpl(sequentialParams);
+        val parallelService = new MowerServiceImpl(parallelParams);
+        sequentialService.init();
+        parallelService.init();
+
+        // When.
+        val sequentialPositions = sequentialService.getFinalPositions();
+        val parallelPositions = parallelService.getFinalPositions();
+        val streamedPositions = new ArrayList<MowerResultDto>();
+        parallelService.forEachFinalPosition(streamedPositions::add);
+        parallelService.destroy();
+
+        // Then.
+        assertThat(parallelPositions.stream().map(PositionFinalDto::getPosition).collect(toList()))
+                .isEqualTo(sequentialPositions.stream().map(PositionFinalDto::getPosition).collect(toList()));
+        assertThat(parallelPositions.stream().map(p -> p.getMower().getId()).collect(toList()))
+                .isEqualTo(sequentialPositions.stream().map(p -> p.getMower().getId()).collect(toList()));
+        assertThat(streamedPositions).hasSize(5000);
+        streamedPositions.forEach(result -> assertThat(result.getPosition()).isEqualTo(sequentialPositions.get(result.getMowerId()).getPosition()));
+    }
+
+    @Test
+    public void givenObstacles_whenComputeLastPositionOfMowers_thenMowerDoesNotMoveOnObstacle() throws IOException {
+
+        // Given.
+        val params = RandomFleetParams.of(1, 1, 1);
+        params.setPosition("12N,33E");
+        params.setDirections("AA,AA");
+        params.setGardenObstacles(writeObstacles("P1\n6 6\n000000\n000000\n010001\n000000\n000000\n000000\n"));
+        val service = new MowerServiceImpl(params);
+        service.init();
+
+        // When.
+        val finalPositions = service.getFinalPositions();
+
+        // Then.
+        assertThat(finalPositions.get(0).getPosition()).isEqualTo(new Position(1, 2, Orientation.N));
+        assertThat(finalPositions.get(1).getPosition()).isEqualTo(new Position(4, 3, Orientation.E));
+    }
+
+    @Test
+    @Parameters({"1", "2", "3"})
+    public void givenObstaclesAndLongDirections_whenComputeWithCompiledProgram_thenSameResultThanStepByStep(final long seed) throws IOException {
+
+        // Given.
+        val random = new Random(seed);
+        val directions = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            final int direction = random.nextInt(10);
+            directions.append(direction == 0 ? 'G' : direction == 1 ? 'D' : 'A');
+        }
+        val obstacles = new StringBuilder("P1\n200 200\n");
+        for (int row = 199; row >= 0; row--) {
+            for (int column = 0; column < 200; column++) {
+                final boolean flowerBed = column >= 60 && column < 80 && row >= 60 && row < 140;
+                final boolean outOfGarden = column + row > 320;
+                obstacles.append(flowerBed || outOfGarden ? '1' : '0');
+            }
+            obstacles.append('\n');
+        }
+        val obstacleFile = writeObstacles(obstacles.toString());
+
+        val compiledParams = RandomFleetParams.of(1, 1, 1);
+        compiledParams.setPosition("55N");
+        compiledParams.setDirections(directions.toString());
+        compiledParams.setGardenHorizontalLimitMax("199");
+        compiledParams.setGardenVerticalLimitMax("199");
+        compiledParams.setGardenObstacles(obstacleFile);
+        val stepByStepParams = RandomFleetParams.of(1, 1, 1);
+        stepByStepParams.setPosition(compiledParams.getPosition());
+        stepByStepParams.setDirections(compiledParams.getDirections());
+        stepByStepParams.setGardenHorizontalLimitMax("199");
+        stepByStepParams.setGardenVerticalLimitMax("199");
+        stepByStepParams.setGardenObstacles(obstacleFile);
+        stepByStepParams.setCollision("true");
+        val compiledService = new MowerServiceImpl(compiledParams);
+        val stepByStepService = new MowerServiceImpl(stepByStepParams);
+        compiledService.init();
+        stepByStepService.init();
+
+        // When.
+        val compiledPosition = compiledService.getFinalPositions().get(0).getPosition();
+        val stepByStepPosition = stepByStepService.getFinalPositions().get(0).getPosition();
+
+        // Then.
+        assertThat(compiledPosition).isEqualTo(stepByStepPosition);
+    }
+
+    @Test
+    @Parameters({"false", "true"})
+    public void givenRepeatDirections_whenComputeLastPositionOfMowers_thenSameResultThanExpandedDirections(final String collision) {
+
+        // Given.
+        val repeatParams = RandomFleetParams.of(1, 1, 1);
+        repeatParams.setPosition("12N,33E");
+        repeatParams.setDirections("(A3D)x1001G,A2(GA)x3");
+        repeatParams.setCollision(collision);
+        val expandedParams = RandomFleetParams.of(1, 1, 1);
+        expandedParams.setPosition(repeatParams.getPosition());
+        expandedParams.setDirections(String.join("", Collections.nCopies(1001, "AAAD")) + "G,AAGAGAGA");
+        expandedParams.setCollision(collision);
+        val repeatService = new MowerServiceImpl(repeatParams);
+        val expandedService = new MowerServiceImpl(expandedParams);
+        repeatService.init();
+        expandedService.init();
+
+        // When.
+        val repeatPositions = repeatService.getFinalPositions();
+        val expandedPositions = expandedService.getFinalPositions();
+
+        // Then.
+        assertThat(repeatPositions.get(0).getMower().getDirections()).hasSize(4005);
+        assertThat(repeatPositions.stream().map(PositionFinalDto::getPosition).collect(toList()))
+                .isEqualTo(expandedPositions.stream().map(PositionFinalDto::getPosition).collect(toList()));
+    }
+
+    @Test
+    public void givenObstacles_whenComputeCoverage_thenMowedCellsAndUnmowedRegionsAreFound() throws IOException {
+
+        // Given.
+        val params = RandomFleetParams.of(1, 1, 1);
+        params.setPosition("12N");
+        params.setDirections("AA");
+        params.setGardenObstacles(writeObstacles("P1\n6 6\n000000\n000000\n000000\n000000\n000000\n110000\n"));
+        val service = new MowerServiceImpl(params);
+        service.init();
+
+        // When.
+        val coverage = service.getCoverage();
+
+        // Then.
+        assertThat(coverage.getCellNumber()).isEqualTo(34L);
+        assertThat(coverage.getMowedCellNumber()).isEqualTo(3L);
+        assertThat(coverage.getPercentage()).isEqualTo(3 * 100.0 / 34);
+        assertThat(coverage.getUnmowedRegionNumber()).isEqualTo(5L);
+        assertThat(coverage.getUnmowedRegions()).containsExactly(
+                UnmowedRegionDto.builder().horizontalMin(2).horizontalMax(5).verticalMin(0).verticalMax(0).build(),
+                UnmowedRegionDto.builder().horizontalMin(0).horizontalMax(5).verticalMin(1).verticalMax(1).build(),
+                UnmowedRegionDto.builder().horizontalMin(0).horizontalMax(0).verticalMin(2).verticalMax(4).build(),
+                UnmowedRegionDto.builder().horizontalMin(2).horizontalMax(5).verticalMin(2).verticalMax(4).build(),
+                UnmowedRegionDto.builder().horizontalMin(0).horizontalMax(5).verticalMin(5).verticalMax(5).build());
+    }
+
+    @Test
+    public void givenParallelism_whenComputeCoverage_thenSameCoverageThanSequential() {
+
+        // Given.
+        val sequentialParams = RandomFleetParams.of(5000, 10, 1);
+        val parallelParams = RandomFleetParams.of(5000, 10, 4);
+        sequentialParams.setGardenHorizontalLimitMax("199");
+        sequentialParams.setGardenVerticalLimitMax("199");
+        parallelParams.setGardenHorizontalLimitMax("199");
+        parallelParams.setGardenVerticalLimitMax("199");
+        val sequentialService = new MowerServiceImpl(sequentialParams);
+        val parallelService = new MowerServiceImpl(parallelParams);
+        sequentialService.init();
+        parallelService.init();
+
+        // When.
+        val sequentialCoverage = sequentialService.getCoverage();
+        val parallelCoverage = parallelService.getCoverage();
+
+        // Then.
+        assertThat(sequentialCoverage.getMowedCellNumber()).isGreaterThan(0L).isLessThan(40000L);
+        assertThat(parallelCoverage.getMowedCellNumber()).isEqualTo(sequentialCoverage.getMowedCellNumber());
+        assertThat(parallelCoverage.getUnmowedRegions()).isEqualTo(sequentialCoverage.getUnmowedRegions());
+    }
+
+    @Test
+    @Parameters(method = "parametersForMetrics")
+    public void givenDirections_whenComputeLastPositionOfMowers_thenMetricsAreRecorded(final String directions,
+                                                                                      final long expectedCommandCount,
+                                                                                      final long expectedRejectedMoveCount) {
+        // Given.
+        val params = RandomFleetParams.of(1, 1, 1);
+        params.setPosition("12N");
+        params.setDirections(directions);
+        val metrics = new SimulationMetrics();
+        val service = new MowerServiceImpl(params, metrics);
+        service.init();
+
+        // When.
+        service.getFinalPositions();
+
+        // Then.
+        assertThat(metrics.getFleetSize()).isEqualTo(1);
+        assertThat(metrics.getParseCount()).isEqualTo(1L);
+        assertThat(metrics.getSimulatedMowerCount()).isEqualTo(1L);
+        assertThat(metrics.getCommandCount()).isEqualTo(expectedCommandCount);
+        assertThat(metrics.getRejectedMoveCount()).isEqualTo(expectedRejectedMoveCount);
+        assertThat(metrics.getMowerLatency().count()).isEqualTo(1L);
+    }
+
+    @Test
+    public void givenParallelism_whenComputeLastPositionOfMowers_thenSameMetricsThanSequential() {
+
+        // Given.
+        val sequentialMetrics = new SimulationMetrics();
+        val parallelMetrics = new SimulationMetrics();
+        val sequentialService = new MowerServiceImpl(RandomFleetParams.of(20000, 10, 1), sequentialMetrics);
+        val parallelService = new MowerServiceImpl(RandomFleetParams.of(20000, 10, 4), parallelMetrics);
+        sequentialService.init();
+        parallelService.init();
+
+        // When.
+        sequentialService.getFinalPositions();
+        parallelService.getFinalPositions();
+
+        // Then.
+        assertThat(parallelMetrics.getSimulatedMowerCount()).isEqualTo(20000L);
+        assertThat(parallelMetrics.getCommandCount()).isEqualTo(sequentialMetrics.getCommandCount());
+        assertThat(parallelMetrics.getRejectedMoveCount()).isEqualTo(sequentialMetrics.getRejectedMoveCount()).isGreaterThan(0L);
+        assertThat(parallelMetrics.getMowerLatency().count()).isEqualTo(20000L / SimulationMetrics.LATENCY_SAMPLING);
+    }
+
+    @Test
+    @Parameters({"true", "false"})
+    public void givenAppendedDirections_whenComputeLastPositionOfMowers_thenSameResultThanAllDirectionsAtOnce(final String continuation) {
+
+        // Given.
+        val random = new Random(continuation.length());
+        val directions = new StringBuilder();
+        for (int i = 0; i < 5100; i++) {
+            final int direction = random.nextInt(10);
+            directions.append(direction == 0 ? 'G' : direction == 1 ? 'D' : 'A');
+        }
+        val appendedParams = RandomFleetParams.of(1, 1, 1);
+        appendedParams.setPosition("22N");
+        appendedParams.setDirections(directions.substring(0, 5000));
+        appendedParams.setContinuation(continuation);
+        val allParams = RandomFleetParams.of(1, 1, 1);
+        allParams.setPosition("22N");
+        allParams.setDirections(directions.toString());
+        val metrics = new SimulationMetrics();
+        val appendedService = new MowerServiceImpl(appendedParams, metrics);
+        val allService = new MowerServiceImpl(allParams);
+        appendedService.init();
+        allService.init();
+        appendedService.getFinalPositions();
+
+        // When.
+        val appendedPosition = appendedService.appendDirections(0, directions.substring(5000, 5050)).getPosition();
+        appendedService.appendDirections(0, directions.substring(5050));
+        val finalPositions = appendedService.getFinalPositions();
+
+        // Then.
+        assertThat(appendedPosition).isNotNull();
+        assertThat(finalPositions.get(0).getPosition()).isEqualTo(allService.getFinalPositions().get(0).getPosition());
+        assertThat(finalPositions.get(0).getMower().getDirections()).hasSize(5100);
+        assertThat(metrics.getCommandCount()).isEqualTo(Boolean.parseBoolean(continuation) ? 5100L : 5000L + 5050L + 5100L + 5100L);
+    }
+
+    @Test
+    public void givenCollisionAndContinuation_whenAppendDirections_thenNextMowersAreComputedAgain() {
+
+        // Given.
+        val params = RandomFleetParams.of(1, 1, 1);
+        params.setPosition("11N,10N");
+        params.setDirections("A,AA");
+        params.setCollision("true");
+        params.setContinuation("true");
+        val service = new MowerServiceImpl(params);
+        service.init();
+        service.getFinalPositions();
+
+        // When.
+        val appendedPosition = service.appendDirections(0, "A");
+        val finalPositions = service.getFinalPositions();
+
+        // Then.
+        assertThat(appendedPosition.getPosition()).isEqualTo(new Position(1, 3, Orientation.N));
+        assertThat(finalPositions.get(0).getPosition()).isEqualTo(new Position(1, 3, Orientation.N));
+        assertThat(finalPositions.get(1).getPosition()).isEqualTo(new Position(1, 2, Orientation.N));
+    }
+
+    @Test
+    @Parameters({"true, 8", "false, 10"})
+    public void givenCollision_whenAppendDirections_thenOnlyAppendedMowerIsRecorded(final String continuation,
+                                                                                   final long expectedCommandCount) {
+        // Given.
+        val params = RandomFleetParams.of(1, 1, 1);
+        params.setPosition("11N,33E,55S");
+        params.setDirections("AA,GA,DA");
+        params.setCollision("true");
+        params.setContinuation(continuation);
+        val metrics = new SimulationMetrics();
+        val service = new MowerServiceImpl(params, metrics);
+        service.init();
+        val expectedPosition = service.getFinalPositions().get(1).getPosition();
+
+        // When.
+        service.appendDirections(2, "AG");
+
+        // Then.
+        assertThat(metrics.getSimulatedMowerCount()).isEqualTo(4L);
+        assertThat(metrics.getCommandCount()).isEqualTo(expectedCommandCount);
+        assertThat(metrics.getMowerLatency().count()).isEqualTo(1L);
+        assertThat(service.getFinalPositions().get(1).getPosition()).isEqualTo(expectedPosition);
+    }
+
+    @Test
+    public void givenContinuation_whenUpdateGarden_thenMowersAreComputedAgain() {
+
+        // Given.
+        val params = RandomFleetParams.of(1, 1, 1);
+        params.setPosition("12N");
+        params.setDirections("AAAAA");
+        params.setContinuation("true");
+        val service = new MowerServiceImpl(params);
+        service.init();
+        service.getFinalPositions();
+
+        // When.
+        service.updateGarden(new Garden(0, 5, 0, 3));
+        val finalPositions = service.getFinalPositions();
+
+        // Then.
+        assertThat(finalPositions.get(0).getPosition()).isEqualTo(new Position(1, 3, Orientation.N));
+        assertThat(service.isInGarden(new Position(1, 4, Orientation.N))).isFalse();
+    }
+
+    @Test
+    @Parameters({"1, false", "4, false", "1, true"})
+    public void givenOffHeap_whenStreamFinalPositions_thenSameResultsThanHeapFleet(final int parallelism, final String collision) throws IOException {
+
+        // Given.
+        val inputFile = writeInputFile(70000, 10);
+        val heapParams = RandomFleetParams.of(1, 1, parallelism);
+        heapParams.setInputFile(inputFile);
+        heapParams.setCollision(collision);
+        val offHeapParams = RandomFleetParams.of(1, 1, parallelism);
+        offHeapParams.setInputFile(inputFile);
+        offHeapParams.setCollision(collision);
+        offHeapParams.setOffHeap("true");
+        val metrics = new SimulationMetrics();
+        val heapService = new MowerServiceImpl(heapParams);
+        val offHeapService = new MowerServiceImpl(offHeapParams, metrics);
+        heapService.init();
+        offHeapService.init();
+        val results = new ArrayList<MowerResultDto>();
+
+        // When.
+        val heapPositions = heapService.getFinalPositions();
+        offHeapService.forEachFinalPosition(results::add);
+        val offHeapPositions = offHeapService.getFinalPositions();
+        heapService.destroy();
+        offHeapService.destroy();
+
+        // Then.
+        assertThat(results.stream().map(MowerResultDto::getMowerId).collect(toList()))
+                .isEqualTo(heapPositions.stream().map(p -> p.getMower().getId()).collect(toList()));
+        assertThat(results.stream().map(MowerResultDto::getPosition).collect(toList()))
+                .isEqualTo(heapPositions.stream().map(PositionFinalDto::getPosition).collect(toList()));
+        assertThat(offHeapPositions.stream().map(PositionFinalDto::getPosition).collect(toList()))
+                .isEqualTo(heapPositions.stream().map(PositionFinalDto::getPosition).collect(toList()));
+        assertThat(offHeapPositions.get(69999).getMower().getDirections()).isEqualTo(heapPositions.get(69999).getMower().getDirections());
+        assertThat(metrics.getCommandCount()).isEqualTo(2 * 70000L * 10);
+    }
+
     @Test
     @Parameters(method = "parametersCheckIntoGarden")
     public void givenPosition_whenCheckIntoGarden_thenReturnExpectedResult(final Integer coordinateX,
@@ -82,4 +556,26 @@ public class MowerServiceTest extends AbstractTest {
         // Then.
         assertThat(isIntoGarden).isEqualTo(expectedResult);
     }
+
+    private String writeInputFile(final int mowerNumber, final int directionNumber) throws IOException {
+        val random = new Random(mowerNumber);
+        val content = new StringBuilder("5 5\n");
+        for (int i = 0; i < mowerNumber; i++) {
+            content.append(random.nextInt(6)).append(' ').append(random.nextInt(6)).append(' ')
+                    .append(Orientation.values()[random.nextInt(4)]).append('\n');
+            for (int d = 0; d < directionNumber; d++) {
+                content.append("GDA".charAt(random.nextInt(3)));
+            }
+            content.append('\n');
+        }
+        val file = temporaryFolder.newFile().toPath();
+        Files.write(file, content.toString().getBytes(StandardCharsets.US_ASCII));
+        return file.toString();
+    }
+
+    private String writeObstacles(final String content) throws IOException {
+        val file = temporaryFolder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file.toString();
+    }
 }